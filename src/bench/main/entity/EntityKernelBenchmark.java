@@ -0,0 +1,114 @@
+package main.entity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Times the scalar and vector kernels of {@link EntitySystems} on 1k, 10k
+ * and 100k bullets. Usage: {@code java --add-modules jdk.incubator.vector
+ * main.entity.EntityKernelBenchmark}; without the module or the src/vector
+ * kernels only the scalar kernels are timed.
+ */
+public final class EntityKernelBenchmark {
+
+    private static final int[] SIZES = { 1_000, 10_000, 100_000 };
+    private static final int WIDTH = 448;
+    private static final int HEIGHT = 520;
+    /** Bullets processed per batch, so small sizes are timed over many calls. */
+    private static final int BATCH = 2_000_000;
+    private static final int WARMUP_BATCHES = 20;
+    private static final int BATCHES = 15;
+
+    private EntityKernelBenchmark() {
+    }
+
+    /** Columns of a crowd of bullets. */
+    private static final class Bullets {
+        final int[] x;
+        final int[] y;
+        final int[] width;
+        final int[] height;
+        final int[] speedX;
+        final int[] speedY;
+        final boolean[] marks;
+
+        Bullets(final int size, final long seed) {
+            SplittableRandom random = new SplittableRandom(seed);
+            x = random.ints(size, 0, WIDTH).toArray();
+            y = random.ints(size, 0, HEIGHT).toArray();
+            width = random.ints(size, 3, 7).toArray();
+            height = random.ints(size, 5, 11).toArray();
+            speedX = random.ints(size, -2, 3).toArray();
+            speedY = random.ints(size, -6, 7).toArray();
+            marks = new boolean[size];
+        }
+    }
+
+    /** Operation timed. */
+    private interface Kernel {
+        void run(EntityKernels kernels, Bullets bullets, int size);
+    }
+
+    public static void main(final String[] args) {
+        List<EntityKernels> kernels = new ArrayList<EntityKernels>();
+        kernels.add(new ScalarKernels());
+        EntityKernels vector = EntitySystems.vectorKernels();
+        if (vector != null)
+            kernels.add(vector);
+        else
+            System.out.println("Vector kernels not available, compile src/vector and start with"
+                    + " --add-modules jdk.incubator.vector to compare.");
+
+        String[] names = { "move", "cull", "overlap" };
+        Kernel[] operations = {
+            (k, b, n) -> k.move(b.x, b.y, b.speedX, b.speedY, n),
+            (k, b, n) -> k.markOutside(b.y, n, 68, HEIGHT, b.marks),
+            (k, b, n) -> k.markOverlaps(b.x, b.y, b.width, b.height, n, WIDTH / 2, HEIGHT - 40, 13, 8, b.marks),
+        };
+
+        System.out.println("Kernel   Bullets  " + String.join("  ", kernelNames(kernels)) + "  (ns per bullet)");
+        for (int op = 0; op < operations.length; op++) {
+            for (int size : SIZES) {
+                StringBuilder line = new StringBuilder(String.format("%-7s %8d", names[op], size));
+                double scalar = 0;
+                for (EntityKernels k : kernels) {
+                    double ns = time(operations[op], k, new Bullets(size, size), size);
+                    if (k instanceof ScalarKernels)
+                        scalar = ns;
+                    line.append(String.format("  %8.3f", ns));
+                    if (!(k instanceof ScalarKernels))
+                        line.append(String.format(" (%.1fx)", scalar / ns));
+                }
+                System.out.println(line);
+            }
+        }
+    }
+
+    private static List<String> kernelNames(final List<EntityKernels> kernels) {
+        List<String> names = new ArrayList<String>();
+        for (EntityKernels k : kernels)
+            names.add(String.format("%8s", k instanceof ScalarKernels ? "scalar" : "vector"));
+        return names;
+    }
+
+    /**
+     * @return Median nanoseconds per bullet over the timed batches.
+     */
+    private static double time(final Kernel kernel, final EntityKernels kernels, final Bullets bullets,
+                               final int size) {
+        int calls = Math.max(1, BATCH / size);
+        double[] samples = new double[BATCHES];
+        for (int batch = -WARMUP_BATCHES; batch < BATCHES; batch++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < calls; i++)
+                kernel.run(kernels, bullets, size);
+            long elapsed = System.nanoTime() - start;
+            if (batch >= 0)
+                samples[batch] = (double) elapsed / ((long) calls * size);
+        }
+        Arrays.sort(samples);
+        return samples[BATCHES / 2];
+    }
+}
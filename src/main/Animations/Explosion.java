@@ -1,20 +1,19 @@
 package main.Animations;
 
 import java.awt.*;
-import java.util.Random;
+
+import main.engine.RandomService;
+import main.engine.RandomStream;
 
 public class Explosion {
 
-    private static final int NUM_PARTICLES = 40;
     private Particle[] particles;
     private boolean active;
     private boolean enemy;
     private int size;
 
-    private static final Random random = new Random();
-
-    public Explosion(double startX, double startY, boolean enemy, boolean finalExplosion) {
-        this.particles = new Particle[NUM_PARTICLES];
+    public Explosion(double startX, double startY, boolean enemy, boolean finalExplosion, int numParticles) {
+        this.particles = new Particle[numParticles];
         this.active = true;
         this.enemy = enemy;
         if(finalExplosion)
@@ -22,7 +21,8 @@ public class Explosion {
         else
             this.size = 4;
 
-        for (int i = 0; i < NUM_PARTICLES; i++) {
+        RandomStream random = RandomService.cosmetic();
+        for (int i = 0; i < numParticles; i++) {
             double angle = 2 * Math.PI * random.nextDouble();
             double speed = 2 + random.nextDouble() * 2;
             double dx = Math.cos(angle) * speed;
@@ -1,12 +1,11 @@
 package main.Animations;
 
 import java.awt.*;
-import java.util.Random;
+import main.engine.RandomService;
 
 public class MenuSpace {
 
     public final Star[] stars;
-    private final Random rand = new Random();
     private int[][] positions;
     private int numStars;
     private Color color;
@@ -22,7 +21,7 @@ public class MenuSpace {
 
         for (int i = 0; i < this.numStars; i++) {
 
-            stars[i] = new Star(rand.nextInt(0,448), rand.nextInt(0, 520));
+            stars[i] = new Star(RandomService.cosmetic().nextInt(0,448), RandomService.cosmetic().nextInt(0, 520));
             positions[i][0] = stars[i].x;
             positions[i][1] = stars[i].y;
         }
@@ -4,16 +4,20 @@ package main.engine;
  * Represents a single achievement with name, description, and unlock state.
  */
 public class Achievement {
+    /** Stable identifier, independent of the displayed name. */
+    private final String id;
     private final String name;
     private final String description;
     private boolean unlocked;
 
-    public Achievement(String name, String description) {
+    public Achievement(String id, String name, String description) {
+        this.id = id;
         this.name = name;
         this.description = description;
         this.unlocked = false;
     }
 
+    public String getId() { return id; }
     public String getName() { return name; }
     public String getDescription() { return description; }
     public boolean isUnlocked() { return unlocked; }
@@ -0,0 +1,19 @@
+package main.engine;
+
+/**
+ * Game counters that achievement rules can depend on.
+ */
+public enum AchievementCounter {
+    /** Enemy ships destroyed in the game. */
+    SHIPS_DESTROYED,
+    /** Bullets fired by the player in the game. */
+    BULLETS_SHOT,
+    /** Current score. */
+    SCORE,
+    /** Items picked up in the game. */
+    ITEMS_COLLECTED,
+    /** Number of the last level cleared. */
+    LEVEL_CLEARED,
+    /** Number of the last level cleared without taking damage. */
+    FLAWLESS_LEVEL_CLEARED
+}
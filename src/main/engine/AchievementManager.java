@@ -2,48 +2,95 @@ package main.engine;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.LinkedList;
+import java.util.Map;
 import java.util.Queue;
 
+import static main.engine.AchievementCounter.*;
+
 
 /**
  * Manages the list of achievements for a player,
  * including loading from and saving to the FileManager.
+ * Achievements unlock through rules over game counters. Setting a counter
+ * only evaluates the rules that depend on it, and unlocked rules are
+ * dropped, so counters nothing depends on anymore cost a comparison.
  */
 public class AchievementManager {
     private static final java.util.logging.Logger logger = Core.getLogger();
+    /** Level whose clear counts as finishing the campaign. */
+    private static final int CAMPAIGN_LAST_LEVEL = 5;
 
     private List<Achievement> achievements;
+    /** Rules by achievement identifier. */
+    private final Map<String, AchievementRule> rulesById = new HashMap<>();
+    /** Locked rules by the counters that trigger them. */
+    private final Map<AchievementCounter, List<AchievementRule>> pendingRules = new EnumMap<>(AchievementCounter.class);
+    /** Current counter values. */
+    private final long[] counters = new long[AchievementCounter.values().length];
 
     private  static AchievementManager instance;
 
     public AchievementManager() {
-        this.achievements = createDefaultAchievements();
-    }
-
-    /** Defines the default achievements available in the game. */
-    private List<Achievement> createDefaultAchievements() {
-        List<Achievement> list = new ArrayList<>();
-        list.add(new Achievement("First Blood", "Defeat your first enemy."));
-        list.add(new Achievement("Survivor", "Clear a round without losing a life."));
-        list.add(new Achievement("Clear", "Clear 5 levels."));
-        list.add(new Achievement("Sharpshooter", "Record an accuracy of more than 80 percent"));
-        list.add(new Achievement("50 Bullets", "Fire 50 Bullets."));
-        list.add(new Achievement("Get 3000 Score", "Get more than 3,000 points"));
+        setUpRules();
+    }
+
+    /**
+     * Defines the default achievements available in the game. The order is
+     * the order of the columns of the achievement file.
+     */
+    private List<AchievementRule> createDefaultRules() {
+        List<AchievementRule> list = new ArrayList<>();
+        list.add(AchievementRule.atLeast(new Achievement("first_blood", "First Blood", "Defeat your first enemy."),
+                SHIPS_DESTROYED, 1));
+        list.add(new AchievementRule(new Achievement("survivor", "Survivor", "Clear a round without losing a life."),
+                m -> m.getCounter(FLAWLESS_LEVEL_CLEARED) == CAMPAIGN_LAST_LEVEL, FLAWLESS_LEVEL_CLEARED));
+        list.add(new AchievementRule(new Achievement("clear", "Clear", "Clear 5 levels."),
+                m -> m.getCounter(LEVEL_CLEARED) == CAMPAIGN_LAST_LEVEL, LEVEL_CLEARED));
+        // Accuracy is judged when the campaign is cleared.
+        list.add(new AchievementRule(new Achievement("sharpshooter", "Sharpshooter", "Record an accuracy of more than 80 percent"),
+                m -> m.getCounter(LEVEL_CLEARED) == CAMPAIGN_LAST_LEVEL && m.getCounter(BULLETS_SHOT) > 0
+                        && m.getCounter(SHIPS_DESTROYED) * 100 >= m.getCounter(BULLETS_SHOT) * 80,
+                LEVEL_CLEARED));
+        list.add(AchievementRule.atLeast(new Achievement("bullets_50", "50 Bullets", "Fire 50 Bullets."),
+                BULLETS_SHOT, 50));
+        list.add(AchievementRule.atLeast(new Achievement("score_3000", "Get 3000 Score", "Get more than 3,000 points"),
+                SCORE, 3000));
         return list;
     }
 
+    /**
+     * Creates the achievements, all locked, and subscribes their rules.
+     */
+    private void setUpRules() {
+        List<AchievementRule> rules = createDefaultRules();
+        this.achievements = new ArrayList<>(rules.size());
+        rulesById.clear();
+        pendingRules.clear();
+        for (AchievementCounter counter : AchievementCounter.values())
+            pendingRules.put(counter, new ArrayList<>());
+        for (AchievementRule rule : rules) {
+            achievements.add(rule.getAchievement());
+            rulesById.put(rule.getAchievement().getId(), rule);
+            for (AchievementCounter trigger : rule.getTriggers())
+                pendingRules.get(trigger).add(rule);
+        }
+    }
+
     /**
      * Loads the achievements from FileManager using a boolean list
      * and converts them into Achievement objects.
      */
     public void loadFromBooleans(String userName) throws IOException {
         List<Boolean> flags = FileManager.getInstance().searchAchievementsByName(userName);
-        this.achievements = createDefaultAchievements();
+        setUpRules();
         for (int i = 0; i < flags.size() && i < achievements.size(); i++) {
             if (flags.get(i)) {
                 achievements.get(i).unlock();
+                retire(rulesById.get(achievements.get(i).getId()));
             }
         }
     }
@@ -65,17 +112,60 @@ public class AchievementManager {
         return achievements;
     }
 
-    /** Unlocks the achievement by name. */
-    public void unlock(String name) {
-        for (Achievement a : achievements) {
-            if (a.getName().equals(name) && !a.isUnlocked()) {
-                a.unlock();
-                SoundManager.playOnce("sound/achievement.wav");
-                logger.info("Achievement unlocked: " + a);
-                toastQueue.offer(new Toast(a, TOAST_DURATION_MS));
-            }
+    /**
+     * Updates a counter and evaluates the locked rules depending on it, if
+     * its value changed.
+     *
+     * @param counter
+     *            Counter to update.
+     * @param value
+     *            New value.
+     */
+    public void setCounter(AchievementCounter counter, long value) {
+        if (counters[counter.ordinal()] == value)
+            return;
+        counters[counter.ordinal()] = value;
+        List<AchievementRule> rules = pendingRules.get(counter);
+        int i = 0;
+        while (i < rules.size()) {
+            AchievementRule rule = rules.get(i);
+            if (rule.test(this))
+                unlock(rule); // also drops it from this list
+            else
+                i++;
         }
     }
+
+    /**
+     * @param counter
+     *            Counter to read.
+     * @return Current value of the counter.
+     */
+    public long getCounter(AchievementCounter counter) {
+        return counters[counter.ordinal()];
+    }
+
+    /** Unlocks the achievement by identifier. */
+    public void unlock(String id) {
+        AchievementRule rule = rulesById.get(id);
+        if (rule != null && !rule.getAchievement().isUnlocked())
+            unlock(rule);
+    }
+
+    private void unlock(AchievementRule rule) {
+        Achievement a = rule.getAchievement();
+        a.unlock();
+        retire(rule);
+        SoundManager.playOnce("sound/achievement.wav");
+        logger.info("Achievement unlocked: " + a);
+        toastQueue.offer(new Toast(a, TOAST_DURATION_MS));
+    }
+
+    /** Stops evaluating a rule. */
+    private void retire(AchievementRule rule) {
+        for (AchievementCounter trigger : rule.getTriggers())
+            pendingRules.get(trigger).remove(rule);
+    }
     private final Queue<Toast> toastQueue = new LinkedList<>();
     private Toast activeToast = null;
     private static final int TOAST_DURATION_MS = 3000;
@@ -0,0 +1,64 @@
+package main.engine;
+
+import java.util.function.Predicate;
+
+/**
+ * Condition unlocking an achievement. A rule is only evaluated when one of
+ * the counters it is triggered by changes, and is dropped once its
+ * achievement is unlocked.
+ */
+public final class AchievementRule {
+
+    /** Achievement unlocked by the rule. */
+    private final Achievement achievement;
+    /** Counters whose changes trigger an evaluation. */
+    private final AchievementCounter[] triggers;
+    /** Condition over the counters of the achievement manager. */
+    private final Predicate<AchievementManager> condition;
+
+    /**
+     * Constructor.
+     *
+     * @param achievement
+     *            Achievement unlocked by the rule.
+     * @param condition
+     *            Condition over the counters, read with
+     *            {@link AchievementManager#getCounter(AchievementCounter)}.
+     * @param triggers
+     *            Counters whose changes trigger an evaluation.
+     */
+    public AchievementRule(final Achievement achievement, final Predicate<AchievementManager> condition,
+                           final AchievementCounter... triggers) {
+        this.achievement = achievement;
+        this.condition = condition;
+        this.triggers = triggers.clone();
+    }
+
+    /**
+     * Creates a rule unlocking once a counter reaches a threshold.
+     *
+     * @param achievement
+     *            Achievement unlocked by the rule.
+     * @param counter
+     *            Counter to watch.
+     * @param threshold
+     *            Value to reach.
+     * @return New rule.
+     */
+    public static AchievementRule atLeast(final Achievement achievement, final AchievementCounter counter,
+                                          final long threshold) {
+        return new AchievementRule(achievement, manager -> manager.getCounter(counter) >= threshold, counter);
+    }
+
+    public Achievement getAchievement() {
+        return achievement;
+    }
+
+    AchievementCounter[] getTriggers() {
+        return triggers;
+    }
+
+    boolean test(final AchievementManager manager) {
+        return condition.test(manager);
+    }
+}
@@ -0,0 +1,172 @@
+package main.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+import main.engine.upgrade.ShipUpgradeManager;
+
+/**
+ * Staged startup pipeline. Independent assets are loaded concurrently on the
+ * background executor; the title screen only waits for the sprites and fonts,
+ * everything else keeps warming up while the menu is already visible.
+ */
+public final class AssetLoader {
+
+    /** Sound effects decoded ahead of time so the first play does not stall. */
+    private static final String[] SOUND_EFFECTS = {
+            "sound/shoot.wav", "sound/shoot_enemies.wav", "sound/explosion.wav",
+            "sound/invaderkilled.wav", "sound/hover.wav", "sound/select.wav",
+            "sound/achievement.wav", "sound/CountDownSound.wav", "sound/win.wav",
+            "sound/lose.wav", "sound/special_ship_sound.wav", "sound/menu_sound.wav"
+    };
+
+    /** Application logger. */
+    private static final Logger logger = Core.getLogger();
+    /** Finished phases, in completion order. */
+    private static final List<String> report = new ArrayList<>();
+
+    /** Time the pipeline was started, in nanoseconds. */
+    private static long startNanos;
+    /** Sprites and fonts, required by every screen. */
+    private static CompletableFuture<DrawManager> drawAssets;
+    /** Stage index of level.csv. */
+    private static CompletableFuture<LevelLoader> levelData;
+    /** Every phase, completed once the whole pipeline is done. */
+    private static CompletableFuture<Void> all;
+
+    /**
+     * Constructor, not called.
+     */
+    private AssetLoader() {
+
+    }
+
+    /**
+     * Starts loading every asset in the background. Returns immediately.
+     */
+    public static synchronized void start() {
+        if (all != null)
+            return;
+        startNanos = System.nanoTime();
+
+        drawAssets = phase("sprites and fonts", DrawManager::getInstance);
+        levelData = phase("level index", LevelLoader::getInstance);
+        CompletableFuture<ShipUpgradeManager> upgrades =
+                phase("ship upgrades", ShipUpgradeManager::getInstance);
+        CompletableFuture<ItemManager> items = phase("item database", ItemManager::getInstance);
+        CompletableFuture<Integer> sounds = phase("audio decode", () -> {
+            int decoded = 0;
+            for (String path : SOUND_EFFECTS) {
+                if (SoundManager.preload(path))
+                    decoded++;
+            }
+            return decoded;
+        });
+        CompletableFuture<Integer> raster = drawAssets.thenApplyAsync(
+                drawManager -> timed("sprite rasterization", drawManager::warmUp),
+                Core.getBackgroundExecutor());
+
+        all = CompletableFuture.allOf(drawAssets, levelData, upgrades, items, sounds, raster);
+        all.whenComplete((ignored, error) -> logReport(error));
+    }
+
+    /**
+     * Blocks until the assets needed by the title screen are ready.
+     *
+     * @return Loaded draw manager.
+     */
+    public static DrawManager awaitTitleAssets() {
+        DrawManager drawManager = await(drawAssets);
+        logger.info("Title assets ready after " + elapsedMillis() + " ms.");
+        return drawManager;
+    }
+
+    /**
+     * Blocks until level.csv has been indexed.
+     *
+     * @return Level loader.
+     */
+    public static LevelLoader awaitLevelData() {
+        return await(levelData);
+    }
+
+    /**
+     * Runs a loading phase on the background executor.
+     *
+     * @param name
+     *            Name of the phase, used in the timing report.
+     * @param loader
+     *            Loading work.
+     * @return Future result of the phase.
+     */
+    private static <T> CompletableFuture<T> phase(final String name, final Supplier<T> loader) {
+        return CompletableFuture.supplyAsync(() -> timed(name, loader), Core.getBackgroundExecutor());
+    }
+
+    /**
+     * Runs and times a loading phase on the current thread.
+     *
+     * @param name
+     *            Name of the phase, used in the timing report.
+     * @param loader
+     *            Loading work.
+     * @return Result of the phase.
+     */
+    private static <T> T timed(final String name, final Supplier<T> loader) {
+        long begin = System.nanoTime();
+        T result = loader.get();
+        long end = System.nanoTime();
+        synchronized (report) {
+            report.add(String.format("  %-22s start %5d ms, took %5d ms (%s)", name,
+                    (begin - startNanos) / 1_000_000, (end - begin) / 1_000_000,
+                    Thread.currentThread().getName()));
+        }
+        return result;
+    }
+
+    /**
+     * Waits for a phase, rethrowing its failure unwrapped.
+     *
+     * @param future
+     *            Phase to wait for.
+     * @return Result of the phase.
+     */
+    private static <T> T await(final CompletableFuture<T> future) {
+        if (future == null)
+            throw new IllegalStateException("Asset loading has not been started.");
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime)
+                throw runtime;
+            throw e;
+        }
+    }
+
+    /**
+     * Logs the per-phase startup timings.
+     *
+     * @param error
+     *            Failure of any phase, or null.
+     */
+    private static void logReport(final Throwable error) {
+        StringBuilder sb = new StringBuilder("Startup finished in " + elapsedMillis() + " ms");
+        sb.append(error == null ? ":" : " with errors (" + error.getMessage() + "):");
+        synchronized (report) {
+            for (String line : report)
+                sb.append(System.lineSeparator()).append(line);
+        }
+        logger.info(sb.toString());
+    }
+
+    /**
+     * @return Milliseconds since the pipeline was started.
+     */
+    private static long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,190 @@
+package main.engine;
+
+import java.awt.event.KeyEvent;
+
+import main.entity.Boss;
+import main.entity.Bullet;
+import main.entity.Enemy.EnemyShip;
+import main.entity.Enemy.EnemyShipFormation;
+import main.entity.Enemy.EnemySwarm;
+import main.entity.Entity;
+import main.entity.Player.PlayerShip;
+import main.screen.GameScreen;
+
+/**
+ * Plays the game of the current session without a player, for balance
+ * simulations. It keeps firing, which also takes the first augment offered,
+ * dodges the enemy bullets about to reach the ship and otherwise lines the
+ * ship up under the nearest enemy.
+ */
+final class Autopilot implements InputSource {
+
+    /** Ticks ahead an enemy bullet is dodged. */
+    private static final int LOOKAHEAD = 45;
+    /** Ticks of movement a dodge is planned for. */
+    private static final int DODGE_TICKS = 12;
+    /** Pixels kept between a bullet and the ship. */
+    private static final int MARGIN = 4;
+
+    /** Keys of player 1, left and right. */
+    private final int leftKey;
+    private final int rightKey;
+    /** Ticks after which the game is given up, see {@link #nextTick}. */
+    private final long maxTicks;
+
+    /** Ticks played so far. */
+    private long tick;
+    /** Direction held, -1 left, 0 none, 1 right. */
+    private int held;
+    /** If the fire key is held. */
+    private boolean firing;
+
+    /**
+     * Constructor.
+     *
+     * @param maxTicks
+     *            Ticks after which the game is given up.
+     */
+    Autopilot(final long maxTicks) {
+        int[] keys = Core.getInputManager().getPlayer1Keys();
+        this.leftKey = keys[0];
+        this.rightKey = keys[1];
+        this.maxTicks = maxTicks;
+    }
+
+    /**
+     * Applies the keys for the next tick.
+     *
+     * @param input
+     *            Input manager to apply them to.
+     * @return Number of events applied.
+     * @throws IllegalStateException
+     *             If the game is still going after the maximum ticks.
+     */
+    @Override
+    public int nextTick(final InputManager input) {
+        if (++tick > maxTicks)
+            throw new IllegalStateException("The autopilot gave up after " + maxTicks + " ticks.");
+        int count = 0;
+        if (!firing) {
+            input.applyEvent(InputEventQueue.KEY_PRESSED, KeyEvent.VK_SPACE);
+            firing = true;
+            count++;
+        }
+        GameScreen screen = GameSession.current().gameScreen;
+        int direction = screen == null || screen.getPlayerShip() == null ? 0 : steer(screen);
+        if (direction != held) {
+            if (held != 0) {
+                input.applyEvent(InputEventQueue.KEY_RELEASED, held < 0 ? leftKey : rightKey);
+                count++;
+            }
+            if (direction != 0) {
+                input.applyEvent(InputEventQueue.KEY_PRESSED, direction < 0 ? leftKey : rightKey);
+                count++;
+            }
+            held = direction;
+        }
+        return count;
+    }
+
+    /**
+     * @return Ticks played so far.
+     */
+    long getTick() {
+        return tick;
+    }
+
+    /**
+     * Picks the direction to move in this tick.
+     *
+     * @param screen
+     *            Screen of the game.
+     * @return -1 for left, 0 to stay, 1 for right.
+     */
+    private int steer(final GameScreen screen) {
+        PlayerShip ship = screen.getPlayerShip();
+        int x = ship.getPositionX();
+        int step = Math.max(1, Math.round(ship.getStats().getMoveSpeed())) * DODGE_TICKS;
+        int danger = danger(screen, ship, x);
+        int target = target(screen);
+        int toTarget = target < 0 ? 0 : Integer.signum(target - (x + ship.getWidth() / 2));
+        if (Math.abs(target - (x + ship.getWidth() / 2)) < step / DODGE_TICKS)
+            toTarget = 0;
+        if (danger == 0)
+            return toTarget;
+
+        int left = x - step < 1 ? Integer.MAX_VALUE : danger(screen, ship, x - step);
+        int right = x + ship.getWidth() + step > screen.getWidth() - 1
+                ? Integer.MAX_VALUE : danger(screen, ship, x + step);
+        if (left == right)
+            return toTarget != 0 ? toTarget : (x < screen.getWidth() / 2 ? 1 : -1);
+        if (Math.min(left, right) >= danger)
+            return 0;
+        return left < right ? -1 : 1;
+    }
+
+    /**
+     * Counts the enemy bullets that reach the row of the ship within the
+     * lookahead where it would be.
+     *
+     * @param screen
+     *            Screen of the game.
+     * @param ship
+     *            Ship of the player.
+     * @param x
+     *            Position of the ship to check.
+     * @return Number of bullets on their way to hit it.
+     */
+    private static int danger(final GameScreen screen, final PlayerShip ship, final int x) {
+        int top = ship.getPositionY();
+        int bottom = top + ship.getHeight();
+        int count = 0;
+        for (Bullet bullet : screen.getBullets()) {
+            int speedY = bullet.getSpeedY();
+            if (bullet.getTeam() != Entity.Team.ENEMY || speedY <= 0)
+                continue;
+            int bulletBottom = bullet.getPositionY() + bullet.getHeight();
+            if (bullet.getPositionY() > bottom)
+                continue;
+            int ticks = Math.max(0, (top - bulletBottom) / speedY);
+            if (ticks > LOOKAHEAD)
+                continue;
+            int bulletX = bullet.getPositionX() + bullet.getSpeedX() * ticks;
+            if (bulletX + bullet.getWidth() + MARGIN > x && bulletX - MARGIN < x + ship.getWidth())
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * Finds where to aim: the boss, or the enemy closest to the ship.
+     *
+     * @param screen
+     *            Screen of the game.
+     * @return Horizontal center of the target, or -1 if there is none.
+     */
+    private static int target(final GameScreen screen) {
+        Boss boss = screen.getBoss();
+        if (boss != null && !boss.isDestroyed())
+            return boss.getPositionX() + boss.getWidth() / 2;
+        EnemyShipFormation formation = screen.getEnemyShipFormation();
+        EnemySwarm swarm = screen.getEnemySwarm();
+        Iterable<EnemyShip> enemies;
+        if (swarm != null && !swarm.isEmpty())
+            enemies = swarm;
+        else if (formation != null && !formation.isEmpty())
+            enemies = formation;
+        else
+            return -1;
+        int shipCenter = screen.getPlayerShip().getPositionX() + screen.getPlayerShip().getWidth() / 2;
+        int best = -1;
+        for (EnemyShip enemy : enemies) {
+            if (enemy.isDestroyed())
+                continue;
+            int center = enemy.getPositionX() + enemy.getWidth() / 2;
+            if (best < 0 || Math.abs(center - shipCenter) < Math.abs(best - shipCenter))
+                best = center;
+        }
+        return best;
+    }
+}
@@ -0,0 +1,384 @@
+package main.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.logging.Level;
+import java.util.stream.IntStream;
+
+import main.engine.ItemManager.DropTier;
+import main.engine.event.GameEvent;
+import main.engine.event.GameEventHandler;
+import main.entity.Item;
+import main.screen.GameScreen;
+
+/**
+ * Plays thousands of headless games with an {@link Autopilot} to see how
+ * the game is balanced: how often each level is cleared, how long it takes,
+ * how often each tier drops and how coins and experience add up. Runs play
+ * in parallel on a {@link ForkJoinPool}, each worker thread reusing its own
+ * {@link GameSession}, and every run has its own seed drawn from the base
+ * seed, so the report does not depend on the number of threads.
+ * <p>
+ * Usage: {@code BalanceSimulator [--runs <n>] [--seed <s>] [--threads <t>]
+ * [--ship <type>]}.
+ */
+public final class BalanceSimulator {
+
+    private static final int WIDTH = 448;
+    private static final int HEIGHT = 520;
+    private static final int FPS = 60;
+    /** Runs still going after 15 minutes of play are given up. */
+    private static final long MAX_TICKS = 15 * 60 * FPS;
+    /** Spreads the seeds of consecutive runs. */
+    private static final long SEED_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /** Worker of each pool thread, replaced after a run fails. */
+    private static final ThreadLocal<Worker> WORKER = ThreadLocal.withInitial(Worker::new);
+
+    private BalanceSimulator() {
+    }
+
+    /**
+     * Totals of many runs. Each worker fills its own, merged at the end.
+     */
+    static final class Stats {
+
+        /** Runs played. */
+        long runs;
+        /** Runs that cleared every level. */
+        long won;
+        /** Runs given up, see {@link #MAX_TICKS}. */
+        long timedOut;
+        /** Ticks played in all runs. */
+        long ticks;
+        /** Drop rolls by the tier they landed on. */
+        final long[] drops = new long[DropTier.values().length];
+
+        /** Per level, from index 1: runs that reached, cleared or died in it. */
+        long[] reached = new long[0];
+        long[] cleared = new long[0];
+        long[] died = new long[0];
+        /** Per level: ticks from the first shot to the clear, summed over clears. */
+        long[] clearTicks = new long[0];
+        /** Per level: ticks from the first shot to the clear or the death. */
+        long[] playTicks = new long[0];
+        /** Per level: enemies killed, coins and experience earned. */
+        long[] kills = new long[0];
+        long[] coins = new long[0];
+        long[] exp = new long[0];
+
+        /**
+         * Grows the per level totals to hold a level.
+         *
+         * @param level
+         *            Level to hold.
+         */
+        void ensureLevel(final int level) {
+            if (level < reached.length)
+                return;
+            int length = level + 1;
+            reached = Arrays.copyOf(reached, length);
+            cleared = Arrays.copyOf(cleared, length);
+            died = Arrays.copyOf(died, length);
+            clearTicks = Arrays.copyOf(clearTicks, length);
+            playTicks = Arrays.copyOf(playTicks, length);
+            kills = Arrays.copyOf(kills, length);
+            coins = Arrays.copyOf(coins, length);
+            exp = Arrays.copyOf(exp, length);
+        }
+
+        /**
+         * @return Highest level reached by any run.
+         */
+        int levels() {
+            return reached.length - 1;
+        }
+
+        /**
+         * Adds the totals of another worker.
+         *
+         * @param other
+         *            Totals to add.
+         */
+        void merge(final Stats other) {
+            runs += other.runs;
+            won += other.won;
+            timedOut += other.timedOut;
+            ticks += other.ticks;
+            add(drops, other.drops);
+            ensureLevel(other.levels());
+            add(reached, other.reached);
+            add(cleared, other.cleared);
+            add(died, other.died);
+            add(clearTicks, other.clearTicks);
+            add(playTicks, other.playTicks);
+            add(kills, other.kills);
+            add(coins, other.coins);
+            add(exp, other.exp);
+        }
+
+        private static void add(final long[] into, final long[] from) {
+            for (int i = 0; i < from.length; i++)
+                into[i] += from[i];
+        }
+
+        /**
+         * @return Coins earned over all runs.
+         */
+        long totalCoins() {
+            long total = 0;
+            for (long c : coins)
+                total += c;
+            return total;
+        }
+    }
+
+    /**
+     * Plays runs one after another in its own session, following them
+     * through the events of the game screen.
+     */
+    private static final class Worker implements InputSource, GameEventHandler {
+
+        private final GameSession session = GameSession.create();
+        /** Screen already followed, reused by the session from game to game. */
+        private GameScreen watched;
+
+        /** Totals the current run adds to. */
+        private Stats stats;
+        /** Player of the current run. */
+        private Autopilot autopilot;
+        /** Level being played. */
+        private int level;
+        /** Tick of the first shot in the level, or -1 before it. */
+        private long levelStart;
+        /** Ticks from the first shot of the level to the death of the ship. */
+        private long deathTicks;
+
+        /**
+         * Plays one game to its end.
+         *
+         * @param into
+         *            Totals to add the run to.
+         * @param seed
+         *            Seed of the game.
+         * @param shipType
+         *            Ship to play.
+         */
+        void play(final Stats into, final long seed, final DrawManager.SpriteType shipType) {
+            try {
+                session.call(() -> {
+                    run(into, seed, shipType);
+                    return null;
+                });
+            } catch (IllegalStateException e) {
+                if (autopilot.getTick() <= MAX_TICKS)
+                    throw e;
+                // Given up by the autopilot. The screen stopped mid-level, so start afresh.
+                into.timedOut++;
+                into.ticks += autopilot.getTick();
+                WORKER.remove();
+            } catch (Exception e) {
+                throw new IllegalStateException("Run with seed " + seed + " failed.", e);
+            }
+        }
+
+        private void run(final Stats into, final long seed, final DrawManager.SpriteType shipType) {
+            this.stats = into;
+            this.autopilot = new Autopilot(MAX_TICKS);
+            this.level = 0;
+            into.runs++;
+
+            GameClock.setSpeed(0);
+            GameState gameState = Core.newGame(shipType, seed, false);
+            InputManager input = Core.getInputManager();
+            input.setPlayback(this);
+            try {
+                Core.playLevels(null, gameState, new AchievementManager(), WIDTH, HEIGHT, FPS);
+            } finally {
+                input.setPlayback(null);
+            }
+
+            into.ticks += autopilot.getTick();
+            if (gameState.getPlayerShip().getStats().getCurHP() > 0) {
+                into.won++;
+            } else {
+                into.died[level]++;
+                into.playTicks[level] += deathTicks;
+            }
+        }
+
+        @Override
+        public int nextTick(final InputManager input) {
+            GameScreen screen = session.gameScreen;
+            if (screen != watched) {
+                screen.subscribe(this);
+                watched = screen;
+            }
+            int current = screen.getGameState().getLevel();
+            if (current != level) {
+                level = current;
+                levelStart = -1;
+                stats.ensureLevel(level);
+                stats.reached[level]++;
+            }
+            return autopilot.nextTick(input);
+        }
+
+        @Override
+        public void onEvent(final GameEvent event, final boolean endOfBatch) {
+            switch (event.getType()) {
+                case PLAYER_SHOT:
+                    if (levelStart < 0)
+                        levelStart = GameClock.getTicks();
+                    break;
+                case ENEMY_KILLED:
+                    // Every formation kill rolls for a drop, counted as none until one drops.
+                    stats.drops[DropTier.NONE.ordinal()]++;
+                    reward(event);
+                    break;
+                case PLAYER_HIT:
+                    if (watched.getPlayerShip().getStats().getCurHP() == 0)
+                        deathTicks = levelTicks();
+                    break;
+                case SPECIAL_KILLED:
+                case BOSS_KILLED:
+                    reward(event);
+                    break;
+                case ITEM_DROPPED:
+                    String tier = ItemManager.getInstance().getItemDB()
+                            .getItemData(((Item) event.getEntity()).getType()).getDropTier();
+                    stats.drops[DropTier.NONE.ordinal()]--;
+                    stats.drops[DropTier.valueOf(tier.toUpperCase()).ordinal()]++;
+                    break;
+                case LEVEL_CLEARED:
+                    long ticks = levelTicks();
+                    stats.cleared[level]++;
+                    stats.clearTicks[level] += ticks;
+                    stats.playTicks[level] += ticks;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        /**
+         * @return Ticks since the first shot of the level.
+         */
+        private long levelTicks() {
+            return levelStart < 0 ? 0 : GameClock.getTicks() - levelStart;
+        }
+
+        private void reward(final GameEvent event) {
+            stats.kills[level]++;
+            stats.coins[level] += event.getCoins();
+            stats.exp[level] += event.getExp();
+        }
+    }
+
+    /**
+     * Seed of a run, the same whichever thread plays it.
+     *
+     * @param seed
+     *            Base seed of the simulation.
+     * @param run
+     *            Index of the run.
+     * @return Seed of the run.
+     */
+    static long seedOf(final long seed, final int run) {
+        return seed + run * SEED_GAMMA;
+    }
+
+    /**
+     * Plays runs in parallel.
+     *
+     * @param runs
+     *            Number of runs.
+     * @param seed
+     *            Base seed.
+     * @param shipType
+     *            Ship every run plays.
+     * @param threads
+     *            Threads to play on.
+     * @return Totals of all runs.
+     * @throws InterruptedException
+     *             If interrupted while waiting for the runs.
+     * @throws ExecutionException
+     *             If a run fails.
+     */
+    static Stats simulate(final int runs, final long seed, final DrawManager.SpriteType shipType,
+                          final int threads) throws InterruptedException, ExecutionException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.submit(() -> IntStream.range(0, runs).parallel().collect(Stats::new,
+                    (stats, run) -> WORKER.get().play(stats, seedOf(seed, run), shipType),
+                    Stats::merge)).get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    public static void main(final String[] args) throws InterruptedException, ExecutionException {
+        int runs = 1000;
+        long seed = RandomService.newSeed();
+        int threads = Runtime.getRuntime().availableProcessors();
+        DrawManager.SpriteType shipType = DrawManager.SpriteType.Normal;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--runs" -> runs = Integer.parseInt(args[i + 1]);
+                case "--seed" -> seed = Long.parseLong(args[i + 1]);
+                case "--threads" -> threads = Integer.parseInt(args[i + 1]);
+                case "--ship" -> shipType = DrawManager.SpriteType.valueOf(args[i + 1]);
+                default -> {
+                    System.err.println("Usage: BalanceSimulator [--runs <n>] [--seed <s>] [--threads <t>]"
+                            + " [--ship <type>]");
+                    System.exit(2);
+                }
+            }
+        }
+
+        Core.getLogger().setLevel(Level.WARNING);
+        AssetLoader.start();
+        AssetLoader.awaitLevelData();
+
+        long start = System.nanoTime();
+        Stats stats = simulate(runs, seed, shipType, threads);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        report(stats, seed, shipType);
+        double perMinute = stats.runs * 60 / seconds;
+        System.out.printf("%d runs in %.1f s on %d threads: %.0f runs/min, %.0f per thread.%n",
+                stats.runs, seconds, threads, perMinute, perMinute / threads);
+    }
+
+    /**
+     * Prints the totals of a simulation.
+     */
+    private static void report(final Stats stats, final long seed, final DrawManager.SpriteType shipType) {
+        double seconds = 1.0 / FPS;
+        System.out.printf("%s ship, seed %d: %d runs, %d won (%.1f%%), %d timed out, %.1f min played on average.%n",
+                shipType, seed, stats.runs, stats.won, 100.0 * stats.won / stats.runs, stats.timedOut,
+                stats.ticks * seconds / 60 / stats.runs);
+        System.out.println("Level  Reached  Cleared  Win rate  Clear s  s/kill  Coins  EXP    EXP total");
+        double expTotal = 0;
+        for (int level = 1; level <= stats.levels(); level++) {
+            long reached = stats.reached[level];
+            long cleared = stats.cleared[level];
+            double coins = reached == 0 ? 0 : (double) stats.coins[level] / reached;
+            double exp = reached == 0 ? 0 : (double) stats.exp[level] / reached;
+            expTotal += exp;
+            double clear = cleared == 0 ? 0 : stats.clearTicks[level] * seconds / cleared;
+            double perKill = stats.kills[level] == 0 ? 0 : stats.playTicks[level] * seconds / stats.kills[level];
+            System.out.printf("%5d  %7d  %7d  %7.1f%%  %7.1f  %6.2f  %5.0f  %5.0f  %9.0f%n", level, reached, cleared,
+                    reached == 0 ? 0 : 100.0 * cleared / reached, clear, perKill, coins, exp, expTotal);
+        }
+
+        long rolls = 0;
+        for (long drop : stats.drops)
+            rolls += drop;
+        StringBuilder drops = new StringBuilder("Drops per roll:");
+        for (DropTier tier : DropTier.values())
+            drops.append(String.format(" %s %.1f%%", tier, rolls == 0 ? 0 : 100.0 * stats.drops[tier.ordinal()] / rolls));
+        System.out.println(drops + " of " + rolls + " rolls.");
+        System.out.printf("Coins per run: %.1f.%n", (double) stats.totalCoins() / stats.runs);
+    }
+}
@@ -52,17 +52,17 @@ public class Cooldown {
 	 * @return Cooldown state.
 	 */
 	public final boolean checkFinished() {
-        return (this.time == 0) || this.time + this.duration < System.currentTimeMillis();
+        return (this.time == 0) || this.time + this.duration < GameClock.now();
     }
 
 	/**
 	 * Restarts the cooldown.
 	 */
 	public final void reset() {
-		this.time = System.currentTimeMillis();
+		this.time = GameClock.now();
 		if (this.variance != 0)
 			this.duration = (this.milliseconds - this.variance)
-					+ (int) (Math.random()
+					+ (int) (RandomService.gameplay().nextDouble()
 					* (this.milliseconds + this.variance));
 	}
 
@@ -79,11 +79,33 @@ public class Cooldown {
 
     public int getDuration() {
         if (this.time == 0) return 0; // cooldown hasn't started
-        long elapsed = System.currentTimeMillis() - this.time;
+        long elapsed = GameClock.now() - this.time;
         return Math.max(0, this.duration - (int) elapsed);
     }
 
 	public void setMilliseconds(int newMs){
 		this.duration = newMs;
 	}
+
+	/**
+	 * Writes the cooldown to a rewind frame.
+	 *
+	 * @param frame
+	 *            Frame of the tick.
+	 */
+	public final void save(final StateFrame frame) {
+		frame.putLong(this.time);
+		frame.putInt(this.duration);
+	}
+
+	/**
+	 * Reads the cooldown back from a rewind frame.
+	 *
+	 * @param frame
+	 *            Frame written by {@link #save}.
+	 */
+	public final void restore(final StateFrame frame) {
+		this.time = frame.getLong();
+		this.duration = frame.getInt();
+	}
 }
\ No newline at end of file
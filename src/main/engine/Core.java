@@ -1,14 +1,22 @@
 package main.engine;
 
 import java.io.IOException;
-import java.util.List;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.FileHandler;
 import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
-import main.engine.upgrade.ShipUpgradeManager;
+import main.engine.jfr.FlightRecording;
+import main.engine.jfr.LevelTransitionEvent;
+import main.engine.metrics.MetricsExporter;
+import main.engine.net.CoopClient;
+import main.engine.net.CoopHost;
+import main.engine.net.CoopProtocol;
 import main.entity.Player.PlayerShip;
 import main.screen.*;
 
@@ -23,16 +31,34 @@ public final class Core {
     private static final int WIDTH = 448;
     private static final int HEIGHT = 520;
     private static final int FPS = 60;
+    /** Threads used for background loading. */
+    private static final int BACKGROUND_THREADS =
+            Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
 
     /** Frame to draw the screen on. */
     private static Frame frame;
     private static Screen currentScreen;
-    private static List<GameSettings> gameSettings;
+    /** Screens kept between visits and reset instead of rebuilt. */
+    private static TitleScreen titleScreen;
+    private static AchievementScreen achievementScreen;
+    private static SettingScreen settingScreen;
+    private static ShipSelectionScreen shipSelectionScreen;
+    private static UpgradeScreen upgradeScreen;
+    private static HighScoreScreen highScoreScreen;
     private static final Logger LOGGER = Logger.getLogger(Core.class.getSimpleName());
     private static Handler fileHandler;
     private static ConsoleHandler consoleHandler;
+    /** Small pool for asset loading and other work off the game loop. */
+    private static final ExecutorService BACKGROUND_EXECUTOR = createBackgroundExecutor();
     private PlayerShip playerShip;
     private static int NUM_LEVELS; // Total number of levels
+    /** Whether the game continues with generated stages after the campaign. */
+    private static final boolean ENDLESS_MODE = Boolean.getBoolean("invaders.endless");
+
+    /** Address of a co-op host to join instead of playing locally, or null. */
+    private static final String COOP_JOIN = System.getProperty("invaders.coop.join");
+    /** Host of co-op games, or null if not hosting. */
+    private static CoopHost coopHost;
 
     /**
      * Test implementation.
@@ -54,18 +80,33 @@ public final class Core {
             e.printStackTrace();
         }
 
+        // Record from startup, so asset loading shows up too.
+        if (Boolean.getBoolean("invaders.jfr"))
+            FlightRecording.start();
+
+        // Kiosks can be monitored through a local endpoint or a metrics file.
+        MetricsExporter.start();
+
+        // A second player can join over the network from another machine.
+        Integer coopPort = Integer.getInteger("invaders.coop.host");
+        if (coopPort != null) {
+            try {
+                coopHost = CoopHost.open(coopPort);
+            } catch (IOException e) {
+                LOGGER.warning("Couldn't host co-op games on port " + coopPort + ": " + e.getMessage());
+            }
+        }
+
+        // Sprites, fonts, levels, upgrades, items and sounds load while the window opens.
+        AssetLoader.start();
+
         frame = new Frame(WIDTH, HEIGHT);
         InputManager input = InputManager.getInstance();
         frame.addKeyListener(input); // Register an instance to allow the window to receive keyboard event information
-        DrawManager.getInstance().setFrame(frame);
+        AssetLoader.awaitTitleAssets().setFrame(frame);
         int width = frame.getWidth();
         int height = frame.getHeight();
 
-        gameSettings = GameSettings.getGameSettings();
-        NUM_LEVELS = gameSettings.size(); // Initialize total number of levels
-
-        ShipUpgradeManager.getInstance();
-
         GameState gameState;
         int returnCode = 1;
 
@@ -76,31 +117,36 @@ public final class Core {
 
             switch (returnCode) {
                 case 1:
-                    currentScreen = new TitleScreen(width, height, FPS);
+                    if (titleScreen == null)
+                        titleScreen = new TitleScreen(width, height, FPS);
+                    else
+                        titleScreen.reset();
+                    currentScreen = titleScreen;
                     LOGGER.info("Starting " + WIDTH + "x" + HEIGHT + " title screen at " + FPS + " fps.");
                     returnCode = frame.setScreen(currentScreen);
                     LOGGER.info("Closing title screen.");
                     break;
 
                 case 2:
-                    gameState = new GameState(shipType, 1, 0);
-
-                    do {
-                        currentScreen = new GameScreen(gameState, gameSettings.get(gameState.getLevel() - 1), false, width, height, FPS, achievementManager);
-                        LOGGER.info("Starting " + WIDTH + "x" + HEIGHT + " game screen at " + FPS + " fps.");
-                        returnCode = frame.setScreen(currentScreen);
-                        LOGGER.info("Closing game screen.");
-                        if (returnCode == 2) {
-                            returnCode = 6;
-                        }
-
-                        gameState = ((GameScreen) currentScreen).getGameState();
-
-                        if (gameState.getPlayerShip().getStats().getCurHP() > 0) {
-                            gameState.nextLevel();
-                        }
-
-                    } while (gameState.getPlayerShip().getStats().getCurHP() > 0 && gameState.getLevel() <= gameSettings.size());
+                    if (COOP_JOIN != null) {
+                        returnCode = joinCoop(frame, COOP_JOIN, width, height);
+                        break;
+                    }
+                    long seed = ENDLESS_MODE
+                            ? Long.getLong("invaders.endless.seed", RandomService.newSeed())
+                            : RandomService.newSeed();
+                    gameState = newGame(shipType, seed, ENDLESS_MODE);
+                    Replay.Recorder recorder = new Replay.Recorder(seed, shipType, gameState, FPS,
+                            width, height, ENDLESS_MODE);
+                    getInputManager().setRecorder(recorder);
+                    try {
+                        returnCode = playLevels(frame, gameState, achievementManager, width, height, FPS);
+                    } finally {
+                        getInputManager().setRecorder(null);
+                    }
+                    // The partner's input is not recorded, so co-op games can't be replayed.
+                    if (coopHost == null)
+                        saveReplay(recorder.finish(gameState));
                     if (returnCode == 1) {
                         break;
                     }
@@ -116,7 +162,11 @@ public final class Core {
 
                 case 3:
                     // Achievements.
-                    currentScreen = new AchievementScreen(width, height, FPS);
+                    if (achievementScreen == null)
+                        achievementScreen = new AchievementScreen(width, height, FPS);
+                    else
+                        achievementScreen.reset();
+                    currentScreen = achievementScreen;
                     LOGGER.info("Starting " + WIDTH + "x" + HEIGHT
                             + " achievements screen at " + FPS + " fps.");
                     returnCode = frame.setScreen(currentScreen);
@@ -125,7 +175,11 @@ public final class Core {
 
                 case 4:
                     // settings screen
-                    currentScreen = new SettingScreen(width, height, FPS);
+                    if (settingScreen == null)
+                        settingScreen = new SettingScreen(width, height, FPS);
+                    else
+                        settingScreen.reset();
+                    currentScreen = settingScreen;
                     LOGGER.info("Starting " + WIDTH + "x" + HEIGHT
                             + " setting screen at " + FPS + " fps.");
                     returnCode = frame.setScreen(currentScreen);
@@ -136,7 +190,11 @@ public final class Core {
 
 
                 case 6:
-                    currentScreen = new ShipSelectionScreen(width, height, FPS);
+                    if (shipSelectionScreen == null)
+                        shipSelectionScreen = new ShipSelectionScreen(width, height, FPS);
+                    else
+                        shipSelectionScreen.reset();
+                    currentScreen = shipSelectionScreen;
                     returnCode = frame.setScreen(currentScreen);
                     shipType = ((ShipSelectionScreen)currentScreen).getSelectedShipType();
 
@@ -148,7 +206,11 @@ public final class Core {
                     break;
                 case 7:
                     //upgrade
-                    currentScreen = new UpgradeScreen(width, height, FPS);
+                    if (upgradeScreen == null)
+                        upgradeScreen = new UpgradeScreen(width, height, FPS);
+                    else
+                        upgradeScreen.reset();
+                    currentScreen = upgradeScreen;
                     LOGGER.info("Starting " + WIDTH + "x" + HEIGHT
                             + " Upgrade screen at " + FPS + " fps.");
                     returnCode = frame.setScreen(currentScreen);
@@ -157,7 +219,11 @@ public final class Core {
 
                 case 8:
                     // High scores.
-                    currentScreen = new HighScoreScreen(width, height, FPS);
+                    if (highScoreScreen == null)
+                        highScoreScreen = new HighScoreScreen(width, height, FPS);
+                    else
+                        highScoreScreen.reset();
+                    currentScreen = highScoreScreen;
                     LOGGER.info("Starting " + WIDTH + "x" + HEIGHT + " high score screen at " + FPS + " fps.");
                     returnCode = frame.setScreen(currentScreen);
                     LOGGER.info("Closing high score screen.");
@@ -181,6 +247,198 @@ public final class Core {
 
     }
 
+    /**
+     * Starts a new game. The ship starts from its base stats and drops from
+     * fresh odds, so the game depends only on the seed and the input.
+     *
+     * @param shipType
+     *            Ship to play with.
+     * @param seed
+     *            Seed of the gameplay randomness and of generated stages.
+     * @param endless
+     *            If generated stages follow the campaign.
+     * @return State of the new game.
+     */
+    static GameState newGame(final DrawManager.SpriteType shipType, final long seed, final boolean endless) {
+        NUM_LEVELS = AssetLoader.awaitLevelData().getStageCount(); // Initialize total number of levels
+        RandomService.seed(seed);
+        ItemManager.getInstance().resetPity();
+        GameState gameState = new GameState(shipType, 1, 0);
+        gameState.getPlayerShip().getStats().resetShipStat();
+        GameSession session = GameSession.current();
+        session.endlessLevels = null;
+        session.rules = Replay.VERSION;
+        if (endless) {
+            session.endlessLevels = new EndlessLevelGenerator(seed, NUM_LEVELS + 1);
+            session.endlessLevels.prefetch(NUM_LEVELS + 1);
+        }
+        return gameState;
+    }
+
+    /**
+     * Plays the levels of a game until the ship is destroyed, the last level
+     * is cleared or the player quits from the pause menu. Time advances per
+     * tick meanwhile, see {@link GameClock}.
+     *
+     * @param frame
+     *            Frame to show the game on, or null to play without a window.
+     * @param gameState
+     *            State of the game, from {@link #newGame}.
+     * @param achievementManager
+     *            Achievement manager of the game.
+     * @param width
+     *            Width of the game screen.
+     * @param height
+     *            Height of the game screen.
+     * @param fps
+     *            Ticks per second.
+     * @return Return code of the last game screen.
+     */
+    static int playLevels(final Frame frame, GameState gameState, final AchievementManager achievementManager,
+                          final int width, final int height, final int fps) {
+        int returnCode = 2;
+        GameSession session = GameSession.current();
+        GameClock.startFixedStep(fps);
+        try {
+            do {
+                LevelTransitionEvent transition = new LevelTransitionEvent();
+                transition.begin();
+                GameSettings settings = getLevelSettings(gameState.getLevel());
+                if (settings == null) {
+                    LOGGER.warning("Skipping level " + gameState.getLevel() + ", its stage could not be loaded.");
+                    gameState.nextLevel();
+                    continue;
+                }
+                boolean reused = session.gameScreen != null;
+                if (session.gameScreen == null)
+                    session.gameScreen = new GameScreen(gameState, settings, false, width, height, fps,
+                            achievementManager);
+                else
+                    session.gameScreen.reset(gameState, settings, false, achievementManager);
+                if (transition.shouldCommit()) {
+                    transition.level = gameState.getLevel();
+                    transition.reused = reused;
+                    transition.commit();
+                }
+                GameScreen gameScreen = session.gameScreen;
+                if (session.isDefault())
+                    currentScreen = gameScreen;
+                LOGGER.info("Starting " + width + "x" + height + " game screen at " + fps + " fps.");
+                if (frame != null) {
+                    returnCode = frame.setScreen(gameScreen);
+                } else {
+                    gameScreen.initialize();
+                    returnCode = gameScreen.run();
+                }
+                LOGGER.info("Closing game screen.");
+                if (returnCode == 2) {
+                    returnCode = 6;
+                }
+
+                gameState = gameScreen.getGameState();
+
+                if (gameState.getPlayerShip().getStats().getCurHP() > 0) {
+                    gameState.nextLevel();
+                }
+
+            } while (gameState.getPlayerShip().getStats().getCurHP() > 0
+                    && (session.endlessLevels != null || gameState.getLevel() <= NUM_LEVELS));
+        } finally {
+            GameClock.stopFixedStep();
+        }
+        return returnCode;
+    }
+
+    /**
+     * Plays as the partner of a co-op game hosted elsewhere.
+     *
+     * @param frame
+     *            Frame to show the game on.
+     * @param address
+     *            Host and port, the port defaulting to
+     *            {@link CoopProtocol#DEFAULT_PORT}.
+     * @param width
+     *            Width of the game screen.
+     * @param height
+     *            Height of the game screen.
+     * @return Next screen code.
+     */
+    private static int joinCoop(final Frame frame, final String address, final int width, final int height) {
+        int separator = address.lastIndexOf(':');
+        String host = separator < 0 ? address : address.substring(0, separator);
+        int port = CoopProtocol.DEFAULT_PORT;
+        if (separator >= 0) {
+            try {
+                port = Integer.parseInt(address.substring(separator + 1));
+            } catch (NumberFormatException e) {
+                LOGGER.warning("Invalid co-op port in " + address + ".");
+                return 1;
+            }
+        }
+        CoopClient client;
+        try {
+            client = CoopClient.connect(new InetSocketAddress(host, port), width, height,
+                    GameScreen.getSeparationLineHeight());
+        } catch (IOException | IllegalArgumentException e) {
+            LOGGER.warning("Couldn't join the co-op game at " + address + ": " + e.getMessage());
+            return 1;
+        }
+        currentScreen = new CoopClientScreen(width, height, FPS, client, address);
+        LOGGER.info("Starting " + width + "x" + height + " co-op screen at " + FPS + " fps.");
+        int returnCode = frame.setScreen(currentScreen);
+        LOGGER.info("Closing co-op screen.");
+        return returnCode;
+    }
+
+    /**
+     * Controls access to the co-op host.
+     *
+     * @return Host of co-op games, or null if not hosting.
+     */
+    public static CoopHost getCoopHost() {
+        return coopHost;
+    }
+
+    /**
+     * Saves the replay of the last game in the background.
+     *
+     * @param replay
+     *            Replay to save.
+     */
+    private static void saveReplay(final Replay replay) {
+        BACKGROUND_EXECUTOR.execute(() -> {
+            try {
+                getFileManager().saveReplay(replay);
+            } catch (IOException e) {
+                LOGGER.warning("Couldn't save the replay: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Creates the daemon pool used for background work.
+     *
+     * @return Background executor.
+     */
+    private static ExecutorService createBackgroundExecutor() {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(BACKGROUND_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "background-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        });
+    }
+
+    /**
+     * Controls access to the background executor.
+     *
+     * @return Executor for loading and other work off the game loop.
+     */
+    public static ExecutorService getBackgroundExecutor() {
+        return BACKGROUND_EXECUTOR;
+    }
+
     /**
      * Controls access to the logger.
      *
@@ -209,6 +467,44 @@ public final class Core {
         return InputManager.getInstance();
     }
 
+    /**
+     * Controls access to the level loader.
+     *
+     * @return Application level loader.
+     */
+    public static LevelLoader getLevelLoader() {
+        return LevelLoader.getInstance();
+    }
+
+    /**
+     * Returns the settings of a level, from the campaign or, past its last
+     * stage, from the endless generator.
+     *
+     * @param level
+     *            Level number, starting at 1.
+     * @return Settings of the level, or null if it cannot be loaded.
+     */
+    public static GameSettings getLevelSettings(final int level) {
+        EndlessLevelGenerator endlessLevels = GameSession.current().endlessLevels;
+        if (level > NUM_LEVELS && endlessLevels != null)
+            return endlessLevels.getSettings(level);
+        return getLevelLoader().getSettings(level);
+    }
+
+    /**
+     * Prepares the settings of a level in the background.
+     *
+     * @param level
+     *            Level number, starting at 1.
+     */
+    public static void prefetchLevel(final int level) {
+        EndlessLevelGenerator endlessLevels = GameSession.current().endlessLevels;
+        if (level > NUM_LEVELS && endlessLevels != null)
+            endlessLevels.prefetch(level);
+        else
+            getLevelLoader().prefetch(level);
+    }
+
     /**
      * Controls access to the file manager.
      *
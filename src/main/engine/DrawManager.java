@@ -21,13 +21,14 @@ import main.Animations.Explosion;
 import main.Animations.MenuSpace;
 import main.engine.upgrade.ShipUpgradeManager;
 import main.engine.upgrade.ShipUpgradeType;
+import main.engine.metrics.GameMetrics;
 import main.entity.Enemy.EnemyShip;
 import main.entity.Player.PlayerShip;
 import main.entity.Player.PlayerShipStats;
 import main.engine.augment.Augment;
 import main.screen.Screen;
 import main.entity.Entity;
-import main.entity.Bullet;
+import main.entity.Archetype;
 
 /**
  * Manages main.screen drawing.
@@ -37,16 +38,18 @@ import main.entity.Bullet;
  */
 public final class DrawManager {
 
-    /** Singleton instance of the class. */
+    /** Instance of the window, which loads the sprites and fonts. */
     private static DrawManager instance;
     /** Current frame. */
-    private static Frame frame;
+    private Frame frame;
     /** Application logger. */
     private static Logger logger;
     /** Graphics context. */
     private static Graphics graphics;
     /** Buffer Graphics. */
     private static Graphics backBufferGraphics;
+    /** Start of the frame being drawn, for the draw time metric. */
+    private long drawStart;
     /** Buffer image. */
     private static BufferedImage backBuffer;
     /** Normal sized font. */
@@ -60,8 +63,38 @@ public final class DrawManager {
 
     /** Sprite types mapped to their images. */
     private static Map<SpriteType, boolean[][]> spriteMap;
+    /** Collision masks of the sprites, null until they are loaded. */
+    private static volatile Map<SpriteType, SpriteMask> spriteMasks;
 
     private final List<Explosion> explosions = new ArrayList<>();
+    /** Explosion particles alive at the last draw. */
+    private int particleCount;
+
+    /** Performance overlay font. */
+    private static final Font OVERLAY_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 10);
+    /** Performance overlay background, opaque so it is copied instead of blended. */
+    private static final Color OVERLAY_BACKGROUND = new Color(16, 16, 16);
+    /** Frame time at the top of the overlay graph, in nanoseconds. */
+    private static final long OVERLAY_GRAPH_RANGE = 50_000_000L;
+    /** Overlay background and text, redrawn only when the text changes. */
+    private BufferedImage overlayText;
+    private Graphics2D overlayTextGraphics;
+    private int overlayTextVersion = -1;
+    /** Overlay graph points. */
+    private final int[] overlayGraphX = new int[FrameProfiler.HISTORY];
+    private final int[] overlayGraphY = new int[FrameProfiler.HISTORY];
+
+    /** Height of the HUD band at the top of the game screen. */
+    private static final int HUD_HEIGHT = 90;
+    /** HUD kept between redraws when it is not redrawn every frame. */
+    private BufferedImage hudLayer;
+    private Graphics2D hudLayerGraphics;
+    /** Frames until the HUD is redrawn. */
+    private int hudFramesLeft;
+    /** Back buffer context while the HUD is drawn into its layer, or null. */
+    private Graphics hudSavedGraphics;
+    /** If the HUD of this frame comes from its layer. */
+    private boolean hudLayered;
 
     /**
      * Stars background animations for both game and main menu
@@ -118,48 +151,29 @@ public final class DrawManager {
         ItemBulletSpeedUp
     }
 
+    /** Sprite types by ordinal, as stored in an archetype. */
+    private static final SpriteType[] SPRITE_TYPES = SpriteType.values();
+    /** Looks kept by {@link #drawCrowd} before its cache starts over. */
+    private static final int CROWD_CACHE_SIZE = 256;
+    /** Sprites rasterized by sprite, size and color, for {@link #drawCrowd}. */
+    private final Map<Long, BufferedImage> crowdImages = new HashMap<>();
+
     /**
      * Private constructor.
      */
     private DrawManager() {
-        FileManager fileManager = Core.getFileManager();
         logger = Core.getLogger();
+    }
+
+    /**
+     * Loads the sprites and fonts shared by every instance.
+     */
+    private static void loadResources() {
+        FileManager fileManager = Core.getFileManager();
         logger.info("Started loading resources.");
+        loadSprites();
 
         try {
-            spriteMap = new LinkedHashMap<>();
-
-            spriteMap.put(SpriteType.Normal, new boolean[13][8]);
-            spriteMap.put(SpriteType.BigShot, new boolean[13][8]);
-            spriteMap.put(SpriteType.DoubleShot, new boolean[13][8]);
-            spriteMap.put(SpriteType.MoveFast, new boolean[13][8]);
-            spriteMap.put(SpriteType.ShipDestroyedNormal, new boolean[13][8]);
-            spriteMap.put(SpriteType.ShipDestroyedBigShot, new boolean[13][8]);
-            spriteMap.put(SpriteType.ShipDestroyedDoubleShot, new boolean[13][8]);
-            spriteMap.put(SpriteType.ShipDestroyedMoveFast, new boolean[13][8]);
-            spriteMap.put(SpriteType.Bullet, new boolean[3][5]);
-            spriteMap.put(SpriteType.EnemyBullet, new boolean[3][5]);
-            spriteMap.put(SpriteType.EnemyShipA1, new boolean[12][8]);
-            spriteMap.put(SpriteType.EnemyShipA2, new boolean[12][8]);
-            spriteMap.put(SpriteType.EnemyShipB1, new boolean[12][8]);
-            spriteMap.put(SpriteType.EnemyShipB2, new boolean[12][8]);
-            spriteMap.put(SpriteType.EnemyShipC1, new boolean[12][8]);
-            spriteMap.put(SpriteType.EnemyShipC2, new boolean[12][8]);
-            spriteMap.put(SpriteType.EnemyShipSpecial, new boolean[16][7]);
-            spriteMap.put(SpriteType.Explosion, new boolean[13][7]);
-            spriteMap.put(SpriteType.Heart, new boolean[11][10]);
-
-            // Item sprite placeholder
-            spriteMap.put(SpriteType.ItemScore, new boolean[5][5]);
-            spriteMap.put(SpriteType.ItemCoin, new boolean[5][5]);
-            spriteMap.put(SpriteType.ItemHeal, new boolean[5][5]);
-            spriteMap.put(SpriteType.ItemTripleShot, new boolean[5][5]);
-            spriteMap.put(SpriteType.ItemScoreBooster, new boolean[5][5]);
-            spriteMap.put(SpriteType.ItemBulletSpeedUp, new boolean[5][5]);
-
-            fileManager.loadSprite(spriteMap);
-            logger.info("Finished loading the sprites.");
-
             // Font loading.
             fontRegular = fileManager.loadFont(14f);
             fontBig = fileManager.loadFont(24f);
@@ -173,14 +187,89 @@ public final class DrawManager {
     }
 
     /**
-     * Returns shared instance of DrawManager.
+     * Loads the sprites, once, and packs their collision masks.
+     */
+    private static synchronized void loadSprites() {
+        if (spriteMasks != null)
+            return;
+        Map<SpriteType, boolean[][]> sprites = new LinkedHashMap<>();
+
+        sprites.put(SpriteType.Normal, new boolean[13][8]);
+        sprites.put(SpriteType.BigShot, new boolean[13][8]);
+        sprites.put(SpriteType.DoubleShot, new boolean[13][8]);
+        sprites.put(SpriteType.MoveFast, new boolean[13][8]);
+        sprites.put(SpriteType.ShipDestroyedNormal, new boolean[13][8]);
+        sprites.put(SpriteType.ShipDestroyedBigShot, new boolean[13][8]);
+        sprites.put(SpriteType.ShipDestroyedDoubleShot, new boolean[13][8]);
+        sprites.put(SpriteType.ShipDestroyedMoveFast, new boolean[13][8]);
+        sprites.put(SpriteType.Bullet, new boolean[3][5]);
+        sprites.put(SpriteType.EnemyBullet, new boolean[3][5]);
+        sprites.put(SpriteType.EnemyShipA1, new boolean[12][8]);
+        sprites.put(SpriteType.EnemyShipA2, new boolean[12][8]);
+        sprites.put(SpriteType.EnemyShipB1, new boolean[12][8]);
+        sprites.put(SpriteType.EnemyShipB2, new boolean[12][8]);
+        sprites.put(SpriteType.EnemyShipC1, new boolean[12][8]);
+        sprites.put(SpriteType.EnemyShipC2, new boolean[12][8]);
+        sprites.put(SpriteType.EnemyShipSpecial, new boolean[16][7]);
+        sprites.put(SpriteType.Explosion, new boolean[13][7]);
+        sprites.put(SpriteType.Heart, new boolean[11][10]);
+
+        // Item sprite placeholder
+        sprites.put(SpriteType.ItemScore, new boolean[5][5]);
+        sprites.put(SpriteType.ItemCoin, new boolean[5][5]);
+        sprites.put(SpriteType.ItemHeal, new boolean[5][5]);
+        sprites.put(SpriteType.ItemTripleShot, new boolean[5][5]);
+        sprites.put(SpriteType.ItemScoreBooster, new boolean[5][5]);
+        sprites.put(SpriteType.ItemBulletSpeedUp, new boolean[5][5]);
+
+        Map<SpriteType, SpriteMask> masks = new EnumMap<>(SpriteType.class);
+        try {
+            Core.getFileManager().loadSprite(sprites);
+            Core.getLogger().info("Finished loading the sprites.");
+            for (Map.Entry<SpriteType, boolean[][]> sprite : sprites.entrySet())
+                masks.put(sprite.getKey(), SpriteMask.of(sprite.getValue()));
+        } catch (IOException e) {
+            // Without masks, collisions fall back to the boxes of the entities.
+            Core.getLogger().warning("Loading failed.");
+        }
+        spriteMap = sprites;
+        spriteMasks = masks;
+    }
+
+    /**
+     * Returns the collision mask of a sprite, loading the sprites first if no
+     * window did yet, as in headless sessions.
      *
-     * @return Shared instance of DrawManager.
+     * @param spriteType
+     *            Sprite of the entity.
+     * @return Its mask at the sprite size, or null if it has none.
+     */
+    public static SpriteMask getSpriteMask(final SpriteType spriteType) {
+        Map<SpriteType, SpriteMask> masks = spriteMasks;
+        if (masks == null) {
+            loadSprites();
+            masks = spriteMasks;
+        }
+        return spriteType == null ? null : masks.get(spriteType);
+    }
+
+    /**
+     * Returns the DrawManager of the current game session. Headless
+     * sessions each get one without a frame that loads nothing.
+     *
+     * @return DrawManager of the current session.
      */
     static DrawManager getInstance() {
-        if (instance == null)
-            instance = new DrawManager();
-        return instance;
+        GameSession session = GameSession.current();
+        if (!session.isDefault())
+            return session.component(DrawManager.class, DrawManager::new);
+        synchronized (DrawManager.class) {
+            if (instance == null) {
+                instance = new DrawManager();
+                loadResources();
+            }
+            return instance;
+        }
     }
 
     /**
@@ -193,6 +282,48 @@ public final class DrawManager {
         frame = currentFrame;
     }
 
+    /**
+     * Returns true when there is no frame to draw on, as when replays are
+     * checked without a window. Screens skip drawing entirely then.
+     *
+     * @return If nothing is shown.
+     */
+    public boolean isHeadless() {
+        return frame == null;
+    }
+
+    /**
+     * Rasterizes every sprite and both fonts once into a scratch image, so the
+     * first real frames do not pay for the Java2D pipeline warming up. Safe to
+     * call from a background thread, it does not touch the back buffer.
+     *
+     * @return Number of sprites rasterized.
+     */
+    public int warmUp() {
+        BufferedImage scratch = new BufferedImage(64, 64, BufferedImage.TYPE_INT_RGB);
+        Graphics g = scratch.getGraphics();
+        int count = 0;
+        try {
+            for (boolean[][] image : spriteMap.values()) {
+                g.setColor(Color.WHITE);
+                for (int i = 0; i < image.length; i++)
+                    for (int j = 0; j < image[i].length; j++)
+                        if (image[i][j])
+                            g.fillRect(i * 2, j * 2, 2, 2);
+                count++;
+            }
+            if (fontRegular != null && fontBig != null) {
+                g.setFont(fontRegular);
+                g.drawString("0123456789 SCORE", 0, 20);
+                g.setFont(fontBig);
+                g.drawString("INVADERS", 0, 50);
+            }
+        } finally {
+            g.dispose();
+        }
+        return count;
+    }
+
     /**
      * First part of the drawing process. Initialises buffers, draws the
      * background and prepares the images.
@@ -201,18 +332,27 @@ public final class DrawManager {
      *               Screen to draw in.
      */
     public void initDrawing(final Screen screen) {
-        backBuffer = new BufferedImage(screen.getWidth(), screen.getHeight(),
-                BufferedImage.TYPE_INT_RGB);
+        drawStart = System.nanoTime();
+        // The back buffer is only reallocated when the screen size changes.
+        if (backBuffer == null || backBuffer.getWidth() != screen.getWidth()
+                || backBuffer.getHeight() != screen.getHeight()) {
+            if (backBufferGraphics != null)
+                backBufferGraphics.dispose();
+            backBuffer = new BufferedImage(screen.getWidth(), screen.getHeight(),
+                    BufferedImage.TYPE_INT_RGB);
+            backBufferGraphics = backBuffer.getGraphics();
+            fontRegularMetrics = backBufferGraphics.getFontMetrics(fontRegular);
+            fontBigMetrics = backBufferGraphics.getFontMetrics(fontBig);
+        }
 
         graphics = frame.getGraphics();
-        backBufferGraphics = backBuffer.getGraphics();
 
+        // Undo state left over from the previous frame on the reused context.
+        ((Graphics2D) backBufferGraphics).setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+                RenderingHints.VALUE_ANTIALIAS_DEFAULT);
         backBufferGraphics.setColor(Color.BLACK);
         backBufferGraphics
                 .fillRect(0, 0, screen.getWidth(), screen.getHeight());
-
-        fontRegularMetrics = backBufferGraphics.getFontMetrics(fontRegular);
-        fontBigMetrics = backBufferGraphics.getFontMetrics(fontBig);
     }
 
     /**
@@ -222,8 +362,137 @@ public final class DrawManager {
      *               Screen to draw on.
      */
     public void completeDrawing(final Screen screen) {
+        if (LatencyProbe.isMarkerShown()) {
+            backBufferGraphics.setColor(LatencyProbe.isMarkerLit() ? Color.WHITE : Color.BLACK);
+            backBufferGraphics.fillRect(0, screen.getHeight() - LatencyProbe.MARKER_SIZE,
+                    LatencyProbe.MARKER_SIZE, LatencyProbe.MARKER_SIZE);
+        }
+        FrameProfiler.begin(FrameProfiler.Section.PRESENT);
         graphics.drawImage(backBuffer, frame.getInsets().left,
                 frame.getInsets().top, frame);
+        if (LatencyProbe.isEnabled()) {
+            // Push the frame to the display now, so it is measured on its way out.
+            Toolkit.getDefaultToolkit().sync();
+            LatencyProbe.framePresented();
+        }
+        FrameProfiler.end(FrameProfiler.Section.PRESENT);
+        GameMetrics.DRAW_TIME.recordSince(drawStart);
+    }
+
+    /**
+     * Draws the performance overlay: frame rate, a frame-time graph with its
+     * median and 99th percentile, time per section, entity counts, pool use
+     * and garbage collections.
+     *
+     * @param screen
+     *               Screen to draw on.
+     */
+    public void drawPerformanceOverlay(final Screen screen) {
+        FrameProfiler.begin(FrameProfiler.Section.OVERLAY);
+        int lineHeight = 11;
+        int graphHeight = 40;
+        int boxX = 4;
+        int boxY = 72;
+        int boxWidth = 200;
+        int boxHeight = FrameProfiler.getLineCount() * lineHeight + graphHeight + 12;
+
+        // Text rendering allocates, so it only happens when the text changes.
+        if (overlayText == null) {
+            overlayText = new BufferedImage(boxWidth, boxHeight, BufferedImage.TYPE_INT_RGB);
+            overlayTextGraphics = overlayText.createGraphics();
+            overlayTextGraphics.setFont(OVERLAY_FONT);
+        }
+        if (overlayTextVersion != FrameProfiler.getTextVersion()) {
+            overlayTextVersion = FrameProfiler.getTextVersion();
+            overlayTextGraphics.setColor(OVERLAY_BACKGROUND);
+            overlayTextGraphics.fillRect(0, 0, boxWidth, boxHeight);
+            overlayTextGraphics.setColor(Color.WHITE);
+            for (int i = 0; i < FrameProfiler.getLineCount(); i++)
+                overlayTextGraphics.drawChars(FrameProfiler.getLine(i), 0, FrameProfiler.getLineLength(i),
+                        4, (i + 1) * lineHeight);
+        }
+        backBufferGraphics.drawImage(overlayText, boxX, boxY, null);
+
+        int graphX = boxX + 4;
+        int graphBottom = boxY + boxHeight - 4;
+        int graphWidth = boxWidth - 8;
+        int points = FrameProfiler.HISTORY;
+        for (int i = 0; i < points; i++) {
+            long frameTime = FrameProfiler.getFrameTime(points - 1 - i);
+            overlayGraphX[i] = graphX + i * graphWidth / points;
+            overlayGraphY[i] = graphBottom - graphHeightOf(frameTime, graphHeight);
+        }
+        backBufferGraphics.setColor(Color.DARK_GRAY);
+        backBufferGraphics.drawRect(graphX, graphBottom - graphHeight, graphWidth, graphHeight);
+        backBufferGraphics.setColor(Color.GREEN);
+        backBufferGraphics.drawLine(graphX, graphBottom - graphHeightOf(FrameProfiler.getP50(), graphHeight),
+                graphX + graphWidth, graphBottom - graphHeightOf(FrameProfiler.getP50(), graphHeight));
+        backBufferGraphics.setColor(Color.RED);
+        backBufferGraphics.drawLine(graphX, graphBottom - graphHeightOf(FrameProfiler.getP99(), graphHeight),
+                graphX + graphWidth, graphBottom - graphHeightOf(FrameProfiler.getP99(), graphHeight));
+        backBufferGraphics.setColor(Color.YELLOW);
+        backBufferGraphics.drawPolyline(overlayGraphX, overlayGraphY, points);
+        FrameProfiler.end(FrameProfiler.Section.OVERLAY);
+    }
+
+    private static int graphHeightOf(final long frameTime, final int graphHeight) {
+        return (int) (Math.min(frameTime, OVERLAY_GRAPH_RANGE) * graphHeight / OVERLAY_GRAPH_RANGE);
+    }
+
+    /**
+     * @return Explosion particles alive at the last draw.
+     */
+    public int getParticleCount() {
+        return particleCount;
+    }
+
+    private static Object antialiasing(final GraphicsQuality quality) {
+        return quality.isAntialiasing() ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF;
+    }
+
+    /**
+     * Starts the HUD of the game screen. At lower qualities the HUD is drawn
+     * into a layer every few frames only, and the layer is copied in between.
+     *
+     * @param screen
+     *               Screen to draw on.
+     * @return True if the HUD must be drawn this frame, followed in any case
+     *         by {@link #endHud()}.
+     */
+    public boolean beginHud(final Screen screen) {
+        int interval = QualityController.getQuality().getHudInterval();
+        hudLayered = interval > 1;
+        if (!hudLayered)
+            return true;
+        if (hudLayer == null || hudLayer.getWidth() != screen.getWidth()) {
+            if (hudLayerGraphics != null)
+                hudLayerGraphics.dispose();
+            hudLayer = new BufferedImage(screen.getWidth(), HUD_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+            hudLayerGraphics = hudLayer.createGraphics();
+            hudFramesLeft = 0;
+        }
+        if (hudFramesLeft-- > 0)
+            return false;
+        hudFramesLeft = interval - 1;
+
+        hudLayerGraphics.setComposite(AlphaComposite.Clear);
+        hudLayerGraphics.fillRect(0, 0, hudLayer.getWidth(), hudLayer.getHeight());
+        hudLayerGraphics.setComposite(AlphaComposite.SrcOver);
+        hudSavedGraphics = backBufferGraphics;
+        backBufferGraphics = hudLayerGraphics;
+        return true;
+    }
+
+    /**
+     * Ends the HUD started with {@link #beginHud(Screen)}.
+     */
+    public void endHud() {
+        if (hudSavedGraphics != null) {
+            backBufferGraphics = hudSavedGraphics;
+            hudSavedGraphics = null;
+        }
+        if (hudLayered)
+            backBufferGraphics.drawImage(hudLayer, 0, 0, null);
     }
 
     /**
@@ -237,33 +506,92 @@ public final class DrawManager {
      *                  Coordinates for the upper side of the image.
      */
     public void drawEntity(final Entity entity, final int positionX, final int positionY) {
-        boolean[][] image = spriteMap.get(entity.getSpriteType());
-
         // 2P mode: start with the main.entity's own color
-        Color color = getColor(entity);
+        drawSprite(backBufferGraphics, spriteMap.get(entity.getSpriteType()), getColor(entity), positionX,
+                positionY, entity.getWidth(), entity.getHeight());
+    }
+
+    /**
+     * Draws many entities sharing a few looks, such as a swarm, each as one
+     * image of its sprite rasterized once per sprite, size and color.
+     *
+     * @param entities
+     *            Entities to draw, at their positions.
+     */
+    public void drawCrowd(final Iterable<? extends Entity> entities) {
+        for (Entity entity : entities)
+            backBufferGraphics.drawImage(crowdImage(entity.getSpriteType(), getColor(entity).getRGB(),
+                    entity.getWidth(), entity.getHeight()), entity.getPositionX(), entity.getPositionY(), null);
+    }
 
+    /**
+     * Returns the image of a sprite in a size and color, rasterizing it the
+     * first time it is asked for.
+     */
+    private BufferedImage crowdImage(final SpriteType spriteType, final int argb, final int width,
+                                     final int height) {
+        long key = (long) argb << 32 | (long) spriteType.ordinal() << 24 | (width & 0xFFF) << 12 | height & 0xFFF;
+        BufferedImage image = crowdImages.get(key);
+        if (image == null) {
+            if (crowdImages.size() == CROWD_CACHE_SIZE)
+                crowdImages.clear();
+            boolean[][] sprite = spriteMap.get(spriteType);
+            // Scaled pixels may reach past the entity, as they do when drawn directly.
+            image = new BufferedImage(width + (int) Math.ceil((float) width / sprite.length),
+                    height + (int) Math.ceil((float) height / sprite[0].length), BufferedImage.TYPE_INT_ARGB);
+            Graphics imageGraphics = image.getGraphics();
+            drawSprite(imageGraphics, sprite, new Color(argb, true), 0, 0, width, height);
+            imageGraphics.dispose();
+            crowdImages.put(key, image);
+        }
+        return image;
+    }
+
+    /**
+     * Draws every entity of an archetype straight from its columns, with the
+     * color each entity has. Bullets come in the thousands under bullet
+     * patterns, so each is drawn as one cached image like a crowd.
+     *
+     * @param archetype
+     *            Entities to draw.
+     */
+    public void drawEntities(final Archetype<?> archetype) {
+        int size = archetype.size();
+        int[] x = archetype.column(Archetype.Component.X);
+        int[] y = archetype.column(Archetype.Component.Y);
+        int[] width = archetype.column(Archetype.Component.WIDTH);
+        int[] height = archetype.column(Archetype.Component.HEIGHT);
+        int[] sprite = archetype.column(Archetype.Component.SPRITE);
+        int[] argb = archetype.column(Archetype.Component.COLOR);
+        for (int row = 0; row < size; row++)
+            backBufferGraphics.drawImage(crowdImage(SPRITE_TYPES[sprite[row]], argb[row], width[row], height[row]),
+                    x[row], y[row], null);
+    }
+
+    /**
+     * Draws a sprite scaled to the size of its entity.
+     */
+    private static void drawSprite(final Graphics target, final boolean[][] image, final Color color,
+                                   final int positionX, final int positionY, final int entityWidth,
+                                   final int entityHeight) {
         // --- Scaling logic ---
         // Original sprite dimensions
         int spriteWidth = image.length;
         int spriteHeight = image[0].length;
 
-        // Entity dimensions (modified via Bullet constructor or other entities)
-        int entityWidth = entity.getWidth();
-        int entityHeight = entity.getHeight();
-
         // Calculate scaling ratios compared to original sprite
         float widthRatio = (float) entityWidth / (spriteWidth * 2);
         float heightRatio = (float) entityHeight / (spriteHeight * 2);
         // --- End of scaling logic ---
 
         // Set drawing color again
-        backBufferGraphics.setColor(color);
+        target.setColor(color);
         // Draw the sprite with scaling applied
         for (int i = 0; i < spriteWidth; i++) {
             for (int j = 0; j < spriteHeight; j++) {
                 if (image[i][j]) {
                     // Apply calculated scaling ratio to pixel positions and size
-                    backBufferGraphics.fillRect(
+                    target.fillRect(
                             positionX + (int)(i * 2 * widthRatio),
                             positionY + (int)(j * 2 * heightRatio),
                             (int)Math.ceil(widthRatio * 2), // Adjust the width of the pixel
@@ -274,7 +602,14 @@ public final class DrawManager {
         }
     }
 
-    private static Color getColor(Entity entity) {
+    /**
+     * Returns the color an entity is drawn with.
+     *
+     * @param entity
+     *            Entity to draw.
+     * @return Its color, after the player and damage tints.
+     */
+    public static Color getColor(Entity entity) {
         Color color = entity.getColor();
 
         // Color-code by player when applicable
@@ -282,10 +617,6 @@ public final class DrawManager {
             color = Color.BLUE;
             // else leave default (e.g., green) for legacy/unknown
         }
-        else if (entity instanceof Bullet bullet) {
-            color = Color.CYAN; // P1 bullet
-            // enemy bullets will keep their default color from the entity
-        }
 
         /*
           Makes A-type enemies semi-transparent when their health is 1.
@@ -306,19 +637,24 @@ public final class DrawManager {
     }
 
     public void triggerExplosion(int x, int y, boolean enemy, boolean finalExplosion) {
+        if (isHeadless())
+            return;
         logger.info("Enemy: "+enemy);
         logger.info("final: "+finalExplosion);
-        explosions.add(new Explosion(x, y, enemy, finalExplosion));
+        explosions.add(new Explosion(x, y, enemy, finalExplosion,
+                QualityController.getQuality().getExplosionParticles()));
     }
 
     public void drawExplosions(){
+        GraphicsQuality quality = QualityController.getQuality();
 
         Graphics2D g2d = (Graphics2D) backBufferGraphics;
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, antialiasing(quality));
 
         g2d.setColor(Color.WHITE);
 
 
+        particleCount = 0;
         Iterator<Explosion> iterator = explosions.iterator();
 
         while(iterator.hasNext()){
@@ -334,16 +670,28 @@ public final class DrawManager {
                 if(!p.active){
                     continue;
                 }
+                particleCount++;
 
                 int baseSize;
 
-                Random random = new Random();
+                RandomStream random = RandomService.cosmetic();
                 if (e.getSize() == 4)
                     baseSize = random.nextInt(5) + 2;
                 else
                     baseSize = random.nextInt(6)+18;
 
-                int flickerAlpha = Math.max(0, Math.min(255, p.color.getAlpha() - (int)(Math.random() * 50)));
+                int flickerAlpha = Math.max(0, Math.min(255, p.color.getAlpha() - random.nextInt(50)));
+                int offsetX = random.nextInt(-1, 2);
+                int offsetY = random.nextInt(-1, 2);
+
+                if (!quality.hasGlow()) {
+                    // Only the core of the glow, as a flat disc.
+                    int coreSize = Math.max(2, baseSize / 2);
+                    g2d.setColor(p.color);
+                    g2d.fillOval((int) (p.x - (double) coreSize / 2 + offsetX),
+                            (int) (p.y - (double) coreSize / 2 + offsetY), coreSize, coreSize);
+                    continue;
+                }
 
 
                 float[] dist = {0.0f, 0.3f, 0.7f, 1.0f};
@@ -374,9 +722,6 @@ public final class DrawManager {
 
                 g2d.setPaint(paint);
 
-                int offsetX = (int) (Math.random() * 4 - 2);
-                int offsetY = (int) (Math.random() * 4 - 2);
-
                 g2d.fillOval(
                         (int) (p.x - (double) baseSize / 2 + offsetX),
                         (int) (p.y - (double) baseSize / 2 + offsetY),
@@ -395,17 +740,23 @@ public final class DrawManager {
      */
     public void updateMenuSpace(){
         menuSpace.updateStars();
+        GraphicsQuality quality = QualityController.getQuality();
 
         Graphics2D g2d = (Graphics2D) backBufferGraphics;
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, antialiasing(quality));
 
         backBufferGraphics.setColor(Color.WHITE);
         int[][] positions = menuSpace.getStarLocations();
 
-        for(int i = 0; i < menuSpace.getNumStars(); i++){
+        for(int i = 0; i < quality.scaleStars(menuSpace.getNumStars()); i++){
 
             int size = 1;
             int radius = size * 2;
+            if (!quality.hasGlow()) {
+                backBufferGraphics.setColor(menuSpace.getColor());
+                backBufferGraphics.fillRect(positions[i][0], positions[i][1], size, size);
+                continue;
+            }
 
             float[] dist = {0.0f, 1.0f};
             Color[] colors = {
@@ -444,16 +795,22 @@ public final class DrawManager {
      */
     public void updateGameSpace(){
         basicGameSpace.update();
+        GraphicsQuality quality = QualityController.getQuality();
 
         Graphics2D g2d = (Graphics2D) backBufferGraphics;
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, antialiasing(quality));
 
         backBufferGraphics.setColor(Color.WHITE);
         int[][] positions = basicGameSpace.getStarLocations();
-        for(int i = 0; i < basicGameSpace.getNumStars(); i++){
+        for(int i = 0; i < quality.scaleStars(basicGameSpace.getNumStars()); i++){
 
             int size = (positions[i][2] < 2) ? 2 : 1;
             int radius = size * 2;
+            if (!quality.hasGlow()) {
+                backBufferGraphics.setColor(basicGameSpace.isLastLife() ? Color.RED : Color.WHITE);
+                backBufferGraphics.fillRect(positions[i][0], positions[i][1], size, size);
+                continue;
+            }
 
             float[] dist = {0.0f, 1.0f};
             Color[] colors = new Color[2];
@@ -1436,6 +1793,27 @@ public final class DrawManager {
 
     }
 
+    /**
+     * Draws the graphics quality setting.
+     *
+     * @param screen
+     *               Screen to draw on.
+     * @param preset
+     *               Name of the chosen setting.
+     */
+    public void drawGraphicsSetting(final Screen screen, final String preset) {
+        int x = screen.getWidth() / 2;
+        int y = screen.getHeight() * 3 / 10;
+
+        backBufferGraphics.setFont(fontRegular);
+        backBufferGraphics.setColor(Color.WHITE);
+        backBufferGraphics.drawString("Quality", x - 80, y + 7);
+        backBufferGraphics.setColor(Color.GREEN);
+        backBufferGraphics.drawString("< " + preset + " >", x + 20, y + 7);
+        backBufferGraphics.setColor(Color.GRAY);
+        backBufferGraphics.drawString("Auto adapts to frame drops", x - 80, y + 47);
+    }
+
     public void drawSettingLayout(final Screen screen, final String[] menuItems, final int selectedmenuItems) {
         int splitPointX = screen.getWidth() *3/10;
         backBufferGraphics.setFont(fontRegular);
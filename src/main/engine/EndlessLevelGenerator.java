@@ -0,0 +1,187 @@
+package main.engine;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.logging.Logger;
+
+import main.engine.GameSettings.ChangeData;
+import main.engine.metrics.GameMetrics;
+
+/**
+ * Generates endless-mode stages from difficulty curves. A stage depends only
+ * on the seed and its depth, so a run can be reproduced from its seed no
+ * matter in which order stages were generated. Stages are generated a few
+ * levels ahead on the background executor and only a bounded number of them
+ * are kept in memory.
+ */
+public final class EndlessLevelGenerator {
+
+    /** Stages generated ahead of the one being played. */
+    private static final int LOOKAHEAD = 3;
+    /** Generated stages kept in memory. */
+    private static final int CACHE_SIZE = 16;
+    /** Depth at which the difficulty curves are about two thirds of the way. */
+    private static final double RAMP_DEPTH = 15.0;
+    /** Widest formation that fits on the screen. */
+    private static final int MAX_WIDTH = 9;
+    /** Tallest formation that leaves room to dodge. */
+    private static final int MAX_HEIGHT = 6;
+    /** Fastest formation movement. */
+    private static final int MIN_BASE_SPEED = 20;
+    /** Fastest formation shooting. */
+    private static final int MIN_SHOOTING_FREQUENCY = 350;
+    /** Elite colors, from weakest to strongest. */
+    private static final Color[] ELITE_COLORS = {
+            GameSettings.hexToColor("#3bceac"), GameSettings.hexToColor("#ffd23f"),
+            GameSettings.hexToColor("#ee4266"), GameSettings.hexToColor("#8338ec")
+    };
+
+    /** Application logger. */
+    private final Logger logger;
+    /** Seed of the run. */
+    private final long seed;
+    /** Level number of the first generated stage. */
+    private final int firstLevel;
+    /** Recently generated stages, least recently used first. */
+    private final Map<Integer, GameSettings> cache =
+            new LinkedHashMap<>(CACHE_SIZE * 2, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<Integer, GameSettings> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            };
+    /** Stages currently being generated in the background. */
+    private final Prefetcher<Integer, GameSettings> pending = new Prefetcher<>(this::store);
+
+    /**
+     * Constructor.
+     *
+     * @param seed
+     *            Seed of the run.
+     * @param firstLevel
+     *            Level number of the first generated stage.
+     */
+    public EndlessLevelGenerator(final long seed, final int firstLevel) {
+        this.logger = Core.getLogger();
+        this.seed = seed;
+        this.firstLevel = firstLevel;
+        this.logger.info("Endless mode from level " + firstLevel + " with seed " + seed + ".");
+    }
+
+    /**
+     * @return Seed of the run.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Returns a generated stage and schedules the following ones.
+     *
+     * @param level
+     *            Level number, at least the first generated level.
+     * @return Settings of the stage.
+     */
+    public GameSettings getSettings(final int level) {
+        GameSettings settings;
+        synchronized (cache) {
+            settings = cache.get(level);
+        }
+        if (settings == null) {
+            GameMetrics.ENDLESS_CACHE_MISSES.increment();
+            settings = pending.get(level);
+        } else {
+            GameMetrics.ENDLESS_CACHE_HITS.increment();
+        }
+        prefetch(level + 1);
+        return settings;
+    }
+
+    /**
+     * Generates the given stage and the ones after it in the background.
+     *
+     * @param level
+     *            First level number to have ready.
+     */
+    public void prefetch(final int level) {
+        for (int next = Math.max(level, firstLevel); next < level + LOOKAHEAD; next++) {
+            synchronized (cache) {
+                if (cache.containsKey(next))
+                    continue;
+            }
+            pending.prefetch(next);
+        }
+    }
+
+    /**
+     * Generates and caches a stage.
+     *
+     * @param level
+     *            Level number.
+     * @return Settings of the stage.
+     */
+    private GameSettings store(final int level) {
+        GameSettings settings = generate(seed, level - firstLevel + 1);
+        synchronized (cache) {
+            cache.put(level, settings);
+        }
+        return settings;
+    }
+
+    /**
+     * Generates a stage. Pure function of its arguments.
+     *
+     * @param seed
+     *            Seed of the run.
+     * @param depth
+     *            Number of the stage within endless mode, starting at 1.
+     * @return Settings of the stage, with its change list filled in.
+     */
+    public static GameSettings generate(final long seed, final int depth) {
+        SplittableRandom random = new SplittableRandom(seed ^ (depth * 0x9E3779B97F4A7C15L));
+        // Saturating curve for layout and pace, linear growth for toughness.
+        double difficulty = 1.0 - Math.exp(-depth / RAMP_DEPTH);
+
+        int width = clamp(5 + (int) Math.round(4 * difficulty) + random.nextInt(-1, 2), 3, MAX_WIDTH);
+        int height = clamp(3 + (int) Math.round(3 * difficulty) + random.nextInt(-1, 1), 2, MAX_HEIGHT);
+        int baseSpeed = Math.max(MIN_BASE_SPEED, (int) (100 - 75 * difficulty));
+        int shootingFrequency = Math.max(MIN_SHOOTING_FREQUENCY,
+                (int) ((2000 - 1550 * difficulty) * (0.9 + random.nextDouble() * 0.2)));
+        GameSettings settings = new GameSettings(width, height, baseSpeed, shootingFrequency);
+
+        float eliteHp = (float) Math.round((1.0 + depth / 8.0) * 2) / 2;
+        int eliteReward = (int) Math.ceil(eliteHp);
+        Color eliteColor = ELITE_COLORS[Math.min(ELITE_COLORS.length - 1, depth / 8)];
+        double holeChance = 0.1 + 0.15 * random.nextDouble();
+        double eliteChance = 0.1 + 0.4 * difficulty;
+
+        // Left half is rolled and mirrored so formations stay symmetric. The
+        // bottom row is never removed, so no column ends up empty.
+        List<ChangeData> changes = new ArrayList<>();
+        for (int x = 0; x < (width + 1) / 2; x++) {
+            int mirror = width - 1 - x;
+            for (int y = 0; y < height; y++) {
+                double roll = random.nextDouble();
+                if (roll < holeChance && y < height - 1) {
+                    changes.add(new ChangeData(x, y, 0, 0));
+                    if (mirror != x)
+                        changes.add(new ChangeData(mirror, y, 0, 0));
+                } else if (roll < holeChance + eliteChance) {
+                    changes.add(new ChangeData(x, y, eliteHp, eliteReward, eliteColor));
+                    if (mirror != x)
+                        changes.add(new ChangeData(mirror, y, eliteHp, eliteReward, eliteColor));
+                }
+            }
+        }
+        settings.getChangeDataList().addAll(changes);
+        return settings;
+    }
+
+    private static int clamp(final int value, final int min, final int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+}
@@ -14,9 +14,16 @@ import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.io.UncheckedIOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.logging.Logger;
 import main.engine.DrawManager.SpriteType;
+import main.engine.jfr.FileEvent;
+import main.engine.metrics.GameMetrics;
+import main.engine.metrics.Histogram;
 import main.engine.upgrade.ShipUpgradeData;
 import main.engine.upgrade.ShipUpgradeType;
 
@@ -35,6 +42,21 @@ public final class FileManager {
      * Application logger.
      */
     private static Logger logger;
+    /** High scores read ahead of time, handed out by the next load. */
+    private CompletableFuture<List<Score>> prefetchedHighScores;
+
+    /**
+     * Load or save of a file.
+     *
+     * @param <T>
+     *            Type of what is loaded.
+     * @param <E>
+     *            Type of the exception thrown.
+     */
+    @FunctionalInterface
+    private interface FileAccess<T, E extends Exception> {
+        T run() throws E;
+    }
 
     /**
      * private constructor.
@@ -48,7 +70,7 @@ public final class FileManager {
      *
      * @return Shared instance of FileManager.
      */
-    static FileManager getInstance() {
+    static synchronized FileManager getInstance() {
         if (instance == null)
             instance = new FileManager();
         return instance;
@@ -65,6 +87,14 @@ public final class FileManager {
      */
     public void loadSprite(final Map<SpriteType, boolean[][]> spriteMap)
             throws IOException {
+        recorded("load", "graphics", null, () -> {
+            readSprites(spriteMap);
+            return null;
+        });
+    }
+
+    private void readSprites(final Map<SpriteType, boolean[][]> spriteMap)
+            throws IOException {
 
         try (InputStream inputStream = DrawManager.class.getClassLoader().getResourceAsStream("graphics")) {
             char c;
@@ -97,6 +127,17 @@ public final class FileManager {
      */
     public Font loadFont(final float size) throws IOException,
             FontFormatException {
+        // Two checked exceptions, which recorded() can't pass on.
+        FileEvent fileEvent = FileEvent.start("load", "font.ttf");
+        try {
+            return readFont(size);
+        } finally {
+            fileEvent.commit();
+        }
+    }
+
+    private Font readFont(final float size) throws IOException,
+            FontFormatException {
         InputStream inputStream = null;
         Font font;
 
@@ -114,6 +155,34 @@ public final class FileManager {
         return font;
     }
 
+    /**
+     * Runs a load or save as a flight recorder file event.
+     *
+     * @param operation
+     *            "load" or "save".
+     * @param file
+     *            Name of the file.
+     * @param saveTime
+     *            Histogram of the duration of saves of the file, or null.
+     * @param access
+     *            The load or save.
+     * @return What was loaded.
+     * @throws E
+     *             If the load or save fails.
+     */
+    private static <T, E extends Exception> T recorded(final String operation, final String file,
+            final Histogram saveTime, final FileAccess<T, E> access) throws E {
+        FileEvent fileEvent = FileEvent.start(operation, file);
+        long start = System.nanoTime();
+        try {
+            return access.run();
+        } finally {
+            fileEvent.commit();
+            if (saveTime != null)
+                saveTime.recordSince(start);
+        }
+    }
+
     /**
      * Returns the filepath
      *
@@ -143,14 +212,57 @@ public final class FileManager {
         return highScores;
     }
 
+    /**
+     * Starts reading the high scores in the background, so the next
+     * {@link #loadHighScores()} does not touch the disk.
+     */
+    public synchronized void prefetchHighScores() {
+        if (prefetchedHighScores != null)
+            return;
+        prefetchedHighScores = CompletableFuture.supplyAsync(() -> {
+            try {
+                return readHighScores();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, Core.getBackgroundExecutor());
+    }
+
     /**
      * Loads high scores from file, and returns a sorted list of pairs score -
-     * value.
+     * value. Uses the prefetched scores if there are any.
      * @return Sorted list of scores - players.
      * @throws IOException
      *             In case of loading problems.
      */
     public List<Score> loadHighScores() throws IOException {
+        return recorded("load", "scores", null, this::takeHighScores);
+    }
+
+    private List<Score> takeHighScores() throws IOException {
+        CompletableFuture<List<Score>> prefetched;
+        synchronized (this) {
+            prefetched = prefetchedHighScores;
+            prefetchedHighScores = null;
+        }
+        if (prefetched != null) {
+            try {
+                return prefetched.join();
+            } catch (CompletionException e) {
+                logger.warning("Prefetching high scores failed, reading them again.");
+            }
+        }
+        return readHighScores();
+    }
+
+    /**
+     * Reads high scores from file, sorted.
+     *
+     * @return Sorted list of scores - players.
+     * @throws IOException
+     *             In case of loading problems.
+     */
+    private List<Score> readHighScores() throws IOException {
         List<Score> highScores = new ArrayList<>();
         InputStream inputStream;
         BufferedReader bufferedReader = null;
@@ -194,6 +306,16 @@ public final class FileManager {
      *             In case of loading problems.
      */
     public void saveHighScores(final List<Score> highScores) throws IOException {
+        recorded("save", "scores", GameMetrics.SAVE_SCORES, () -> {
+            writeHighScores(highScores);
+            return null;
+        });
+    }
+
+    private void writeHighScores(final List<Score> highScores) throws IOException {
+        synchronized (this) {
+            prefetchedHighScores = null;
+        }
         OutputStream outputStream;
         BufferedWriter bufferedWriter = null;
 
@@ -220,6 +342,28 @@ public final class FileManager {
         }
     }
 
+    /**
+     * Saves the replay of the last game played, replacing the previous one.
+     *
+     * @param replay
+     *            Replay to save.
+     * @throws IOException
+     *             In case of saving problems.
+     */
+    public void saveReplay(final Replay replay) throws IOException {
+        recorded("save", "last_game.replay", GameMetrics.SAVE_REPLAY, () -> {
+            writeReplay(replay);
+            return null;
+        });
+    }
+
+    private void writeReplay(final Replay replay) throws IOException {
+        Path path = Path.of(getFilePath("last_game.replay"));
+        replay.write(path);
+        logger.info("Saved replay of " + replay.getResult().ticks() + " ticks, "
+                + replay.getEventBytes() + " bytes of input, to " + path + ".");
+    }
+
     /**
      * Search Achievement list of user
      *
@@ -227,6 +371,10 @@ public final class FileManager {
      * @throws IOException In case of loading problems.
      */
     public List<Boolean> searchAchievementsByName(String userName) throws IOException {
+        return recorded("load", "achievement.csv", null, () -> readAchievements(userName));
+    }
+
+    private List<Boolean> readAchievements(String userName) throws IOException {
         List<Boolean> achievementList = new ArrayList<>();
 
         try {
@@ -282,6 +430,13 @@ public final class FileManager {
      * @param unlockedAchievement  A list of booleans representing which achievements have been unlocked.
      */
     public void unlockAchievement(String userName, List<Boolean> unlockedAchievement) {
+        recorded("save", "achievement.csv", GameMetrics.SAVE_ACHIEVEMENTS, () -> {
+            writeAchievements(userName, unlockedAchievement);
+            return null;
+        });
+    }
+
+    private void writeAchievements(String userName, List<Boolean> unlockedAchievement) {
         List<String[]> records = new ArrayList<>();
 
         try {
@@ -356,6 +511,10 @@ public final class FileManager {
      * [2025-10-09] Added in commit: feat: add method to retrieve achievement completer
      */
     public List<String> getAchievementCompleter(Achievement achievement) {
+        return recorded("load", "achievement.csv", null, () -> readAchievementCompleter(achievement));
+    }
+
+    private List<String> readAchievementCompleter(Achievement achievement) {
         List<String> completer = new ArrayList<>();
         try {
             String achievementPath = getFilePath("achievement.csv");
@@ -411,6 +570,10 @@ public final class FileManager {
      * @throws IOException In case of loading problems.
      */
     public ShipUpgradeData loadShipUpgrades() throws IOException {
+        return recorded("load", "ShipUpgrade.csv", null, this::readShipUpgrades);
+    }
+
+    private ShipUpgradeData readShipUpgrades() throws IOException {
         String path = getFilePath("ShipUpgrade.csv");
         File upgradeFile = new File(path);
         Map<SpriteType, EnumMap<ShipUpgradeType, Integer>> levels = new EnumMap<>(SpriteType.class);
@@ -484,6 +647,13 @@ public final class FileManager {
      * @throws IOException In case of saving problems.
      */
     public void saveShipUpgrades(final ShipUpgradeData data) throws IOException {
+        recorded("save", "ShipUpgrade.csv", GameMetrics.SAVE_UPGRADES, () -> {
+            writeShipUpgrades(data);
+            return null;
+        });
+    }
+
+    private void writeShipUpgrades(final ShipUpgradeData data) throws IOException {
         saveCoins(data.getCoins());
 
         String path = getFilePath("ShipUpgrade.csv");
@@ -515,6 +685,10 @@ public final class FileManager {
      * @throws IOException In case of loading problems.
      */
     public int loadCoins() throws IOException {
+        return recorded("load", "coins.csv", null, this::readCoins);
+    }
+
+    private int readCoins() throws IOException {
         String path = getFilePath("coins.csv");
         File coinFile = new File(path);
 
@@ -548,6 +722,13 @@ public final class FileManager {
      * @throws IOException In case of saving problems.
      */
     public void saveCoins(final int coins) throws IOException {
+        recorded("save", "coins.csv", GameMetrics.SAVE_COINS, () -> {
+            writeCoins(coins);
+            return null;
+        });
+    }
+
+    private void writeCoins(final int coins) throws IOException {
         String path = getFilePath("coins.csv");
         File coinFile = new File(path);
         try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(coinFile), StandardCharsets.UTF_8))) {
@@ -0,0 +1,356 @@
+package main.engine;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+
+import main.entity.BulletPool;
+import main.entity.ItemPool;
+
+/**
+ * Measures where the time of a frame goes, for the performance overlay.
+ * Sections are timed with {@link #begin(Section)} and {@link #end(Section)}
+ * from the game loop thread, and cost a branch while the overlay is hidden.
+ * The overlay text is rebuilt a few times per second into preallocated
+ * character buffers, so profiling allocates nothing.
+ */
+public final class FrameProfiler {
+
+    /** Timed parts of a frame. */
+    public enum Section {
+        /** Game logic, without drawing. */
+        UPDATE("update"),
+        /** Bullet collisions. */
+        COLLISIONS("collide"),
+        /** Formation or boss movement and shooting. */
+        FORMATION("enemies"),
+        /** Drawing into the back buffer. */
+        DRAW("draw"),
+        /** Copying the back buffer to the window. */
+        PRESENT("present"),
+        /** Drawing the overlay itself. */
+        OVERLAY("overlay");
+
+        /** Label shown on the overlay. */
+        private final String label;
+
+        Section(final String label) {
+            this.label = label;
+        }
+    }
+
+    /** Sections, cached since values() copies the array. */
+    private static final Section[] SECTIONS = Section.values();
+    /** Frames kept in the frame-time graph. */
+    public static final int HISTORY = 240;
+    /** Frames between refreshes of the overlay text. */
+    private static final int REFRESH_FRAMES = 15;
+    /** Characters per overlay line. */
+    private static final int LINE_LENGTH = 40;
+    /** Lines of overlay text. */
+    private static final int LINES = 7 + SECTIONS.length;
+
+    /** If the overlay is shown and sections are measured. */
+    private static boolean enabled;
+
+    /** Start of the running sections. */
+    private static final long[] sectionStart = new long[SECTIONS.length];
+    /** Time spent in each section during the current frame. */
+    private static final long[] sectionFrame = new long[SECTIONS.length];
+    /** Smoothed time per frame of each section. */
+    private static final long[] sectionAverage = new long[SECTIONS.length];
+
+    /** Time between the starts of the last frames, in nanoseconds. */
+    private static final long[] frameTimes = new long[HISTORY];
+    /** Scratch copy of the frame times, sorted for percentiles. */
+    private static final long[] sorted = new long[HISTORY];
+    /** Next slot of the frame times. */
+    private static int historyIndex;
+    /** Valid entries of the frame times. */
+    private static int historyCount;
+    /** Start of the last frame. */
+    private static long lastFrameEnd;
+    /** Frames until the text is rebuilt. */
+    private static int framesToRefresh;
+    /** Percentiles of the frame time, in nanoseconds. */
+    private static long p50;
+    private static long p99;
+
+    /** Entity counts reported by the screen. */
+    private static int bullets;
+    private static int items;
+    private static int enemies;
+    private static int particles;
+
+    /** Garbage collectors of the virtual machine. */
+    private static final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    /** Collections and collection time when profiling started. */
+    private static long gcCountStart;
+    private static long gcTimeStart;
+
+    /** Overlay text. */
+    private static final char[][] lines = new char[LINES][LINE_LENGTH];
+    private static final int[] lineLengths = new int[LINES];
+    /** Incremented whenever the text changes. */
+    private static int textVersion;
+
+    /**
+     * Constructor, not called.
+     */
+    private FrameProfiler() {
+
+    }
+
+    /**
+     * Shows or hides the overlay.
+     */
+    public static void toggle() {
+        enabled = !enabled;
+        if (enabled) {
+            historyIndex = 0;
+            historyCount = 0;
+            lastFrameEnd = 0;
+            framesToRefresh = 0;
+            Arrays.fill(sectionAverage, 0);
+            Arrays.fill(sectionFrame, 0);
+            gcCountStart = gcCount();
+            gcTimeStart = gcTime();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Starts timing a section.
+     *
+     * @param section
+     *            Section starting.
+     */
+    public static void begin(final Section section) {
+        if (enabled)
+            sectionStart[section.ordinal()] = System.nanoTime();
+    }
+
+    /**
+     * Stops timing a section. A section may run several times per frame.
+     *
+     * @param section
+     *            Section ending.
+     */
+    public static void end(final Section section) {
+        if (enabled)
+            sectionFrame[section.ordinal()] += System.nanoTime() - sectionStart[section.ordinal()];
+    }
+
+    /**
+     * Reports the number of live entities of the frame.
+     *
+     * @param bulletCount
+     *            Bullets on screen.
+     * @param itemCount
+     *            Items on screen.
+     * @param enemyCount
+     *            Enemy ships alive.
+     * @param particleCount
+     *            Explosion particles alive.
+     */
+    public static void setCounts(final int bulletCount, final int itemCount, final int enemyCount,
+                                 final int particleCount) {
+        bullets = bulletCount;
+        items = itemCount;
+        enemies = enemyCount;
+        particles = particleCount;
+    }
+
+    /**
+     * Closes the frame, called by the game loop after each update.
+     */
+    public static void endFrame() {
+        if (!enabled)
+            return;
+        long now = System.nanoTime();
+        if (lastFrameEnd != 0) {
+            frameTimes[historyIndex] = now - lastFrameEnd;
+            historyIndex = (historyIndex + 1) % HISTORY;
+            historyCount = Math.min(historyCount + 1, HISTORY);
+        }
+        lastFrameEnd = now;
+
+        // Drawing happens inside the update, count it only once.
+        int update = Section.UPDATE.ordinal();
+        sectionFrame[update] = Math.max(0, sectionFrame[update] - sectionFrame[Section.DRAW.ordinal()]
+                - sectionFrame[Section.PRESENT.ordinal()] - sectionFrame[Section.OVERLAY.ordinal()]);
+        for (int i = 0; i < sectionFrame.length; i++) {
+            sectionAverage[i] += (sectionFrame[i] - sectionAverage[i]) / 16;
+            sectionFrame[i] = 0;
+        }
+
+        if (--framesToRefresh <= 0) {
+            framesToRefresh = REFRESH_FRAMES;
+            refreshText();
+        }
+    }
+
+    /**
+     * Rebuilds the overlay text from the current measurements.
+     */
+    private static void refreshText() {
+        System.arraycopy(frameTimes, 0, sorted, 0, historyCount);
+        Arrays.sort(sorted, 0, historyCount);
+        p50 = historyCount > 0 ? sorted[historyCount / 2] : 0;
+        p99 = historyCount > 0 ? sorted[Math.min(historyCount - 1, historyCount * 99 / 100)] : 0;
+        long total = 0;
+        for (int i = 0; i < historyCount; i++)
+            total += frameTimes[i];
+        long fps = total > 0 ? historyCount * 1_000_000_000L / total : 0;
+
+        int line = 0;
+        int n = append(lines[line], 0, "FPS ");
+        n = appendLong(lines[line], n, fps);
+        lineLengths[line++] = n;
+
+        n = append(lines[line], 0, "frame p50 ");
+        n = appendMillis(lines[line], n, p50);
+        n = append(lines[line], n, " p99 ");
+        n = appendMillis(lines[line], n, p99);
+        n = append(lines[line], n, " ms");
+        lineLengths[line++] = n;
+
+        if (LatencyProbe.isEnabled() && LatencyProbe.getSampleCount() > 0) {
+            n = append(lines[line], 0, "input p50 ");
+            n = appendMillis(lines[line], n, LatencyProbe.getP50());
+            n = append(lines[line], n, " p99 ");
+            n = appendMillis(lines[line], n, LatencyProbe.getP99());
+            n = append(lines[line], n, " ms");
+        } else {
+            n = append(lines[line], 0, LatencyProbe.isEnabled() ? "input waiting" : "input latency off");
+        }
+        lineLengths[line++] = n;
+
+        for (Section section : SECTIONS) {
+            n = append(lines[line], 0, section.label);
+            while (n < 9)
+                lines[line][n++] = ' ';
+            n = appendMillis(lines[line], n, sectionAverage[section.ordinal()]);
+            n = append(lines[line], n, " ms");
+            lineLengths[line++] = n;
+        }
+
+        n = append(lines[line], 0, "bullets ");
+        n = appendLong(lines[line], n, bullets);
+        n = append(lines[line], n, " items ");
+        n = appendLong(lines[line], n, items);
+        lineLengths[line++] = n;
+
+        n = append(lines[line], 0, "enemies ");
+        n = appendLong(lines[line], n, enemies);
+        n = append(lines[line], n, " particles ");
+        n = appendLong(lines[line], n, particles);
+        lineLengths[line++] = n;
+
+        n = append(lines[line], 0, "pools bullet ");
+        n = appendUsage(lines[line], n, BulletPool.getCreated(), BulletPool.getAvailable());
+        n = append(lines[line], n, " item ");
+        n = appendUsage(lines[line], n, ItemPool.getCreated(), ItemPool.getAvailable());
+        lineLengths[line++] = n;
+
+        n = append(lines[line], 0, "GC ");
+        n = appendLong(lines[line], n, gcCount() - gcCountStart);
+        n = append(lines[line], n, " runs ");
+        n = appendLong(lines[line], n, gcTime() - gcTimeStart);
+        n = append(lines[line], n, " ms paused");
+        lineLengths[line] = n;
+        textVersion++;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean collector : collectors)
+            count += Math.max(0, collector.getCollectionCount());
+        return count;
+    }
+
+    private static long gcTime() {
+        long time = 0;
+        for (GarbageCollectorMXBean collector : collectors)
+            time += Math.max(0, collector.getCollectionTime());
+        return time;
+    }
+
+    private static int append(final char[] line, final int position, final String text) {
+        int length = Math.min(text.length(), line.length - position);
+        text.getChars(0, length, line, position);
+        return position + length;
+    }
+
+    private static int appendLong(final char[] line, final int position, final long value) {
+        if (value < 0)
+            return appendLong(line, append(line, position, "-"), -value);
+        int digits = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10)
+            digits++;
+        if (position + digits > line.length)
+            return position;
+        long rest = value;
+        for (int i = position + digits - 1; i >= position; i--) {
+            line[i] = (char) ('0' + rest % 10);
+            rest /= 10;
+        }
+        return position + digits;
+    }
+
+    /** Appends nanoseconds as milliseconds with two decimals. */
+    private static int appendMillis(final char[] line, final int position, final long nanos) {
+        long hundredths = (nanos + 5_000) / 10_000;
+        int n = appendLong(line, position, hundredths / 100);
+        n = append(line, n, ".");
+        if (hundredths % 100 < 10)
+            n = append(line, n, "0");
+        return appendLong(line, n, hundredths % 100);
+    }
+
+    /** Appends the objects of a pool in use out of the ones created. */
+    private static int appendUsage(final char[] line, final int position, final int created, final int available) {
+        int n = appendLong(line, position, created - available);
+        n = append(line, n, "/");
+        return appendLong(line, n, created);
+    }
+
+    static int getLineCount() {
+        return LINES;
+    }
+
+    static char[] getLine(final int line) {
+        return lines[line];
+    }
+
+    static int getLineLength(final int line) {
+        return lineLengths[line];
+    }
+
+    /**
+     * @param age
+     *            Frames ago, 0 for the last frame.
+     * @return Duration of that frame in nanoseconds, 0 if not measured.
+     */
+    static long getFrameTime(final int age) {
+        if (age >= historyCount)
+            return 0;
+        return frameTimes[(historyIndex - 1 - age + HISTORY) % HISTORY];
+    }
+
+    static int getTextVersion() {
+        return textVersion;
+    }
+
+    static long getP50() {
+        return p50;
+    }
+
+    static long getP99() {
+        return p99;
+    }
+}
@@ -0,0 +1,126 @@
+package main.engine;
+
+/**
+ * Time source of the game. Menus run on the wall clock. During a game the
+ * clock only advances once per tick of the game loop, so a run plays out the
+ * same way whether it is shown in real time, replayed faster, or delayed by
+ * a slow frame. Each {@link GameSession} has its own clock.
+ */
+public final class GameClock {
+
+    /** If time advances per tick instead of with the wall clock. */
+    private volatile boolean fixedStep;
+    /** Ticks per second while in fixed-step mode. */
+    private int ticksPerSecond = 60;
+    /** Time at the start of fixed-step mode. */
+    private long fixedStepStart;
+    /** Ticks since the start of fixed-step mode. */
+    private volatile long ticks;
+    /** Playback speed, 1 for real time and 0 for as fast as possible. */
+    private double speed = 1.0;
+
+    /**
+     * Constructor, one clock per session.
+     */
+    GameClock() {
+
+    }
+
+    /**
+     * Returns the current time in milliseconds, from the wall clock or from
+     * the number of ticks played.
+     *
+     * @return Current time.
+     */
+    public static long now() {
+        GameClock clock = GameSession.current().clock;
+        if (clock.fixedStep)
+            return clock.fixedStepStart + clock.ticks * 1000 / clock.ticksPerSecond;
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * Makes time advance by one tick per call to {@link #tick()}.
+     *
+     * @param fps
+     *            Ticks per second.
+     */
+    public static void startFixedStep(final int fps) {
+        GameClock clock = GameSession.current().clock;
+        clock.ticksPerSecond = fps;
+        clock.fixedStepStart = System.currentTimeMillis();
+        clock.ticks = 0;
+        clock.fixedStep = true;
+    }
+
+    /**
+     * Goes back to the wall clock.
+     */
+    public static void stopFixedStep() {
+        GameSession.current().clock.fixedStep = false;
+    }
+
+    /**
+     * Advances fixed-step time by one tick. Called by the game loop.
+     */
+    public static void tick() {
+        GameClock clock = GameSession.current().clock;
+        if (clock.fixedStep)
+            clock.ticks++;
+    }
+
+    /**
+     * @return Ticks played since fixed-step mode started.
+     */
+    public static long getTicks() {
+        return GameSession.current().clock.ticks;
+    }
+
+    /**
+     * Writes the ticks played to a rewind frame. Cooldowns count time on
+     * this clock, so putting the ticks back rewinds them as well.
+     *
+     * @param frame
+     *            Frame of the tick.
+     */
+    public static void save(final StateFrame frame) {
+        frame.putLong(GameSession.current().clock.ticks);
+    }
+
+    /**
+     * Reads the ticks played back from a rewind frame.
+     *
+     * @param frame
+     *            Frame written by {@link #save}.
+     */
+    public static void restore(final StateFrame frame) {
+        GameSession.current().clock.ticks = frame.getLong();
+    }
+
+    /**
+     * Sets the playback speed of fixed-step mode.
+     *
+     * @param newSpeed
+     *            Multiple of real time, or 0 to run without waiting between
+     *            frames.
+     */
+    public static void setSpeed(final double newSpeed) {
+        GameSession.current().clock.speed = Math.max(0, newSpeed);
+    }
+
+    /**
+     * Returns how long the game loop should take per frame.
+     *
+     * @param fps
+     *            Frames per second of the screen.
+     * @return Milliseconds per frame at the current speed.
+     */
+    public static long getFrameDuration(final int fps) {
+        GameClock clock = GameSession.current().clock;
+        if (!clock.fixedStep || clock.speed == 1.0)
+            return 1000 / fps;
+        if (clock.speed == 0)
+            return 0;
+        return (long) (1000 / fps / clock.speed);
+    }
+}
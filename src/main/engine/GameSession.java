@@ -0,0 +1,159 @@
+package main.engine;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import main.screen.GameScreen;
+
+/**
+ * Everything one game changes while it plays: its clock, randomness, input,
+ * drop odds, pools and ship stats. The game in the window plays in the
+ * default session. A {@link SessionServer} plays many headless sessions at
+ * once, one per thread.
+ * <p>
+ * Game code keeps reaching this state through the same static accessors,
+ * such as {@link GameClock#now()} or {@link RandomService#gameplay()}, which
+ * look up the session bound to the calling thread. Threads bound to none,
+ * like the event thread or the loading pool, use the default session.
+ */
+public final class GameSession {
+
+    /** Session of the window, and of every thread not bound to another one. */
+    private static final GameSession DEFAULT = new GameSession();
+    /** Session bound to each thread playing a headless game. */
+    private static final ThreadLocal<GameSession> CURRENT = new ThreadLocal<GameSession>();
+
+    /** Time of the game. */
+    final GameClock clock = new GameClock();
+    /** Randomness of the game. */
+    final RandomService random = new RandomService();
+    /** Components created on first use, by type. */
+    private final Map<Class<?>, Object> components = new ConcurrentHashMap<Class<?>, Object>();
+
+    /** Game screen reused from level to level. */
+    GameScreen gameScreen;
+    /** Generator of the current endless run, or null in campaign mode. */
+    EndlessLevelGenerator endlessLevels;
+    /** Replay version whose rules the game follows, older when playing back an older replay. */
+    int rules = Replay.VERSION;
+
+    private GameSession() {
+
+    }
+
+    /**
+     * Creates a session for a headless game. It makes no sound and has no
+     * window to draw on.
+     *
+     * @return New session.
+     */
+    public static GameSession create() {
+        return new GameSession();
+    }
+
+    /**
+     * @return Session bound to the calling thread, or the default one.
+     */
+    public static GameSession current() {
+        GameSession session = CURRENT.get();
+        return session != null ? session : DEFAULT;
+    }
+
+    /**
+     * @return If this is the session of the window, the only one that may
+     *         play sounds.
+     */
+    public boolean isDefault() {
+        return this == DEFAULT;
+    }
+
+    /**
+     * @return If bullets hit only where sprites have opaque pixels, rather
+     *         than anywhere in the boxes of the entities.
+     */
+    public boolean hasPixelCollisions() {
+        return rules >= Replay.PIXEL_COLLISIONS;
+    }
+
+    /**
+     * @return If the boss is hit part by part, rather than as one box.
+     */
+    public boolean hasBossParts() {
+        return rules >= Replay.BOSS_PARTS;
+    }
+
+    /**
+     * @return If the game can be rewound, see {@link RewindBuffer}.
+     */
+    public boolean hasRewind() {
+        return rules >= Replay.REWIND;
+    }
+
+    /**
+     * Returns the component of a type, creating it on first use. For state
+     * kept outside this package, such as the bullet pool.
+     *
+     * @param type
+     *            Type of the component, also its key.
+     * @param factory
+     *            Creates the component, must not use other components.
+     * @param <T>
+     *            Type of the component.
+     * @return Component of this session.
+     */
+    public <T> T component(final Class<T> type, final Supplier<? extends T> factory) {
+        Object component = components.get(type);
+        if (component == null)
+            component = components.computeIfAbsent(type, key -> factory.get());
+        return type.cast(component);
+    }
+
+    /**
+     * Runs a task with this session bound to the calling thread.
+     *
+     * @param task
+     *            Task to run.
+     * @param <T>
+     *            Result of the task.
+     * @return Result of the task.
+     * @throws Exception
+     *             If the task fails.
+     */
+    public <T> T call(final Callable<T> task) throws Exception {
+        GameSession previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return task.call();
+        } finally {
+            if (previous == null)
+                CURRENT.remove();
+            else
+                CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Wraps a task handed to another thread, so it runs in this session.
+     *
+     * @param task
+     *            Task to wrap.
+     * @param <T>
+     *            Result of the task.
+     * @return Task running in this session.
+     */
+    public <T> Supplier<T> bind(final Supplier<T> task) {
+        if (isDefault())
+            return task;
+        return () -> {
+            try {
+                return call(task::get);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        };
+    }
+}
@@ -3,10 +3,8 @@ package main.engine;
 import java.awt.*;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.nio.file.*;
-import java.util.logging.Logger;
 
 /**
  * Implements an object that stores a single game's difficulty settings.
@@ -16,7 +14,6 @@ import java.util.logging.Logger;
  */
 public class GameSettings {
 
-	private static final Logger LOGGER = Logger.getLogger(Core.class.getSimpleName());
 	/** Width of the level's enemy formation. */
 	private final int formationWidth;
 	/** Height of the level's enemy formation. */
@@ -25,6 +22,8 @@ public class GameSettings {
 	private final int baseSpeed;
 	/** Frequency of enemy shootings, +/- 30%. */
 	private final int shootingFrequency;
+	/** Enemies flying free in a swarm instead of a formation, 0 for none. */
+	private final int swarmSize;
 
 	//추가 사항
 	public static class ChangeData {
@@ -87,23 +86,44 @@ public class GameSettings {
 		String[] stageBlocks = raw.split("&");
 		List<StageData> result = new ArrayList<>();
 		for(String block: stageBlocks) {
-			List<String> lines = Arrays.stream(block.split("\n"))
-					.map(String::trim)
-					.filter(s -> !s.isEmpty() && !s.startsWith("//")) // Deleting comments and empty lines
-					.toList();
-			if(lines.isEmpty()) continue;
+			StageData stage = parseStage(block);
+			if(stage != null) result.add(stage);
+		}
 
-			String[] ints = lines.get(0).split(",");
+		return result;
+	}
+
+	/**
+	 * Parses a single stage block of level.csv.
+	 *
+	 * @param block
+	 *            Text between two stage separators.
+	 * @return Parsed stage, or null if the block holds no data.
+	 * @throws IllegalArgumentException
+	 *             If a line of the block is malformed.
+	 */
+	public static StageData parseStage(String block) {
+		List<String> lines = Arrays.stream(block.replace("\uFEFF", "").split("\n"))
+				.map(String::trim)
+				.filter(s -> !s.isEmpty() && !s.startsWith("//")) // Deleting comments and empty lines
+				.toList();
+		if(lines.isEmpty()) return null;
+
+		String line = lines.get(0);
+		try {
+			String[] ints = line.split(",");
 			GameSettings settings = new GameSettings(
 					Integer.parseInt(ints[0].trim()),
 					Integer.parseInt(ints[1].trim()),
 					Integer.parseInt(ints[2].trim()),
-					Integer.parseInt(ints[3].trim())
+					Integer.parseInt(ints[3].trim()),
+					ints.length >= 5 ? Integer.parseInt(ints[4].trim()) : 0
 			);
 
 			List<ChangeData> changeList = new ArrayList<>();
 			for(int i = 1; i < lines.size(); i++) {
-				String[] parts = lines.get(i).split(",");
+				line = lines.get(i);
+				String[] parts = line.split(",");
 				int x = Integer.parseInt(parts[0].trim());
 				int y = Integer.parseInt(parts[1].trim());
 				float z = Float.parseFloat(parts[2].trim());
@@ -116,10 +136,11 @@ public class GameSettings {
 				}
 				changeList.add(new ChangeData(x, y, z, w, color));
 			}
-			result.add(new StageData(settings, changeList));
+			settings.changeDataList = changeList;
+			return new StageData(settings, changeList);
+		} catch (NumberFormatException | IndexOutOfBoundsException e) {
+			throw new IllegalArgumentException("bad line '" + line + "' (" + e.getMessage() + ")", e);
 		}
-
-		return result;
 	}
 
 	private List<ChangeData> changeDataList;
@@ -127,38 +148,6 @@ public class GameSettings {
 		return changeDataList;
 	}
 
-	public static List<GameSettings> getGameSettings(){
-		List<GameSettings> result = new ArrayList<>();
-		List<StageData> stageDataList;
-
-		GameSettings setting;
-
-		try {
-			stageDataList = parseStages(Paths.get("res", "level.csv"));
-			for(StageData s : stageDataList) {
-				setting = s.settings;
-				setting.changeDataList = new ArrayList<>();
-
-				setting.changeDataList.addAll(s.changeList);
-				result.add(setting);
-			}
-		} catch (Exception e) {
-			LOGGER.info("Failed Loading Data: There is no such file named " + e.getMessage());
-			LOGGER.info("By the error, game is closing.");
-			System.exit(1);
-			return Collections.emptyList();
-		}
-
-		if(stageDataList.isEmpty()) {
-			LOGGER.info("Failed Loading Data: There is no data in level.csv file.");
-			LOGGER.info("By the error, game is closing.");
-			System.exit(1);
-			return Collections.emptyList();
-		}
-
-		return result;
-	}
-
 
 	/**
 	 * Constructor.
@@ -174,10 +163,32 @@ public class GameSettings {
 	 */
 	public GameSettings(final int formationWidth, final int formationHeight,
 						final int baseSpeed, final int shootingFrequency) {
+		this(formationWidth, formationHeight, baseSpeed, shootingFrequency, 0);
+	}
+
+	/**
+	 * Constructor for a stage that may be fought against a swarm.
+	 *
+	 * @param formationWidth
+	 *                          Width of the level's enemy formation.
+	 * @param formationHeight
+	 *                          Height of the level's enemy formation.
+	 * @param baseSpeed
+	 *                          Speed of the enemies.
+	 * @param shootingFrequency
+	 *                          Frecuency of enemy shootings, +/- 30%.
+	 * @param swarmSize
+	 *                          Enemies of the swarm replacing the formation, 0 for none.
+	 */
+	public GameSettings(final int formationWidth, final int formationHeight,
+						final int baseSpeed, final int shootingFrequency, final int swarmSize) {
+		if (swarmSize < 0)
+			throw new IllegalArgumentException("negative swarm size " + swarmSize);
 		this.formationWidth = formationWidth;
 		this.formationHeight = formationHeight;
 		this.baseSpeed = baseSpeed;
 		this.shootingFrequency = shootingFrequency;
+		this.swarmSize = swarmSize;
 		this.changeDataList = new ArrayList<>();
 	}
 
@@ -209,4 +220,11 @@ public class GameSettings {
 		return shootingFrequency;
 	}
 
+	/**
+	 * @return Enemies of the swarm, 0 when the stage has a formation.
+	 */
+	public final int getSwarmSize() {
+		return swarmSize;
+	}
+
 }
\ No newline at end of file
@@ -1,7 +1,7 @@
 // main.engine/GameState.java
 package main.engine;
 
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Map;
 import main.engine.ItemEffect.ItemEffectType;
 import main.entity.Player.PlayerShip;
@@ -26,7 +26,7 @@ public class GameState {
     private int bulletsShot;
     private int shipsDestroyed;
 	/** Current coin count. */ // ADD THIS LINE
-    private static int coins = 0;
+    private int coins = 0;
     private PlayerShip playerShip;
     private int itemsCollected = 0;
 
@@ -43,12 +43,12 @@ public class GameState {
     }
 
     /** Each player has all effect types always initialized (inactive at start). */
-    private final Map<ItemEffectType, EffectState> playerEffects = new HashMap<>();
+    private final Map<ItemEffectType, EffectState> playerEffects = new EnumMap<>(ItemEffectType.class);
 
 	public GameState(main.engine.DrawManager.SpriteType shipType, final int level, final int coin) {
         this.playerShip = new PlayerShip(260, 420, shipType, this);
 		this.level = level;
-        coins = coin;
+        this.coins = coin;
         initializeEffectStates();
     }
 
@@ -76,7 +76,7 @@ public class GameState {
 		this.score = score;
         this.bulletsShot = bulletsShot;
 		this.shipsDestroyed = shipsDestroyed;
-		GameState.coins = coins;
+		this.coins = coins;
         this.itemsCollected = 0;
         initializeEffectStates();
     }
@@ -234,4 +234,53 @@ public class GameState {
     public void clearAllEffects() {
         clearEffects();
     }
+
+    /**
+     * Writes the counters and effects of the game to a rewind frame.
+     *
+     * @param frame
+     *            Frame of the tick.
+     */
+    public void save(final StateFrame frame) {
+        frame.putInt(score);
+        frame.putInt(bulletsShot);
+        frame.putInt(shipsDestroyed);
+        frame.putInt(coins);
+        frame.putInt(itemsCollected);
+        for (EffectState state : playerEffects.values()) {
+            frame.putBoolean(state.active);
+            frame.putBoolean(state.effectValue != null);
+            frame.putInt(state.effectValue != null ? state.effectValue : 0);
+            frame.putBoolean(state.cooldown != null);
+            if (state.cooldown != null)
+                state.cooldown.save(frame);
+        }
+    }
+
+    /**
+     * Reads the counters and effects of the game back from a rewind frame.
+     *
+     * @param frame
+     *            Frame written by {@link #save}.
+     */
+    public void restore(final StateFrame frame) {
+        score = frame.getInt();
+        bulletsShot = frame.getInt();
+        shipsDestroyed = frame.getInt();
+        coins = frame.getInt();
+        itemsCollected = frame.getInt();
+        for (EffectState state : playerEffects.values()) {
+            state.active = frame.getBoolean();
+            boolean hasValue = frame.getBoolean();
+            int value = frame.getInt();
+            state.effectValue = hasValue ? value : null;
+            if (frame.getBoolean()) {
+                if (state.cooldown == null)
+                    state.cooldown = Core.getCooldown(0);
+                state.cooldown.restore(frame);
+            } else {
+                state.cooldown = null;
+            }
+        }
+    }
 }
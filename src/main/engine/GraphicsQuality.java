@@ -0,0 +1,80 @@
+package main.engine;
+
+/**
+ * Levels of cosmetic detail. None of them changes how the game plays, only
+ * how much drawing a frame takes.
+ */
+public enum GraphicsQuality {
+    /** For machines that drop frames otherwise. */
+    LOW("Low", 12, 40, false, false, 4),
+    /** Glow without antialiasing, fewer particles and stars. */
+    MEDIUM("Medium", 24, 70, false, true, 2),
+    /** Everything on. */
+    HIGH("High", 40, 100, true, true, 1);
+
+    /** Name shown in the settings. */
+    private final String label;
+    /** Particles of a new explosion. */
+    private final int explosionParticles;
+    /** Share of the background stars drawn, in percent. */
+    private final int starPercent;
+    /** If stars and particles are antialiased. */
+    private final boolean antialiasing;
+    /** If stars and particles are drawn with a radial glow. */
+    private final boolean glow;
+    /** Frames between redraws of the HUD. */
+    private final int hudInterval;
+
+    GraphicsQuality(final String label, final int explosionParticles, final int starPercent,
+                    final boolean antialiasing, final boolean glow, final int hudInterval) {
+        this.label = label;
+        this.explosionParticles = explosionParticles;
+        this.starPercent = starPercent;
+        this.antialiasing = antialiasing;
+        this.glow = glow;
+        this.hudInterval = hudInterval;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public int getExplosionParticles() {
+        return explosionParticles;
+    }
+
+    /**
+     * @param stars
+     *            Stars of a background.
+     * @return Stars of it to draw at this level.
+     */
+    public int scaleStars(final int stars) {
+        return stars * starPercent / 100;
+    }
+
+    public boolean isAntialiasing() {
+        return antialiasing;
+    }
+
+    public boolean hasGlow() {
+        return glow;
+    }
+
+    public int getHudInterval() {
+        return hudInterval;
+    }
+
+    /**
+     * @return Next level down, or this one if it is the lowest.
+     */
+    GraphicsQuality lower() {
+        return this == HIGH ? MEDIUM : LOW;
+    }
+
+    /**
+     * @return Next level up, or this one if it is the highest.
+     */
+    GraphicsQuality higher() {
+        return this == LOW ? MEDIUM : HIGH;
+    }
+}
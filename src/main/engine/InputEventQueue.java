@@ -0,0 +1,137 @@
+package main.engine;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded lock-free queue of timestamped input events. The AWT event thread
+ * is the only producer and the game loop the only consumer, so each side
+ * owns one counter and publishes it to the other with release semantics.
+ */
+final class InputEventQueue {
+
+    /** A key went down. */
+    static final int KEY_PRESSED = 1;
+    /** A key went up. */
+    static final int KEY_RELEASED = 2;
+    /** A character was typed. */
+    static final int KEY_TYPED = 3;
+    /** The mouse button went down. */
+    static final int MOUSE_PRESSED = 4;
+    /** The mouse button went up. */
+    static final int MOUSE_RELEASED = 5;
+
+    /** Bits of an event holding its key code or character. */
+    private static final int CODE_MASK = 0xFFFF;
+    /** Shift of the event type above the code. */
+    private static final int TYPE_SHIFT = 16;
+
+    /** Capacity minus one, the capacity being a power of two. */
+    private final int mask;
+    /** Event type and code of each slot. */
+    private final int[] events;
+    /** Nanosecond timestamp of each slot. */
+    private final long[] times;
+    /** Number of events written, only advanced by the producer. */
+    private final AtomicLong written = new AtomicLong();
+    /** Number of events read, only advanced by the consumer. */
+    private final AtomicLong read = new AtomicLong();
+    /** Number of events rejected because the queue was full. */
+    private final AtomicLong dropped = new AtomicLong();
+
+    /**
+     * Constructor.
+     *
+     * @param capacity
+     *            Maximum number of queued events, a power of two.
+     */
+    InputEventQueue(final int capacity) {
+        if (Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        this.mask = capacity - 1;
+        this.events = new int[capacity];
+        this.times = new long[capacity];
+    }
+
+    /**
+     * Appends an event. Producer thread only.
+     *
+     * @param type
+     *            Event type.
+     * @param code
+     *            Key code or character.
+     * @param time
+     *            Time of the event, from {@link System#nanoTime()}.
+     * @return False if the queue was full and the event was dropped.
+     */
+    boolean offer(final int type, final int code, final long time) {
+        long sequence = written.get();
+        if (sequence - read.get() > mask) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        int slot = (int) sequence & mask;
+        events[slot] = type << TYPE_SHIFT | (code & CODE_MASK);
+        times[slot] = time;
+        written.lazySet(sequence + 1);
+        return true;
+    }
+
+    /**
+     * @return Sequence of the next event to read. Consumer thread only.
+     */
+    long readPosition() {
+        return read.get();
+    }
+
+    /**
+     * @return Sequence after the last published event. Consumer thread only.
+     */
+    long writePosition() {
+        return written.get();
+    }
+
+    /**
+     * @param sequence
+     *            Sequence between the read and write positions.
+     * @return Type of the event.
+     */
+    int typeAt(final long sequence) {
+        return events[(int) sequence & mask] >>> TYPE_SHIFT;
+    }
+
+    /**
+     * @param sequence
+     *            Sequence between the read and write positions.
+     * @return Key code or character of the event.
+     */
+    int codeAt(final long sequence) {
+        return events[(int) sequence & mask] & CODE_MASK;
+    }
+
+    /**
+     * @param sequence
+     *            Sequence between the read and write positions.
+     * @return Nanosecond timestamp of the event.
+     */
+    long timeAt(final long sequence) {
+        return times[(int) sequence & mask];
+    }
+
+    /**
+     * Frees the slots of all events before the given sequence for the
+     * producer. Consumer thread only.
+     *
+     * @param sequence
+     *            New read position.
+     */
+    void release(final long sequence) {
+        read.lazySet(sequence);
+    }
+
+    /**
+     * @return Number of events dropped so far because the queue was full.
+     */
+    long getDropped() {
+        return dropped.get();
+    }
+}
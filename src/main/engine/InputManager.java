@@ -1,8 +1,11 @@
 package main.engine;
 
+import java.awt.event.InputEvent;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.io.*;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
 
 import java.awt.event.MouseEvent;//add this line
 import java.awt.event.MouseListener;//add this line
@@ -21,26 +24,53 @@ public final class InputManager implements KeyListener, MouseListener, MouseMoti
 
 
 	/** Number of recognised keys. */
-	private static final int NUM_KEYS = 256;
-	/** Array with the keys marked as pressed or not. */
-	private static boolean[] keys;
-
-    /** Mouse pressed state. */
-    private static  boolean mousePressed; // add this line
-
-	/** Singleton instance of the class. */
-	private static InputManager instance;
-    /** Last character typed. */
-    private static char lastCharTyped;
-    /** Flag to check if a character was typed. */
-    private static boolean charTyped;
-
-
-    // add three variable
-
-    private static int mouseX;
-    private static int mouseY;
-    private static boolean mouseClicked;
+	private static final int NUM_KEYS = InputSnapshot.NUM_KEYS;
+	/** Input events buffered between two ticks. */
+	private static final int QUEUE_CAPACITY = 1024;
+	/** Typed characters kept until a screen reads them. */
+	private static final int TYPED_CAPACITY = 32;
+
+    /** Events written by the AWT event thread and drained by the game loop. */
+    private final InputEventQueue events = new InputEventQueue(QUEUE_CAPACITY);
+    /** Last event received, the listener may be registered more than once. */
+    private InputEvent lastEvent;
+    /** Number of input events received so far, written by the AWT event thread. */
+    private volatile long inputEvents;
+    /** Game loop thread waiting for input, if any. */
+    private volatile Thread inputWaiter;
+
+    /** Latest mouse position, written by the AWT event thread. */
+    private volatile int mouseX;
+    private volatile int mouseY;
+
+    // The fields below belong to the game loop thread.
+
+    /** Input of the current tick. */
+    private volatile InputSnapshot snapshot = InputSnapshot.EMPTY;
+    /** Keys held, carried from one tick to the next. */
+    private final long[] keysDown = new long[InputSnapshot.WORDS];
+    /** If the mouse button is held. */
+    private boolean mouseDown;
+    /** Number of ticks drained. */
+    private long tick;
+    /** Dropped event count at the last tick. */
+    private long droppedEvents;
+    /** Characters typed but not read yet, oldest first. */
+    private final char[] typedChars = new char[TYPED_CAPACITY];
+    private int typedStart;
+    private int typedCount;
+    /** If a click happened that has not been read yet. */
+    private boolean mouseClicked;
+    /** Keys that went down and up during the tick being drained. */
+    private final long[] pressedKeys = new long[InputSnapshot.WORDS];
+    private final long[] releasedKeys = new long[InputSnapshot.WORDS];
+    /** Mouse button edges of the tick being drained. */
+    private boolean mousePressedThisTick;
+    private boolean mouseReleasedThisTick;
+    /** Recorder of the game being played, or null. */
+    private Replay.Recorder recorder;
+    /** Replay or autopilot driving the game instead of live input, or null. */
+    private InputSource playback;
 
 	/**
      *  Declare variables to save and return input keys
@@ -69,44 +99,167 @@ public final class InputManager implements KeyListener, MouseListener, MouseMoti
 	 * Private constructor.
 	 */
 	private InputManager() {
-		keys = new boolean[NUM_KEYS];
-        lastCharTyped = '\0';
-        charTyped = false;
 	}
 
 	/**
-	 * Returns shared instance of InputManager.
+	 * Returns the InputManager of the current game session. The window
+	 * listens with the one of the default session.
 	 *
-	 * @return Shared instance of InputManager.
+	 * @return InputManager of the current session.
 	 */
 	static InputManager getInstance() {
-		if (instance == null)
-			instance = new InputManager();
-		return instance;
+		return GameSession.current().component(InputManager.class, InputManager::new);
 	}
     /**
-     * Returns the last character typed and resets the flag.
+     * Drains the events received since the last tick into a new snapshot.
+     * Called by the game loop once per tick, before updating the main.screen.
      *
-     * @return Last character typed, or '\0' if none.
+     * @return Input of the new tick.
      */
-    public char getLastCharTyped() {
-        if (charTyped) {
-            charTyped = false;
-            return lastCharTyped;
+    public InputSnapshot beginTick() {
+        Arrays.fill(pressedKeys, 0);
+        Arrays.fill(releasedKeys, 0);
+        mousePressedThisTick = false;
+        mouseReleasedThisTick = false;
+        long oldest = 0;
+        int count;
+
+        long end = events.writePosition();
+        long start = events.readPosition();
+        if (playback != null) {
+            // Live input is dropped while a replay or autopilot drives the game.
+            count = playback.nextTick(this);
+        } else {
+            for (long i = start; i < end; i++) {
+                applyEvent(events.typeAt(i), events.codeAt(i));
+                if (recorder != null)
+                    recorder.record(events.typeAt(i), events.codeAt(i));
+            }
+            count = (int) (end - start);
+            if (count > 0)
+                oldest = events.timeAt(start);
         }
-        return '\0';
+        events.release(end);
+        if (recorder != null)
+            recorder.endTick();
+
+        // A lost release would leave a key stuck, so let go of everything.
+        long dropped = events.getDropped();
+        if (dropped != droppedEvents) {
+            Core.getLogger().warning("Input queue overflowed, " + (dropped - droppedEvents) + " events lost.");
+            droppedEvents = dropped;
+            Arrays.fill(keysDown, 0);
+            mouseDown = false;
+        }
+
+        snapshot = new InputSnapshot(++tick, keysDown.clone(), pressedKeys.clone(), releasedKeys.clone(),
+                mouseDown, mousePressedThisTick, mouseReleasedThisTick, mouseX, mouseY, count, oldest);
+        return snapshot;
+    }
+
+    /**
+     * Applies one event to the state of the tick being drained.
+     *
+     * @param type
+     *            Event type.
+     * @param code
+     *            Key code or character.
+     */
+    void applyEvent(final int type, final int code) {
+        switch (type) {
+            case InputEventQueue.KEY_PRESSED -> {
+                if (!InputSnapshot.contains(keysDown, code))
+                    pressedKeys[code >>> 6] |= 1L << code;
+                keysDown[code >>> 6] |= 1L << code;
+                lastPressedKey = code;
+            }
+            case InputEventQueue.KEY_RELEASED -> {
+                if (InputSnapshot.contains(keysDown, code))
+                    releasedKeys[code >>> 6] |= 1L << code;
+                keysDown[code >>> 6] &= ~(1L << code);
+            }
+            case InputEventQueue.KEY_TYPED -> {
+                if (typedCount == TYPED_CAPACITY) {
+                    typedStart = (typedStart + 1) % TYPED_CAPACITY;
+                    typedCount--;
+                }
+                typedChars[(typedStart + typedCount++) % TYPED_CAPACITY] = (char) code;
+            }
+            case InputEventQueue.MOUSE_PRESSED -> {
+                mousePressedThisTick = true;
+                mouseDown = true;
+            }
+            case InputEventQueue.MOUSE_RELEASED -> {
+                mouseReleasedThisTick = true;
+                mouseDown = false;
+                mouseClicked = true;
+            }
+            default -> { }
+        }
+    }
+
+    /**
+     * Records the events of every following tick, or stops recording.
+     *
+     * @param newRecorder
+     *            Recorder of the game being played, or null.
+     */
+    void setRecorder(final Replay.Recorder newRecorder) {
+        recorder = newRecorder;
+        if (recorder == null)
+            return;
+        // Input already held when recording starts opens the first tick.
+        for (int code = 0; code < NUM_KEYS; code++)
+            if (InputSnapshot.contains(keysDown, code))
+                recorder.record(InputEventQueue.KEY_PRESSED, code);
+        if (mouseDown)
+            recorder.record(InputEventQueue.MOUSE_PRESSED, 0);
+    }
+
+    /**
+     * Takes the events of every following tick from a replay or an autopilot
+     * instead of the keyboard and mouse, or goes back to live input.
+     *
+     * @param newPlayback
+     *            Source of the input, or null.
+     */
+    void setPlayback(final InputSource newPlayback) {
+        playback = newPlayback;
+        resetKeys();
+    }
+
+    /**
+     * @return Input of the current tick.
+     */
+    public InputSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns the oldest character typed that was not read yet.
+     *
+     * @return Character typed, or '\0' if none.
+     */
+    public char getLastCharTyped() {
+        if (typedCount == 0)
+            return '\0';
+        char typed = typedChars[typedStart];
+        typedStart = (typedStart + 1) % TYPED_CAPACITY;
+        typedCount--;
+        return typed;
     }
 
 
     /**
-	 * Returns true if the provided key is currently pressed.
+	 * Returns true if the provided key is held, or was tapped during the
+	 * current tick.
 	 *
 	 * @param keyCode
 	 *            Key number to check.
 	 * @return Key state.
 	 */
 	public boolean isKeyDown(final int keyCode) {
-		return keys[keyCode];
+		return snapshot.isKeyDown(keyCode);
 	}
 
     // === PLAYER 1 CONTROLS (Existing functionality) ===
@@ -159,21 +312,19 @@ public final class InputManager implements KeyListener, MouseListener, MouseMoti
     public boolean isP1DownPressed() {return isKeyDown(player1Keys[4]);}
 
 	/**
-	 * Changes the state of the key to pressed.
+	 * Queues a key press.
 	 *
 	 * @param key
 	 *            Key pressed.
 	 */
 	@Override
 	public void keyPressed(final KeyEvent key) {
-		if (key.getKeyCode() >= 0 && key.getKeyCode() < NUM_KEYS) {
-            keys[key.getKeyCode()] = true;
-            lastPressedKey = key.getKeyCode();
-        }
+		if (key.getKeyCode() >= 0 && key.getKeyCode() < NUM_KEYS)
+			queue(key, InputEventQueue.KEY_PRESSED, key.getKeyCode());
 	}
 
 	/**
-	 * Changes the state of the key to not pressed.
+	 * Queues a key release.
 	 *
 	 * @param key
 	 *            Key released.
@@ -181,19 +332,18 @@ public final class InputManager implements KeyListener, MouseListener, MouseMoti
 	@Override
 	public void keyReleased(final KeyEvent key) {
 		if (key.getKeyCode() >= 0 && key.getKeyCode() < NUM_KEYS)
-			keys[key.getKeyCode()] = false;
+			queue(key, InputEventQueue.KEY_RELEASED, key.getKeyCode());
 	}
 
 	/**
-	 * Does nothing.
+	 * Queues a typed character.
 	 *
 	 * @param key
 	 *            Key typed.
 	 */
 	@Override
 	public void keyTyped(final KeyEvent key) {
-        lastCharTyped = key.getKeyChar();
-        charTyped = true;
+        queue(key, InputEventQueue.KEY_TYPED, key.getKeyChar());
 	}
     // Save and return the last pressed key
     public int getLastPressedKey() {
@@ -207,8 +357,7 @@ public final class InputManager implements KeyListener, MouseListener, MouseMoti
      * (Prevents unintended key carry-over between screens)
      */
     public void clearLastKey() {
-        lastCharTyped = '\0' ;
-        charTyped = false ;
+        typedCount = 0;
     }
     // Create and return a project path/res/keyconfig.txt file object
     private File getKeyConfigFile() {
@@ -226,6 +375,8 @@ public final class InputManager implements KeyListener, MouseListener, MouseMoti
                 writer.write(player1Keys[0] + "," + player1Keys[1] + "," + player1Keys[2] + "," + player1Keys[3] + "," + player1Keys[4]);
                 writer.newLine();
                 writer.write(player2Keys[0] + "," + player2Keys[1] + "," + player2Keys[2]);
+                writer.newLine();
+                writer.write(QualityController.getPresetLabel());
             }
         } catch (IOException e) {
             e.printStackTrace();
@@ -242,6 +393,7 @@ public final class InputManager implements KeyListener, MouseListener, MouseMoti
         try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
             String line1 = reader.readLine();
             String line2 = reader.readLine();
+            String line3 = reader.readLine();
             if (line1 != null) {
                 String[] parts = line1.split(",");
                 for (int i = 0; i < Math.min(parts.length, player1Keys.length); i++) {
@@ -254,6 +406,8 @@ public final class InputManager implements KeyListener, MouseListener, MouseMoti
                     player2Keys[i] = Integer.parseInt(parts[i]);
                 }
             }
+            if (line3 != null)
+                QualityController.setPresetLabel(line3);
 
         } catch (IOException e) {
             e.printStackTrace();
@@ -263,22 +417,97 @@ public final class InputManager implements KeyListener, MouseListener, MouseMoti
       After setting the default, import the saved key settings from the file and cover the default values
      */
     static {
-        instance = new InputManager();
         player1Keys = new int[] {KeyEvent.VK_A, KeyEvent.VK_D, KeyEvent.VK_SPACE,KeyEvent.VK_W,KeyEvent.VK_S};
         player2Keys = new int[] {KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT, KeyEvent.VK_ENTER};
 
-        instance.loadKeyConfig();
+        getInstance().loadKeyConfig();
     }
 
     /**
      * Resets all key states to not pressed.
      */
-    public static void resetKeys() {
-        for (int i = 0; i < NUM_KEYS; i++) {
-            keys[i] = false;
+    public void resetKeys() {
+        Arrays.fill(keysDown, 0);
+        mouseDown = false;
+        snapshot = InputSnapshot.EMPTY;
+    }
+
+    /**
+     * Returns the number of input events received so far, to be passed to
+     * {@link #awaitInput(long, long)}.
+     *
+     * @return Input event count.
+     */
+    public long getInputEventCount() {
+        return inputEvents;
+    }
+
+    /**
+     * Returns true while a key or mouse button is held, since screens act on
+     * held input every frame.
+     *
+     * @return If any input is held down.
+     */
+    public boolean isInputHeld() {
+        return snapshot.isAnyKeyDown() || snapshot.isMouseDown();
+    }
+
+    /**
+     * Blocks until an input event newer than the given count arrives or the
+     * timeout elapses.
+     *
+     * @param lastEventCount
+     *            Event count the caller has already handled.
+     * @param timeout
+     *            Maximum milliseconds to wait.
+     * @throws InterruptedException
+     *            If the waiting thread is interrupted.
+     */
+    public void awaitInput(final long lastEventCount, final long timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout * 1_000_000L;
+        inputWaiter = Thread.currentThread();
+        try {
+            // The waiter is published before the count is checked, so an
+            // event either shows in the count or unparks this thread.
+            while (inputEvents == lastEventCount) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0)
+                    break;
+                LockSupport.parkNanos(this, remaining);
+                if (Thread.interrupted())
+                    throw new InterruptedException();
+            }
+        } finally {
+            inputWaiter = null;
         }
     }
 
+    /**
+     * Queues an event for the next tick and wakes an idle game loop.
+     *
+     * @param source
+     *            AWT event, ignored if it was already received.
+     * @param type
+     *            Event type.
+     * @param code
+     *            Key code or character.
+     */
+    private void queue(final InputEvent source, final int type, final int code) {
+        if (source == lastEvent)
+            return;
+        lastEvent = source;
+        events.offer(type, code, System.nanoTime());
+        signalInput();
+    }
+
+    /** Wakes screens waiting in {@link #awaitInput(long, long)}. */
+    private void signalInput() {
+        inputEvents++;
+        Thread waiter = inputWaiter;
+        if (waiter != null)
+            LockSupport.unpark(waiter);
+    }
+
 
     public int getMouseX() { return mouseX; } // add this function
 
@@ -299,17 +528,16 @@ public final class InputManager implements KeyListener, MouseListener, MouseMoti
 
     @Override
     public void mousePressed(final MouseEvent e) { // add this function
-        mousePressed = true;
         mouseX = e.getX();
         mouseY = e.getY();
+        queue(e, InputEventQueue.MOUSE_PRESSED, e.getButton());
     }
 
     @Override
     public void mouseReleased(final MouseEvent e) { // add this function
-        mousePressed = false;
         mouseX = e.getX();
         mouseY = e.getY();
-        mouseClicked = true;
+        queue(e, InputEventQueue.MOUSE_RELEASED, e.getButton());
     }
 
     @Override
@@ -327,15 +555,17 @@ public final class InputManager implements KeyListener, MouseListener, MouseMoti
 	public void mouseMoved(final MouseEvent e){
 		mouseX = e.getX();
 		mouseY = e.getY();
+		signalInput();
 	}
 	@Override
 	public void mouseDragged(final MouseEvent e){
 		mouseX = e.getX();
 		mouseY = e.getY();
+		signalInput();
 	}
 
 	public boolean isMousePressed(){
-		return mousePressed;
+		return snapshot.isMouseDown();
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,149 @@
+package main.engine;
+
+/**
+ * Immutable view of the input for one tick of the game loop. Besides the
+ * keys held at the end of the tick it records the edges seen during it, so
+ * a tap shorter than a frame still shows up as pressed.
+ */
+public final class InputSnapshot {
+
+    /** Number of 64-bit words per key set. */
+    static final int WORDS = 4;
+    /** Number of keys covered by a key set. */
+    public static final int NUM_KEYS = WORDS * Long.SIZE;
+
+    /** Snapshot with no input at all. */
+    public static final InputSnapshot EMPTY =
+            new InputSnapshot(0, new long[WORDS], new long[WORDS], new long[WORDS],
+                    false, false, false, 0, 0, 0, 0);
+
+    /** Number of the tick, counting from the first drained one. */
+    private final long tick;
+    /** Keys held at the end of the tick. */
+    private final long[] down;
+    /** Keys that went down during the tick. */
+    private final long[] pressed;
+    /** Keys that went up during the tick. */
+    private final long[] released;
+    /** If the mouse button is held at the end of the tick. */
+    private final boolean mouseDown;
+    /** If the mouse button went down during the tick. */
+    private final boolean mousePressed;
+    /** If the mouse button went up during the tick. */
+    private final boolean mouseReleased;
+    /** Mouse position when the tick started. */
+    private final int mouseX;
+    /** Mouse position when the tick started. */
+    private final int mouseY;
+    /** Number of events drained for the tick. */
+    private final int eventCount;
+    /** Timestamp of the oldest drained event, 0 if there was none. */
+    private final long oldestEventTime;
+
+    /**
+     * Constructor. The arrays are owned by the snapshot afterwards.
+     */
+    InputSnapshot(final long tick, final long[] down, final long[] pressed, final long[] released,
+                  final boolean mouseDown, final boolean mousePressed, final boolean mouseReleased,
+                  final int mouseX, final int mouseY, final int eventCount, final long oldestEventTime) {
+        this.tick = tick;
+        this.down = down;
+        this.pressed = pressed;
+        this.released = released;
+        this.mouseDown = mouseDown;
+        this.mousePressed = mousePressed;
+        this.mouseReleased = mouseReleased;
+        this.mouseX = mouseX;
+        this.mouseY = mouseY;
+        this.eventCount = eventCount;
+        this.oldestEventTime = oldestEventTime;
+    }
+
+    static boolean contains(final long[] keys, final int keyCode) {
+        return keyCode >= 0 && keyCode < NUM_KEYS && (keys[keyCode >>> 6] & 1L << keyCode) != 0;
+    }
+
+    /**
+     * Returns true if the key is held, or was tapped during the tick.
+     *
+     * @param keyCode
+     *            Key number to check.
+     * @return Key state.
+     */
+    public boolean isKeyDown(final int keyCode) {
+        return contains(down, keyCode) || contains(pressed, keyCode);
+    }
+
+    /**
+     * @param keyCode
+     *            Key number to check.
+     * @return If the key went down during the tick.
+     */
+    public boolean wasPressed(final int keyCode) {
+        return contains(pressed, keyCode);
+    }
+
+    /**
+     * @param keyCode
+     *            Key number to check.
+     * @return If the key went up during the tick.
+     */
+    public boolean wasReleased(final int keyCode) {
+        return contains(released, keyCode);
+    }
+
+    /**
+     * @return If any key is held at the end of the tick.
+     */
+    public boolean isAnyKeyDown() {
+        for (long word : down)
+            if (word != 0)
+                return true;
+        return false;
+    }
+
+    /**
+     * @return If the mouse button is held, or was clicked during the tick.
+     */
+    public boolean isMouseDown() {
+        return mouseDown || mousePressed;
+    }
+
+    /**
+     * @return If the mouse button went down during the tick.
+     */
+    public boolean wasMousePressed() {
+        return mousePressed;
+    }
+
+    /**
+     * @return If the mouse button went up during the tick.
+     */
+    public boolean wasMouseReleased() {
+        return mouseReleased;
+    }
+
+    public int getMouseX() {
+        return mouseX;
+    }
+
+    public int getMouseY() {
+        return mouseY;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getEventCount() {
+        return eventCount;
+    }
+
+    /**
+     * @return Timestamp of the oldest event of the tick, from
+     *         {@link System#nanoTime()}, or 0 if the tick had no events.
+     */
+    public long getOldestEventTime() {
+        return oldestEventTime;
+    }
+}
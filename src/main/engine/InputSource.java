@@ -0,0 +1,18 @@
+package main.engine;
+
+/**
+ * Input driving a game instead of the keyboard and mouse, such as a replay
+ * or an autopilot.
+ */
+@FunctionalInterface
+interface InputSource {
+
+    /**
+     * Applies the input of the next tick.
+     *
+     * @param input
+     *            Input manager to apply it to.
+     * @return Number of events applied.
+     */
+    int nextTick(InputManager input);
+}
@@ -1,36 +1,67 @@
 package main.engine;
 
-import java.util.Random;
 import java.util.logging.Logger;
+
+import main.engine.metrics.GameMetrics;
 import main.entity.Enemy.EnemyShip;
 import main.entity.Item;
 import main.entity.ItemPool;
 
 /**
  * Responsible for item drop decisions and applying item effects.
- * Implemented as a singleton for easy access.
+ * One per game session, since the drop odds change as a game plays.
  */
 public final class ItemManager {
 
-    private static ItemManager instance;
-
     /** Debug logger init */
     private final Logger logger;
     private ItemManager() { logger = Core.getLogger(); }
 
     public static ItemManager getInstance() {
-        if (instance == null)
-            instance = new ItemManager();
-        return instance;
+        return GameSession.current().component(ItemManager.class, ItemManager::new);
     }
 
-    /** Random Roll for item */
-    private final Random itemRoll = new Random();
     /** Counter for pity system, increases when no item is dropped. */
     private int pityCounter = 0;
 
     /** Item database loaded from CSV. */
-    private final ItemDB itemDB = new ItemDB();
+    private static final ItemDB itemDB = new ItemDB();
+
+    /**
+     * Returns the item database, loaded once and shared by every item.
+     *
+     * @return Item database.
+     */
+    public ItemDB getItemDB() {
+        return itemDB;
+    }
+
+    /**
+     * Clears the pity counter, so every game starts with the same drop odds.
+     */
+    public void resetPity() {
+        this.pityCounter = 0;
+    }
+
+    /**
+     * Writes the pity counter to a rewind frame.
+     *
+     * @param frame
+     *            Frame of the tick.
+     */
+    public void save(final StateFrame frame) {
+        frame.putInt(this.pityCounter);
+    }
+
+    /**
+     * Reads the pity counter back from a rewind frame.
+     *
+     * @param frame
+     *            Frame written by {@link #save}.
+     */
+    public void restore(final StateFrame frame) {
+        this.pityCounter = frame.getInt();
+    }
 
     /** -------------------------- ITEM DATA -------------------------- **/
 
@@ -76,7 +107,8 @@ public final class ItemManager {
         double boostedNoneWeight = DropTier.NONE.tierWeight * (1.0 - pityBoost);
 
         // Roll Item
-        double dropRoll = itemRoll.nextDouble() * (ITEM_WEIGHT + boostedNoneWeight);
+        double dropRoll = RandomService.loot().nextDouble() * (ITEM_WEIGHT + boostedNoneWeight);
+        GameMetrics.DROPS_ROLLED.increment();
         this.logger.info(String.format("[ItemManager]: DropRoll %.1f", dropRoll));
 
         DropTier chosenTier = DropTier.NONE;
@@ -118,7 +150,7 @@ public final class ItemManager {
             return null;
         }
 
-        ItemData chosenData = candidates.get(itemRoll.nextInt(candidates.size()));
+        ItemData chosenData = candidates.get(RandomService.loot().nextInt(candidates.size()));
 
         // get spawn position / enemy death position
         int centerX = enemy.getPositionX() + enemy.getWidth() / 2;
@@ -0,0 +1,157 @@
+package main.engine;
+
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+import main.engine.metrics.GameMetrics;
+
+/**
+ * Measures the time from a key press to the frame that shows its effect.
+ * Input events are timestamped when the window receives them, the tick
+ * that drains them keeps the oldest timestamp, and the next frame sent to
+ * the screen closes the measurement. Percentiles of the last presses go to
+ * the log, the performance overlay and the metrics.
+ * <p>
+ * With the marker on, a square in the bottom left corner turns white for
+ * a few frames from the measured frame on, so a high speed camera filming
+ * the keyboard and the screen can check the numbers, including the
+ * keyboard and display delays the game cannot see.
+ * <p>
+ * Enabled with {@code -Dinvaders.latency=true} or F5 during a game, the
+ * marker with {@code -Dinvaders.latency.marker=true}.
+ */
+public final class LatencyProbe {
+
+    /** Presses kept for the percentiles. */
+    private static final int SAMPLES = 256;
+    /** Presses between two log reports. */
+    private static final int REPORT_EVERY = 100;
+    /** Frames the marker stays white after a measured frame. */
+    private static final int MARKER_FRAMES = 4;
+    /** Side of the marker square, in pixels. */
+    public static final int MARKER_SIZE = 24;
+
+    private static final Logger LOGGER = Core.getLogger();
+
+    /** If input latency is measured. */
+    private static boolean enabled = Boolean.getBoolean("invaders.latency");
+    /** If the marker is drawn while measuring. */
+    private static final boolean MARKER = Boolean.getBoolean("invaders.latency.marker");
+
+    /** Time of the oldest input not yet on screen, 0 if none. */
+    private static long pendingInput;
+    /** Frames the marker stays white. */
+    private static int markerFrames;
+
+    /** Last latencies, in nanoseconds. */
+    private static final long[] samples = new long[SAMPLES];
+    /** Scratch copy of the latencies, sorted for percentiles. */
+    private static final long[] sorted = new long[SAMPLES];
+    /** Latencies measured since enabled. */
+    private static long sampleCount;
+    /** Percentiles of the last latencies, in nanoseconds. */
+    private static long p50;
+    private static long p95;
+    private static long p99;
+    private static long max;
+
+    /**
+     * Constructor, not called.
+     */
+    private LatencyProbe() {
+
+    }
+
+    /**
+     * Starts or stops measuring, logging the percentiles when stopping.
+     */
+    public static void toggle() {
+        if (enabled)
+            report();
+        enabled = !enabled;
+        pendingInput = 0;
+        markerFrames = 0;
+        sampleCount = 0;
+        p50 = p95 = p99 = max = 0;
+        LOGGER.info("Input latency measurement " + (enabled ? "started." : "stopped."));
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Notes the input drained for a tick. Called by the game loop.
+     *
+     * @param snapshot
+     *            Input of the tick.
+     */
+    public static void inputDrained(final InputSnapshot snapshot) {
+        if (enabled && pendingInput == 0)
+            pendingInput = snapshot.getOldestEventTime();
+    }
+
+    /**
+     * @return If the marker is drawn on the frame about to be sent.
+     */
+    static boolean isMarkerShown() {
+        return enabled && MARKER;
+    }
+
+    /**
+     * @return If the marker is white on the frame about to be sent.
+     */
+    static boolean isMarkerLit() {
+        return pendingInput != 0 || markerFrames > 0;
+    }
+
+    /**
+     * Closes the measurement of the input shown by the frame just sent.
+     */
+    static void framePresented() {
+        if (!enabled)
+            return;
+        if (markerFrames > 0)
+            markerFrames--;
+        if (pendingInput == 0)
+            return;
+        long latency = System.nanoTime() - pendingInput;
+        pendingInput = 0;
+        markerFrames = MARKER_FRAMES - 1;
+        samples[(int) (sampleCount++ % SAMPLES)] = latency;
+        GameMetrics.INPUT_LATENCY.record(latency);
+        updatePercentiles();
+        if (sampleCount % REPORT_EVERY == 0)
+            report();
+    }
+
+    private static void updatePercentiles() {
+        int count = (int) Math.min(sampleCount, SAMPLES);
+        System.arraycopy(samples, 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        p50 = sorted[count / 2];
+        p95 = sorted[Math.min(count - 1, count * 95 / 100)];
+        p99 = sorted[Math.min(count - 1, count * 99 / 100)];
+        max = sorted[count - 1];
+    }
+
+    private static void report() {
+        if (sampleCount == 0)
+            return;
+        LOGGER.info(String.format("Input latency over the last %d presses: p50 %.1f ms, p95 %.1f ms,"
+                        + " p99 %.1f ms, max %.1f ms.", Math.min(sampleCount, SAMPLES),
+                p50 / 1e6, p95 / 1e6, p99 / 1e6, max / 1e6));
+    }
+
+    static long getSampleCount() {
+        return sampleCount;
+    }
+
+    static long getP50() {
+        return p50;
+    }
+
+    static long getP99() {
+        return p99;
+    }
+}
@@ -0,0 +1,256 @@
+package main.engine;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import main.engine.GameSettings.StageData;
+import main.engine.metrics.GameMetrics;
+
+/**
+ * Streams stages out of level.csv on demand. At startup only the byte range
+ * of every stage is indexed; a stage is parsed the first time it is needed
+ * and kept in a small LRU cache, so memory and startup time do not grow with
+ * the size of the campaign.
+ */
+public final class LevelLoader {
+
+    /** Default campaign file. */
+    private static final Path LEVEL_FILE = Paths.get("res", "level.csv");
+    /** Parsed stages kept in memory. */
+    private static final int CACHE_SIZE = 8;
+    /** UTF-8 byte order mark. */
+    private static final byte[] BOM = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+
+    /** Singleton instance of the class. */
+    private static LevelLoader instance;
+
+    /** Application logger. */
+    private final Logger logger;
+    /** Campaign file. */
+    private final Path path;
+    /** Byte offset of every stage block. */
+    private long[] offsets = new long[16];
+    /** Byte length of every stage block. */
+    private int[] lengths = new int[16];
+    /** Number of indexed stages. */
+    private int stageCount;
+    /** Recently used stages, least recently used first. */
+    private final Map<Integer, StageData> cache =
+            new LinkedHashMap<>(CACHE_SIZE * 2, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<Integer, StageData> eldest) {
+                    return size() > CACHE_SIZE;
+                }
+            };
+    /** Stages currently being parsed in the background. */
+    private final Prefetcher<Integer, StageData> prefetching = new Prefetcher<>(this::load);
+
+    /**
+     * Constructor, indexes the given campaign file.
+     *
+     * @param path
+     *            Campaign file to stream stages from.
+     */
+    public LevelLoader(final Path path) {
+        this.logger = Core.getLogger();
+        this.path = path;
+        try {
+            index();
+        } catch (IOException e) {
+            logger.severe("Failed indexing " + path + ": " + e.getMessage());
+        }
+        if (stageCount == 0)
+            logger.severe("No stages found in " + path + ".");
+        else
+            logger.info("Indexed " + stageCount + " stages in " + path + ".");
+    }
+
+    /**
+     * Returns shared instance of LevelLoader.
+     *
+     * @return Shared instance of LevelLoader.
+     */
+    static synchronized LevelLoader getInstance() {
+        if (instance == null)
+            instance = new LevelLoader(LEVEL_FILE);
+        return instance;
+    }
+
+    /**
+     * Records the byte range of every non-empty stage block. Lines starting
+     * with // are comments and '&' separates stages, as in parseStages.
+     */
+    private void index() throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path), 1 << 16)) {
+            long pos = 0;
+            in.mark(BOM.length);
+            byte[] head = in.readNBytes(BOM.length);
+            if (Arrays.equals(head, BOM))
+                pos = BOM.length;
+            else
+                in.reset();
+
+            long blockStart = pos;
+            boolean blockHasContent = false;
+            boolean leading = true;
+            boolean pendingSlash = false;
+            boolean comment = false;
+            int b;
+            for (; (b = in.read()) != -1; pos++) {
+                if (b == '\n') {
+                    blockHasContent |= pendingSlash;
+                    leading = true;
+                    pendingSlash = false;
+                    comment = false;
+                    continue;
+                }
+                if (comment)
+                    continue;
+                if (pendingSlash) {
+                    pendingSlash = false;
+                    if (b == '/') {
+                        comment = true;
+                        continue;
+                    }
+                    blockHasContent = true;
+                }
+                boolean whitespace = b == ' ' || b == '\t' || b == '\r';
+                if (leading && b == '/') {
+                    leading = false;
+                    pendingSlash = true;
+                    continue;
+                }
+                if (!whitespace)
+                    leading = false;
+                if (b == '&') {
+                    if (blockHasContent)
+                        addStage(blockStart, pos);
+                    blockStart = pos + 1;
+                    blockHasContent = false;
+                } else if (!whitespace) {
+                    blockHasContent = true;
+                }
+            }
+            if (blockHasContent || pendingSlash)
+                addStage(blockStart, pos);
+        }
+    }
+
+    /**
+     * Appends a stage to the index.
+     *
+     * @param start
+     *            Offset of the first byte of the block.
+     * @param end
+     *            Offset one past the last byte of the block.
+     */
+    private void addStage(final long start, final long end) {
+        if (stageCount == offsets.length) {
+            offsets = Arrays.copyOf(offsets, stageCount * 2);
+            lengths = Arrays.copyOf(lengths, stageCount * 2);
+        }
+        offsets[stageCount] = start;
+        lengths[stageCount] = (int) (end - start);
+        stageCount++;
+    }
+
+    /**
+     * @return Number of stages in the campaign.
+     */
+    public int getStageCount() {
+        return stageCount;
+    }
+
+    /**
+     * Returns the settings of a stage, parsing it if it is not cached.
+     *
+     * @param level
+     *            Level number, starting at 1.
+     * @return Settings of the stage, or null if it is missing or invalid.
+     */
+    public GameSettings getSettings(final int level) {
+        StageData stage = getStage(level);
+        return stage == null ? null : stage.settings;
+    }
+
+    /**
+     * Returns a stage, parsing it if it is not cached.
+     *
+     * @param level
+     *            Level number, starting at 1.
+     * @return Parsed stage, or null if it is missing or invalid.
+     */
+    public StageData getStage(final int level) {
+        if (level < 1 || level > stageCount)
+            return null;
+        synchronized (cache) {
+            StageData cached = cache.get(level);
+            if (cached != null) {
+                GameMetrics.STAGE_CACHE_HITS.increment();
+                return cached;
+            }
+        }
+        GameMetrics.STAGE_CACHE_MISSES.increment();
+        return prefetching.get(level);
+    }
+
+    /**
+     * Parses a stage in the background so it is cached when asked for.
+     *
+     * @param level
+     *            Level number, starting at 1.
+     */
+    public void prefetch(final int level) {
+        if (level < 1 || level > stageCount)
+            return;
+        synchronized (cache) {
+            if (cache.containsKey(level))
+                return;
+        }
+        prefetching.prefetch(level);
+    }
+
+    /**
+     * Reads, parses and caches a stage. Invalid stages are reported and
+     * yield null.
+     *
+     * @param level
+     *            Level number, starting at 1.
+     * @return Parsed stage, or null if it is invalid.
+     */
+    private StageData load(final int level) {
+        int index = level - 1;
+        StageData stage = null;
+        try (FileChannel channel = FileChannel.open(path)) {
+            ByteBuffer buffer = ByteBuffer.allocate(lengths[index]);
+            long position = offsets[index];
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position + buffer.position());
+                if (read < 0)
+                    throw new IOException("unexpected end of file");
+            }
+            stage = GameSettings.parseStage(new String(buffer.array(), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            logger.warning("Failed reading stage " + level + " from " + path + ": " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            logger.warning("Stage " + level + " in " + path + " is invalid: " + e.getMessage());
+        }
+        if (stage != null) {
+            synchronized (cache) {
+                cache.put(level, stage);
+            }
+        }
+        return stage;
+    }
+}
@@ -0,0 +1,85 @@
+package main.engine;
+
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * Values computed ahead of time on the background executor, at most one
+ * computation per key at a time. A computation is forgotten as soon as it
+ * finishes, its value being cached by whoever computed it.
+ *
+ * @param <K>
+ *            Type of the keys.
+ * @param <V>
+ *            Type of the values.
+ */
+final class Prefetcher<K, V> {
+
+    /** Computations still running. */
+    private final Map<K, CompletableFuture<V>> pending = new ConcurrentHashMap<>();
+    /** Computes the value of a key. */
+    private final Function<K, V> compute;
+
+    /**
+     * Constructor.
+     *
+     * @param compute
+     *            Computes the value of a key, also called when a background
+     *            computation is missing or failed.
+     */
+    Prefetcher(final Function<K, V> compute) {
+        this.compute = compute;
+    }
+
+    /**
+     * Starts computing a value in the background unless it already is.
+     *
+     * @param key
+     *            Key of the value.
+     */
+    void prefetch(final K key) {
+        if (pending.containsKey(key))
+            return;
+        CompletableFuture<V> future = new CompletableFuture<>();
+        if (pending.putIfAbsent(key, future) != null)
+            return;
+        // Attached outside the map call: the computation may already be done.
+        future.whenComplete((value, error) -> pending.remove(key, future));
+        try {
+            Core.getBackgroundExecutor().execute(() -> {
+                try {
+                    future.complete(compute.apply(key));
+                } catch (RuntimeException e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Returns a value, waiting for its background computation if one is
+     * running and computing it here otherwise or if that one failed.
+     *
+     * @param key
+     *            Key of the value.
+     * @return The value.
+     */
+    V get(final K key) {
+        CompletableFuture<V> future = pending.get(key);
+        if (future != null) {
+            try {
+                return future.join();
+            } catch (CompletionException | CancellationException e) {
+                Core.getLogger().warning("Prefetching " + key + " failed, computing it again: " + e.getMessage());
+            }
+        }
+        return compute.apply(key);
+    }
+}
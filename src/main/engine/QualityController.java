@@ -0,0 +1,156 @@
+package main.engine;
+
+import java.util.logging.Logger;
+
+/**
+ * Picks the graphics quality. A fixed preset can be chosen in the
+ * settings; otherwise the quality follows how much of the frame budget the
+ * game loop uses. Heavy moments such as several explosions or the last boss
+ * phase lower it within half a second, and it only goes back up after a few
+ * seconds of spare time. Going up and straight back down doubles that wait,
+ * so a level the machine cannot hold is not retried every few seconds.
+ */
+public final class QualityController {
+
+    /** Share of the frame budget above which the quality goes down. */
+    private static final double HIGH_LOAD = 0.85;
+    /** Share of the frame budget below which the quality may go up. */
+    private static final double LOW_LOAD = 0.5;
+    /** Frames over budget before going down. */
+    private static final int DOWNGRADE_FRAMES = 30;
+    /** Frames with spare time before going up, at first and at most. */
+    private static final int UPGRADE_FRAMES = 180;
+    private static final int MAX_UPGRADE_FRAMES = 1800;
+    /** Weight of a new frame in the average load, as a divisor. */
+    private static final int SMOOTHING = 8;
+
+    private static final Logger LOGGER = Core.getLogger();
+
+    /** Preset chosen in the settings, or null to adapt. */
+    private static GraphicsQuality preset;
+    /** Quality chosen while adapting. */
+    private static GraphicsQuality adaptive = GraphicsQuality.HIGH;
+    /** Smoothed share of the frame budget used. */
+    private static double load;
+    /** Consecutive frames over or well under budget. */
+    private static int framesOver;
+    private static int framesUnder;
+    /** Frames with spare time needed before going up. */
+    private static int upgradeFrames = UPGRADE_FRAMES;
+    /** Frames since the quality last went up, or -1 if it went down since. */
+    private static int framesSinceUpgrade = -1;
+
+    /**
+     * Constructor, not called.
+     */
+    private QualityController() {
+
+    }
+
+    /**
+     * @return Quality to draw the next frame with.
+     */
+    public static GraphicsQuality getQuality() {
+        return preset != null ? preset : adaptive;
+    }
+
+    /**
+     * @return Preset chosen in the settings, or null if the quality adapts.
+     */
+    public static GraphicsQuality getPreset() {
+        return preset;
+    }
+
+    /**
+     * @param newPreset
+     *            Fixed quality, or null to adapt to the frame times.
+     */
+    public static void setPreset(final GraphicsQuality newPreset) {
+        preset = newPreset;
+        adaptive = GraphicsQuality.HIGH;
+        upgradeFrames = UPGRADE_FRAMES;
+        framesSinceUpgrade = -1;
+        framesOver = 0;
+        framesUnder = 0;
+        load = 0;
+    }
+
+    /**
+     * @return Name of the setting, as shown and saved.
+     */
+    public static String getPresetLabel() {
+        return preset != null ? preset.getLabel() : "Auto";
+    }
+
+    /**
+     * Reads a setting saved with {@link #getPresetLabel()}.
+     *
+     * @param label
+     *            Saved setting.
+     */
+    public static void setPresetLabel(final String label) {
+        GraphicsQuality chosen = null;
+        for (GraphicsQuality quality : GraphicsQuality.values())
+            if (quality.getLabel().equalsIgnoreCase(label.trim()))
+                chosen = quality;
+        setPreset(chosen);
+    }
+
+    /**
+     * Steps through Auto, Low, Medium and High.
+     *
+     * @param step
+     *            1 for the next setting, -1 for the previous one.
+     */
+    public static void cyclePreset(final int step) {
+        GraphicsQuality[] qualities = GraphicsQuality.values();
+        int settings = qualities.length + 1;
+        int index = preset == null ? 0 : preset.ordinal() + 1;
+        index = Math.floorMod(index + step, settings);
+        setPreset(index == 0 ? null : qualities[index - 1]);
+    }
+
+    /**
+     * Takes the time a frame took into account. Called by the game loop
+     * after each frame drawn.
+     *
+     * @param busyNanos
+     *            Time spent updating and drawing the frame.
+     * @param budgetMillis
+     *            Time available per frame.
+     */
+    public static void frameFinished(final long busyNanos, final long budgetMillis) {
+        if (preset != null || budgetMillis <= 0)
+            return;
+        load += (busyNanos / (budgetMillis * 1e6) - load) / SMOOTHING;
+        if (framesSinceUpgrade >= 0)
+            framesSinceUpgrade++;
+
+        if (load > HIGH_LOAD) {
+            framesUnder = 0;
+            if (++framesOver >= DOWNGRADE_FRAMES && adaptive != GraphicsQuality.LOW) {
+                if (framesSinceUpgrade >= 0 && framesSinceUpgrade < upgradeFrames)
+                    upgradeFrames = Math.min(upgradeFrames * 2, MAX_UPGRADE_FRAMES);
+                framesSinceUpgrade = -1;
+                change(adaptive.lower());
+            }
+        } else if (load < LOW_LOAD) {
+            framesOver = 0;
+            if (++framesUnder >= upgradeFrames && adaptive != GraphicsQuality.HIGH) {
+                framesSinceUpgrade = 0;
+                change(adaptive.higher());
+            }
+        } else {
+            framesOver = 0;
+            framesUnder = 0;
+        }
+    }
+
+    private static void change(final GraphicsQuality quality) {
+        LOGGER.info(String.format("Graphics quality %s -> %s at %.0f%% of the frame budget.",
+                adaptive.getLabel(), quality.getLabel(), load * 100));
+        adaptive = quality;
+        framesOver = 0;
+        framesUnder = 0;
+    }
+}
@@ -0,0 +1,103 @@
+package main.engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * Source of all randomness in the game, split in independent streams so
+ * that drawing more or fewer effects never changes how a game plays out.
+ * <ul>
+ * <li>gameplay: enemy shots, cooldown variance, formations.</li>
+ * <li>loot: item drops.</li>
+ * <li>cosmetic: explosions, stars, colours.</li>
+ * </ul>
+ * Every game reseeds all three from its seed, so a recorded game can be
+ * replayed exactly. The streams are only used from the game loop thread,
+ * and each {@link GameSession} has its own.
+ */
+public final class RandomService {
+
+    /** Randomness that decides the game. */
+    private RandomStream gameplay;
+    /** Randomness of item drops. */
+    private RandomStream loot;
+    /** Randomness of visual effects only. */
+    private RandomStream cosmetic;
+
+    /**
+     * Constructor, one service per session, seeded until a game reseeds it.
+     */
+    RandomService() {
+        reseed(newSeed());
+    }
+
+    /**
+     * @return A seed for a new game.
+     */
+    public static long newSeed() {
+        return new SplittableRandom().nextLong();
+    }
+
+    /**
+     * Restarts every stream from a seed.
+     *
+     * @param seed
+     *            Seed of the game.
+     */
+    public static void seed(final long seed) {
+        GameSession.current().random.reseed(seed);
+    }
+
+    private void reseed(final long seed) {
+        RandomStream root = new RandomStream(seed);
+        gameplay = root.split();
+        loot = root.split();
+        cosmetic = root.split();
+    }
+
+    /**
+     * Writes the state of every stream to a rewind frame.
+     *
+     * @param frame
+     *            Frame of the tick.
+     */
+    public static void save(final StateFrame frame) {
+        RandomService random = GameSession.current().random;
+        frame.putLong(random.gameplay.getState());
+        frame.putLong(random.loot.getState());
+        frame.putLong(random.cosmetic.getState());
+    }
+
+    /**
+     * Reads the state of every stream back from a rewind frame.
+     *
+     * @param frame
+     *            Frame written by {@link #save}.
+     */
+    public static void restore(final StateFrame frame) {
+        RandomService random = GameSession.current().random;
+        random.gameplay.setState(frame.getLong());
+        random.loot.setState(frame.getLong());
+        random.cosmetic.setState(frame.getLong());
+    }
+
+    /**
+     * @return Randomness that decides the game.
+     */
+    public static RandomStream gameplay() {
+        return GameSession.current().random.gameplay;
+    }
+
+    /**
+     * @return Randomness of item drops.
+     */
+    public static RandomStream loot() {
+        return GameSession.current().random.loot;
+    }
+
+    /**
+     * @return Randomness of visual effects, which must not affect the game.
+     */
+    public static RandomStream cosmetic() {
+        return GameSession.current().random.cosmetic;
+    }
+}
@@ -0,0 +1,64 @@
+package main.engine;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * SplitMix64 generator. It keeps its whole state in one long, which can be
+ * read and restored, and draws numbers without allocating. Not thread-safe.
+ */
+public final class RandomStream implements RandomGenerator {
+
+    /** Increment of the generator, the odd golden ratio constant. */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /** Current state. */
+    private long state;
+
+    /**
+     * Constructor.
+     *
+     * @param seed
+     *            Initial state.
+     */
+    public RandomStream(final long seed) {
+        this.state = seed;
+    }
+
+    /**
+     * Creates a stream seeded from this one. The new stream does not
+     * overlap this one in practice.
+     *
+     * @return New independent stream.
+     */
+    public RandomStream split() {
+        return new RandomStream(mix(nextLong()));
+    }
+
+    @Override
+    public long nextLong() {
+        state += GOLDEN_GAMMA;
+        return mix(state);
+    }
+
+    /**
+     * @return Current state, to restore later with {@link #setState(long)}.
+     */
+    public long getState() {
+        return state;
+    }
+
+    /**
+     * @param newState
+     *            State previously read with {@link #getState()}.
+     */
+    public void setState(final long newState) {
+        this.state = newState;
+    }
+
+    private static long mix(final long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,416 @@
+package main.engine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import main.engine.DrawManager.SpriteType;
+import main.entity.Player.PlayerShipStats;
+
+/**
+ * Recording of a game: its seed, the ship it was played with and the input
+ * events of every tick. Ticks without input cost nothing, and the events of
+ * the others are stored as a tick gap, an event count and one type byte and
+ * one varint code per event, so a five minute game takes a few kilobytes.
+ */
+public final class Replay {
+
+    /** File signature, "INVR". */
+    private static final int MAGIC = 0x494E5652;
+    /**
+     * Version of the file layout and of the rules the game was played by.
+     * Older replays are played back by the rules of their version.
+     */
+    static final int VERSION = 4;
+    /** First version played with pixel collisions. */
+    static final int PIXEL_COLLISIONS = 2;
+    /** First version played against a boss made of parts. */
+    static final int BOSS_PARTS = 3;
+    /** First version where holding the rewind key rewinds the game. */
+    static final int REWIND = 4;
+
+    /** Version the replay was written with. */
+    private int version = VERSION;
+
+    /** Seed of the gameplay randomness. */
+    private long seed;
+    /** Ship the game was played with. */
+    private SpriteType shipType;
+    /** Stats of the ship when the game started. */
+    private int shipWidth;
+    private int shipHeight;
+    private int maxHP;
+    private float atk;
+    private float moveSpeed;
+    private float bulletSpeed;
+    private int shootingInterval;
+    private int bulletWidth;
+    private int bulletHeight;
+    /** Ticks per second of the game. */
+    private int fps;
+    /** Size of the game screen. */
+    private int width;
+    private int height;
+    /** If generated stages followed the campaign. */
+    private boolean endless;
+    /** Outcome of the recorded game. */
+    private Result result;
+    /** Encoded input events. */
+    private byte[] events;
+
+    /**
+     * Outcome of a game, compared after a replay to detect divergence.
+     *
+     * @param ticks
+     *            Ticks played.
+     * @param score
+     *            Final score.
+     * @param level
+     *            Level reached.
+     * @param bulletsShot
+     *            Bullets shot by the player.
+     * @param shipsDestroyed
+     *            Enemy ships destroyed.
+     */
+    public record Result(long ticks, int score, int level, int bulletsShot, int shipsDestroyed) {
+
+        /**
+         * @param gameState
+         *            State of the finished game.
+         * @param ticks
+         *            Ticks played.
+         * @return Outcome of the game.
+         */
+        public static Result of(final GameState gameState, final long ticks) {
+            return new Result(ticks, gameState.getScore(), gameState.getLevel(),
+                    gameState.getBulletsShot(), gameState.getShipsDestroyed());
+        }
+    }
+
+    private Replay() {
+
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public SpriteType getShipType() {
+        return shipType;
+    }
+
+    public int getFps() {
+        return fps;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public boolean isEndless() {
+        return endless;
+    }
+
+    /**
+     * @return Version the replay was written with, which sets the rules it
+     *         is played back by.
+     */
+    public int getVersion() {
+        return version;
+    }
+
+    public Result getResult() {
+        return result;
+    }
+
+    /**
+     * @return Size of the encoded input, in bytes.
+     */
+    public int getEventBytes() {
+        return events.length;
+    }
+
+    /**
+     * @return New stats equal to the ones the ship started with.
+     */
+    public PlayerShipStats createShipStats() {
+        return new PlayerShipStats(shipWidth, shipHeight, maxHP, atk, moveSpeed, bulletSpeed,
+                shootingInterval, bulletWidth, bulletHeight);
+    }
+
+    /**
+     * @return Player feeding the recorded input back tick by tick.
+     */
+    public Playback playback() {
+        return new Playback();
+    }
+
+    /**
+     * Writes the replay to a file.
+     *
+     * @param path
+     *            File to write.
+     * @throws IOException
+     *             In case of saving problems.
+     */
+    public void write(final Path path) throws IOException {
+        if (path.getParent() != null)
+            Files.createDirectories(path.getParent());
+        try (OutputStream file = Files.newOutputStream(path);
+             DataOutputStream out = new DataOutputStream(new GZIPOutputStream(file))) {
+            out.writeInt(MAGIC);
+            out.writeShort(version);
+            out.writeLong(seed);
+            out.writeUTF(shipType.name());
+            out.writeInt(shipWidth);
+            out.writeInt(shipHeight);
+            out.writeInt(maxHP);
+            out.writeFloat(atk);
+            out.writeFloat(moveSpeed);
+            out.writeFloat(bulletSpeed);
+            out.writeInt(shootingInterval);
+            out.writeInt(bulletWidth);
+            out.writeInt(bulletHeight);
+            out.writeShort(fps);
+            out.writeShort(width);
+            out.writeShort(height);
+            out.writeBoolean(endless);
+            out.writeLong(result.ticks());
+            out.writeInt(result.score());
+            out.writeInt(result.level());
+            out.writeInt(result.bulletsShot());
+            out.writeInt(result.shipsDestroyed());
+            out.writeInt(events.length);
+            out.write(events);
+        }
+    }
+
+    /**
+     * Reads a replay from a file.
+     *
+     * @param path
+     *            File to read.
+     * @return Replay stored in the file.
+     * @throws IOException
+     *             If the file cannot be read or is not a replay.
+     */
+    public static Replay read(final Path path) throws IOException {
+        try (InputStream file = Files.newInputStream(path);
+             DataInputStream in = new DataInputStream(new GZIPInputStream(file))) {
+            if (in.readInt() != MAGIC)
+                throw new IOException(path + " is not a replay.");
+            int version = in.readShort();
+            if (version < 1 || version > VERSION)
+                throw new IOException("Unsupported replay version " + version + ".");
+            Replay replay = new Replay();
+            replay.version = version;
+            replay.seed = in.readLong();
+            try {
+                replay.shipType = SpriteType.valueOf(in.readUTF());
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unknown ship in replay.", e);
+            }
+            replay.shipWidth = in.readInt();
+            replay.shipHeight = in.readInt();
+            replay.maxHP = in.readInt();
+            replay.atk = in.readFloat();
+            replay.moveSpeed = in.readFloat();
+            replay.bulletSpeed = in.readFloat();
+            replay.shootingInterval = in.readInt();
+            replay.bulletWidth = in.readInt();
+            replay.bulletHeight = in.readInt();
+            replay.fps = in.readShort();
+            replay.width = in.readShort();
+            replay.height = in.readShort();
+            replay.endless = in.readBoolean();
+            replay.result = new Result(in.readLong(), in.readInt(), in.readInt(), in.readInt(), in.readInt());
+            replay.events = new byte[in.readInt()];
+            in.readFully(replay.events);
+            return replay;
+        }
+    }
+
+    private static void writeVarint(final ByteArrayOutputStream out, final long value) {
+        long rest = value;
+        while ((rest & ~0x7FL) != 0) {
+            out.write((int) (rest & 0x7F) | 0x80);
+            rest >>>= 7;
+        }
+        out.write((int) rest);
+    }
+
+    /**
+     * Collects the input of a game while it is played.
+     */
+    public static final class Recorder {
+
+        /** Replay being filled in. */
+        private final Replay replay = new Replay();
+        /** Encoded events of the finished ticks. */
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        /** Events of the current tick, type and code interleaved. */
+        private int[] tickEvents = new int[16];
+        private int tickEventCount;
+        /** Ticks recorded so far. */
+        private long ticks;
+        /** Last tick that had events. */
+        private long lastEventTick;
+
+        /**
+         * Starts recording a game.
+         *
+         * @param seed
+         *            Seed of the gameplay randomness.
+         * @param shipType
+         *            Ship the game is played with.
+         * @param gameState
+         *            State of the game, before its first level.
+         * @param fps
+         *            Ticks per second.
+         * @param width
+         *            Width of the game screen.
+         * @param height
+         *            Height of the game screen.
+         * @param endless
+         *            If generated stages follow the campaign.
+         */
+        public Recorder(final long seed, final SpriteType shipType, final GameState gameState, final int fps,
+                        final int width, final int height, final boolean endless) {
+            PlayerShipStats stats = gameState.getPlayerShip().getStats();
+            replay.seed = seed;
+            replay.shipType = shipType;
+            replay.shipWidth = stats.getShipWidth();
+            replay.shipHeight = stats.getShipHeight();
+            replay.maxHP = stats.getMaxHP();
+            replay.atk = stats.getATK();
+            replay.moveSpeed = stats.getMoveSpeed();
+            replay.bulletSpeed = stats.getBulletSpeed();
+            replay.shootingInterval = stats.getShootingInterval();
+            replay.bulletWidth = stats.getBulletWidth();
+            replay.bulletHeight = stats.getBulletHeight();
+            replay.fps = fps;
+            replay.width = width;
+            replay.height = height;
+            replay.endless = endless;
+        }
+
+        /**
+         * Adds an event to the current tick.
+         */
+        void record(final int type, final int code) {
+            if (tickEventCount * 2 == tickEvents.length)
+                tickEvents = Arrays.copyOf(tickEvents, tickEvents.length * 2);
+            tickEvents[tickEventCount * 2] = type;
+            tickEvents[tickEventCount * 2 + 1] = code;
+            tickEventCount++;
+        }
+
+        /**
+         * Closes the current tick.
+         */
+        void endTick() {
+            ticks++;
+            if (tickEventCount == 0)
+                return;
+            writeVarint(out, ticks - lastEventTick);
+            writeVarint(out, tickEventCount);
+            for (int i = 0; i < tickEventCount; i++) {
+                out.write(tickEvents[i * 2]);
+                writeVarint(out, tickEvents[i * 2 + 1]);
+            }
+            lastEventTick = ticks;
+            tickEventCount = 0;
+        }
+
+        /**
+         * Finishes the recording.
+         *
+         * @param gameState
+         *            State of the finished game.
+         * @return The recorded replay.
+         */
+        public Replay finish(final GameState gameState) {
+            replay.result = Result.of(gameState, ticks);
+            replay.events = out.toByteArray();
+            return replay;
+        }
+    }
+
+    /**
+     * Feeds the recorded events back to the input manager, one tick per call.
+     */
+    public final class Playback implements InputSource {
+
+        /** Ticks played past the end of the recording before giving up. */
+        private static final int GRACE_SECONDS = 10;
+
+        /** Read position in the encoded events. */
+        private int position;
+        /** Ticks played back so far. */
+        private long tick;
+        /** Tick of the next events, or -1 when none are left. */
+        private long nextEventTick;
+
+        private Playback() {
+            this.nextEventTick = position < events.length ? readVarint() : -1;
+        }
+
+        /**
+         * Applies the events of the next tick.
+         *
+         * @param input
+         *            Input manager to apply them to.
+         * @return Number of events applied.
+         * @throws IllegalStateException
+         *             If the game keeps going well past the recorded end,
+         *             which means the replay diverged.
+         */
+        @Override
+        public int nextTick(final InputManager input) {
+            tick++;
+            if (tick > result.ticks() + (long) GRACE_SECONDS * fps)
+                throw new IllegalStateException("Replay diverged, the game outlived the recording at tick "
+                        + result.ticks() + ".");
+            if (tick != nextEventTick)
+                return 0;
+            int count = (int) readVarint();
+            for (int i = 0; i < count; i++) {
+                int type = events[position++];
+                input.applyEvent(type, (int) readVarint());
+            }
+            nextEventTick = position < events.length ? tick + readVarint() : -1;
+            return count;
+        }
+
+        /**
+         * @return Ticks played back so far.
+         */
+        public long getTick() {
+            return tick;
+        }
+
+        private long readVarint() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = events[position++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+}
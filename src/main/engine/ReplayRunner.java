@@ -0,0 +1,88 @@
+package main.engine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.logging.Level;
+
+import main.engine.upgrade.ShipUpgradeManager;
+import main.entity.Player.PlayerShipLibrary;
+
+/**
+ * Entry point that plays a recorded game back and checks that it ends the
+ * same way. Usage: {@code ReplayRunner <replay> [--headless] [--speed <x>]}.
+ * Headless runs go as fast as possible unless a speed is given.
+ */
+public final class ReplayRunner {
+
+    private static final int WIDTH = 448;
+    private static final int HEIGHT = 520;
+
+    private ReplayRunner() {
+    }
+
+    public static void main(final String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: ReplayRunner <replay file> [--headless] [--speed <multiple>]");
+            System.exit(2);
+        }
+        boolean headless = false;
+        double speed = -1;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--headless"))
+                headless = true;
+            else if (args[i].equals("--speed") && i + 1 < args.length)
+                speed = Double.parseDouble(args[++i]);
+        }
+        if (speed < 0)
+            speed = headless ? 0 : 1;
+
+        Replay replay = Replay.read(Path.of(args[0]));
+        if (headless) {
+            Core.getLogger().setLevel(Level.WARNING);
+            SoundManager.setMuted(true);
+        }
+
+        AssetLoader.start();
+        ShipUpgradeManager.getInstance();
+        // Play with the stats the ship had when recorded, not the current upgrades.
+        PlayerShipLibrary.getShipList().put(replay.getShipType(), replay.createShipStats());
+
+        Frame frame = null;
+        if (!headless) {
+            frame = new Frame(WIDTH, HEIGHT);
+            frame.addKeyListener(Core.getInputManager());
+            AssetLoader.awaitTitleAssets().setFrame(frame);
+        }
+
+        GameClock.setSpeed(speed);
+        GameState gameState = Core.newGame(replay.getShipType(), replay.getSeed(), replay.isEndless());
+        GameSession.current().rules = replay.getVersion();
+        Replay.Playback playback = replay.playback();
+        Core.getInputManager().setPlayback(playback);
+
+        long start = System.nanoTime();
+        String failure = null;
+        try {
+            Core.playLevels(frame, gameState, new AchievementManager(),
+                    replay.getWidth(), replay.getHeight(), replay.getFps());
+        } catch (IllegalStateException e) {
+            failure = e.getMessage();
+        } finally {
+            Core.getInputManager().setPlayback(null);
+        }
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        Replay.Result expected = replay.getResult();
+        Replay.Result actual = Replay.Result.of(gameState, playback.getTick());
+        boolean match = failure == null && expected.equals(actual);
+        double playedMillis = actual.ticks() * 1000.0 / replay.getFps();
+
+        System.out.println("Input:    " + replay.getEventBytes() + " bytes");
+        System.out.println("Expected: " + expected);
+        System.out.println("Actual:   " + actual);
+        System.out.printf("Played %.1f s of game in %.1f s (%.1fx)%n",
+                playedMillis / 1000, elapsedMillis / 1000.0, playedMillis / elapsedMillis);
+        System.out.println(match ? "Replay matches." : "Replay diverged." + (failure != null ? " " + failure : ""));
+        System.exit(match ? 0 : 1);
+    }
+}
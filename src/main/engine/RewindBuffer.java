@@ -0,0 +1,248 @@
+package main.engine;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The last seconds of a level, one {@link StateFrame} per tick, to rewind
+ * the game. Every {@link #KEYFRAME_INTERVAL} ticks a frame is stored whole;
+ * the frames in between store how they differ from the tick before, which
+ * for most values is not at all. Differences are written as the number of
+ * unchanged values before each changed one and the change, both as
+ * variable length integers, into one direct buffer used as a ring, so
+ * capturing a tick allocates nothing. The buffer starts small and doubles
+ * whenever a frame would otherwise drop older ones, up to its capacity;
+ * past that the oldest frames are dropped, along with the frames that need
+ * them to be decoded.
+ */
+public final class RewindBuffer {
+
+    /** Ticks from one frame stored whole to the next. */
+    public static final int KEYFRAME_INTERVAL = 60;
+    /** Bytes of the buffer before it first grows. */
+    private static final int INITIAL_CAPACITY = 64 << 10;
+
+    /** Encoded frames. */
+    private ByteBuffer data;
+    /** Bytes the buffer may grow to. */
+    private final int capacity;
+    /** Start, length and kind of every frame, in a ring from the oldest. */
+    private final int[] starts;
+    private final int[] lengths;
+    private final boolean[] keyframes;
+    private int oldest;
+    private int count;
+    /** Where the next frame goes. */
+    private int end;
+    /** Frames captured since the newest keyframe. */
+    private int sinceKeyframe;
+    /** Newest frame, the next one is written as the difference from it. */
+    private final StateFrame previous = new StateFrame();
+    /** Position of the next byte decoded. */
+    private int cursor;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity
+     *            Bytes the buffer may grow to.
+     * @param frames
+     *            Ticks kept at least, as long as they fit in the buffer.
+     */
+    public RewindBuffer(final int capacity, final int frames) {
+        this.data = ByteBuffer.allocateDirect(Math.min(capacity, INITIAL_CAPACITY));
+        this.capacity = capacity;
+        this.starts = new int[frames + KEYFRAME_INTERVAL];
+        this.lengths = new int[starts.length];
+        this.keyframes = new boolean[starts.length];
+    }
+
+    /**
+     * Adds the state of a tick as the newest frame.
+     *
+     * @param frame
+     *            State of the tick, unchanged by the call.
+     */
+    public void capture(final StateFrame frame) {
+        int size = frame.size();
+        // The size, then a run and a change of up to 5 bytes each per value.
+        int worst = 5 + 10 * size;
+        if (worst > capacity)
+            throw new IllegalArgumentException("A state of " + size + " values doesn't fit the rewind buffer.");
+        if (count == starts.length)
+            dropOldest();
+        if (data.capacity() < capacity && !fits(worst))
+            grow(worst);
+        int start = end;
+        if (start + worst > data.capacity()) {
+            // Too little room at the end: the frames there are the oldest, write over the start instead.
+            while (count > 0 && starts[oldest] >= end)
+                dropOldest();
+            start = 0;
+        }
+        while (count > 0 && starts[oldest] < start + worst && start < starts[oldest] + lengths[oldest])
+            dropOldest();
+
+        boolean keyframe = count == 0 || sinceKeyframe == KEYFRAME_INTERVAL - 1;
+        int[] values = frame.values();
+        int[] base = previous.values();
+        int baseSize = keyframe ? 0 : Math.min(size, previous.size());
+        int position = putVarInt(start, size);
+        int run = 0;
+        for (int i = 0; i < size; i++) {
+            int change = i < baseSize ? values[i] - base[i] : values[i];
+            if (change == 0) {
+                run++;
+                continue;
+            }
+            position = putVarInt(position, run);
+            position = putVarInt(position, change << 1 ^ change >> 31);
+            run = 0;
+        }
+        if (run > 0)
+            position = putVarInt(position, run);
+
+        int slot = slot(count);
+        starts[slot] = start;
+        lengths[slot] = position - start;
+        keyframes[slot] = keyframe;
+        count++;
+        end = position;
+        sinceKeyframe = keyframe ? 0 : sinceKeyframe + 1;
+        previous.resize(size);
+        System.arraycopy(values, 0, previous.values(), 0, size);
+    }
+
+    /**
+     * @return Number of frames held.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Decodes a frame.
+     *
+     * @param ticksBack
+     *            Age of the frame, 0 for the newest.
+     * @param out
+     *            Frame to decode into, ready to be read.
+     */
+    public void read(final int ticksBack, final StateFrame out) {
+        if (ticksBack < 0 || ticksBack >= count)
+            throw new IndexOutOfBoundsException("No frame " + ticksBack + " ticks back, " + count + " held.");
+        int target = count - 1 - ticksBack;
+        int first = target;
+        while (!keyframes[slot(first)])
+            first--;
+        out.resize(0);
+        for (int i = first; i <= target; i++)
+            decode(slot(i), out);
+    }
+
+    /**
+     * Drops the newest frames, to play on from an older one.
+     *
+     * @param ticks
+     *            Number of frames dropped.
+     */
+    public void truncate(final int ticks) {
+        if (ticks >= count) {
+            clear();
+            return;
+        }
+        count -= ticks;
+        int newest = slot(count - 1);
+        end = starts[newest] + lengths[newest];
+        sinceKeyframe = 0;
+        for (int i = count - 1; !keyframes[slot(i)]; i--)
+            sinceKeyframe++;
+        read(0, previous);
+    }
+
+    /**
+     * Drops every frame.
+     */
+    public void clear() {
+        oldest = 0;
+        count = 0;
+        end = 0;
+        sinceKeyframe = 0;
+        previous.clear();
+    }
+
+    /** If a frame fits without dropping older ones. */
+    private boolean fits(final int length) {
+        if (count == 0)
+            return length <= data.capacity();
+        int first = starts[oldest];
+        if (first < end)
+            return end + length <= data.capacity() || length <= first;
+        return end + length <= first;
+    }
+
+    /** Moves the frames to the start of a larger buffer, with room for one more. */
+    private void grow(final int length) {
+        int used = 0;
+        for (int i = 0; i < count; i++)
+            used += lengths[slot(i)];
+        ByteBuffer grown = ByteBuffer.allocateDirect(Math.min(capacity, Math.max(data.capacity() * 2, used + length)));
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            int slot = slot(i);
+            grown.put(position, data, starts[slot], lengths[slot]);
+            starts[slot] = position;
+            position += lengths[slot];
+        }
+        data = grown;
+        end = position;
+    }
+
+    /** Slot of a frame counted from the oldest. */
+    private int slot(final int index) {
+        return (oldest + index) % starts.length;
+    }
+
+    /** Drops the oldest frame and the ones decoded from it. */
+    private void dropOldest() {
+        do {
+            oldest = (oldest + 1) % starts.length;
+            count--;
+        } while (count > 0 && !keyframes[oldest]);
+    }
+
+    private void decode(final int slot, final StateFrame out) {
+        cursor = starts[slot];
+        int size = getVarInt();
+        out.resize(size);
+        int[] values = out.values();
+        int i = 0;
+        while (i < size) {
+            i += getVarInt();
+            if (i < size) {
+                int zigzag = getVarInt();
+                values[i++] += zigzag >>> 1 ^ -(zigzag & 1);
+            }
+        }
+    }
+
+    private int putVarInt(final int position, final int value) {
+        int at = position;
+        int rest = value;
+        while ((rest & ~0x7F) != 0) {
+            data.put(at++, (byte) (rest & 0x7F | 0x80));
+            rest >>>= 7;
+        }
+        data.put(at++, (byte) rest);
+        return at;
+    }
+
+    private int getVarInt() {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = data.get(cursor++);
+            value |= (b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+    }
+}
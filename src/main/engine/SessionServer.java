@@ -0,0 +1,173 @@
+package main.engine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+
+import main.entity.Player.PlayerShipLibrary;
+
+/**
+ * Plays many headless games at once in one JVM, each in its own
+ * {@link GameSession} on its own virtual thread. Used to check the replays
+ * of a tournament in bulk.
+ * <p>
+ * Usage: {@code SessionServer <replay>... [--sessions <n>] [--bench]}.
+ * Plays the replays in n sessions at once and checks they all end as
+ * recorded. With {@code --bench} it plays 1, 2, 4... sessions at once up to
+ * twice the number of cores, each playing the replays a few times over, and
+ * prints how the throughput scales.
+ */
+public final class SessionServer implements AutoCloseable {
+
+    /** Threads playing the sessions, one each. */
+    private final ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor();
+
+    /** Times each session plays the replays over in a benchmark. */
+    private static final int BENCH_GAMES = 10;
+
+    /**
+     * Plays replays one after another in a new session on its own thread.
+     *
+     * @param replays
+     *            Games to play back.
+     * @return How each game ended.
+     */
+    public Future<List<Replay.Result>> submit(final List<Replay> replays) {
+        return threads.submit(() -> GameSession.create().call(() -> {
+            List<Replay.Result> results = new ArrayList<Replay.Result>(replays.size());
+            for (Replay replay : replays)
+                results.add(play(replay));
+            return results;
+        }));
+    }
+
+    /**
+     * Plays a replay back as fast as possible in the current session.
+     *
+     * @param replay
+     *            Game to play back.
+     * @return How the game ended.
+     */
+    static Replay.Result play(final Replay replay) {
+        // Play with the stats the ship had when recorded, not the current upgrades.
+        PlayerShipLibrary.getShipList().put(replay.getShipType(), replay.createShipStats());
+        GameClock.setSpeed(0);
+        GameState gameState = Core.newGame(replay.getShipType(), replay.getSeed(), replay.isEndless());
+        GameSession.current().rules = replay.getVersion();
+        Replay.Playback playback = replay.playback();
+        InputManager input = Core.getInputManager();
+        input.setPlayback(playback);
+        try {
+            Core.playLevels(null, gameState, new AchievementManager(),
+                    replay.getWidth(), replay.getHeight(), replay.getFps());
+        } finally {
+            input.setPlayback(null);
+        }
+        return Replay.Result.of(gameState, playback.getTick());
+    }
+
+    /**
+     * Stops accepting sessions and waits for the running ones.
+     */
+    @Override
+    public void close() {
+        threads.close();
+    }
+
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        List<Replay> replays = new ArrayList<Replay>();
+        int sessions = Runtime.getRuntime().availableProcessors();
+        boolean bench = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--bench"))
+                bench = true;
+            else if (args[i].equals("--sessions") && i + 1 < args.length)
+                sessions = Integer.parseInt(args[++i]);
+            else
+                replays.add(Replay.read(Path.of(args[i])));
+        }
+        if (replays.isEmpty()) {
+            System.err.println("Usage: SessionServer <replay file>... [--sessions <n>] [--bench]");
+            System.exit(2);
+        }
+
+        Core.getLogger().setLevel(Level.WARNING);
+        AssetLoader.start();
+        AssetLoader.awaitLevelData();
+
+        boolean match = true;
+        if (bench) {
+            int cores = Runtime.getRuntime().availableProcessors();
+            List<Replay> games = new ArrayList<Replay>();
+            for (int i = 0; i < BENCH_GAMES; i++)
+                games.addAll(replays);
+            // The first rounds warm the JIT up and are not shown.
+            for (int i = 0; i < BENCH_GAMES; i++)
+                run(games, 1);
+            double single = 0;
+            System.out.println(cores + " cores");
+            System.out.println("Sessions  Seconds  Ticks/s    Speedup  Efficiency");
+            for (int count = 1; count <= 2 * cores; count *= 2) {
+                Round round = run(games, count);
+                match &= round.match();
+                double ticksPerSecond = round.ticks() / round.seconds();
+                if (count == 1)
+                    single = ticksPerSecond;
+                double speedup = ticksPerSecond / single;
+                System.out.printf("%8d  %7.2f  %9.0f  %7.2fx  %9.0f%%%n", count, round.seconds(),
+                        ticksPerSecond, speedup, 100 * speedup / Math.min(count, cores));
+            }
+        } else {
+            Round round = run(replays, sessions);
+            match = round.match();
+            System.out.printf("Played %d games, %d ticks, in %.2f s.%n",
+                    sessions * replays.size(), round.ticks(), round.seconds());
+        }
+        System.out.println(match ? "All replays match." : "Some replays diverged.");
+        System.exit(match ? 0 : 1);
+    }
+
+    /** Outcome of playing a batch of sessions. */
+    private record Round(long ticks, double seconds, boolean match) {
+    }
+
+    /**
+     * Plays the replays in the given number of sessions at once.
+     */
+    private static Round run(final List<Replay> replays, final int sessions) throws InterruptedException {
+        List<Future<List<Replay.Result>>> results = new ArrayList<Future<List<Replay.Result>>>();
+        long start = System.nanoTime();
+        try (SessionServer server = new SessionServer()) {
+            for (int i = 0; i < sessions; i++)
+                results.add(server.submit(replays));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long ticks = 0;
+        boolean match = true;
+        for (int i = 0; i < sessions; i++) {
+            try {
+                List<Replay.Result> actual = results.get(i).get();
+                for (int j = 0; j < replays.size(); j++) {
+                    Replay.Result expected = replays.get(j).getResult();
+                    ticks += actual.get(j).ticks();
+                    if (!expected.equals(actual.get(j))) {
+                        System.out.println("Session " + i + " diverged on game " + j + ": expected " + expected
+                                + ", got " + actual.get(j));
+                        match = false;
+                    }
+                }
+            } catch (ExecutionException e) {
+                System.out.println("Session " + i + " failed: " + e.getCause());
+                match = false;
+            }
+        }
+        return new Round(ticks, seconds, match);
+    }
+}
@@ -9,12 +9,18 @@ import javax.sound.sampled.FloatControl;
 import javax.sound.sampled.LineUnavailableException;
 import javax.sound.sampled.LineEvent;
 import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
+import main.engine.jfr.SoundEvent;
+import main.engine.metrics.GameMetrics;
+
 /**
  * Minimal sound manager for short SFX.
  */
@@ -23,23 +29,94 @@ public final class  SoundManager {
     private static final Logger logger = Core.getLogger();
     private static Clip loopClip;
 
+    /** Fully decoded PCM data, ready to hand to a Clip. */
+    private record DecodedSound(AudioFormat format, byte[] data) {
+    }
+
+    /** Marks a sound that could not be found or decoded. */
+    private static final DecodedSound MISSING = new DecodedSound(null, null);
+    /** Decoded sounds, keyed by resource path. */
+    private static final Map<String, DecodedSound> decoded = new ConcurrentHashMap<>();
+    /** If sounds and music are silenced, as when replays run without a window. */
+    private static volatile boolean muted;
+
     private SoundManager() {
     }
 
+    /**
+     * Silences or restores every sound and music played from now on.
+     *
+     * @param mute
+     *            True to stay silent.
+     */
+    public static void setMuted(final boolean mute) {
+        muted = mute;
+        if (mute)
+            stopAllMusic();
+    }
+
+    /**
+     * Returns true if sounds must not play: when muted, and always in
+     * headless game sessions, which share the speakers of the window.
+     *
+     * @return If nothing may be played.
+     */
+    private static boolean isSilent() {
+        return muted || !GameSession.current().isDefault();
+    }
+
+    /**
+     * Decodes a WAV ahead of time so playing it later needs no file access.
+     * Safe to call from any thread.
+     *
+     * @param resourcePath
+     *            Path of the sound, e.g. "sound/shoot.wav".
+     * @return True if the sound is available.
+     */
+    public static boolean preload(String resourcePath) {
+        return decode(resourcePath) != MISSING;
+    }
+
+    /**
+     * Returns the decoded PCM for a sound, decoding it on first use.
+     */
+    private static DecodedSound decode(String resourcePath) {
+        DecodedSound sound = decoded.get(resourcePath);
+        if (sound != null) {
+            GameMetrics.SOUND_CACHE_HITS.increment();
+            return sound;
+        }
+        GameMetrics.SOUND_CACHE_MISSES.increment();
+
+        sound = MISSING;
+        try (AudioInputStream source = openAudioStream(resourcePath)) {
+            if (source != null) {
+                AudioInputStream pcm = toPcmSigned(source);
+                sound = new DecodedSound(pcm.getFormat(), pcm.readAllBytes());
+            }
+        } catch (UnsupportedAudioFileException | IOException e) {
+            logger.info("Unable to decode sound '" + resourcePath + "': " + e.getMessage());
+        }
+        decoded.put(resourcePath, sound);
+        return sound;
+    }
+
     /**
      * Plays a short WAV from resources folder. Example path: "sound/shoot.wav".
      * Uses a new Clip per invocation for simplicity; suitable for very short SFX.
+     * The decoded data is cached, so only the first play touches the disk.
      */
     public static void playOnce(String resourcePath) {
-        AudioInputStream audioStream = null;
+        if (isSilent()) return;
+        SoundEvent soundEvent = new SoundEvent();
+        soundEvent.begin();
         Clip clip = null;
         try {
-            audioStream = openAudioStream(resourcePath);
-            if (audioStream == null) return;
-            audioStream = toPcmSigned(audioStream);
-            DataLine.Info info = new DataLine.Info(Clip.class, audioStream.getFormat());
+            DecodedSound sound = decode(resourcePath);
+            if (sound == MISSING) return;
+            DataLine.Info info = new DataLine.Info(Clip.class, sound.format());
             clip = (Clip) AudioSystem.getLine(info);
-            clip.open(audioStream);
+            clip.open(sound.format(), sound.data(), 0, sound.data().length);
 
             // Set volume based on user settings
             if (clip.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
@@ -49,10 +126,12 @@ public final class  SoundManager {
             }
 
             clip.start();
+            GameMetrics.SOUNDS_PLAYED.increment();
             logger.info("Started one-shot sound: " + resourcePath);
-        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
+        } catch (LineUnavailableException | IllegalArgumentException e) {
             logger.info("Unable to play sound '" + resourcePath + "': " + e.getMessage());
         } finally {
+            record(soundEvent, resourcePath, false);
             // We can't close 'in' immediately because AudioSystem may stream; rely on clip close
             if (clip != null) {
                 final Clip c = clip;
@@ -74,16 +153,17 @@ public final class  SoundManager {
     public static void playLoop(String resourcePath) {
         stop();
         stopBackgroundMusic();
+        if (isSilent()) return;
 
-        AudioInputStream audioStream = null;
+        SoundEvent soundEvent = new SoundEvent();
+        soundEvent.begin();
         try {
-            audioStream = openAudioStream(resourcePath);
-            if (audioStream == null) return;
-            audioStream = toPcmSigned(audioStream);
+            DecodedSound sound = decode(resourcePath);
+            if (sound == MISSING) return;
 
-            DataLine.Info info = new DataLine.Info(Clip.class, audioStream.getFormat());
+            DataLine.Info info = new DataLine.Info(Clip.class, sound.format());
             loopClip = (Clip) AudioSystem.getLine(info);
-            loopClip.open(audioStream);
+            loopClip.open(sound.format(), sound.data(), 0, sound.data().length);
 
             // Set volume based on user settings for loops
             if (loopClip.isControlSupported(FloatControl.Type.MASTER_GAIN)) {
@@ -94,13 +174,16 @@ public final class  SoundManager {
 
             loopClip.loop(Clip.LOOP_CONTINUOUSLY);
             loopClip.start();
+            GameMetrics.SOUNDS_PLAYED.increment();
             logger.fine("Started looped sound: " + resourcePath);
-        } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
+        } catch (LineUnavailableException | IllegalArgumentException e) {
             logger.fine("Unable to loop sound '" + resourcePath + "': " + e.getMessage());
             if (loopClip != null) {
                 try { loopClip.close(); } catch (Exception ignored) {}
                 loopClip = null;
             }
+        } finally {
+            record(soundEvent, resourcePath, true);
         }
     }
 
@@ -108,7 +191,7 @@ public final class  SoundManager {
      * Stops and releases the current looped clip, if any.
      */
     public static void stop() {
-        if (loopClip != null) {
+        if (loopClip != null && GameSession.current().isDefault()) {
             try {
                 loopClip.stop();
                 loopClip.close();
@@ -140,9 +223,12 @@ public final class  SoundManager {
         // stop any currently playing music (both loop and background music)
         stop();
         stopBackgroundMusic();
+        if (isSilent()) return;
 
         InputStream in = null;
         AudioInputStream audioStream = null;
+        SoundEvent soundEvent = new SoundEvent();
+        soundEvent.begin();
 
         try {
             in = SoundManager.class.getClassLoader().getResourceAsStream(musicResourcePath);
@@ -167,12 +253,26 @@ public final class  SoundManager {
             }
 
             backgroundMusicClip.start();
+            GameMetrics.SOUNDS_PLAYED.increment();
             isMusicPlaying = true;
             logger.fine("Background music started: " + musicResourcePath);
 
         } catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
             logger.fine("Unable to play background music '" + musicResourcePath + "': " + e.getMessage());
             cleanupMusicResources();
+        } finally {
+            record(soundEvent, musicResourcePath, true);
+        }
+    }
+
+    /**
+     * Commits a sound event if a flight recording wants it.
+     */
+    private static void record(SoundEvent event, String resourcePath, boolean loop) {
+        if (event.shouldCommit()) {
+            event.sound = resourcePath;
+            event.loop = loop;
+            event.commit();
         }
     }
 
@@ -180,7 +280,7 @@ public final class  SoundManager {
      * stops the background music and releases resources
      */
     public static void stopBackgroundMusic() {
-        if (backgroundMusicClip != null) {
+        if (backgroundMusicClip != null && GameSession.current().isDefault()) {
             try {
                 backgroundMusicClip.stop();
                 backgroundMusicClip.close();
@@ -206,7 +306,7 @@ public final class  SoundManager {
         }
         // Fallback to file system path for developer/local runs
         try (FileInputStream fis = new FileInputStream(resourcePath)) {
-            return AudioSystem.getAudioInputStream(fis);
+            return AudioSystem.getAudioInputStream(new ByteArrayInputStream(fis.readAllBytes()));
         } catch (FileNotFoundException e) {
             logger.fine("Audio resource not found: " + resourcePath);
             return null;
@@ -0,0 +1,166 @@
+package main.engine;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opaque pixels of a sprite packed in rows of longs, one bit per pixel, for
+ * pixel accurate collisions. Two masks are tested by ANDing their rows
+ * shifted by the distance between the entities, 64 pixels at a time.
+ * <p>
+ * Sprites are drawn scaled to the size of their entity, so masks are tested
+ * at that size: {@link #scaled} marks the pixels {@link DrawManager} fills
+ * for an entity of a given size, and keeps the result for the next tests.
+ */
+public final class SpriteMask {
+
+    private final int width;
+    private final int height;
+    /** Longs per row. */
+    private final int words;
+    /** Rows top to bottom, pixel x of a row in bit x % 64 of its word x / 64. */
+    private final long[] bits;
+
+    /** Last scaled mask, checked first as an entity mostly keeps its size. */
+    private volatile SpriteMask lastScaled;
+    /** Scaled masks by width and height. */
+    private final Map<Integer, SpriteMask> scaled = new ConcurrentHashMap<Integer, SpriteMask>();
+
+    private SpriteMask(final int width, final int height) {
+        this.width = width;
+        this.height = height;
+        this.words = Math.max(1, (width + 63) >>> 6);
+        this.bits = new long[words * height];
+    }
+
+    /**
+     * Packs a sprite as loaded by the {@link FileManager}.
+     *
+     * @param image
+     *            Sprite pixels, indexed by column then row.
+     * @return Mask of the sprite at its own size.
+     */
+    public static SpriteMask of(final boolean[][] image) {
+        SpriteMask mask = new SpriteMask(image.length, image.length == 0 ? 0 : image[0].length);
+        for (int x = 0; x < mask.width; x++)
+            for (int y = 0; y < mask.height; y++)
+                if (image[x][y])
+                    mask.set(x, y);
+        return mask;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @param x
+     *            Column of the pixel.
+     * @param y
+     *            Row of the pixel.
+     * @return If the pixel is opaque.
+     */
+    public boolean get(final int x, final int y) {
+        return (bits[y * words + (x >>> 6)] & 1L << x) != 0;
+    }
+
+    private void set(final int x, final int y) {
+        bits[y * words + (x >>> 6)] |= 1L << x;
+    }
+
+    /**
+     * Returns the mask of the sprite as drawn on an entity of a given size.
+     *
+     * @param entityWidth
+     *            Width of the entity.
+     * @param entityHeight
+     *            Height of the entity.
+     * @return Mask of that size.
+     */
+    public SpriteMask scaled(final int entityWidth, final int entityHeight) {
+        SpriteMask last = lastScaled;
+        if (last != null && last.width == entityWidth && last.height == entityHeight)
+            return last;
+        last = scaled.computeIfAbsent(entityWidth << 16 | entityHeight & 0xFFFF,
+                key -> scale(entityWidth, entityHeight));
+        lastScaled = last;
+        return last;
+    }
+
+    /**
+     * Marks the pixels {@code DrawManager.drawSprite} fills, with the same
+     * float arithmetic so the mask is the sprite on screen.
+     */
+    private SpriteMask scale(final int entityWidth, final int entityHeight) {
+        SpriteMask mask = new SpriteMask(entityWidth, entityHeight);
+        float widthRatio = (float) entityWidth / (width * 2);
+        float heightRatio = (float) entityHeight / (height * 2);
+        int pixelWidth = (int) Math.ceil(widthRatio * 2);
+        int pixelHeight = (int) Math.ceil(heightRatio * 2);
+        for (int i = 0; i < width; i++) {
+            for (int j = 0; j < height; j++) {
+                if (!get(i, j))
+                    continue;
+                int left = (int) (i * 2 * widthRatio);
+                int top = (int) (j * 2 * heightRatio);
+                for (int y = top; y < Math.min(top + pixelHeight, entityHeight); y++)
+                    for (int x = left; x < Math.min(left + pixelWidth, entityWidth); x++)
+                        mask.set(x, y);
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Checks if two masks share an opaque pixel, testing the rows where
+     * their boxes intersect.
+     *
+     * @param first
+     *            First mask.
+     * @param firstX
+     *            Position of the left side of the first mask.
+     * @param firstY
+     *            Position of the upper side of the first mask.
+     * @param second
+     *            Second mask.
+     * @param secondX
+     *            Position of the left side of the second mask.
+     * @param secondY
+     *            Position of the upper side of the second mask.
+     * @return If they overlap.
+     */
+    public static boolean overlaps(final SpriteMask first, final int firstX, final int firstY,
+                                   final SpriteMask second, final int secondX, final int secondY) {
+        int left = Math.max(firstX, secondX);
+        int right = Math.min(firstX + first.width, secondX + second.width);
+        int top = Math.max(firstY, secondY);
+        int bottom = Math.min(firstY + first.height, secondY + second.height);
+        for (int y = top; y < bottom; y++) {
+            int firstRow = (y - firstY) * first.words;
+            int secondRow = (y - secondY) * second.words;
+            for (int x = left; x < right; x += 64) {
+                long span = right - x >= 64 ? -1L : (1L << (right - x)) - 1;
+                if ((first.window(firstRow, x - firstX) & second.window(secondRow, x - secondX) & span) != 0)
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The 64 pixels of a row starting at a column, zero past the
+     *         width.
+     */
+    private long window(final int row, final int from) {
+        int word = from >>> 6;
+        int shift = from & 63;
+        long window = bits[row + word] >>> shift;
+        if (shift != 0 && word + 1 < words)
+            window |= bits[row + word + 1] << (64 - shift);
+        return window;
+    }
+}
@@ -0,0 +1,130 @@
+package main.engine;
+
+import java.util.Arrays;
+
+/**
+ * State of the simulation at one tick, flattened into ints. Objects write
+ * their fields with the put methods and read them back with the get methods
+ * in the same order, so the frame needs no names or types. One frame is
+ * reused for every tick and only allocates while it grows.
+ */
+public final class StateFrame {
+
+    /** Values written, in order. */
+    private int[] values;
+    /** Number of values written. */
+    private int size;
+    /** Index of the next value read. */
+    private int position;
+
+    /**
+     * Constructor.
+     */
+    public StateFrame() {
+        this.values = new int[1024];
+    }
+
+    /**
+     * Empties the frame to write another tick.
+     */
+    public void clear() {
+        this.size = 0;
+        this.position = 0;
+    }
+
+    /**
+     * Reads the frame again from its first value.
+     */
+    public void startReading() {
+        this.position = 0;
+    }
+
+    /**
+     * @return Number of ints written.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Number of ints not read yet.
+     */
+    public int remaining() {
+        return size - position;
+    }
+
+    public void putInt(final int value) {
+        if (size == values.length)
+            values = Arrays.copyOf(values, size * 2);
+        values[size++] = value;
+    }
+
+    public void putLong(final long value) {
+        putInt((int) (value >>> 32));
+        putInt((int) value);
+    }
+
+    public void putFloat(final float value) {
+        putInt(Float.floatToRawIntBits(value));
+    }
+
+    public void putDouble(final double value) {
+        putLong(Double.doubleToRawLongBits(value));
+    }
+
+    public void putBoolean(final boolean value) {
+        putInt(value ? 1 : 0);
+    }
+
+    /**
+     * @return Next value.
+     * @throws IllegalStateException
+     *             If every value was read, the frame was written in another
+     *             order than it is read.
+     */
+    public int getInt() {
+        if (position == size)
+            throw new IllegalStateException("Read past the end of the state frame.");
+        return values[position++];
+    }
+
+    public long getLong() {
+        long high = getInt();
+        return high << 32 | getInt() & 0xFFFFFFFFL;
+    }
+
+    public float getFloat() {
+        return Float.intBitsToFloat(getInt());
+    }
+
+    public double getDouble() {
+        return Double.longBitsToDouble(getLong());
+    }
+
+    public boolean getBoolean() {
+        return getInt() != 0;
+    }
+
+    /**
+     * @return Values written, valid up to {@link #size()}.
+     */
+    int[] values() {
+        return values;
+    }
+
+    /**
+     * Resizes the frame for {@link RewindBuffer} to decode into, keeping
+     * the values it had and reading from the start.
+     *
+     * @param newSize
+     *            Number of values.
+     */
+    void resize(final int newSize) {
+        if (newSize > values.length)
+            values = Arrays.copyOf(values, Math.max(newSize, values.length * 2));
+        if (newSize > size)
+            Arrays.fill(values, size, newSize, 0);
+        this.size = newSize;
+        this.position = 0;
+    }
+}
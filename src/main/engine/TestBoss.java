@@ -1,7 +1,6 @@
 package main.engine;
 
 import java.io.IOException;
-import java.util.List;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.FileHandler;
 import java.util.logging.Handler;
@@ -41,9 +40,13 @@ public final class TestBoss {
         frame.addKeyListener(input);
         DrawManager.getInstance().setFrame(frame);
 
-        List<GameSettings> gameSettings = GameSettings.getGameSettings();
-        int bossLevelIndex = Math.min(4, gameSettings.size() - 1); // Level 5 settings or fallback to last
-        GameSettings bossSettings = gameSettings.get(bossLevelIndex);
+        LevelLoader levels = Core.getLevelLoader();
+        int bossLevel = Math.min(5, levels.getStageCount()); // Level 5 settings or fallback to last
+        GameSettings bossSettings = levels.getSettings(bossLevel);
+        if (bossSettings == null) {
+            LOGGER.severe("Stage " + bossLevel + " could not be loaded.");
+            return;
+        }
 
         AchievementManager achievementManager = new AchievementManager();
         GameState gameState = new GameState(SpriteType.Normal, 5, 0);
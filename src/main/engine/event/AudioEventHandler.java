@@ -0,0 +1,25 @@
+package main.engine.event;
+
+import main.engine.SoundManager;
+
+/**
+ * Plays the sound effects of gameplay events.
+ */
+public final class AudioEventHandler implements GameEventHandler {
+
+    @Override
+    public void onEvent(final GameEvent event, final boolean endOfBatch) {
+        switch (event.getType()) {
+            case PLAYER_SHOT -> SoundManager.playOnce("sound/shoot.wav");
+            case PLAYER_HIT, BOSS_KILLED -> SoundManager.playOnce("sound/explosion.wav");
+            case ENEMY_KILLED, BOSS_HIT -> SoundManager.playOnce("sound/invaderkilled.wav");
+            case SPECIAL_KILLED -> {
+                // Cuts the special ship's loop.
+                SoundManager.stop();
+                SoundManager.playOnce("sound/explosion.wav");
+            }
+            case ITEM_PICKED -> SoundManager.playOnce("sound/hover.wav");
+            default -> { }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package main.engine.event;
+
+import main.engine.DrawManager;
+
+/**
+ * Starts the explosions of gameplay events.
+ */
+public final class EffectsEventHandler implements GameEventHandler {
+
+    /** Draw manager showing the explosions. */
+    private final DrawManager drawManager;
+
+    /**
+     * Constructor.
+     *
+     * @param drawManager
+     *            Draw manager showing the explosions.
+     */
+    public EffectsEventHandler(final DrawManager drawManager) {
+        this.drawManager = drawManager;
+    }
+
+    @Override
+    public void onEvent(final GameEvent event, final boolean endOfBatch) {
+        switch (event.getType()) {
+            case PLAYER_HIT -> drawManager.triggerExplosion(event.getX(), event.getY(), false, event.isLast());
+            case ENEMY_KILLED -> drawManager.triggerExplosion(event.getX(), event.getY(), true, event.isLast());
+            case BOSS_KILLED, SPECIAL_KILLED -> drawManager.triggerExplosion(event.getX(), event.getY(), true, true);
+            default -> { }
+        }
+    }
+}
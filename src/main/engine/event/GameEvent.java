@@ -0,0 +1,143 @@
+package main.engine.event;
+
+import main.entity.Entity;
+
+/**
+ * Gameplay event carried by the {@link GameEventBus}. Events are slots of
+ * the bus's ring and get reused, so handlers must copy anything they want
+ * to keep after returning.
+ */
+public final class GameEvent {
+
+    /** What happened. */
+    public enum Type {
+        /** The player fired a bullet. */
+        PLAYER_SHOT,
+        /** An enemy bullet hit the player. */
+        PLAYER_HIT,
+        /** A formation ship was destroyed. */
+        ENEMY_KILLED,
+        /** The special ship was destroyed. */
+        SPECIAL_KILLED,
+        /** A player bullet hit the boss without destroying it. */
+        BOSS_HIT,
+        /** The boss was destroyed. */
+        BOSS_KILLED,
+        /** An item dropped from a destroyed ship. */
+        ITEM_DROPPED,
+        /** The player picked up an item. */
+        ITEM_PICKED,
+        /** Every enemy of the level was destroyed. */
+        LEVEL_CLEARED
+    }
+
+    private Type type;
+    private Entity entity;
+    private int x;
+    private int y;
+    private int points;
+    private int coins;
+    private int exp;
+    private boolean last;
+
+    /** Slots are only created by the bus. */
+    GameEvent() {
+
+    }
+
+    /**
+     * Clears the slot for a new event.
+     *
+     * @param newType
+     *            Type of the new event.
+     * @return This event.
+     */
+    GameEvent reset(final Type newType) {
+        this.type = newType;
+        this.entity = null;
+        this.x = 0;
+        this.y = 0;
+        this.points = 0;
+        this.coins = 0;
+        this.exp = 0;
+        this.last = false;
+        return this;
+    }
+
+    /**
+     * Sets the entity involved and its position.
+     *
+     * @param source
+     *            Entity involved.
+     * @return This event.
+     */
+    public GameEvent from(final Entity source) {
+        this.entity = source;
+        this.x = source.getPositionX();
+        this.y = source.getPositionY();
+        return this;
+    }
+
+    /**
+     * Sets what the event is worth.
+     *
+     * @param newPoints
+     *            Score earned.
+     * @param newCoins
+     *            Coins earned.
+     * @param newExp
+     *            Experience earned.
+     * @return This event.
+     */
+    public GameEvent reward(final int newPoints, final int newCoins, final int newExp) {
+        this.points = newPoints;
+        this.coins = newCoins;
+        this.exp = newExp;
+        return this;
+    }
+
+    /**
+     * Marks the event as the last of its kind, such as the final ship of a
+     * formation or the hit that took the last life.
+     *
+     * @param isLast
+     *            If it is the last one.
+     * @return This event.
+     */
+    public GameEvent last(final boolean isLast) {
+        this.last = isLast;
+        return this;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public Entity getEntity() {
+        return entity;
+    }
+
+    public int getX() {
+        return x;
+    }
+
+    public int getY() {
+        return y;
+    }
+
+    public int getPoints() {
+        return points;
+    }
+
+    public int getCoins() {
+        return coins;
+    }
+
+    public int getExp() {
+        return exp;
+    }
+
+    public boolean isLast() {
+        return last;
+    }
+}
@@ -0,0 +1,106 @@
+package main.engine.event;
+
+import java.util.Arrays;
+
+/**
+ * Ring buffer of gameplay events. Producers claim preallocated slots while
+ * the game updates and {@link #dispatch()} hands the pending ones to every
+ * handler in a batch, handler by handler, so publishing costs a few field
+ * writes no matter how many handlers are subscribed. Both happen on the
+ * game loop thread, which keeps the order of effects deterministic.
+ */
+public final class GameEventBus {
+
+    /** Preallocated events. */
+    private final GameEvent[] ring;
+    /** Index mask of the ring. */
+    private final int mask;
+    /** Subscribed handlers, in subscription order. */
+    private GameEventHandler[] handlers = new GameEventHandler[0];
+    /** Number of events claimed so far. */
+    private long cursor;
+    /** Number of events dispatched so far. */
+    private long dispatched;
+    /** If handlers are being run. */
+    private boolean dispatching;
+
+    /**
+     * Constructor.
+     *
+     * @param capacity
+     *            Events held between dispatches, rounded up to a power of
+     *            two.
+     */
+    public GameEventBus(final int capacity) {
+        int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.ring = new GameEvent[size];
+        for (int i = 0; i < size; i++)
+            ring[i] = new GameEvent();
+        this.mask = size - 1;
+    }
+
+    /**
+     * Adds a handler. Handlers run in the order they were subscribed.
+     *
+     * @param handler
+     *            Handler to add.
+     */
+    public void subscribe(final GameEventHandler handler) {
+        handlers = Arrays.copyOf(handlers, handlers.length + 1);
+        handlers[handlers.length - 1] = handler;
+    }
+
+    /**
+     * Publishes an event. The returned slot is filled in by the caller
+     * before the next dispatch. If the ring is full, the pending events are
+     * dispatched first.
+     *
+     * @param type
+     *            Type of the event.
+     * @return Event to fill in.
+     */
+    public GameEvent publish(final GameEvent.Type type) {
+        if (cursor - dispatched == ring.length) {
+            if (dispatching)
+                throw new IllegalStateException("Event ring overflowed while dispatching.");
+            dispatch();
+        }
+        return ring[(int) (cursor++ & mask)].reset(type);
+    }
+
+    /**
+     * Runs every handler over the events published since the last dispatch.
+     * Events published by the handlers themselves go into a following batch
+     * of the same call.
+     */
+    public void dispatch() {
+        if (dispatching)
+            return;
+        dispatching = true;
+        try {
+            while (dispatched < cursor) {
+                long end = cursor;
+                for (GameEventHandler handler : handlers)
+                    for (long sequence = dispatched; sequence < end; sequence++)
+                        handler.onEvent(ring[(int) (sequence & mask)], sequence == end - 1);
+                dispatched = end;
+            }
+        } finally {
+            dispatching = false;
+        }
+    }
+
+    /**
+     * Drops the events that were not dispatched yet.
+     */
+    public void clear() {
+        dispatched = cursor;
+    }
+
+    /**
+     * @return Events published and not dispatched yet.
+     */
+    public int getPending() {
+        return (int) (cursor - dispatched);
+    }
+}
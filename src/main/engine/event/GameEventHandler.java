@@ -0,0 +1,19 @@
+package main.engine.event;
+
+/**
+ * Consumer of gameplay events.
+ */
+@FunctionalInterface
+public interface GameEventHandler {
+
+    /**
+     * Handles one event.
+     *
+     * @param event
+     *            Event to handle, only valid during the call.
+     * @param endOfBatch
+     *            If it is the last event of the current batch, so work
+     *            gathered over the batch can be flushed.
+     */
+    void onEvent(GameEvent event, boolean endOfBatch);
+}
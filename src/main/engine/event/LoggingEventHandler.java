@@ -0,0 +1,43 @@
+package main.engine.event;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import main.entity.Item;
+
+/**
+ * Logs gameplay events. Messages are only built when the logger would
+ * print them.
+ */
+public final class LoggingEventHandler implements GameEventHandler {
+
+    /** Logger to write to. */
+    private final Logger logger;
+
+    /**
+     * Constructor.
+     *
+     * @param logger
+     *            Logger to write to.
+     */
+    public LoggingEventHandler(final Logger logger) {
+        this.logger = logger;
+    }
+
+    @Override
+    public void onEvent(final GameEvent event, final boolean endOfBatch) {
+        if (!logger.isLoggable(Level.INFO))
+            return;
+        switch (event.getType()) {
+            case PLAYER_HIT -> logger.info(event.isLast() ? "Hit on player, no lives left." : "Hit on player.");
+            case ENEMY_KILLED -> logger.info("Hit on enemy ship.");
+            case BOSS_KILLED -> logger.info("Boss destroyed!");
+            case SPECIAL_KILLED -> logger.info("The special ship was destroyed.");
+            case ITEM_DROPPED -> logger.info("Spawned " + ((Item) event.getEntity()).getType()
+                    + " at " + event.getX() + "," + event.getY());
+            case ITEM_PICKED -> logger.info("Player picked up item: " + ((Item) event.getEntity()).getType());
+            case LEVEL_CLEARED -> logger.info("Level cleared.");
+            default -> { }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package main.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * The collision pass of a tick.
+ */
+@Name("invaders.Collisions")
+@Label("Collision Pass")
+@Description("Bullets tested against the ships of the level")
+@Category({"Invaders", "Game Loop"})
+@Enabled(false)
+@StackTrace(false)
+public final class CollisionEvent extends jdk.jfr.Event {
+
+    @Label("Bullets Tested")
+    public int bullets;
+
+    @Label("Bullets Spent")
+    @Description("Bullets that hit something and were recycled")
+    public int hits;
+}
@@ -0,0 +1,41 @@
+package main.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A load or save of a game file.
+ */
+@Name("invaders.File")
+@Label("Game File")
+@Description("Load or save of a score, save, configuration or asset file")
+@Category({"Invaders", "I/O"})
+@Enabled(false)
+public final class FileEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("File")
+    public String file;
+
+    /**
+     * Starts timing a file operation.
+     *
+     * @param operation
+     *            "load" or "save".
+     * @param file
+     *            Name of the file.
+     * @return Started event.
+     */
+    public static FileEvent start(final String operation, final String file) {
+        FileEvent event = new FileEvent();
+        event.operation = operation;
+        event.file = file;
+        event.begin();
+        return event;
+    }
+}
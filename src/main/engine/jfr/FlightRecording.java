@@ -0,0 +1,97 @@
+package main.engine.jfr;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.logging.Logger;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import main.engine.Core;
+
+/**
+ * Starts and stops an in-process flight recording with the game's
+ * settings from {@code res/invaders.jfc}. The game events are disabled
+ * outside of a recording that enables them, so they cost nothing then.
+ * A recording started with {@code -XX:StartFlightRecording:settings=res/invaders.jfc}
+ * works as well.
+ */
+public final class FlightRecording {
+
+    /** Settings of the recording. */
+    private static final Path SETTINGS = Path.of("res", "invaders.jfc");
+    /** Timestamp in recording file names. */
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static final Logger LOGGER = Core.getLogger();
+
+    /** Running recording, or null. */
+    private static Recording recording;
+    /** If the recording is saved when the game exits. */
+    private static boolean shutdownHookAdded;
+
+    /**
+     * Constructor, not called.
+     */
+    private FlightRecording() {
+
+    }
+
+    /**
+     * Starts recording, if not already.
+     */
+    public static synchronized void start() {
+        if (recording != null)
+            return;
+        try {
+            Configuration settings = Configuration.create(SETTINGS);
+            recording = new Recording(settings);
+            recording.setName("invaders");
+            recording.setToDisk(true);
+            recording.start();
+            if (!shutdownHookAdded) {
+                Runtime.getRuntime().addShutdownHook(new Thread(FlightRecording::stop, "flight-recording-stop"));
+                shutdownHookAdded = true;
+            }
+            LOGGER.info("Flight recording started.");
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            LOGGER.warning("Couldn't start the flight recording: " + e.getMessage());
+            recording = null;
+        }
+    }
+
+    /**
+     * Stops recording and writes the recording next to the game.
+     */
+    public static synchronized void stop() {
+        if (recording == null)
+            return;
+        Path file = Path.of("invaders-" + LocalDateTime.now().format(FILE_TIME) + ".jfr");
+        try {
+            recording.stop();
+            recording.dump(file);
+            LOGGER.info("Flight recording saved to " + file.toAbsolutePath() + ".");
+        } catch (IOException | IllegalStateException e) {
+            LOGGER.warning("Couldn't save the flight recording: " + e.getMessage());
+        } finally {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    /**
+     * Starts recording, or stops and saves the current recording.
+     */
+    public static synchronized void toggle() {
+        if (recording == null)
+            start();
+        else
+            stop();
+    }
+
+    public static synchronized boolean isRecording() {
+        return recording != null;
+    }
+}
@@ -0,0 +1,26 @@
+package main.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Composition of a frame in the back buffer and its copy to the window.
+ */
+@Name("invaders.Frame")
+@Label("Frame Composition")
+@Description("Drawing a frame into the back buffer and presenting it")
+@Category({"Invaders", "Rendering"})
+@Enabled(false)
+@StackTrace(false)
+public final class FrameEvent extends jdk.jfr.Event {
+
+    @Label("Level")
+    public int level;
+
+    @Label("Explosion Particles")
+    public int particles;
+}
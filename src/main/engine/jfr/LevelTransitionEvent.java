@@ -0,0 +1,26 @@
+package main.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Setup of the next level between two game screens.
+ */
+@Name("invaders.LevelTransition")
+@Label("Level Transition")
+@Description("Loading the stage and preparing the game screen for a level")
+@Category({"Invaders", "Game Loop"})
+@Enabled(false)
+@StackTrace(false)
+public final class LevelTransitionEvent extends jdk.jfr.Event {
+
+    @Label("Level")
+    public int level;
+
+    @Label("Screen Reused")
+    public boolean reused;
+}
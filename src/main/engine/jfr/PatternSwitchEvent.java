@@ -0,0 +1,24 @@
+package main.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Change of the shooting pattern of a formation. Instant event.
+ */
+@Name("invaders.PatternSwitch")
+@Label("Formation Pattern Switch")
+@Category({"Invaders", "Game Loop"})
+@Enabled(false)
+@StackTrace(false)
+public final class PatternSwitchEvent extends jdk.jfr.Event {
+
+    @Label("Level")
+    public int level;
+
+    @Label("Pattern")
+    public String pattern;
+}
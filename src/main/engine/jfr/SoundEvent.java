@@ -0,0 +1,24 @@
+package main.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Start of a sound, from the call until the clip is playing.
+ */
+@Name("invaders.Sound")
+@Label("Sound Play")
+@Category({"Invaders", "Audio"})
+@Enabled(false)
+@StackTrace(false)
+public final class SoundEvent extends jdk.jfr.Event {
+
+    @Label("Sound")
+    public String sound;
+
+    @Label("Looped")
+    public boolean loop;
+}
@@ -0,0 +1,38 @@
+package main.engine.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One update of the game loop.
+ */
+@Name("invaders.Tick")
+@Label("Game Tick")
+@Description("One update of the game loop, drawing included")
+@Category({"Invaders", "Game Loop"})
+@Enabled(false)
+@StackTrace(false)
+public final class TickEvent extends jdk.jfr.Event {
+
+    @Label("Screen")
+    public String screen;
+
+    @Label("Tick")
+    public long tick;
+
+    @Label("Bullets")
+    public int bullets;
+
+    @Label("Items")
+    public int items;
+
+    @Label("Enemies")
+    public int enemies;
+
+    @Label("Particles")
+    public int particles;
+}
@@ -0,0 +1,37 @@
+package main.engine.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Count that only goes up, such as bullets spawned. Incrementing is a
+ * single uncontended add and never allocates.
+ */
+public final class Counter extends Metric {
+
+    private final LongAdder value = new LongAdder();
+
+    Counter(final String name, final String labels) {
+        super(name, labels);
+    }
+
+    public void increment() {
+        value.increment();
+    }
+
+    /**
+     * @param amount
+     *            Amount to add, not negative.
+     */
+    public void add(final long amount) {
+        value.add(amount);
+    }
+
+    public long get() {
+        return value.sum();
+    }
+
+    @Override
+    void write(final StringBuilder out) {
+        writeSample(out, "", null, Long.toString(get()));
+    }
+}
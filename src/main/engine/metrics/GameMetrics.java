@@ -0,0 +1,95 @@
+package main.engine.metrics;
+
+import main.entity.BulletPool;
+import main.entity.ItemPool;
+
+/**
+ * Metrics recorded by the game. Each is registered once here so the code
+ * recording it only touches a field.
+ */
+public final class GameMetrics {
+
+    private static final MetricsRegistry REGISTRY = MetricsRegistry.getInstance();
+
+    /** Duration of a game loop tick, drawing included. */
+    public static final Histogram TICK_TIME = REGISTRY.histogram("invaders_tick_seconds",
+            "Duration of a game loop tick, drawing included.");
+    /** Duration of drawing a frame and presenting it. */
+    public static final Histogram DRAW_TIME = REGISTRY.histogram("invaders_draw_seconds",
+            "Duration of drawing a frame and presenting it.");
+    /** Duration of capturing the state of a tick to rewind to. */
+    public static final Histogram REWIND_CAPTURE_TIME = REGISTRY.histogram("invaders_rewind_capture_seconds",
+            "Duration of capturing the state of a tick to rewind to.");
+    /** Time from a key press to the frame showing it, while measured. */
+    public static final Histogram INPUT_LATENCY = REGISTRY.histogram("invaders_input_latency_seconds",
+            "Time from input reaching the game to the frame showing it, while measuring is on.");
+    /** Duration of saving a file, by file. */
+    public static final Histogram SAVE_SCORES = saveTime("scores");
+    public static final Histogram SAVE_REPLAY = saveTime("replay");
+    public static final Histogram SAVE_ACHIEVEMENTS = saveTime("achievements");
+    public static final Histogram SAVE_UPGRADES = saveTime("upgrades");
+    public static final Histogram SAVE_COINS = saveTime("coins");
+
+    /** Bullets taken from the pool by any ship. */
+    public static final Counter BULLETS_SPAWNED = REGISTRY.counter("invaders_bullets_spawned_total",
+            "Bullets fired by the player, enemies and bosses.");
+    /** Item drops rolled for destroyed enemies. */
+    public static final Counter DROPS_ROLLED = REGISTRY.counter("invaders_drops_rolled_total",
+            "Item drops rolled for destroyed enemies.");
+    /** Sounds and music started. */
+    public static final Counter SOUNDS_PLAYED = REGISTRY.counter("invaders_sounds_played_total",
+            "Sound effects and music tracks started.");
+
+    /** Lookups of decoded sounds. */
+    public static final Counter SOUND_CACHE_HITS = cacheLookups("sound", "hit");
+    public static final Counter SOUND_CACHE_MISSES = cacheLookups("sound", "miss");
+    /** Lookups of parsed campaign stages. */
+    public static final Counter STAGE_CACHE_HITS = cacheLookups("stage", "hit");
+    public static final Counter STAGE_CACHE_MISSES = cacheLookups("stage", "miss");
+    /** Lookups of generated endless stages. */
+    public static final Counter ENDLESS_CACHE_HITS = cacheLookups("endless_stage", "hit");
+    public static final Counter ENDLESS_CACHE_MISSES = cacheLookups("endless_stage", "miss");
+
+    /** Co-op payload bytes, both ways, without the UDP and IP headers. */
+    public static final Counter COOP_BYTES_SENT = coopBytes("sent");
+    public static final Counter COOP_BYTES_RECEIVED = coopBytes("received");
+
+    static {
+        REGISTRY.gauge("invaders_pool_objects", "Objects created by a pool.",
+                BulletPool::getCreated, "pool", "bullet");
+        REGISTRY.gauge("invaders_pool_objects", "Objects created by a pool.",
+                ItemPool::getCreated, "pool", "item");
+        REGISTRY.gauge("invaders_heap_used_bytes", "Heap memory in use.",
+                () -> Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory());
+    }
+
+    /**
+     * Constructor, not called.
+     */
+    private GameMetrics() {
+
+    }
+
+    /**
+     * Registers the metrics before anything is recorded, so the first
+     * scrape already lists them all.
+     */
+    public static void register() {
+        // Loading the class registers everything.
+    }
+
+    private static Histogram saveTime(final String file) {
+        return REGISTRY.histogram("invaders_save_seconds", "Duration of saving a file.", "file", file);
+    }
+
+    private static Counter coopBytes(final String direction) {
+        return REGISTRY.counter("invaders_coop_bytes_total", "Co-op packet payload bytes, by direction.",
+                "direction", direction);
+    }
+
+    private static Counter cacheLookups(final String cache, final String result) {
+        return REGISTRY.counter("invaders_asset_cache_lookups_total",
+                "Asset cache lookups, by cache and whether the asset was cached.",
+                "cache", cache, "result", result);
+    }
+}
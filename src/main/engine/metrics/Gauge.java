@@ -0,0 +1,37 @@
+package main.engine.metrics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Value that goes up and down. It is either set by the game or read from
+ * a supplier when the metrics are written, which costs nothing per frame.
+ */
+public final class Gauge extends Metric {
+
+    /** Source of the value, or null if the value is set. */
+    private final LongSupplier supplier;
+    /** Last value set. */
+    private volatile long value;
+
+    Gauge(final String name, final String labels, final LongSupplier supplier) {
+        super(name, labels);
+        this.supplier = supplier;
+    }
+
+    /**
+     * @param newValue
+     *            Current value. Ignored if the gauge reads a supplier.
+     */
+    public void set(final long newValue) {
+        this.value = newValue;
+    }
+
+    public long get() {
+        return supplier != null ? supplier.getAsLong() : value;
+    }
+
+    @Override
+    void write(final StringBuilder out) {
+        writeSample(out, "", null, Long.toString(get()));
+    }
+}
@@ -0,0 +1,150 @@
+package main.engine.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Distribution of durations in nanoseconds, kept in log-linear buckets
+ * like an HDR histogram: every power of two is split in eight buckets, so
+ * any value is known within 12.5% from a nanosecond up to centuries.
+ * Recording finds the bucket with a leading-zero count and increments it,
+ * without locks or allocation. Durations are exported in seconds.
+ */
+public final class Histogram extends Metric {
+
+    /** Bits of a value kept below its leading one. */
+    private static final int SUB_BUCKET_BITS = 3;
+    /** Buckets per power of two. */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** Buckets needed for every positive long. */
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    /** Powers of two of the exported bucket bounds, about 1 µs to 17 s. */
+    private static final int FIRST_BOUND = 10;
+    private static final int LAST_BOUND = 34;
+    /** Exported bounds in seconds, formatted once. */
+    private static final String[] BOUND_LABELS = new String[LAST_BOUND - FIRST_BOUND + 1];
+
+    static {
+        for (int i = 0; i < BOUND_LABELS.length; i++)
+            BOUND_LABELS[i] = "le=\"" + seconds(1L << (FIRST_BOUND + i)) + "\"";
+    }
+
+    /** Values recorded in each bucket. */
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    /** Sum of the values recorded. */
+    private final AtomicLong sum = new AtomicLong();
+
+    Histogram(final String name, final String labels) {
+        super(name, labels);
+    }
+
+    /**
+     * Records a duration.
+     *
+     * @param nanos
+     *            Duration in nanoseconds. Negative values count as zero.
+     */
+    public void record(final long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucket(value));
+        sum.addAndGet(value);
+    }
+
+    /**
+     * Records the time elapsed since a start.
+     *
+     * @param startNanos
+     *            Start, from {@link System#nanoTime()}.
+     */
+    public void recordSince(final long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @return Number of values recorded.
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++)
+            count += counts.get(i);
+        return count;
+    }
+
+    /**
+     * @return Sum of the values recorded, in nanoseconds.
+     */
+    public long getSum() {
+        return sum.get();
+    }
+
+    /**
+     * Estimates a quantile from the buckets.
+     *
+     * @param quantile
+     *            Quantile between 0 and 1, such as 0.99.
+     * @return Upper bound of the bucket holding the quantile, in
+     *         nanoseconds, or 0 if nothing was recorded.
+     */
+    public long getValueAtQuantile(final double quantile) {
+        long count = getCount();
+        if (count == 0)
+            return 0;
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank)
+                return lowerBound(i + 1) - 1;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * @param value
+     *            Value, not negative.
+     * @return Bucket of the value.
+     */
+    static int bucket(final long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * @param bucket
+     *            Bucket.
+     * @return Smallest value of the bucket.
+     */
+    static long lowerBound(final int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+        if (bucket >= BUCKETS)
+            return Long.MAX_VALUE;
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    }
+
+    @Override
+    void write(final StringBuilder out) {
+        // Buckets and sum are read one by one, a scrape during a frame may be a value off.
+        long cumulative = 0;
+        int next = 0;
+        for (int b = 0; b < BOUND_LABELS.length; b++) {
+            // Values below 2^k fill exactly the buckets before this one.
+            int end = bucket(1L << (FIRST_BOUND + b));
+            for (; next < end; next++)
+                cumulative += counts.get(next);
+            writeSample(out, "_bucket", BOUND_LABELS[b], Long.toString(cumulative));
+        }
+        for (; next < BUCKETS; next++)
+            cumulative += counts.get(next);
+        writeSample(out, "_bucket", "le=\"+Inf\"", Long.toString(cumulative));
+        writeSample(out, "_sum", null, seconds(getSum()));
+        writeSample(out, "_count", null, Long.toString(cumulative));
+    }
+
+    private static String seconds(final long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+}
@@ -0,0 +1,67 @@
+package main.engine.metrics;
+
+/**
+ * One time series of a metric family, identified by the family name and
+ * its labels. Values are written in the Prometheus text format.
+ */
+public abstract class Metric {
+
+    /** Name of the family. */
+    private final String name;
+    /** Labels, already formatted as {@code {key="value",...}}, or empty. */
+    private final String labels;
+
+    /**
+     * Constructor.
+     *
+     * @param name
+     *            Name of the family.
+     * @param labels
+     *            Formatted labels, or an empty string.
+     */
+    Metric(final String name, final String labels) {
+        this.name = name;
+        this.labels = labels;
+    }
+
+    public final String getName() {
+        return name;
+    }
+
+    final String getLabels() {
+        return labels;
+    }
+
+    /**
+     * Writes the samples of the metric.
+     *
+     * @param out
+     *            Text to append to.
+     */
+    abstract void write(StringBuilder out);
+
+    /**
+     * Writes one sample line.
+     *
+     * @param out
+     *            Text to append to.
+     * @param suffix
+     *            Suffix of the sample name, such as {@code _count}.
+     * @param extraLabel
+     *            Additional label, such as {@code le="0.5"}, or null.
+     * @param value
+     *            Value of the sample.
+     */
+    final void writeSample(final StringBuilder out, final String suffix, final String extraLabel,
+                           final String value) {
+        out.append(name).append(suffix);
+        if (extraLabel == null) {
+            out.append(labels);
+        } else if (labels.isEmpty()) {
+            out.append('{').append(extraLabel).append('}');
+        } else {
+            out.append(labels, 0, labels.length() - 1).append(',').append(extraLabel).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+}
@@ -0,0 +1,131 @@
+package main.engine.metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import main.engine.Core;
+
+/**
+ * Publishes the metrics outside the game, both optional:
+ * <ul>
+ * <li>{@code -Dinvaders.metrics.port=9464} serves them at
+ * {@code http://127.0.0.1:9464/metrics} for Prometheus to scrape.</li>
+ * <li>{@code -Dinvaders.metrics.file=metrics.prom} writes them to a file
+ * every {@code invaders.metrics.interval} seconds, 15 by default, and when
+ * the game exits.</li>
+ * </ul>
+ * The endpoint only listens on the loopback interface.
+ */
+public final class MetricsExporter {
+
+    /** Content type of the Prometheus text format. */
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    /** Seconds between file dumps by default. */
+    private static final int DEFAULT_INTERVAL = 15;
+
+    private static final Logger LOGGER = Core.getLogger();
+
+    /** Running endpoint, or null. */
+    private static HttpServer server;
+    /** Thread writing the dump file, or null. */
+    private static ScheduledExecutorService dumper;
+
+    /**
+     * Constructor, not called.
+     */
+    private MetricsExporter() {
+
+    }
+
+    /**
+     * Starts the endpoint and the file dump if their properties are set.
+     */
+    public static synchronized void start() {
+        GameMetrics.register();
+
+        Integer port = Integer.getInteger("invaders.metrics.port");
+        if (port != null && server == null)
+            startServer(port);
+
+        String file = System.getProperty("invaders.metrics.file");
+        if (file != null && !file.isBlank() && dumper == null)
+            startDump(Path.of(file), Math.max(1, Integer.getInteger("invaders.metrics.interval", DEFAULT_INTERVAL)));
+    }
+
+    private static void startServer(final int port) {
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+            server.createContext("/metrics", MetricsExporter::handle);
+            server.setExecutor(Core.getBackgroundExecutor());
+            server.start();
+            LOGGER.info("Serving metrics at http://127.0.0.1:" + server.getAddress().getPort() + "/metrics.");
+        } catch (IOException e) {
+            LOGGER.warning("Couldn't serve metrics on port " + port + ": " + e.getMessage());
+            server = null;
+        }
+    }
+
+    private static void handle(final HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET") && !exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = MetricsRegistry.getInstance().scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if (exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static void startDump(final Path file, final int intervalSeconds) {
+        dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleWithFixedDelay(() -> dump(file), intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> dump(file), "metrics-final-dump"));
+        LOGGER.info("Writing metrics to " + file.toAbsolutePath() + " every " + intervalSeconds + " s.");
+    }
+
+    /**
+     * Writes the metrics to a file, replacing it at once so readers never
+     * see a partial file.
+     *
+     * @param file
+     *            File to write.
+     */
+    static void dump(final Path file) {
+        Path absolute = file.toAbsolutePath();
+        Path temporary = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        try {
+            Files.writeString(temporary, MetricsRegistry.getInstance().scrape(), StandardCharsets.UTF_8);
+            try {
+                Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            LOGGER.warning("Couldn't write the metrics to " + absolute + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package main.engine.metrics;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Holds the metrics of the game and writes them in the Prometheus text
+ * format. Metrics are registered once, usually into static fields, and
+ * then recorded without touching the registry again.
+ */
+public final class MetricsRegistry {
+
+    /** Singleton instance of the class. */
+    private static MetricsRegistry instance;
+
+    /** Metric families by name, sorted for stable output. */
+    private final Map<String, Family> families = new ConcurrentSkipListMap<>();
+
+    /** Metrics sharing a name, help text and type, told apart by labels. */
+    private record Family(String help, String type, List<Metric> metrics) {
+    }
+
+    /**
+     * Constructor, private for the singleton.
+     */
+    private MetricsRegistry() {
+
+    }
+
+    /**
+     * Returns shared instance of MetricsRegistry.
+     *
+     * @return Shared instance of MetricsRegistry.
+     */
+    public static synchronized MetricsRegistry getInstance() {
+        if (instance == null)
+            instance = new MetricsRegistry();
+        return instance;
+    }
+
+    /**
+     * Returns a counter, registering it on first use.
+     *
+     * @param name
+     *            Name of the family, ending in {@code _total}.
+     * @param help
+     *            Description of the family.
+     * @param labels
+     *            Label names and values, alternating.
+     * @return The counter.
+     */
+    public Counter counter(final String name, final String help, final String... labels) {
+        return register(name, help, "counter", labels, Counter.class,
+                formatted -> new Counter(name, formatted));
+    }
+
+    /**
+     * Returns a gauge set by the game, registering it on first use.
+     *
+     * @param name
+     *            Name of the family.
+     * @param help
+     *            Description of the family.
+     * @param labels
+     *            Label names and values, alternating.
+     * @return The gauge.
+     */
+    public Gauge gauge(final String name, final String help, final String... labels) {
+        return gauge(name, help, null, labels);
+    }
+
+    /**
+     * Returns a gauge read from a supplier when the metrics are written,
+     * registering it on first use.
+     *
+     * @param name
+     *            Name of the family.
+     * @param help
+     *            Description of the family.
+     * @param supplier
+     *            Source of the value. It is called from the exporting thread.
+     * @param labels
+     *            Label names and values, alternating.
+     * @return The gauge.
+     */
+    public Gauge gauge(final String name, final String help, final LongSupplier supplier,
+                       final String... labels) {
+        return register(name, help, "gauge", labels, Gauge.class,
+                formatted -> new Gauge(name, formatted, supplier));
+    }
+
+    /**
+     * Returns a latency histogram, registering it on first use.
+     *
+     * @param name
+     *            Name of the family, ending in {@code _seconds}.
+     * @param help
+     *            Description of the family.
+     * @param labels
+     *            Label names and values, alternating.
+     * @return The histogram.
+     */
+    public Histogram histogram(final String name, final String help, final String... labels) {
+        return register(name, help, "histogram", labels, Histogram.class,
+                formatted -> new Histogram(name, formatted));
+    }
+
+    /**
+     * Writes every metric in the Prometheus text format.
+     *
+     * @param out
+     *            Text to append to.
+     */
+    public void write(final StringBuilder out) {
+        for (Map.Entry<String, Family> entry : families.entrySet()) {
+            Family family = entry.getValue();
+            out.append("# HELP ").append(entry.getKey()).append(' ').append(family.help()).append('\n');
+            out.append("# TYPE ").append(entry.getKey()).append(' ').append(family.type()).append('\n');
+            for (Metric metric : family.metrics())
+                metric.write(out);
+        }
+    }
+
+    /**
+     * @return Every metric in the Prometheus text format.
+     */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        write(out);
+        return out.toString();
+    }
+
+    private synchronized <T extends Metric> T register(final String name, final String help, final String type,
+                                                      final String[] labels, final Class<T> metricClass,
+                                                      final Function<String, T> factory) {
+        if (!name.matches("[a-zA-Z_:][a-zA-Z0-9_:]*"))
+            throw new IllegalArgumentException("Invalid metric name " + name + ".");
+        String formatted = formatLabels(labels);
+        Family family = families.computeIfAbsent(name,
+                key -> new Family(help, type, new CopyOnWriteArrayList<>()));
+        if (!family.type().equals(type))
+            throw new IllegalArgumentException("Metric " + name + " is already a " + family.type() + ".");
+        for (Metric metric : family.metrics())
+            if (metric.getLabels().equals(formatted))
+                return metricClass.cast(metric);
+        T metric = factory.apply(formatted);
+        family.metrics().add(metric);
+        return metric;
+    }
+
+    private static String formatLabels(final String[] labels) {
+        if (labels.length == 0)
+            return "";
+        if (labels.length % 2 != 0)
+            throw new IllegalArgumentException("Labels must be name and value pairs.");
+        StringBuilder out = new StringBuilder("{");
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0)
+                out.append(',');
+            out.append(labels[i]).append("=\"")
+                    .append(labels[i + 1].replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+                    .append('"');
+        }
+        return out.append('}').toString();
+    }
+}
@@ -0,0 +1,232 @@
+package main.engine.net;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.logging.Logger;
+
+import main.engine.Core;
+import main.engine.metrics.GameMetrics;
+
+/**
+ * Client side of co-op play. Each tick it sends the local input and reads
+ * the snapshots of the host. Its own ship is predicted: the position from
+ * the last snapshot, moved by the inputs the host had not applied yet, so
+ * the ship answers the keys at once instead of a round trip later.
+ */
+public final class CoopClient implements Closeable {
+
+    /** Snapshots kept as baselines, by tick. */
+    private static final int HISTORY = 32;
+    /** Inputs kept for prediction, by sequence number. */
+    private static final int INPUTS = 128;
+    /** Milliseconds to wait for the first snapshot. */
+    private static final int CONNECT_TIMEOUT = 10_000;
+
+    private static final Logger LOGGER = Core.getLogger();
+
+    private final DatagramChannel channel;
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(CoopProtocol.MAX_PACKET);
+    private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(64);
+
+    /** Screen the ship moves on, to predict the borders. */
+    private final int screenWidth;
+    private final int screenHeight;
+    private final int top;
+
+    /** Local inputs by sequence number modulo {@link #INPUTS}. */
+    private final int[] inputs = new int[INPUTS];
+    private int sequence;
+
+    /** Snapshots received, by tick modulo {@link #HISTORY}. */
+    private final Snapshot[] history = new Snapshot[HISTORY];
+    /** Snapshot being decoded, swapped into the history when complete. */
+    private Snapshot decoding = new Snapshot();
+    /** Newest snapshot, or null before the first one. */
+    private Snapshot latest;
+    /** Ticks of this client since the newest snapshot arrived. */
+    private int ticksSinceSnapshot;
+    /** Time of the last packet from the host, or of connecting. */
+    private long lastHeard = System.nanoTime();
+
+    private CoopClient(final DatagramChannel channel, final int screenWidth, final int screenHeight,
+                       final int top) {
+        this.channel = channel;
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+        this.top = top;
+        for (int i = 0; i < HISTORY; i++)
+            history[i] = new Snapshot();
+    }
+
+    /**
+     * Joins a host. Nothing is exchanged until the first {@link #update}.
+     *
+     * @param host
+     *            Address of the host.
+     * @param screenWidth
+     *            Width of the game screen.
+     * @param screenHeight
+     *            Height of the game screen.
+     * @param top
+     *            Height of the separation line, the top border of the ship.
+     * @return The client.
+     * @throws IOException
+     *             If the socket can't be opened.
+     */
+    public static CoopClient connect(final InetSocketAddress host, final int screenWidth,
+                                     final int screenHeight, final int top) throws IOException {
+        DatagramChannel channel = DatagramChannel.open();
+        try {
+            channel.connect(host);
+            channel.configureBlocking(false);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        LOGGER.info("Joining the co-op game at " + host + ".");
+        return new CoopClient(channel, screenWidth, screenHeight, top);
+    }
+
+    /**
+     * Sends the input of this tick and reads the snapshots received.
+     *
+     * @param input
+     *            Input bits, see {@link CoopProtocol}.
+     */
+    public void update(final int input) {
+        inputs[++sequence % INPUTS] = input;
+        int count = Math.min(sequence, CoopProtocol.INPUT_REDUNDANCY);
+        sendBuffer.clear();
+        CoopProtocol.putHeader(sendBuffer, CoopProtocol.INPUT);
+        CoopProtocol.putVarInt(sendBuffer, sequence);
+        CoopProtocol.putVarInt(sendBuffer, latest == null ? 0 : latest.getTick());
+        sendBuffer.put((byte) count);
+        for (int i = 0; i < count; i++)
+            sendBuffer.put((byte) inputs[(sequence - i) % INPUTS]);
+        send();
+
+        ticksSinceSnapshot++;
+        try {
+            while (channel.receive(receiveBuffer.clear()) != null) {
+                receiveBuffer.flip();
+                GameMetrics.COOP_BYTES_RECEIVED.add(receiveBuffer.remaining());
+                lastHeard = System.nanoTime();
+                try {
+                    if (CoopProtocol.getHeader(receiveBuffer) == CoopProtocol.SNAPSHOT)
+                        receiveSnapshot();
+                } catch (RuntimeException e) {
+                    LOGGER.fine("Ignoring a malformed co-op packet: " + e);
+                }
+            }
+        } catch (IOException e) {
+            // Nothing listens on the host port yet, keep trying until timing out.
+            LOGGER.fine("Couldn't read co-op packets: " + e.getMessage());
+        }
+    }
+
+    private void receiveSnapshot() {
+        if (!SnapshotCodec.decode(receiveBuffer, tick -> history[tick % HISTORY], decoding))
+            return;
+        int tick = decoding.getTick();
+        if (latest != null && tick <= latest.getTick())
+            return;
+        Snapshot replaced = history[tick % HISTORY];
+        history[tick % HISTORY] = decoding;
+        decoding = replaced;
+        latest = history[tick % HISTORY];
+        ticksSinceSnapshot = 0;
+    }
+
+    private void send() {
+        sendBuffer.flip();
+        int length = sendBuffer.remaining();
+        try {
+            channel.write(sendBuffer);
+            GameMetrics.COOP_BYTES_SENT.add(length);
+        } catch (IOException e) {
+            LOGGER.fine("Couldn't send co-op input: " + e.getMessage());
+        }
+    }
+
+    /**
+     * @return Newest snapshot, or null before the first one arrives.
+     */
+    public Snapshot getLatest() {
+        return latest;
+    }
+
+    /**
+     * @return Ticks since the newest snapshot arrived.
+     */
+    public int getTicksSinceSnapshot() {
+        return ticksSinceSnapshot;
+    }
+
+    /**
+     * @return If the host stopped answering, or never did.
+     */
+    public boolean isTimedOut() {
+        long silent = (System.nanoTime() - lastHeard) / 1_000_000;
+        return silent > (latest == null ? CONNECT_TIMEOUT : CoopProtocol.TIMEOUT);
+    }
+
+    /**
+     * @return Own ship in the newest snapshot, or null.
+     */
+    public EntityState getOwnShip() {
+        if (latest == null)
+            return null;
+        for (int i = 0; i < latest.size(); i++)
+            if (latest.getEntity(i).getKind() == EntityState.Kind.PARTNER_SHIP)
+                return latest.getEntity(i);
+        return null;
+    }
+
+    /**
+     * Predicts the position of the own ship now, applying the inputs sent
+     * after the newest snapshot to its position there.
+     *
+     * @param position
+     *            Array of two to fill in.
+     * @return The array with the position in the x-axis and y-axis, or
+     *         null without a ship.
+     */
+    public int[] predictOwnShip(final int[] position) {
+        EntityState ship = getOwnShip();
+        if (ship == null)
+            return null;
+        int x = ship.get(EntityState.X);
+        int y = ship.get(EntityState.Y);
+        if (latest.hasFlag(Snapshot.FLAG_PLAYING)) {
+            int speed = latest.get(Snapshot.MOVE_SPEED);
+            int width = ship.get(EntityState.WIDTH);
+            int height = ship.get(EntityState.HEIGHT);
+            int first = Math.max(latest.getInputAck() + 1, sequence - INPUTS + 1);
+            for (int s = first; s <= sequence; s++) {
+                x = CoopProtocol.moveX(x, width, speed, inputs[s % INPUTS], screenWidth);
+                y = CoopProtocol.moveY(y, height, speed, inputs[s % INPUTS], top, screenHeight);
+            }
+        }
+        position[0] = x;
+        position[1] = y;
+        return position;
+    }
+
+    /**
+     * Leaves the game.
+     */
+    @Override
+    public void close() {
+        sendBuffer.clear();
+        CoopProtocol.putHeader(sendBuffer, CoopProtocol.LEAVE);
+        send();
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.warning("Couldn't close the co-op socket: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,400 @@
+package main.engine.net;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import main.engine.Core;
+import main.engine.DrawManager;
+import main.engine.metrics.GameMetrics;
+import main.entity.Bullet;
+import main.entity.Entity;
+import main.entity.Item;
+
+/**
+ * Host side of co-op play. The game screen stays the only simulation: each
+ * tick it polls the host for the input of the partner, and every few ticks
+ * it describes what is on screen, which the host sends to the partner as
+ * a snapshot. Everything runs on the game loop thread over a non-blocking
+ * socket.
+ */
+public final class CoopHost implements Closeable {
+
+    /** Snapshots kept as possible baselines. */
+    private static final int HISTORY = 32;
+    /** Partner inputs kept, by sequence number. */
+    private static final int INPUTS = 64;
+    /** Queued inputs beyond which the oldest are dropped, to bound the delay. */
+    private static final int MAX_QUEUED_INPUTS = 6;
+    /** Milliseconds between two traffic reports in the log. */
+    private static final int REPORT_INTERVAL = 10_000;
+    /**
+     * Kinds of entities left out of a snapshot too large for a packet, in
+     * order; the ships are always sent.
+     */
+    private static final EntityState.Kind[] EXPENDABLE = { EntityState.Kind.BULLET, EntityState.Kind.ITEM,
+            EntityState.Kind.ENEMY, EntityState.Kind.SPECIAL, EntityState.Kind.BOSS };
+    /** Rough bytes of a new entity, to guess how many to leave out at once. */
+    private static final int NEW_ENTITY_BYTES = 16;
+    /** Entities of a crowd sent as they are in each snapshot, the others waiting their turn. */
+    private static final int CROWD_REFRESH = 10;
+
+    private static final Logger LOGGER = Core.getLogger();
+
+    private final DatagramChannel channel;
+    private final ByteBuffer receiveBuffer = ByteBuffer.allocateDirect(CoopProtocol.MAX_PACKET);
+    private final ByteBuffer sendBuffer = ByteBuffer.allocateDirect(CoopProtocol.MAX_PACKET);
+
+    /** Address of the partner, or null if nobody joined. */
+    private SocketAddress partner;
+    /** Time the partner was last heard from. */
+    private long lastHeard;
+
+    /** Partner inputs by sequence number modulo {@link #INPUTS}. */
+    private final int[] inputs = new int[INPUTS];
+    /** Newest input received and last input applied. */
+    private int lastReceivedInput;
+    private int lastAppliedInput;
+
+    /** Snapshots sent, by tick modulo {@link #HISTORY}. */
+    private final Snapshot[] history = new Snapshot[HISTORY];
+    /** Snapshot being filled, or null. */
+    private Snapshot current;
+    /** Snapshot sent last, or null. */
+    private Snapshot lastSent;
+    private int tick;
+    /** Last snapshot the partner received, -1 if none. */
+    private int ackedTick = -1;
+
+    /** Identifiers of the entities of the last snapshot, and of the next one. */
+    private Map<Object, Integer> ids = new IdentityHashMap<>();
+    private Map<Object, Integer> nextIds = new IdentityHashMap<>();
+    private int nextId = 1;
+    /** Index in the crowd of the first entity sent as it is in the next snapshot. */
+    private int crowdCursor;
+
+    /** Bytes since the last traffic report. */
+    private long reportStart = System.nanoTime();
+    private long bytesSent;
+    private long bytesReceived;
+    /** Entities left out of snapshots since the last traffic report. */
+    private long entitiesLeftOut;
+
+    private CoopHost(final DatagramChannel channel) {
+        this.channel = channel;
+        for (int i = 0; i < HISTORY; i++)
+            history[i] = new Snapshot();
+    }
+
+    /**
+     * Starts hosting.
+     *
+     * @param port
+     *            UDP port to listen on, 0 for any free port.
+     * @return The host.
+     * @throws IOException
+     *             If the port can't be opened.
+     */
+    public static CoopHost open(final int port) throws IOException {
+        DatagramChannel channel = DatagramChannel.open();
+        try {
+            channel.bind(new InetSocketAddress(port));
+            channel.configureBlocking(false);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        CoopHost host = new CoopHost(channel);
+        LOGGER.info("Hosting co-op games on UDP port " + host.getPort() + ".");
+        return host;
+    }
+
+    /**
+     * @return Port the host listens on.
+     */
+    public int getPort() {
+        try {
+            return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Reads the packets received since the last tick. Called once per tick.
+     */
+    public void poll() {
+        try {
+            SocketAddress sender;
+            while ((sender = channel.receive(receiveBuffer.clear())) != null) {
+                receiveBuffer.flip();
+                bytesReceived += receiveBuffer.remaining();
+                GameMetrics.COOP_BYTES_RECEIVED.add(receiveBuffer.remaining());
+                try {
+                    handle(sender, receiveBuffer);
+                } catch (RuntimeException e) {
+                    LOGGER.fine("Ignoring a malformed co-op packet: " + e);
+                }
+            }
+        } catch (IOException e) {
+            LOGGER.warning("Couldn't read co-op packets: " + e.getMessage());
+        }
+        if (partner != null && (System.nanoTime() - lastHeard) / 1_000_000 > CoopProtocol.TIMEOUT) {
+            LOGGER.info("Co-op partner " + partner + " timed out.");
+            partner = null;
+        }
+        report();
+    }
+
+    private void handle(final SocketAddress sender, final ByteBuffer packet) {
+        byte type = CoopProtocol.getHeader(packet);
+        if (type == 0 || partner != null && !partner.equals(sender))
+            return;
+        if (type == CoopProtocol.LEAVE) {
+            LOGGER.info("Co-op partner " + partner + " left.");
+            partner = null;
+            return;
+        }
+        if (type != CoopProtocol.INPUT)
+            return;
+        if (partner == null) {
+            partner = sender;
+            ackedTick = -1;
+            lastReceivedInput = 0;
+            lastAppliedInput = 0;
+            LOGGER.info("Co-op partner " + partner + " joined.");
+        }
+        lastHeard = System.nanoTime();
+
+        int sequence = CoopProtocol.getVarInt(packet);
+        int acked = CoopProtocol.getVarInt(packet);
+        int count = packet.get();
+        if (acked > ackedTick)
+            ackedTick = acked;
+        // Newest first, each packet repeats the last few inputs.
+        for (int i = 0; i < count; i++) {
+            int input = packet.get();
+            int inputSequence = sequence - i;
+            if (inputSequence > lastReceivedInput)
+                inputs[inputSequence % INPUTS] = input;
+        }
+        if (sequence > lastReceivedInput) {
+            if (lastReceivedInput == 0)
+                lastAppliedInput = Math.max(0, sequence - count);
+            lastReceivedInput = sequence;
+        }
+    }
+
+    /**
+     * @return If a partner is playing.
+     */
+    public boolean hasPartner() {
+        return partner != null;
+    }
+
+    /**
+     * Takes the partner input for this tick. Inputs are applied one per
+     * tick in order; when too many wait, the oldest are skipped.
+     *
+     * @return Input bits, 0 if none arrived.
+     */
+    public int nextInput() {
+        if (partner == null || lastAppliedInput >= lastReceivedInput)
+            return 0;
+        if (lastReceivedInput - lastAppliedInput > MAX_QUEUED_INPUTS)
+            lastAppliedInput = lastReceivedInput - MAX_QUEUED_INPUTS;
+        return inputs[++lastAppliedInput % INPUTS];
+    }
+
+    /**
+     * Advances the tick of the host and starts a snapshot if one is due.
+     * Called once per tick.
+     *
+     * @return If a snapshot must be described, with {@link #set},
+     *         {@link #add} and {@link #sendSnapshot}.
+     */
+    public boolean beginSnapshot() {
+        tick++;
+        if (partner == null || tick % CoopProtocol.SNAPSHOT_INTERVAL != 0)
+            return false;
+        current = history[tick % HISTORY];
+        current.clear(tick, lastAppliedInput);
+        nextIds.clear();
+        return true;
+    }
+
+    /**
+     * @return Tick of the host, advanced by {@link #beginSnapshot()}.
+     */
+    public int getTick() {
+        return tick;
+    }
+
+    /**
+     * Sets a header value of the snapshot.
+     *
+     * @param field
+     *            Header field, one of the {@link Snapshot} constants.
+     * @param value
+     *            Value.
+     */
+    public void set(final int field, final int value) {
+        current.set(field, value);
+    }
+
+    /**
+     * Adds an entity to the snapshot.
+     *
+     * @param kind
+     *            Kind of the entity.
+     * @param entity
+     *            Entity on screen.
+     */
+    public void add(final EntityState.Kind kind, final Entity entity) {
+        add(kind, entity, 0, 0);
+    }
+
+    /**
+     * Adds an entity to the snapshot, placed relative to an origin.
+     *
+     * @param kind
+     *            Kind of the entity.
+     * @param entity
+     *            Entity on screen.
+     * @param originX
+     *            Origin of the position in the x-axis.
+     * @param originY
+     *            Origin of the position in the y-axis.
+     */
+    public void add(final EntityState.Kind kind, final Entity entity, final int originX, final int originY) {
+        Integer id = ids.get(entity);
+        if (id == null)
+            id = nextId++;
+        nextIds.put(entity, id);
+
+        EntityState state = current.append();
+        state.reset(id, kind);
+        state.set(EntityState.X, entity.getPositionX() - originX);
+        state.set(EntityState.Y, entity.getPositionY() - originY);
+        if (entity instanceof Bullet bullet) {
+            state.set(EntityState.SPEED_X, bullet.getSpeedX());
+            state.set(EntityState.SPEED_Y, bullet.getSpeedY());
+        } else if (entity instanceof Item item) {
+            state.set(EntityState.SPEED_Y, item.getItemSpeed());
+        }
+        state.set(EntityState.WIDTH, entity.getWidth());
+        state.set(EntityState.HEIGHT, entity.getHeight());
+        state.set(EntityState.SPRITE, entity.getSpriteType() == null ? 0 : entity.getSpriteType().ordinal() + 1);
+        state.set(EntityState.COLOR, DrawManager.getColor(entity).getRGB());
+    }
+
+    /**
+     * Adds a crowd of entities moving every tick, such as a swarm. Sending
+     * them all would change every one of them in every snapshot, so only a
+     * few of them in turn are sent as they are; the others keep the state
+     * they were last sent with, which costs nothing, and the ones never sent
+     * yet wait for their turn.
+     *
+     * @param kind
+     *            Kind of the entities.
+     * @param crowd
+     *            Entities on screen, in the same order every tick.
+     */
+    public void addCrowd(final EntityState.Kind kind, final Iterable<? extends Entity> crowd) {
+        int index = 0;
+        int refreshed = 0;
+        for (Entity entity : crowd) {
+            if (index++ >= crowdCursor && refreshed < CROWD_REFRESH) {
+                add(kind, entity);
+                refreshed++;
+                continue;
+            }
+            Integer id = ids.get(entity);
+            EntityState last = id == null || lastSent == null ? null : lastSent.find(id);
+            if (last == null)
+                continue;
+            nextIds.put(entity, id);
+            current.append().copyFrom(last);
+        }
+        crowdCursor = refreshed < CROWD_REFRESH ? 0 : crowdCursor + CROWD_REFRESH;
+    }
+
+    /**
+     * Sends the snapshot described since {@link #beginSnapshot()}.
+     */
+    public void sendSnapshot() {
+        current.sort();
+        Map<Object, Integer> swap = ids;
+        ids = nextIds;
+        nextIds = swap;
+
+        Snapshot baseline = ackedTick >= 0 ? history[ackedTick % HISTORY] : null;
+        if (baseline != null && (baseline.getTick() != ackedTick || baseline == current))
+            baseline = null;
+        fitPacket(baseline);
+        sendBuffer.clear();
+        SnapshotCodec.encode(current, baseline, sendBuffer);
+        sendBuffer.flip();
+        int length = sendBuffer.remaining();
+        try {
+            channel.send(sendBuffer, partner);
+            bytesSent += length;
+            GameMetrics.COOP_BYTES_SENT.add(length);
+        } catch (IOException e) {
+            LOGGER.warning("Couldn't send a co-op snapshot: " + e.getMessage());
+        }
+        lastSent = current;
+        current = null;
+    }
+
+    /**
+     * Leaves the newest bullets out of the snapshot, then the newest items
+     * and so on, until it fits in a packet. They stay out of the history
+     * too, so the next snapshot sends them as new.
+     */
+    private void fitPacket(final Snapshot baseline) {
+        int size = SnapshotCodec.encodedSize(current, baseline);
+        for (EntityState.Kind kind : EXPENDABLE) {
+            while (size > sendBuffer.capacity()) {
+                int removed = current.removeNewest(kind, (size - sendBuffer.capacity()) / NEW_ENTITY_BYTES + 1);
+                if (removed == 0)
+                    break;
+                entitiesLeftOut += removed;
+                size = SnapshotCodec.encodedSize(current, baseline);
+            }
+        }
+    }
+
+    private void report() {
+        long elapsed = System.nanoTime() - reportStart;
+        if (elapsed < REPORT_INTERVAL * 1_000_000L)
+            return;
+        if (partner != null)
+            LOGGER.info(String.format("Co-op traffic: %.0f B/s sent, %.0f B/s received.",
+                    bytesSent * 1e9 / elapsed, bytesReceived * 1e9 / elapsed));
+        if (entitiesLeftOut > 0)
+            LOGGER.warning(entitiesLeftOut + " entities left out of co-op snapshots too large for a packet.");
+        reportStart = System.nanoTime();
+        bytesSent = 0;
+        bytesReceived = 0;
+        entitiesLeftOut = 0;
+    }
+
+    /**
+     * Stops hosting.
+     */
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            LOGGER.warning("Couldn't close the co-op socket: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package main.engine.net;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Packets of co-op play and the movement rules both sides must agree on.
+ * <p>
+ * The client sends an {@link #INPUT} packet every tick with its last few
+ * inputs, so a lost packet is covered by the next one, and the tick of the
+ * last snapshot it received. The host sends a {@link #SNAPSHOT} every few
+ * ticks, encoded against that acknowledged snapshot by
+ * {@link SnapshotCodec}. A client leaving sends {@link #LEAVE}.
+ */
+public final class CoopProtocol {
+
+    /** Port joined when the address names none. */
+    public static final int DEFAULT_PORT = 7777;
+    /** First byte of every packet, so stray datagrams are ignored. */
+    static final byte MAGIC = (byte) 0xC0;
+    /** Packet types, the second byte. */
+    static final byte INPUT = 1;
+    static final byte SNAPSHOT = 2;
+    static final byte LEAVE = 3;
+
+    /** Input bits. */
+    public static final int LEFT = 1;
+    public static final int RIGHT = 1 << 1;
+    public static final int UP = 1 << 2;
+    public static final int DOWN = 1 << 3;
+    public static final int SHOOT = 1 << 4;
+
+    /** Ticks between two snapshots, 20 per second at 60 ticks per second. */
+    static final int SNAPSHOT_INTERVAL = 3;
+    /** Inputs repeated in each input packet. */
+    static final int INPUT_REDUNDANCY = 6;
+    /** Milliseconds without packets before the other side is gone. */
+    static final int TIMEOUT = 3000;
+    /** Largest packet, big enough for a full snapshot of a crowded screen. */
+    public static final int MAX_PACKET = 65_507;
+    /** Pixels the ship keeps from the bottom of the screen. */
+    private static final int BOTTOM_MARGIN = 15;
+
+    /**
+     * Constructor, not called.
+     */
+    private CoopProtocol() {
+
+    }
+
+    /**
+     * Moves a ship horizontally, stopping at the screen borders like the
+     * ship of the host.
+     *
+     * @param x
+     *            Position of the ship.
+     * @param width
+     *            Width of the ship.
+     * @param speed
+     *            Pixels moved per tick.
+     * @param input
+     *            Input bits of the tick.
+     * @param screenWidth
+     *            Width of the screen.
+     * @return New position.
+     */
+    public static int moveX(final int x, final int width, final int speed, final int input,
+                            final int screenWidth) {
+        int moved = x;
+        if ((input & RIGHT) != 0 && moved + width + speed <= screenWidth - 1)
+            moved += speed;
+        if ((input & LEFT) != 0 && moved - speed >= 1)
+            moved -= speed;
+        return moved;
+    }
+
+    /**
+     * Moves a ship vertically, between the separation line and the bottom
+     * of the screen.
+     *
+     * @param y
+     *            Position of the ship.
+     * @param height
+     *            Height of the ship.
+     * @param speed
+     *            Pixels moved per tick.
+     * @param input
+     *            Input bits of the tick.
+     * @param top
+     *            Height of the separation line.
+     * @param screenHeight
+     *            Height of the screen.
+     * @return New position.
+     */
+    public static int moveY(final int y, final int height, final int speed, final int input,
+                            final int top, final int screenHeight) {
+        int moved = y;
+        if ((input & UP) != 0 && moved - speed >= top)
+            moved -= speed;
+        if ((input & DOWN) != 0 && moved + height + speed + BOTTOM_MARGIN <= screenHeight)
+            moved += speed;
+        return moved;
+    }
+
+    /**
+     * Writes the start of a packet.
+     *
+     * @param out
+     *            Packet buffer.
+     * @param type
+     *            Packet type.
+     */
+    static void putHeader(final ByteBuffer out, final byte type) {
+        out.put(MAGIC).put(type);
+    }
+
+    /**
+     * Reads the start of a packet.
+     *
+     * @param in
+     *            Packet received.
+     * @return Packet type, or 0 if the packet is not a co-op packet.
+     */
+    static byte getHeader(final ByteBuffer in) {
+        if (in.remaining() < 2 || in.get() != MAGIC)
+            return 0;
+        return in.get();
+    }
+
+    /**
+     * Writes an unsigned value in 7-bit groups, one byte below 128.
+     *
+     * @param out
+     *            Packet buffer.
+     * @param value
+     *            Value, read as unsigned.
+     */
+    static void putVarInt(final ByteBuffer out, final int value) {
+        int rest = value;
+        while ((rest & ~0x7F) != 0) {
+            out.put((byte) ((rest & 0x7F) | 0x80));
+            rest >>>= 7;
+        }
+        out.put((byte) rest);
+    }
+
+    /**
+     * Reads a value written by {@link #putVarInt}.
+     *
+     * @param in
+     *            Packet received.
+     * @return Value.
+     */
+    static int getVarInt(final ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0)
+                return value;
+        }
+        throw new IllegalArgumentException("Malformed variable length integer.");
+    }
+
+    /**
+     * Writes a signed value, small magnitudes in one byte.
+     *
+     * @param out
+     *            Packet buffer.
+     * @param value
+     *            Value.
+     */
+    static void putSigned(final ByteBuffer out, final int value) {
+        putVarInt(out, (value << 1) ^ (value >> 31));
+    }
+
+    /**
+     * Reads a value written by {@link #putSigned}.
+     *
+     * @param in
+     *            Packet received.
+     * @return Value.
+     */
+    static int getSigned(final ByteBuffer in) {
+        int zigzag = getVarInt(in);
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+    }
+}
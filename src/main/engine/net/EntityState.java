@@ -0,0 +1,112 @@
+package main.engine.net;
+
+import java.util.Arrays;
+
+/**
+ * State of one entity in a co-op snapshot. Values are kept as whole pixels
+ * and whole pixels per tick, the precision the game simulates with, so
+ * they go on the wire as small integers.
+ */
+public final class EntityState {
+
+    /** What an entity is, so the client knows how to treat it. */
+    public enum Kind {
+        /** Ship of the player hosting the game. */
+        HOST_SHIP,
+        /** Ship of the player who joined. */
+        PARTNER_SHIP,
+        /** Ship of the formation, placed relative to the formation. */
+        ENEMY,
+        /** Boss of the boss level. */
+        BOSS,
+        /** Bonus ship crossing the top of the screen. */
+        SPECIAL,
+        /** Bullet of either side. */
+        BULLET,
+        /** Item falling from a destroyed ship. */
+        ITEM
+    }
+
+    /** Kinds, cached since values() copies the array. */
+    static final Kind[] KINDS = Kind.values();
+
+    /** Position of the upper left corner. */
+    public static final int X = 0;
+    public static final int Y = 1;
+    /** Movement per tick, used to extrapolate the position. */
+    public static final int SPEED_X = 2;
+    public static final int SPEED_Y = 3;
+    public static final int WIDTH = 4;
+    public static final int HEIGHT = 5;
+    /** Sprite type ordinal plus one, 0 if the entity has no sprite. */
+    public static final int SPRITE = 6;
+    /** Drawing color, in ARGB. */
+    public static final int COLOR = 7;
+    /** Number of values of an entity. */
+    public static final int FIELDS = 8;
+
+    /** Identifier, stable while the entity stays on screen. */
+    private int id;
+    private Kind kind;
+    /** Values, indexed by the field constants. */
+    final int[] values = new int[FIELDS];
+
+    /**
+     * Sets the identity of the state and clears its values.
+     *
+     * @param id
+     *            Identifier of the entity.
+     * @param kind
+     *            Kind of the entity.
+     */
+    void reset(final int id, final Kind kind) {
+        this.id = id;
+        this.kind = kind;
+        Arrays.fill(this.values, 0);
+    }
+
+    /**
+     * Copies another state.
+     *
+     * @param other
+     *            State to copy.
+     */
+    void copyFrom(final EntityState other) {
+        this.id = other.id;
+        this.kind = other.kind;
+        System.arraycopy(other.values, 0, this.values, 0, FIELDS);
+    }
+
+    /**
+     * Predicts a value some ticks later, moving positions by their speed.
+     *
+     * @param field
+     *            Field to predict.
+     * @param ticks
+     *            Ticks elapsed.
+     * @return Predicted value.
+     */
+    int predict(final int field, final int ticks) {
+        if (field == X)
+            return values[X] + values[SPEED_X] * ticks;
+        if (field == Y)
+            return values[Y] + values[SPEED_Y] * ticks;
+        return values[field];
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public int get(final int field) {
+        return values[field];
+    }
+
+    public void set(final int field, final int value) {
+        values[field] = value;
+    }
+}
@@ -0,0 +1,215 @@
+package main.engine.net;
+
+import java.util.Arrays;
+
+/**
+ * State of a co-op game at one tick of the host: a few game values and
+ * every entity on screen, sorted by identifier. Snapshots are reused from
+ * a ring, so the entity states are pooled inside.
+ */
+public final class Snapshot {
+
+    /** Game values carried in the header. */
+    public static final int SCORE = 0;
+    public static final int LEVEL = 1;
+    public static final int COINS = 2;
+    /** Team health and its maximum. */
+    public static final int HP = 3;
+    public static final int MAX_HP = 4;
+    public static final int EXP = 5;
+    /** Upper left corner of the formation, the origin of enemy positions. */
+    public static final int FORMATION_X = 6;
+    public static final int FORMATION_Y = 7;
+    /** Pixels per tick the partner ship moves, for prediction. */
+    public static final int MOVE_SPEED = 8;
+    public static final int BOSS_HP = 9;
+    /** Combination of the FLAG constants. */
+    public static final int FLAGS = 10;
+    /** Number of header values. */
+    public static final int HEADER_FIELDS = 11;
+
+    /** Ships move with the input, so the client may predict its own. */
+    public static final int FLAG_PLAYING = 1;
+    public static final int FLAG_PAUSED = 1 << 1;
+    public static final int FLAG_COUNTDOWN = 1 << 2;
+    public static final int FLAG_LEVEL_FINISHED = 1 << 3;
+    public static final int FLAG_GAME_OVER = 1 << 4;
+
+    /** Tick of the host, -1 for an unused snapshot. */
+    private int tick = -1;
+    /** Last partner input applied by the host. */
+    private int inputAck;
+    /** Header values, indexed by the header constants. */
+    final int[] header = new int[HEADER_FIELDS];
+    /** Entities, the first {@link #size} sorted by identifier. */
+    private EntityState[] entities = new EntityState[64];
+    private int size;
+
+    /**
+     * Empties the snapshot for a new tick.
+     *
+     * @param tick
+     *            Tick of the host.
+     * @param inputAck
+     *            Last partner input applied.
+     */
+    void clear(final int tick, final int inputAck) {
+        this.tick = tick;
+        this.inputAck = inputAck;
+        Arrays.fill(this.header, 0);
+        this.size = 0;
+    }
+
+    /**
+     * Copies another snapshot.
+     *
+     * @param other
+     *            Snapshot to copy.
+     */
+    void copyFrom(final Snapshot other) {
+        clear(other.tick, other.inputAck);
+        System.arraycopy(other.header, 0, this.header, 0, HEADER_FIELDS);
+        for (int i = 0; i < other.size; i++)
+            append().copyFrom(other.entities[i]);
+    }
+
+    /**
+     * Adds an entity at the end, keeping its values from a previous use.
+     *
+     * @return State of the entity, to fill in.
+     */
+    EntityState append() {
+        if (size == entities.length)
+            entities = Arrays.copyOf(entities, size * 2);
+        if (entities[size] == null)
+            entities[size] = new EntityState();
+        return entities[size++];
+    }
+
+    /**
+     * Adds an entity, keeping the entities sorted.
+     *
+     * @param id
+     *            Identifier of the entity, not already in the snapshot.
+     * @param kind
+     *            Kind of the entity.
+     * @return State of the entity, with its values cleared.
+     */
+    EntityState insert(final int id, final EntityState.Kind kind) {
+        int index = -indexOf(id) - 1;
+        EntityState state = append();
+        System.arraycopy(entities, index, entities, index + 1, size - 1 - index);
+        entities[index] = state;
+        state.reset(id, kind);
+        return state;
+    }
+
+    /**
+     * Removes an entity.
+     *
+     * @param id
+     *            Identifier of the entity.
+     */
+    void remove(final int id) {
+        int index = indexOf(id);
+        if (index < 0)
+            return;
+        EntityState removed = entities[index];
+        System.arraycopy(entities, index + 1, entities, index, size - 1 - index);
+        entities[--size] = removed;
+    }
+
+    /**
+     * Removes the entities of a kind with the highest identifiers, the
+     * newest ones.
+     *
+     * @param kind
+     *            Kind of the entities.
+     * @param count
+     *            Most entities to remove.
+     * @return Entities removed.
+     */
+    int removeNewest(final EntityState.Kind kind, final int count) {
+        int removed = 0;
+        int from = size;
+        while (from > 0 && removed < count)
+            if (entities[--from].getKind() == kind)
+                removed++;
+        int kept = from;
+        for (int i = from; i < size; i++) {
+            EntityState state = entities[i];
+            if (state.getKind() != kind) {
+                entities[i] = entities[kept];
+                entities[kept++] = state;
+            }
+        }
+        size = kept;
+        return removed;
+    }
+
+    /**
+     * Sorts the entities added with {@link #append()}.
+     */
+    void sort() {
+        Arrays.sort(entities, 0, size, (a, b) -> Integer.compare(a.getId(), b.getId()));
+    }
+
+    /**
+     * @param id
+     *            Identifier of an entity.
+     * @return Its state, or null if it is not in the snapshot.
+     */
+    public EntityState find(final int id) {
+        int index = indexOf(id);
+        return index >= 0 ? entities[index] : null;
+    }
+
+    private int indexOf(final int id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleId = entities[middle].getId();
+            if (middleId < id)
+                low = middle + 1;
+            else if (middleId > id)
+                high = middle - 1;
+            else
+                return middle;
+        }
+        return -low - 1;
+    }
+
+    public int getTick() {
+        return tick;
+    }
+
+    public int getInputAck() {
+        return inputAck;
+    }
+
+    public int get(final int field) {
+        return header[field];
+    }
+
+    public void set(final int field, final int value) {
+        header[field] = value;
+    }
+
+    public boolean hasFlag(final int flag) {
+        return (header[FLAGS] & flag) != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index
+     *            Position, below {@link #size()}.
+     * @return Entity at that position.
+     */
+    public EntityState getEntity(final int index) {
+        return entities[index];
+    }
+}
@@ -0,0 +1,253 @@
+package main.engine.net;
+
+import java.nio.ByteBuffer;
+import java.util.function.IntFunction;
+
+import static main.engine.net.CoopProtocol.getSigned;
+import static main.engine.net.CoopProtocol.getVarInt;
+import static main.engine.net.CoopProtocol.putSigned;
+import static main.engine.net.CoopProtocol.putVarInt;
+
+/**
+ * Encodes a snapshot as the difference from a snapshot the client already
+ * has. Entities are compared with the baseline moved forward by their
+ * speed, so bullets and items flying straight and enemies still in the
+ * formation cost nothing; only values that differ from that prediction are
+ * sent, as small signed numbers. Without a baseline every entity is new.
+ * <p>
+ * Layout after the packet header: tick, ticks since the baseline (0 for
+ * none), last input applied, mask and differences of the header values,
+ * then the changed entities, each with its identifier as the gap from the
+ * previous one, a field mask and the differences, and last the identifiers
+ * of the entities removed since the baseline.
+ */
+public final class SnapshotCodec {
+
+    /** Mask bit of an entity absent from the baseline, followed by its kind. */
+    private static final int NEW = 1 << EntityState.FIELDS;
+
+    /**
+     * Constructor, not called.
+     */
+    private SnapshotCodec() {
+
+    }
+
+    /**
+     * Writes a snapshot packet.
+     *
+     * @param current
+     *            Snapshot to send.
+     * @param baseline
+     *            Earlier snapshot the client has, or null to send it whole.
+     * @param out
+     *            Packet buffer.
+     */
+    public static void encode(final Snapshot current, final Snapshot baseline, final ByteBuffer out) {
+        CoopProtocol.putHeader(out, CoopProtocol.SNAPSHOT);
+        int ticks = baseline == null ? 0 : current.getTick() - baseline.getTick();
+        putVarInt(out, current.getTick());
+        putVarInt(out, ticks);
+        putVarInt(out, current.getInputAck());
+
+        int headerMask = 0;
+        for (int i = 0; i < Snapshot.HEADER_FIELDS; i++)
+            if (current.header[i] != baseHeader(baseline, i))
+                headerMask |= 1 << i;
+        putVarInt(out, headerMask);
+        for (int i = 0; i < Snapshot.HEADER_FIELDS; i++)
+            if ((headerMask & 1 << i) != 0)
+                putSigned(out, current.header[i] - baseHeader(baseline, i));
+
+        int changed = 0;
+        for (int i = 0; i < current.size(); i++)
+            if (changes(current.getEntity(i), baseline, ticks) != 0)
+                changed++;
+        putVarInt(out, changed);
+        int previousId = 0;
+        for (int i = 0; i < current.size(); i++) {
+            EntityState state = current.getEntity(i);
+            EntityState base = baseline == null ? null : baseline.find(state.getId());
+            int mask = changes(state, baseline, ticks);
+            if (mask == 0)
+                continue;
+            putVarInt(out, state.getId() - previousId);
+            previousId = state.getId();
+            putVarInt(out, mask);
+            if (base == null)
+                out.put((byte) state.getKind().ordinal());
+            for (int field = 0; field < EntityState.FIELDS; field++)
+                if ((mask & 1 << field) != 0)
+                    putSigned(out, state.values[field] - (base == null ? 0 : base.predict(field, ticks)));
+        }
+
+        if (baseline == null) {
+            putVarInt(out, 0);
+            return;
+        }
+        int removed = 0;
+        for (int i = 0; i < baseline.size(); i++)
+            if (current.find(baseline.getEntity(i).getId()) == null)
+                removed++;
+        putVarInt(out, removed);
+        previousId = 0;
+        for (int i = 0; i < baseline.size(); i++) {
+            int id = baseline.getEntity(i).getId();
+            if (current.find(id) == null) {
+                putVarInt(out, id - previousId);
+                previousId = id;
+            }
+        }
+    }
+
+    /**
+     * Computes the length of the packet {@link #encode} would write.
+     *
+     * @param current
+     *            Snapshot to send.
+     * @param baseline
+     *            Earlier snapshot the client has, or null to send it whole.
+     * @return Bytes of the packet.
+     */
+    public static int encodedSize(final Snapshot current, final Snapshot baseline) {
+        int ticks = baseline == null ? 0 : current.getTick() - baseline.getTick();
+        int size = 2 + varIntSize(current.getTick()) + varIntSize(ticks) + varIntSize(current.getInputAck());
+        int headerMask = 0;
+        for (int i = 0; i < Snapshot.HEADER_FIELDS; i++) {
+            int difference = current.header[i] - baseHeader(baseline, i);
+            if (difference != 0) {
+                headerMask |= 1 << i;
+                size += signedSize(difference);
+            }
+        }
+        size += varIntSize(headerMask);
+
+        int changed = 0;
+        int previousId = 0;
+        for (int i = 0; i < current.size(); i++) {
+            EntityState state = current.getEntity(i);
+            EntityState base = baseline == null ? null : baseline.find(state.getId());
+            int mask = changes(state, baseline, ticks);
+            if (mask == 0)
+                continue;
+            changed++;
+            size += varIntSize(state.getId() - previousId) + varIntSize(mask) + (base == null ? 1 : 0);
+            previousId = state.getId();
+            for (int field = 0; field < EntityState.FIELDS; field++)
+                if ((mask & 1 << field) != 0)
+                    size += signedSize(state.values[field] - (base == null ? 0 : base.predict(field, ticks)));
+        }
+        size += varIntSize(changed);
+
+        int removed = 0;
+        previousId = 0;
+        if (baseline != null) {
+            for (int i = 0; i < baseline.size(); i++) {
+                int id = baseline.getEntity(i).getId();
+                if (current.find(id) == null) {
+                    removed++;
+                    size += varIntSize(id - previousId);
+                    previousId = id;
+                }
+            }
+        }
+        return size + varIntSize(removed);
+    }
+
+    /**
+     * Reads a snapshot packet, after its packet header.
+     *
+     * @param in
+     *            Packet received.
+     * @param baselines
+     *            Earlier snapshots by tick, returning null for the ones no
+     *            longer kept.
+     * @param out
+     *            Snapshot to fill in.
+     * @return False if the baseline of the packet is no longer kept, in
+     *         which case the output is left unchanged.
+     */
+    public static boolean decode(final ByteBuffer in, final IntFunction<Snapshot> baselines,
+                                 final Snapshot out) {
+        int tick = getVarInt(in);
+        int ticks = getVarInt(in);
+        int inputAck = getVarInt(in);
+        Snapshot baseline = null;
+        if (ticks > 0) {
+            baseline = baselines.apply(tick - ticks);
+            if (baseline == null || baseline.getTick() != tick - ticks)
+                return false;
+        }
+
+        out.clear(tick, inputAck);
+        if (baseline != null) {
+            System.arraycopy(baseline.header, 0, out.header, 0, Snapshot.HEADER_FIELDS);
+            for (int i = 0; i < baseline.size(); i++) {
+                EntityState base = baseline.getEntity(i);
+                EntityState state = out.append();
+                state.copyFrom(base);
+                state.values[EntityState.X] = base.predict(EntityState.X, ticks);
+                state.values[EntityState.Y] = base.predict(EntityState.Y, ticks);
+            }
+        }
+        int headerMask = getVarInt(in);
+        for (int i = 0; i < Snapshot.HEADER_FIELDS; i++)
+            if ((headerMask & 1 << i) != 0)
+                out.header[i] += getSigned(in);
+
+        int changed = getVarInt(in);
+        int id = 0;
+        for (int n = 0; n < changed; n++) {
+            id += getVarInt(in);
+            int mask = getVarInt(in);
+            EntityState state;
+            if ((mask & NEW) != 0) {
+                int kind = in.get();
+                if (kind < 0 || kind >= EntityState.KINDS.length)
+                    throw new IllegalArgumentException("Unknown entity kind " + kind + ".");
+                out.remove(id);
+                state = out.insert(id, EntityState.KINDS[kind]);
+            } else {
+                state = out.find(id);
+                if (state == null)
+                    throw new IllegalArgumentException("Entity " + id + " is not in the baseline.");
+            }
+            for (int field = 0; field < EntityState.FIELDS; field++)
+                if ((mask & 1 << field) != 0)
+                    state.values[field] += getSigned(in);
+        }
+
+        int removed = getVarInt(in);
+        id = 0;
+        for (int n = 0; n < removed; n++) {
+            id += getVarInt(in);
+            out.remove(id);
+        }
+        return true;
+    }
+
+    private static int varIntSize(final int value) {
+        return value == 0 ? 1 : (38 - Integer.numberOfLeadingZeros(value)) / 7;
+    }
+
+    private static int signedSize(final int value) {
+        return varIntSize((value << 1) ^ (value >> 31));
+    }
+
+    private static int baseHeader(final Snapshot baseline, final int field) {
+        return baseline == null ? 0 : baseline.header[field];
+    }
+
+    /**
+     * @return Mask of the values of an entity that differ from the
+     *         prediction, with {@link #NEW} if it is not in the baseline.
+     */
+    private static int changes(final EntityState state, final Snapshot baseline, final int ticks) {
+        EntityState base = baseline == null ? null : baseline.find(state.getId());
+        int mask = 0;
+        for (int field = 0; field < EntityState.FIELDS; field++)
+            if (state.values[field] != (base == null ? 0 : base.predict(field, ticks)))
+                mask |= 1 << field;
+        return base == null ? mask | NEW : mask;
+    }
+}
@@ -38,7 +38,7 @@ public class ShipUpgradeManager {
      *
      * @return instance
      */
-    public static ShipUpgradeManager getInstance() {
+    public static synchronized ShipUpgradeManager getInstance() {
         if (instance == null) {
             instance = new ShipUpgradeManager();
         }
@@ -0,0 +1,293 @@
+package main.entity;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import main.engine.StateFrame;
+
+/**
+ * Storage of entities of one kind as dense columns, one int array per
+ * component, so systems such as {@link EntitySystems#move} run as plain
+ * loops over contiguous memory. The entities stay usable as objects: while
+ * in an archetype, an entity is a view over its row and reads and writes
+ * the columns instead of its own fields.
+ * <p>
+ * Rows keep the order entities were added in, also across removals, so an
+ * archetype iterates like the {@code LinkedHashSet} it stands in for and
+ * games play out the same.
+ *
+ * @param <E>
+ *            Kind of entity stored.
+ */
+public final class Archetype<E extends Entity> extends AbstractSet<E> {
+
+    /** Component of an entity, stored as a column of ints. */
+    public enum Component {
+        /** Position of the left side. */
+        X,
+        /** Position of the upper side. */
+        Y,
+        WIDTH,
+        HEIGHT,
+        /** Ordinal of the {@link Entity.Team}. */
+        TEAM,
+        /** Ordinal of the sprite type, -1 for none. */
+        SPRITE,
+        /** Color in ARGB. */
+        COLOR,
+        /** Pixels moved right per tick. */
+        SPEED_X,
+        /** Pixels moved down per tick. */
+        SPEED_Y;
+
+        /** Components every entity has. */
+        static final Component[] ENTITY = { X, Y, WIDTH, HEIGHT, TEAM, SPRITE, COLOR };
+    }
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    /** Columns by component ordinal, null for components not stored. */
+    private final int[][] columns = new int[Component.values().length][];
+    /** Entity viewing each row. */
+    private Entity[] entities = new Entity[INITIAL_CAPACITY];
+    /** Scratch marks by row for the systems, stale once rows change. */
+    private boolean[] marks = new boolean[INITIAL_CAPACITY];
+    private int size;
+    /** Changes of the rows, to catch iterators outliving them. */
+    private int modCount;
+
+    /**
+     * Constructor.
+     *
+     * @param components
+     *            Components stored besides the ones of every entity.
+     */
+    public Archetype(final Component... components) {
+        for (Component component : Component.ENTITY)
+            columns[component.ordinal()] = new int[INITIAL_CAPACITY];
+        for (Component component : components)
+            columns[component.ordinal()] = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * @param component
+     *            Component to look for.
+     * @return If the archetype stores it.
+     */
+    public boolean has(final Component component) {
+        return columns[component.ordinal()] != null;
+    }
+
+    /**
+     * Returns the column of a component, valid until the next row is added.
+     * Only its first {@link #size()} values are rows.
+     *
+     * @param component
+     *            Component stored.
+     * @return Its values by row.
+     */
+    public int[] column(final Component component) {
+        int[] column = columns[component.ordinal()];
+        if (column == null)
+            throw new IllegalArgumentException("No " + component + " in this archetype.");
+        return column;
+    }
+
+    /**
+     * @return Marks by row, written by {@link EntitySystems}.
+     */
+    boolean[] marks() {
+        return marks;
+    }
+
+    /**
+     * @param row
+     *            Row of the entity.
+     * @return Entity viewing the row.
+     */
+    @SuppressWarnings("unchecked")
+    public E get(final int row) {
+        if (row >= size)
+            throw new IndexOutOfBoundsException(row);
+        return (E) entities[row];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean contains(final Object o) {
+        return o instanceof Entity entity && entity.archetype == this;
+    }
+
+    /**
+     * Moves an entity into a new last row.
+     *
+     * @param entity
+     *            Entity to add, in no other archetype.
+     * @return If it was not already here.
+     */
+    @Override
+    public boolean add(final E entity) {
+        if (entity.archetype == this)
+            return false;
+        if (entity.archetype != null)
+            throw new IllegalStateException("The entity is in another archetype.");
+        if (size == entities.length)
+            grow();
+        entities[size] = entity;
+        entity.archetype = this;
+        entity.row = size;
+        entity.store(this, size);
+        size++;
+        modCount++;
+        return true;
+    }
+
+    private void grow() {
+        int capacity = entities.length * 2;
+        entities = Arrays.copyOf(entities, capacity);
+        marks = new boolean[capacity];
+        for (int i = 0; i < columns.length; i++)
+            if (columns[i] != null)
+                columns[i] = Arrays.copyOf(columns[i], capacity);
+    }
+
+    @Override
+    public boolean remove(final Object o) {
+        if (!contains(o))
+            return false;
+        Entity entity = (Entity) o;
+        int row = entity.row;
+        release(entity);
+        shift(row + 1, size, row);
+        size--;
+        entities[size] = null;
+        modCount++;
+        return true;
+    }
+
+    /**
+     * Removes the entities in a collection in one pass, keeping the order of
+     * the rest.
+     */
+    @Override
+    public boolean removeAll(final Collection<?> c) {
+        int kept = 0;
+        int run = 0;
+        for (int row = 0; row < size; row++) {
+            Entity entity = entities[row];
+            if (c.contains(entity)) {
+                // Close the run of rows kept before this one.
+                shift(run, row, kept);
+                kept += row - run;
+                run = row + 1;
+                release(entity);
+            }
+        }
+        shift(run, size, kept);
+        kept += size - run;
+        if (kept == size)
+            return false;
+        Arrays.fill(entities, kept, size, null);
+        size = kept;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public void clear() {
+        for (int row = 0; row < size; row++)
+            release(entities[row]);
+        Arrays.fill(entities, 0, size, null);
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Writes the rows to a rewind frame, a column at a time. The number of
+     * rows is left to the caller, which must restore as many entities
+     * before the rows are read back.
+     *
+     * @param frame
+     *            Frame of the tick.
+     */
+    public void save(final StateFrame frame) {
+        for (int[] column : columns)
+            if (column != null)
+                for (int row = 0; row < size; row++)
+                    frame.putInt(column[row]);
+    }
+
+    /**
+     * Reads the rows back from a rewind frame into the entities now in the
+     * archetype.
+     *
+     * @param frame
+     *            Frame written by {@link #save}.
+     */
+    public void restore(final StateFrame frame) {
+        for (int[] column : columns)
+            if (column != null)
+                for (int row = 0; row < size; row++)
+                    column[row] = frame.getInt();
+    }
+
+    /** Hands a row back to its entity, which keeps its values in fields again. */
+    private void release(final Entity entity) {
+        entity.load(this, entity.row);
+        entity.archetype = null;
+    }
+
+    /** Moves rows [from, to) down to start at a lower row. */
+    private void shift(final int from, final int to, final int into) {
+        int count = to - from;
+        if (count == 0 || from == into)
+            return;
+        System.arraycopy(entities, from, entities, into, count);
+        for (int[] column : columns)
+            if (column != null)
+                System.arraycopy(column, from, column, into, count);
+        for (int row = into; row < into + count; row++)
+            entities[row].row = row;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            private int next;
+            private boolean removable;
+            private int expected = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public E next() {
+                if (expected != modCount)
+                    throw new ConcurrentModificationException();
+                if (next >= size)
+                    throw new NoSuchElementException();
+                removable = true;
+                return get(next++);
+            }
+
+            @Override
+            public void remove() {
+                if (!removable)
+                    throw new IllegalStateException();
+                removable = false;
+                Archetype.this.remove(entities[--next]);
+                expected = modCount;
+            }
+        };
+    }
+}
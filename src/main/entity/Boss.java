@@ -1,16 +1,24 @@
 package main.entity;
 
 import java.awt.Color;
+import java.util.List;
 import java.util.Set;
 
 import main.engine.Cooldown;
 import main.engine.Core;
+import main.engine.RandomService;
+import main.engine.StateFrame;
 import main.engine.DrawManager.SpriteType;
 import main.screen.Screen;
 import main.entity.Enemy.*;
 
 /**
- * Boss enemy with multi-phase pattern based on HP.
+ * Boss enemy with multi-phase pattern based on HP. Each phase fires a
+ * pattern of bullet_patterns.txt from the cannon under the boss. The boss
+ * is built from parts with their own hitboxes: armored engines that soak
+ * hits until they break, a hull and a weak point under it taking double
+ * damage. Bullets find the part they hit through a
+ * {@link BoundingVolumeHierarchy}.
  */
 public class Boss extends Entity {
 
@@ -20,10 +28,21 @@ public class Boss extends Entity {
     private boolean isDestroyed = false;
 
     private Cooldown animationCooldown;
-    private Cooldown shootCooldown;
+    /** Fires the pattern of the current phase. */
+    private final BulletEmitter cannon;
+    private final BulletPattern straightPattern;
+    private final BulletPattern spreadPattern;
+    private final BulletPattern barragePattern;
 
     private double movePhase = 0;
 
+    /** Parts, most exposed to bullets from below first. */
+    private final BossPart weakPoint = new BossPart(31, 34, 10, 7, 0, 2);
+    private final BossPart leftEngine = new BossPart(9, 34, 14, 14, 10, 1);
+    private final BossPart rightEngine = new BossPart(49, 34, 14, 14, 10, 1);
+    private final BossPart hull = new BossPart(0, 13, 72, 21, 0, 1);
+    private final BossPart dome = new BossPart(22, 0, 28, 13, 0, 1);
+    private final BoundingVolumeHierarchy<BossPart> parts;
 
     public Boss(int positionX, int positionY) {
         super(positionX, positionY, 12 * 6, 8 * 6, Color.RED);
@@ -40,28 +59,89 @@ public class Boss extends Entity {
         );
 
         this.animationCooldown = Core.getCooldown(400);
-        this.shootCooldown     = Core.getCooldown(600);
+
+        BulletPatternLibrary patterns = BulletPatternLibrary.getInstance();
+        this.straightPattern = patterns.get("boss_straight");
+        this.spreadPattern = patterns.get("boss_spread");
+        this.barragePattern = patterns.get("boss_barrage");
+        this.cannon = new BulletEmitter(straightPattern);
+
+        this.parts = new BoundingVolumeHierarchy<BossPart>(
+                List.of(weakPoint, leftEngine, rightEngine, hull, dome), part -> !part.isBroken());
+        placeParts();
+    }
+
+    /** Moves the parts along with the boss and refits their hierarchy. */
+    private void placeParts() {
+        for (BossPart part : parts.getParts())
+            part.place(this.positionX, this.positionY);
+        parts.refit();
     }
 
-    /** Update boss based on HP phases */
-    public void update(Set<Bullet> bullets) {
+    /**
+     * Finds the part a box hits, testing only the box of the whole boss
+     * when it misses.
+     *
+     * @param x
+     *            Position of the left side of the box.
+     * @param y
+     *            Position of the upper side of the box.
+     * @param width
+     *            Width of the box.
+     * @param height
+     *            Height of the box.
+     * @return Part hit, or null.
+     */
+    public BossPart partAt(final int x, final int y, final int width, final int height) {
+        return parts.query(x, y, width, height);
+    }
+
+    /**
+     * @return Parts of the boss.
+     */
+    public List<BossPart> getParts() {
+        return parts.getParts();
+    }
+
+    /**
+     * @return The hull, hit when the boss is hit as one box.
+     */
+    public BossPart getHull() {
+        return hull;
+    }
+
+    /**
+     * Update boss based on HP phases.
+     *
+     * @param bullets
+     *            Bullets in play, the ones fired are added to.
+     * @param target
+     *            Ship aimed at by patterns that aim, or null.
+     */
+    public void update(final Set<Bullet> bullets, final Entity target) {
 
         float hp = stats.getHp();
 
         if (hp > 60) {
             // PHASE 1: Linear movement + straight shot
-            patternPhase1(bullets);
+            patternPhase1();
+            cannon.setPattern(straightPattern);
         }
         else if (hp > 30) {
             // PHASE 2: Infinity movement + 5-way
-            patternPhase2(bullets);
+            movePattern();
+            cannon.setPattern(spreadPattern);
         }
         else {
             // PHASE 3: Infinity movement + 5-way + danger zone straight shot
-            patternPhase3(bullets);
+            movePattern();
+            cannon.setPattern(barragePattern);
         }
+        cannon.update(this.getPositionX() + this.getWidth() / 2, this.getPositionY() + this.getHeight(),
+                target, bullets);
 
         animateColor();
+        placeParts();
     }
 
     /** Color animation */
@@ -69,19 +149,19 @@ public class Boss extends Entity {
         if (animationCooldown.checkFinished()) {
             animationCooldown.reset();
             this.setColor(new Color(
-                    (int)(155 + Math.random() * 100),
-                    (int)(20 + Math.random() * 30),
-                    (int)(20 + Math.random() * 30)
+                    155 + RandomService.cosmetic().nextInt(100),
+                    20 + RandomService.cosmetic().nextInt(30),
+                    20 + RandomService.cosmetic().nextInt(30)
             ));
         }
     }
 
     /* -------------------------------
      *         PHASE 1
-     *   Straight move + straight bullets
+     *   Straight move, phases 2 and 3 use the infinity move
      * ------------------------------- */
     private int phase1Speed = 2;
-    private void patternPhase1(Set<Bullet> bullets) {
+    private void patternPhase1() {
         this.positionX += phase1Speed;
 
         if (this.positionX < 20) {
@@ -91,78 +171,6 @@ public class Boss extends Entity {
             this.positionX = 350;
             phase1Speed = -phase1Speed;
         }
-
-        shootStraight(bullets);
-    }
-
-    private void shootStraight(Set<Bullet> bullets) {
-        if (!shootCooldown.checkFinished()) return;
-        shootCooldown.reset();
-
-        int cx = this.getPositionX() + this.getWidth() / 2;
-        int cy = this.getPositionY() + this.getHeight();
-
-        Bullet b = BulletPool.getBullet(
-                cx, cy,
-                0, 6,     // straight downward
-                4, 10,
-                Entity.Team.ENEMY
-        );
-        bullets.add(b);
-    }
-
-    /* -------------------------------
-     *         PHASE 2
-     *    Infinity move + 5-way bullets
-     * ------------------------------- */
-    private void patternPhase2(Set<Bullet> bullets) {
-        movePattern();
-        shootSpread(bullets);
-    }
-
-    private void shootSpread(Set<Bullet> bullets) {
-        if (!shootCooldown.checkFinished()) return;
-        shootCooldown.reset();
-
-        int cx = this.getPositionX() + this.getWidth() / 2;
-        int cy = this.getPositionY() + this.getHeight();
-
-        int[] dx = { -3, -1, 0, 1, 3 };
-
-        for (int sx : dx) {
-            bullets.add(BulletPool.getBullet(
-                    cx, cy,
-                    sx, 5,
-                    4, 8,
-                    Entity.Team.ENEMY
-            ));
-        }
-    }
-
-    /* -------------------------------
-     *         PHASE 3
-     *   Infinity + 5-way
-     *   + Danger zone mark + straight bullets
-     * ------------------------------- */
-    private void patternPhase3(Set<Bullet> bullets) {
-        movePattern();
-
-        if (!shootCooldown.checkFinished()) return;
-        shootCooldown.reset();
-
-        int cx = this.getPositionX() + this.getWidth() / 2;
-        int cy = this.getPositionY() + this.getHeight();
-
-        // 5-way bullets
-        int[] dx = { -3, -1, 0, 1, 3 };
-        for (int sx : dx) {
-            bullets.add(BulletPool.getBullet(cx, cy, sx, 5, 4, 8, Entity.Team.ENEMY));
-        }
-
-        int verticalSpacing = 15;
-        for (int i = 0; i < 5; i++) {
-            bullets.add(BulletPool.getBullet(cx, cy + i * verticalSpacing, 0, 6, 4, 10, Entity.Team.ENEMY));
-        }
     }
 
     /** Infinity movement */
@@ -187,6 +195,25 @@ public class Boss extends Entity {
      * Hit & Destroy
      * ------------------------------- */
 
+    /**
+     * Hits a part: its armor soaks the damage while it lasts, otherwise the
+     * boss takes it, multiplied on weak points.
+     *
+     * @param part
+     *            Part hit.
+     * @param damage
+     *            Damage of the bullet.
+     */
+    public void hit(final BossPart part, final float damage) {
+        if (part.isArmored()) {
+            part.damageArmor(damage);
+            if (part.isBroken())
+                parts.refit();
+            return;
+        }
+        hit(damage * part.getDamageMultiplier());
+    }
+
     public void hit(float damage) {
         float updatedHp = Math.max(0, stats.getHp() - damage);
         stats.setHp(updatedHp);
@@ -213,4 +240,39 @@ public class Boss extends Entity {
     public EnemyShipStats getStats() {
         return stats;
     }
+
+    /**
+     * Writes the boss, its parts and its cannon to a rewind frame.
+     */
+    @Override
+    public void save(final StateFrame frame) {
+        super.save(frame);
+        frame.putBoolean(isDestroyed);
+        frame.putFloat(stats.getHp());
+        frame.putFloat(stats.getTotalDamage());
+        frame.putDouble(movePhase);
+        frame.putInt(phase1Speed);
+        animationCooldown.save(frame);
+        for (BossPart part : parts.getParts())
+            part.save(frame);
+        BulletPattern pattern = cannon.getPattern();
+        frame.putInt(pattern == barragePattern ? 2 : pattern == spreadPattern ? 1 : 0);
+        cannon.save(frame);
+    }
+
+    @Override
+    public void restore(final StateFrame frame) {
+        super.restore(frame);
+        isDestroyed = frame.getBoolean();
+        stats.setHp(frame.getFloat());
+        stats.setTotalDamage(frame.getFloat());
+        movePhase = frame.getDouble();
+        phase1Speed = frame.getInt();
+        animationCooldown.restore(frame);
+        for (BossPart part : parts.getParts())
+            part.restore(frame);
+        int pattern = frame.getInt();
+        cannon.restore(frame, pattern == 2 ? barragePattern : pattern == 1 ? spreadPattern : straightPattern);
+        placeParts();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,112 @@
+package main.entity;
+
+import java.awt.Color;
+
+import main.engine.DrawManager.SpriteType;
+import main.engine.StateFrame;
+
+/**
+ * Part of a {@link Boss} with a hitbox of its own, kept at a fixed offset
+ * from the boss. Armored parts soak hits until their armor breaks, then let
+ * bullets through; the others pass the damage on to the boss, multiplied on
+ * weak points.
+ */
+public final class BossPart extends Entity {
+
+    /** Position relative to the boss. */
+    private final int offsetX;
+    private final int offsetY;
+    /** Damage the armor soaks before breaking, 0 for parts without. */
+    private final float maxArmor;
+    private float armor;
+    /** Factor of the damage passed on to the boss. */
+    private final float damageMultiplier;
+
+    /**
+     * Constructor.
+     *
+     * @param offsetX
+     *            Position of the left side, relative to the boss.
+     * @param offsetY
+     *            Position of the upper side, relative to the boss.
+     * @param width
+     *            Width of the hitbox.
+     * @param height
+     *            Height of the hitbox.
+     * @param armor
+     *            Damage soaked before breaking, 0 for none.
+     * @param damageMultiplier
+     *            Factor of the damage passed on to the boss.
+     */
+    BossPart(final int offsetX, final int offsetY, final int width, final int height, final float armor,
+             final float damageMultiplier) {
+        super(offsetX, offsetY, width, height, Color.DARK_GRAY);
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        this.maxArmor = armor;
+        this.armor = armor;
+        this.damageMultiplier = damageMultiplier;
+    }
+
+    /**
+     * Moves the part along with the boss.
+     */
+    void place(final int bossX, final int bossY) {
+        setPositionX(bossX + offsetX);
+        setPositionY(bossY + offsetY);
+    }
+
+    /**
+     * @return If hits on the part go to its armor.
+     */
+    public boolean isArmored() {
+        return armor > 0;
+    }
+
+    /**
+     * @return If the part had armor that broke, letting bullets through.
+     */
+    public boolean isBroken() {
+        return maxArmor > 0 && armor <= 0;
+    }
+
+    /**
+     * @return If hits on the part hurt the boss more.
+     */
+    public boolean isWeakPoint() {
+        return damageMultiplier > 1;
+    }
+
+    public float getArmor() {
+        return armor;
+    }
+
+    public float getMaxArmor() {
+        return maxArmor;
+    }
+
+    public float getDamageMultiplier() {
+        return damageMultiplier;
+    }
+
+    /**
+     * Takes damage on the armor, showing the part broken once it is gone.
+     */
+    void damageArmor(final float damage) {
+        armor = Math.max(0, armor - damage);
+        if (armor <= 0)
+            setSpriteType(SpriteType.Explosion);
+    }
+
+    @Override
+    public void save(final StateFrame frame) {
+        super.save(frame);
+        frame.putFloat(armor);
+    }
+
+    @Override
+    public void restore(final StateFrame frame) {
+        super.restore(frame);
+        armor = frame.getFloat();
+    }
+}
@@ -0,0 +1,165 @@
+package main.entity;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Small bounding volume hierarchy over the parts of a compound entity, such
+ * as the {@link Boss}. The tree is built once and refit afterwards: parts
+ * move together, so their grouping stays good and a refit is one pass over
+ * the nodes. Queries test the root box first, so a bullet missing the whole
+ * entity costs a single box test.
+ *
+ * @param <E>
+ *            Kind of part.
+ */
+public final class BoundingVolumeHierarchy<E extends Entity> {
+
+    private final List<E> parts;
+    /** Parts that can be hit, the others are left out at the next refit. */
+    private final Predicate<? super E> solid;
+    /** Boxes of the nodes, half open, a parent always before its children. */
+    private final int[] minX;
+    private final int[] minY;
+    private final int[] maxX;
+    private final int[] maxY;
+    /** Children of inner nodes, the right one following the left subtree. */
+    private final int[] left;
+    private final int[] right;
+    /** Part of each leaf, -1 for inner nodes. */
+    private final int[] leafPart;
+    /** Nodes left to visit by a query. */
+    private final int[] stack;
+    private int nodeCount;
+
+    /**
+     * Builds the tree over the parts where they are now, splitting them by
+     * the center of their boxes along the longer side.
+     *
+     * @param parts
+     *            Parts of the entity, at least one.
+     * @param solid
+     *            If a part can be hit.
+     */
+    public BoundingVolumeHierarchy(final List<E> parts, final Predicate<? super E> solid) {
+        if (parts.isEmpty())
+            throw new IllegalArgumentException("No parts to build a hierarchy of.");
+        this.parts = List.copyOf(parts);
+        this.solid = solid;
+        int nodes = parts.size() * 2 - 1;
+        minX = new int[nodes];
+        minY = new int[nodes];
+        maxX = new int[nodes];
+        maxY = new int[nodes];
+        left = new int[nodes];
+        right = new int[nodes];
+        leafPart = new int[nodes];
+        stack = new int[nodes];
+        Integer[] order = new Integer[parts.size()];
+        for (int i = 0; i < order.length; i++)
+            order[i] = i;
+        build(order, 0, order.length);
+        refit();
+    }
+
+    /** Adds the node of parts [from, to) of the order and returns it. */
+    private int build(final Integer[] order, final int from, final int to) {
+        int node = nodeCount++;
+        if (to - from == 1) {
+            leafPart[node] = order[from];
+            left[node] = -1;
+            right[node] = -1;
+            return node;
+        }
+        leafPart[node] = -1;
+        int spanX = 0;
+        int spanY = 0;
+        for (int i = from; i < to; i++) {
+            E part = parts.get(order[i]);
+            spanX = Math.max(spanX, Math.abs(centerX(part) - centerX(parts.get(order[from]))));
+            spanY = Math.max(spanY, Math.abs(centerY(part) - centerY(parts.get(order[from]))));
+        }
+        boolean alongX = spanX >= spanY;
+        Arrays.sort(order, from, to, (a, b) -> alongX
+                ? Integer.compare(centerX(parts.get(a)), centerX(parts.get(b)))
+                : Integer.compare(centerY(parts.get(a)), centerY(parts.get(b))));
+        int middle = (from + to) >>> 1;
+        left[node] = build(order, from, middle);
+        right[node] = build(order, middle, to);
+        return node;
+    }
+
+    private static int centerX(final Entity entity) {
+        return entity.getPositionX() + entity.getWidth() / 2;
+    }
+
+    private static int centerY(final Entity entity) {
+        return entity.getPositionY() + entity.getHeight() / 2;
+    }
+
+    /**
+     * Fits every box around the parts where they are now. Parts that are no
+     * longer solid get an empty box, which nothing overlaps.
+     */
+    public void refit() {
+        for (int node = nodeCount - 1; node >= 0; node--) {
+            int part = leafPart[node];
+            if (part >= 0) {
+                E entity = parts.get(part);
+                if (solid.test(entity)) {
+                    minX[node] = entity.getPositionX();
+                    minY[node] = entity.getPositionY();
+                    maxX[node] = entity.getPositionX() + entity.getWidth();
+                    maxY[node] = entity.getPositionY() + entity.getHeight();
+                } else {
+                    minX[node] = Integer.MAX_VALUE;
+                    minY[node] = Integer.MAX_VALUE;
+                    maxX[node] = Integer.MIN_VALUE;
+                    maxY[node] = Integer.MIN_VALUE;
+                }
+            } else {
+                minX[node] = Math.min(minX[left[node]], minX[right[node]]);
+                minY[node] = Math.min(minY[left[node]], minY[right[node]]);
+                maxX[node] = Math.max(maxX[left[node]], maxX[right[node]]);
+                maxY[node] = Math.max(maxY[left[node]], maxY[right[node]]);
+            }
+        }
+    }
+
+    /**
+     * Finds a solid part overlapping a box, as of the last refit.
+     *
+     * @param x
+     *            Position of the left side of the box.
+     * @param y
+     *            Position of the upper side of the box.
+     * @param width
+     *            Width of the box.
+     * @param height
+     *            Height of the box.
+     * @return The first part overlapping it, from left to right in the tree,
+     *         or null if there is none.
+     */
+    public E query(final int x, final int y, final int width, final int height) {
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            if (x >= maxX[node] || x + width <= minX[node] || y >= maxY[node] || y + height <= minY[node])
+                continue;
+            if (leafPart[node] >= 0)
+                return parts.get(leafPart[node]);
+            stack[top++] = right[node];
+            stack[top++] = left[node];
+        }
+        return null;
+    }
+
+    /**
+     * @return Parts of the hierarchy.
+     */
+    public List<E> getParts() {
+        return parts;
+    }
+}
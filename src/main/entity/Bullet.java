@@ -3,6 +3,7 @@ package main.entity;
 import java.awt.Color;
 
 import main.engine.DrawManager.SpriteType;
+import main.entity.Archetype.Component;
 
 /**
  * Implements a bullet that moves vertically up or down.
@@ -11,11 +12,6 @@ import main.engine.DrawManager.SpriteType;
  *
  */
 public class Bullet extends Entity {
-    /**
-     * Speed of the bullet, positive or negative depending on direction -
-     * positive is down.
-     */
-    private int speed;
 
     private int speedX = 0;
     private int speedY = 0;
@@ -33,67 +29,98 @@ public class Bullet extends Entity {
      */
     // change the constructor to receive width and height
     public Bullet(final int positionX, final int positionY, final int width, final int height, final int speed) {
-        super(positionX, positionY,0,0 , Color.WHITE);
-        this.speed = speed;
+        super(positionX, positionY,0,0 , Color.CYAN);
+        this.speedY = speed;
     }
 
     public Bullet(final int positionX, final int positionY,
                   final int width, final int height,
                   final int speedX, final int speedY) {
-        super(positionX, positionY, width, height, Color.WHITE);
+        super(positionX, positionY, width, height, Color.CYAN);
         this.speedX = speedX;
         this.speedY = speedY;
     }
 
+    /**
+     * @return Empty archetype for bullets in play.
+     */
+    public static Archetype<Bullet> newArchetype() {
+        return new Archetype<Bullet>(Component.SPEED_X, Component.SPEED_Y);
+    }
+
     // reset the size when recycling bullets
     public final void setSize(final int width, final int height) {
-        this.width = width;
-        this.height = height;
+        resize(width, height);
     }
 
     /**
-     * Sets correct sprite for the bullet, based on speed.
+     * Sets correct sprite for the bullet, based on speed and team. Enemy
+     * bullets look the same whichever way they fly.
      */
 
     public final void setSprite() {
-        if (this.speedY < 0) {
-            this.spriteType = SpriteType.Bullet; // player bullet fired, team remains NEUTRAL
+        if (getSpeedY() < 0 && getTeam() != Team.ENEMY) {
+            setSpriteType(SpriteType.Bullet); // player bullet fired, team remains NEUTRAL
         } else {
-            this.spriteType = SpriteType.EnemyBullet; // enemy fired bullet
+            setSpriteType(SpriteType.EnemyBullet); // enemy fired bullet
         }
     }
 
     /**
-     * Updates the bullet's position.
+     * Updates the bullet's position. Bullets in play move all at once with
+     * {@link EntitySystems#move}.
      */
     public final void update() {
-        this.positionY += this.speed;
-        this.positionX += this.speedX;
-        this.positionY += this.speedY;
+        setPositionX(getPositionX() + getSpeedX());
+        setPositionY(getPositionY() + getSpeedY());
     }
 
     /**
-     * Setter of the speed of the bullet.
+     * Setter of the vertical speed of the bullet.
      *
      * @param speed
      *              New speed of the bullet.
      */
     public final void setSpeed(final int speed) {
-        this.speed = speed;
+        setSpeedY(speed);
     }
 
     /**
-     * Getter for the speed of the bullet.
+     * Getter for the vertical speed of the bullet.
      *
      * @return Speed of the bullet.
      */
     public final int getSpeed() {
-        return this.speed;
+        return getSpeedY();
     }
 
-    public void setSpeedX(int sx) { this.speedX = sx; }
-    public void setSpeedY(int sy) { this.speedY = sy; }
+    public void setSpeedX(int sx) {
+        if (archetype == null)
+            speedX = sx;
+        else
+            archetype.column(Component.SPEED_X)[row] = sx;
+    }
+    public void setSpeedY(int sy) {
+        if (archetype == null)
+            speedY = sy;
+        else
+            archetype.column(Component.SPEED_Y)[row] = sy;
+    }
+
+    public int getSpeedX() { return archetype == null ? speedX : archetype.column(Component.SPEED_X)[row]; }
+    public int getSpeedY() { return archetype == null ? speedY : archetype.column(Component.SPEED_Y)[row]; }
 
-    public int getSpeedX() { return speedX; }
-    public int getSpeedY() { return speedY; }
-}
\ No newline at end of file
+    @Override
+    void store(final Archetype<?> to, final int newRow) {
+        super.store(to, newRow);
+        to.column(Component.SPEED_X)[newRow] = speedX;
+        to.column(Component.SPEED_Y)[newRow] = speedY;
+    }
+
+    @Override
+    void load(final Archetype<?> from, final int oldRow) {
+        super.load(from, oldRow);
+        speedX = from.column(Component.SPEED_X)[oldRow];
+        speedY = from.column(Component.SPEED_Y)[oldRow];
+    }
+}
@@ -0,0 +1,235 @@
+package main.entity;
+
+import java.util.Set;
+
+import main.engine.GameClock;
+import main.engine.StateFrame;
+import main.entity.Entity.Team;
+
+/**
+ * Runs a {@link BulletPattern} from one point of the screen, such as the
+ * cannon of the boss. Every update resumes the pattern where it waited last
+ * and runs it until it waits again, keeping its state in fields so nothing
+ * is allocated per tick.
+ */
+public final class BulletEmitter {
+
+    /** Cosine and sine of every whole degree, the same on every machine. */
+    private static final float[] COS = new float[360];
+    private static final float[] SIN = new float[360];
+
+    static {
+        for (int angle = 0; angle < 360; angle++) {
+            COS[angle] = (float) StrictMath.cos(StrictMath.toRadians(angle));
+            SIN[angle] = (float) StrictMath.sin(StrictMath.toRadians(angle));
+        }
+    }
+
+    /** Size of bullets before a pattern sets it. */
+    private static final int DEFAULT_WIDTH = 4;
+    private static final int DEFAULT_HEIGHT = 8;
+    /** Heading before a pattern sets it, straight down. */
+    private static final int DEFAULT_HEADING = 90;
+
+    /** Pattern being run. */
+    private BulletPattern pattern;
+    /** Index of the next instruction. */
+    private int pc;
+    /** Counters of the repeat blocks being run, innermost last. */
+    private final int[] counters = new int[BulletPattern.MAX_DEPTH];
+    private int depth;
+    /** Heading in degrees, 0 to the right and 90 down. */
+    private int heading;
+    /** Size of the next bullets. */
+    private int width;
+    private int height;
+    /** Spawn offset of the next bullets. */
+    private int offsetX;
+    private int offsetY;
+    /** If the pattern waits, since when and for how long. */
+    private boolean waiting;
+    private long waitStart;
+    private int waitDuration;
+
+    /**
+     * Constructor.
+     *
+     * @param pattern
+     *            Pattern to run.
+     */
+    public BulletEmitter(final BulletPattern pattern) {
+        setPattern(pattern);
+    }
+
+    /**
+     * Runs another pattern from its first line. A wait already begun still
+     * has to pass, so switching patterns does not fire early.
+     *
+     * @param pattern
+     *            Pattern to run.
+     */
+    public void setPattern(final BulletPattern pattern) {
+        if (pattern == this.pattern)
+            return;
+        this.pattern = pattern;
+        this.pc = 0;
+        this.depth = 0;
+        this.heading = DEFAULT_HEADING;
+        this.width = DEFAULT_WIDTH;
+        this.height = DEFAULT_HEIGHT;
+        this.offsetX = 0;
+        this.offsetY = 0;
+    }
+
+    /**
+     * @return Pattern being run.
+     */
+    public BulletPattern getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Writes where the pattern is to a rewind frame. The pattern itself is
+     * left to the owner, which knows the ones it runs.
+     *
+     * @param frame
+     *            Frame of the tick.
+     */
+    public void save(final StateFrame frame) {
+        frame.putInt(pc);
+        frame.putInt(depth);
+        for (int i = 0; i < depth; i++)
+            frame.putInt(counters[i]);
+        frame.putInt(heading);
+        frame.putInt(width);
+        frame.putInt(height);
+        frame.putInt(offsetX);
+        frame.putInt(offsetY);
+        frame.putBoolean(waiting);
+        frame.putLong(waitStart);
+        frame.putInt(waitDuration);
+    }
+
+    /**
+     * Reads where the pattern is back from a rewind frame.
+     *
+     * @param frame
+     *            Frame written by {@link #save}.
+     * @param savedPattern
+     *            Pattern run when the frame was written.
+     */
+    public void restore(final StateFrame frame, final BulletPattern savedPattern) {
+        this.pattern = savedPattern;
+        pc = frame.getInt();
+        depth = frame.getInt();
+        for (int i = 0; i < depth; i++)
+            counters[i] = frame.getInt();
+        heading = frame.getInt();
+        width = frame.getInt();
+        height = frame.getInt();
+        offsetX = frame.getInt();
+        offsetY = frame.getInt();
+        waiting = frame.getBoolean();
+        waitStart = frame.getLong();
+        waitDuration = frame.getInt();
+    }
+
+    /**
+     * Runs the pattern until it waits or ends.
+     *
+     * @param x
+     *            Position the bullets spawn from in the X axis.
+     * @param y
+     *            Position the bullets spawn from in the Y axis.
+     * @param target
+     *            Entity aimed at, or null to keep the heading.
+     * @param bullets
+     *            Bullets in play, the new ones are added to.
+     */
+    public void update(final int x, final int y, final Entity target, final Set<Bullet> bullets) {
+        if (waiting) {
+            if (waitStart + waitDuration >= GameClock.now())
+                return;
+            waiting = false;
+        }
+        int[] code = pattern.code;
+        while (true) {
+            int opcode = code[pc];
+            switch (opcode) {
+                case BulletPattern.HALT:
+                    return;
+                case BulletPattern.SIZE:
+                    width = code[pc + 1];
+                    height = code[pc + 2];
+                    break;
+                case BulletPattern.AT:
+                    offsetX = code[pc + 1];
+                    offsetY = code[pc + 2];
+                    break;
+                case BulletPattern.STEP:
+                    offsetX += code[pc + 1];
+                    offsetY += code[pc + 2];
+                    break;
+                case BulletPattern.SHOT:
+                    fire(x, y, code[pc + 1], code[pc + 2], bullets);
+                    break;
+                case BulletPattern.RING:
+                    for (int i = 0; i < code[pc + 1]; i++)
+                        fireAt(x, y, heading + 360 * i / code[pc + 1], code[pc + 2], bullets);
+                    break;
+                case BulletPattern.FAN:
+                    int count = code[pc + 1];
+                    int arc = code[pc + 3];
+                    for (int i = 0; i < count; i++)
+                        fireAt(x, y, count == 1 ? heading : heading - arc / 2 + arc * i / (count - 1),
+                                code[pc + 2], bullets);
+                    break;
+                case BulletPattern.FACE:
+                    heading = Math.floorMod(code[pc + 1], 360);
+                    break;
+                case BulletPattern.TURN:
+                    heading = Math.floorMod(heading + code[pc + 1], 360);
+                    break;
+                case BulletPattern.AIM:
+                    if (target != null)
+                        heading = Math.floorMod((int) Math.round(Math.toDegrees(StrictMath.atan2(
+                                target.getPositionY() + target.getHeight() / 2 - (y + offsetY),
+                                target.getPositionX() + target.getWidth() / 2 - (x + offsetX)))), 360);
+                    break;
+                case BulletPattern.WAIT:
+                    waiting = true;
+                    waitStart = GameClock.now();
+                    waitDuration = code[pc + 1];
+                    pc += 2;
+                    return;
+                case BulletPattern.REPEAT:
+                    counters[depth++] = code[pc + 1];
+                    break;
+                case BulletPattern.NEXT:
+                    if (--counters[depth - 1] > 0) {
+                        pc = code[pc + 1];
+                        continue;
+                    }
+                    depth--;
+                    break;
+                case BulletPattern.JUMP:
+                    pc = code[pc + 1];
+                    continue;
+                default:
+                    throw new IllegalStateException("Unknown opcode " + opcode);
+            }
+            pc += 1 + BulletPattern.operands(opcode);
+        }
+    }
+
+    /** Fires a bullet along an angle. */
+    private void fireAt(final int x, final int y, final int angle, final int speed, final Set<Bullet> bullets) {
+        int degrees = Math.floorMod(angle, 360);
+        fire(x, y, Math.round(speed * COS[degrees]), Math.round(speed * SIN[degrees]), bullets);
+    }
+
+    /** Fires a bullet with a speed. */
+    private void fire(final int x, final int y, final int speedX, final int speedY, final Set<Bullet> bullets) {
+        bullets.add(BulletPool.getBullet(x + offsetX, y + offsetY, speedX, speedY, width, height, Team.ENEMY));
+    }
+}
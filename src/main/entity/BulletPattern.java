@@ -0,0 +1,262 @@
+package main.entity;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bullet pattern written in the pattern language of bullet_patterns.txt,
+ * compiled once into a flat array of instructions that a
+ * {@link BulletEmitter} runs without allocating.
+ *
+ * A file holds blocks from "pattern name" to "end", one instruction per
+ * line; lines starting with // are comments. Angles are in degrees, 0 to
+ * the right and 90 straight down, and speeds in pixels per tick.
+ * <ul>
+ * <li>size width height: size of the next bullets.</li>
+ * <li>at x y: spawn offset of the next bullets from the emitter.</li>
+ * <li>step x y: moves the spawn offset.</li>
+ * <li>shot speedX speedY: one bullet.</li>
+ * <li>ring count speed: bullets all around, the first along the heading.</li>
+ * <li>fan count speed arc: bullets over an arc centered on the heading.</li>
+ * <li>face angle: sets the heading.</li>
+ * <li>turn angle: turns the heading, a spiral when repeated.</li>
+ * <li>aim: turns the heading towards the target.</li>
+ * <li>wait milliseconds: pauses the emitter.</li>
+ * <li>repeat count ... end: runs the lines in between count times.</li>
+ * <li>loop ... end: runs the lines in between forever; they must wait.</li>
+ * </ul>
+ */
+public final class BulletPattern {
+
+    /** Opcodes, each followed by its operands in the instruction array. */
+    static final int HALT = 0;
+    static final int SIZE = 1;
+    static final int AT = 2;
+    static final int STEP = 3;
+    static final int SHOT = 4;
+    static final int RING = 5;
+    static final int FAN = 6;
+    static final int FACE = 7;
+    static final int TURN = 8;
+    static final int AIM = 9;
+    static final int WAIT = 10;
+    /** Pushes a counter: count. */
+    static final int REPEAT = 11;
+    /** Jumps back while the counter on top lasts, then pops it: target. */
+    static final int NEXT = 12;
+    /** Jumps unconditionally: target. */
+    static final int JUMP = 13;
+
+    /** Names of the opcodes that take operands, by opcode. */
+    private static final String[] NAMES = { null, "size", "at", "step", "shot", "ring", "fan", "face", "turn",
+            "aim", "wait" };
+    /** Operands of every opcode. */
+    private static final int[] OPERANDS = { 0, 2, 2, 2, 2, 2, 3, 1, 1, 0, 1, 1, 1, 1 };
+    /** Deepest nesting of blocks. */
+    static final int MAX_DEPTH = 8;
+
+    /** Pattern that fires nothing. */
+    public static final BulletPattern NONE = new BulletPattern("none", new int[] { HALT });
+
+    /** Name of the pattern. */
+    private final String name;
+    /** Instructions and their operands, ending with HALT. */
+    final int[] code;
+
+    /**
+     * Constructor.
+     *
+     * @param name
+     *            Name of the pattern.
+     * @param code
+     *            Compiled instructions.
+     */
+    private BulletPattern(final String name, final int[] code) {
+        this.name = name;
+        this.code = code;
+    }
+
+    /**
+     * @return Name of the pattern.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Number of ints the compiled pattern takes.
+     */
+    public int getCodeLength() {
+        return code.length;
+    }
+
+    /**
+     * @param opcode
+     *            Opcode of an instruction.
+     * @return Number of operands following it.
+     */
+    static int operands(final int opcode) {
+        return OPERANDS[opcode];
+    }
+
+    /**
+     * Compiles every pattern of a file.
+     *
+     * @param source
+     *            Text of the file.
+     * @return Patterns by name, in the order of the file.
+     * @throws IllegalArgumentException
+     *             If the file is not valid, naming the line.
+     */
+    public static Map<String, BulletPattern> parse(final String source) {
+        Map<String, BulletPattern> patterns = new LinkedHashMap<>();
+        String[] lines = source.split("\r?\n");
+        Compiler compiler = null;
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (line.isEmpty() || line.startsWith("//"))
+                continue;
+            String[] words = line.split("\\s+");
+            try {
+                if (compiler == null) {
+                    if (!words[0].equals("pattern") || words.length != 2)
+                        throw new IllegalArgumentException("expected \"pattern name\"");
+                    if (patterns.containsKey(words[1]))
+                        throw new IllegalArgumentException("pattern " + words[1] + " is defined twice");
+                    compiler = new Compiler(words[1]);
+                } else if (compiler.add(words)) {
+                    patterns.put(compiler.name, compiler.finish());
+                    compiler = null;
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("line " + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+        if (compiler != null)
+            throw new IllegalArgumentException("pattern " + compiler.name + " has no end");
+        return patterns;
+    }
+
+    /** Compiles the lines of one pattern. */
+    private static final class Compiler {
+
+        private final String name;
+        private int[] code = new int[32];
+        private int length;
+        /** Open blocks: the start of their body, negative for loops. */
+        private final Deque<Integer> blocks = new ArrayDeque<>();
+        /** Open blocks that wait somewhere in their body, by depth. */
+        private final boolean[] waits = new boolean[MAX_DEPTH + 1];
+
+        Compiler(final String name) {
+            this.name = name;
+        }
+
+        /**
+         * Compiles a line.
+         *
+         * @return If the line ends the pattern.
+         */
+        boolean add(final String[] words) {
+            switch (words[0]) {
+                case "repeat":
+                    int count = operand(words, 0, 1);
+                    if (count <= 0)
+                        throw new IllegalArgumentException("count must be positive");
+                    emit(REPEAT, count);
+                    open(length);
+                    return false;
+                case "loop":
+                    operand(words, 0, 0);
+                    open(-length - 1);
+                    return false;
+                case "end":
+                    operand(words, 0, 0);
+                    if (blocks.isEmpty()) {
+                        emit(HALT);
+                        return true;
+                    }
+                    close();
+                    return false;
+                default:
+                    int opcode = Arrays.asList(NAMES).indexOf(words[0]);
+                    if (opcode < 0)
+                        throw new IllegalArgumentException("unknown instruction " + words[0]);
+                    int[] operands = new int[OPERANDS[opcode]];
+                    for (int i = 0; i < operands.length; i++)
+                        operands[i] = operand(words, i, operands.length);
+                    check(opcode, operands);
+                    emit(opcode);
+                    emit(operands);
+                    if (opcode == WAIT)
+                        Arrays.fill(waits, 0, blocks.size() + 1, true);
+                    return false;
+            }
+        }
+
+        private void open(final int body) {
+            if (blocks.size() == MAX_DEPTH)
+                throw new IllegalArgumentException("blocks nested deeper than " + MAX_DEPTH);
+            blocks.push(body);
+            waits[blocks.size()] = false;
+        }
+
+        private void close() {
+            boolean waited = waits[blocks.size()];
+            int body = blocks.pop();
+            if (body < 0) {
+                if (!waited)
+                    throw new IllegalArgumentException("loop never waits");
+                emit(JUMP, -body - 1);
+            } else {
+                emit(NEXT, body);
+            }
+        }
+
+        BulletPattern finish() {
+            return new BulletPattern(name, Arrays.copyOf(code, length));
+        }
+
+        private static void check(final int opcode, final int[] operands) {
+            switch (opcode) {
+                case SIZE:
+                    if (operands[0] <= 0 || operands[1] <= 0)
+                        throw new IllegalArgumentException("size must be positive");
+                    break;
+                case RING:
+                case FAN:
+                    if (operands[0] <= 0)
+                        throw new IllegalArgumentException("count must be positive");
+                    break;
+                case WAIT:
+                    if (operands[0] < 0)
+                        throw new IllegalArgumentException("wait must not be negative");
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private static int operand(final String[] words, final int index, final int count) {
+            if (words.length != count + 1)
+                throw new IllegalArgumentException(words[0] + " takes " + count + " numbers");
+            if (count == 0)
+                return 0;
+            try {
+                return Integer.parseInt(words[index + 1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("not a number: " + words[index + 1]);
+            }
+        }
+
+        private void emit(final int... ints) {
+            if (length + ints.length > code.length)
+                code = Arrays.copyOf(code, Math.max(code.length * 2, length + ints.length));
+            System.arraycopy(ints, 0, code, length, ints.length);
+            length += ints.length;
+        }
+    }
+}
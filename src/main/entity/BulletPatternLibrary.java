@@ -0,0 +1,83 @@
+package main.entity;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Map;
+import java.util.logging.Logger;
+
+import main.engine.Core;
+
+/**
+ * Bullet patterns of bullet_patterns.txt, compiled once when first needed,
+ * so designers can change how enemies fire without touching the code.
+ */
+public final class BulletPatternLibrary {
+
+    /** Default pattern file. */
+    private static final Path PATTERN_FILE = Paths.get("res", "bullet_patterns.txt");
+
+    /** Singleton instance of the class. */
+    private static BulletPatternLibrary instance;
+
+    /** Application logger. */
+    private final Logger logger;
+    /** Compiled patterns by name. */
+    private final Map<String, BulletPattern> patterns;
+
+    /**
+     * Constructor, compiles the given pattern file.
+     *
+     * @param path
+     *            Pattern file to read.
+     */
+    public BulletPatternLibrary(final Path path) {
+        this.logger = Core.getLogger();
+        Map<String, BulletPattern> compiled = Collections.emptyMap();
+        try {
+            compiled = BulletPattern.parse(Files.readString(path, StandardCharsets.UTF_8));
+            logger.info("Compiled " + compiled.size() + " bullet patterns from " + path + ".");
+        } catch (IOException e) {
+            logger.severe("Failed reading " + path + ": " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            logger.severe("Bullet patterns in " + path + " are invalid: " + e.getMessage());
+        }
+        this.patterns = Collections.unmodifiableMap(compiled);
+    }
+
+    /**
+     * Returns shared instance of BulletPatternLibrary.
+     *
+     * @return Shared instance of BulletPatternLibrary.
+     */
+    public static synchronized BulletPatternLibrary getInstance() {
+        if (instance == null)
+            instance = new BulletPatternLibrary(PATTERN_FILE);
+        return instance;
+    }
+
+    /**
+     * Returns a pattern by name.
+     *
+     * @param name
+     *            Name of the pattern.
+     * @return The pattern, or one firing nothing if it is missing.
+     */
+    public BulletPattern get(final String name) {
+        BulletPattern pattern = patterns.get(name);
+        if (pattern != null)
+            return pattern;
+        logger.warning("Bullet pattern " + name + " is missing.");
+        return BulletPattern.NONE;
+    }
+
+    /**
+     * @return Compiled patterns by name.
+     */
+    public Map<String, BulletPattern> getPatterns() {
+        return patterns;
+    }
+}
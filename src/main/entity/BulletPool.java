@@ -3,8 +3,11 @@ package main.entity;
 import java.util.HashSet;
 import java.util.Set;
 import main.entity.Entity.Team;
+import main.engine.GameSession;
+import main.engine.StateFrame;
+import main.engine.metrics.GameMetrics;
 /**
- * Implements a pool of recyclable bullets.
+ * Implements a pool of recyclable bullets, one per game session.
  *
  * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
  *
@@ -12,12 +15,21 @@ import main.entity.Entity.Team;
 public final class BulletPool {
 
     /** Set of already created bullets. */
-    private static final Set<Bullet> pool = new HashSet<Bullet>();
+    private final Set<Bullet> pool = new HashSet<Bullet>();
+    /** Number of bullets created so far. */
+    private int created;
 
     private BulletPool() {
 
     }
 
+    /**
+     * @return Pool of the current session.
+     */
+    private static BulletPool current() {
+        return GameSession.current().component(BulletPool.class, BulletPool::new);
+    }
+
     /**
      * Returns a bullet from the pool if one is available, a new one if there
      * isn't.
@@ -43,6 +55,8 @@ public final class BulletPool {
                                    final int width, final int height,
                                    final Team team) {
 
+        BulletPool bullets = current();
+        Set<Bullet> pool = bullets.pool;
         Bullet bullet;
 
         if (!pool.isEmpty()) {
@@ -56,12 +70,14 @@ public final class BulletPool {
 
         } else {
             bullet = new Bullet(positionX, positionY, width, height, speedX, speedY);
+            bullets.created++;
             bullet.setPositionX(positionX - width / 2);
         }
 
         bullet.setSize(width, height);
         bullet.setTeam(team);
         bullet.setSprite();
+        GameMetrics.BULLETS_SPAWNED.increment();
         return bullet;
     }
 
@@ -72,6 +88,64 @@ public final class BulletPool {
      *            Bullets to recycle.
      */
     public static void recycle(final Set<Bullet> bullet) {
-        pool.addAll(bullet);
+        current().pool.addAll(bullet);
+    }
+
+    /**
+     * Writes the bullets in play to a rewind frame.
+     *
+     * @param bullets
+     *            Bullets in play.
+     * @param frame
+     *            Frame of the tick.
+     */
+    public static void save(final Archetype<Bullet> bullets, final StateFrame frame) {
+        frame.putInt(bullets.size());
+        bullets.save(frame);
+    }
+
+    /**
+     * Puts the bullets in play back as they were in a rewind frame, taking
+     * bullets from the pool or handing them back to it.
+     *
+     * @param bullets
+     *            Bullets in play.
+     * @param frame
+     *            Frame written by {@link #save}.
+     */
+    public static void restore(final Archetype<Bullet> bullets, final StateFrame frame) {
+        BulletPool pool = current();
+        int count = frame.getInt();
+        while (bullets.size() > count) {
+            Bullet last = bullets.get(bullets.size() - 1);
+            bullets.remove(last);
+            pool.pool.add(last);
+        }
+        while (bullets.size() < count) {
+            Bullet bullet;
+            if (pool.pool.isEmpty()) {
+                bullet = new Bullet(0, 0, 0, 0, 0, 0);
+                pool.created++;
+            } else {
+                bullet = pool.pool.iterator().next();
+                pool.pool.remove(bullet);
+            }
+            bullets.add(bullet);
+        }
+        bullets.restore(frame);
+    }
+
+    /**
+     * @return Number of bullets created by the pool so far.
+     */
+    public static int getCreated() {
+        return current().created;
+    }
+
+    /**
+     * @return Number of bullets waiting in the pool.
+     */
+    public static int getAvailable() {
+        return current().pool.size();
     }
-}
\ No newline at end of file
+}
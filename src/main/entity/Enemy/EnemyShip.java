@@ -5,6 +5,7 @@ import main.engine.Cooldown;
 import main.engine.Core;
 import main.engine.DrawManager.SpriteType;
 import main.engine.GameSettings;
+import main.engine.StateFrame;
 import main.entity.Entity;
 
 
@@ -164,4 +165,27 @@ public class EnemyShip extends Entity {
     }
 
     public EnemyShipStats getStats() { return stats; }
+
+    /**
+     * Writes the ship, its health and animation to a rewind frame.
+     */
+    @Override
+    public void save(final StateFrame frame) {
+        super.save(frame);
+        frame.putBoolean(this.isDestroyed);
+        frame.putFloat(stats.getHp());
+        frame.putFloat(stats.getTotalDamage());
+        if (this.animationCooldown != null)
+            this.animationCooldown.save(frame);
+    }
+
+    @Override
+    public void restore(final StateFrame frame) {
+        super.restore(frame);
+        this.isDestroyed = frame.getBoolean();
+        stats.setHp(frame.getFloat());
+        stats.setTotalDamage(frame.getFloat());
+        if (this.animationCooldown != null)
+            this.animationCooldown.restore(frame);
+    }
 }
\ No newline at end of file
@@ -9,6 +9,7 @@ import main.entity.BulletPool;
 import main.entity.Entity;
 import main.screen.Screen;
 import main.engine.DrawManager.SpriteType;
+import main.engine.jfr.PatternSwitchEvent;
 
 /**
  * Groups enemy ships into a formation that moves together.
@@ -58,6 +59,8 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
 
     /** List of enemy ships forming the formation. */
     private final List<List<EnemyShip>> enemyShips;
+    /** Every ship the formation started with, column by column, also once removed. */
+    private final List<EnemyShip> allShips;
     /** Minimum time between shots. */
     private Cooldown shootingCooldown;
     /** Number of ships in the formation - horizontally. */
@@ -137,6 +140,7 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
         this.drawManager = Core.getDrawManager();
         this.logger = Core.getLogger();
         this.enemyShips = new ArrayList<>();
+        this.allShips = new ArrayList<>();
         this.currentDirection = Direction.RIGHT;
         this.movementInterval = 0;
         this.nShipsWide = gameSettings.getFormationWidth();
@@ -170,6 +174,7 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
                         (SEPARATION_DISTANCE * this.enemyShips.indexOf(column)) + positionX,
                         (SEPARATION_DISTANCE * i) + positionY,
                         spriteType));
+                this.allShips.add(column.getLast());
                 this.shipCount++;
             }
         }
@@ -208,7 +213,15 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
             column.removeAll(destroyed);
         }
 
-        this.patternStartTime = System.currentTimeMillis();
+        this.patternStartTime = GameClock.now();
+    }
+
+    /**
+     * Restarts the timer that switches shooting patterns, for formations
+     * built ahead of the level they are used in.
+     */
+    public final void restartPatternClock() {
+        this.patternStartTime = GameClock.now();
     }
 
     /**
@@ -322,10 +335,10 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
                 column.removeAll(destroyed);
             }
 
-            long now = System.currentTimeMillis();
+            long now = GameClock.now();
             if (currentPattern == PatternType.NONE &&
                     now - patternStartTime >= PATTERN_DELAY_MS) {
-                currentPattern = selectPatternByLevel(level);
+                switchPattern(selectPatternByLevel(level));
                 initPatternState(currentPattern);
             }
         }
@@ -425,7 +438,7 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
     }
 
     private void fireNormalRandom(Set<Bullet> bullets) {
-        int index = (int) (Math.random() * this.shooters.size());
+        int index = RandomService.gameplay().nextInt(this.shooters.size());
         EnemyShip shooter = this.shooters.get(index);
         spawnBulletFromShooter(shooter, bullets);
     }
@@ -434,13 +447,13 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
         if (this.shooters.isEmpty()) return;
 
         if (waveIndex >= this.shooters.size()) {
-            currentPattern = PatternType.NONE;
+            switchPattern(PatternType.NONE);
             waveIndex = 0;
             waveFrameCounter = 0;
             if (this.shootingCooldown != null) {
                 this.shootingCooldown.reset();
             }
-            patternStartTime = System.currentTimeMillis();
+            patternStartTime = GameClock.now();
             return;
         }
         EnemyShip shooter = this.shooters.get(waveIndex);
@@ -452,11 +465,11 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
         int n = shooters.size();
 
         if (sideWavePairIndex >= (n + 1) / 2) {
-            currentPattern = PatternType.NONE;
+            switchPattern(PatternType.NONE);
             sideWavePairIndex = 0;
             waveFrameCounter = 0;
             shootingCooldown.reset();
-            patternStartTime = System.currentTimeMillis();
+            patternStartTime = GameClock.now();
             return;
         }
 
@@ -473,7 +486,7 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
     }
 
     private void fireFocusPattern(Set<Bullet> bullets) {
-        long now = System.currentTimeMillis();
+        long now = GameClock.now();
 
         if (focusGroupUsed >= FOCUS_MAX) {
             resetFocusPattern();
@@ -496,7 +509,7 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
                 return;
             }
 
-            int randomIndex = (int) (Math.random() * availableGroups.size());
+            int randomIndex = RandomService.gameplay().nextInt(availableGroups.size());
             focusGroupIndex = availableGroups.get(randomIndex);
             focusStepInGroup = 0;
             focusFrameCounter = 0;
@@ -522,7 +535,7 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
     }
 
     private void resetFocusPattern() {
-        currentPattern = PatternType.NONE;
+        switchPattern(PatternType.NONE);
         focusGroupIndex = -1;
         focusStepInGroup = 0;
         focusFrameCounter = 0;
@@ -531,7 +544,7 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
         if (shootingCooldown != null) {
             shootingCooldown.reset();
         }
-        patternStartTime = System.currentTimeMillis();
+        patternStartTime = GameClock.now();
     }
 
     private void endFocusGroup(long now) {
@@ -605,12 +618,12 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
     }
 
     private void endRandomBurst() {
-        currentPattern = PatternType.NONE;
+        switchPattern(PatternType.NONE);
         randomBurstPhase = 0;
         randomBurstCycle = 0;
         randomBurstWait = 0;
         if (shootingCooldown != null) shootingCooldown.reset();
-        patternStartTime = System.currentTimeMillis();
+        patternStartTime = GameClock.now();
     }
 
     private void fireColumns(List<EnemyShip> list, Set<Bullet> bullets) {
@@ -700,6 +713,25 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
         bullets.add(b2);
     }
 
+    /**
+     * Changes the shooting pattern, reporting the change to flight
+     * recordings.
+     *
+     * @param pattern
+     *            New pattern.
+     */
+    private void switchPattern(final PatternType pattern) {
+        if (pattern == currentPattern)
+            return;
+        PatternSwitchEvent event = new PatternSwitchEvent();
+        if (event.shouldCommit()) {
+            event.level = level;
+            event.pattern = pattern.name();
+            event.commit();
+        }
+        currentPattern = pattern;
+    }
+
     private PatternType selectPatternByLevel(int level) {
         return switch (level) {
             case 1 -> PatternType.WAVE;
@@ -806,7 +838,7 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
      */
     @Override
     public final Iterator<EnemyShip> iterator() {
-        Set<EnemyShip> enemyShipsList = new HashSet<>();
+        Set<EnemyShip> enemyShipsList = new LinkedHashSet<>();
 
         for (List<EnemyShip> column : this.enemyShips)
             enemyShipsList.addAll(column);
@@ -829,6 +861,125 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
     public int getShipCount() {
         return this.shipCount;
     }
+
+    public int getPositionX() {
+        return this.positionX;
+    }
+
+    public int getPositionY() {
+        return this.positionY;
+    }
+
+    /**
+     * Writes the formation to a rewind frame: which ships are left in which
+     * column and which of them shoot, by their index among the ships the
+     * formation started with, then every ship and the pattern being fired.
+     *
+     * @param frame
+     *            Frame of the tick.
+     */
+    public final void save(final StateFrame frame) {
+        frame.putInt(this.enemyShips.size());
+        // Columns keep the order of the ships, so one pass finds them all.
+        int index = 0;
+        for (List<EnemyShip> column : this.enemyShips) {
+            frame.putInt(column.size());
+            for (EnemyShip ship : column) {
+                while (this.allShips.get(index) != ship)
+                    index++;
+                frame.putInt(index);
+            }
+        }
+        frame.putInt(this.shooters.size());
+        for (EnemyShip shooter : this.shooters)
+            frame.putInt(this.allShips.indexOf(shooter));
+        for (EnemyShip ship : this.allShips)
+            ship.save(frame);
+
+        frame.putBoolean(this.shootingCooldown != null);
+        if (this.shootingCooldown != null)
+            this.shootingCooldown.save(frame);
+        frame.putInt(this.movementSpeed);
+        frame.putInt(this.currentDirection == null ? -1 : this.currentDirection.ordinal());
+        frame.putInt(this.previousDirection == null ? -1 : this.previousDirection.ordinal());
+        frame.putInt(this.movementInterval);
+        frame.putInt(this.width);
+        frame.putInt(this.height);
+        frame.putInt(this.positionX);
+        frame.putInt(this.positionY);
+        frame.putInt(this.shipCount);
+        frame.putLong(this.patternStartTime);
+        frame.putInt(this.currentPattern.ordinal());
+        frame.putInt(this.waveIndex);
+        frame.putInt(this.waveFrameCounter);
+        frame.putInt(this.sideWavePairIndex);
+        frame.putInt(this.focusFrameCounter);
+        frame.putInt(this.focusGroupIndex);
+        frame.putInt(this.focusStepInGroup);
+        frame.putInt(this.focusGroupUsed);
+        frame.putLong(this.focusDelayUntil);
+        frame.putInt(this.randomBurstPhase);
+        frame.putInt(this.randomBurstCycle);
+        frame.putInt(this.randomBurstWait);
+    }
+
+    /**
+     * Reads the formation back from a rewind frame.
+     *
+     * @param frame
+     *            Frame written by {@link #save}.
+     */
+    public final void restore(final StateFrame frame) {
+        int columns = frame.getInt();
+        for (int c = 0; c < columns; c++) {
+            if (c == this.enemyShips.size())
+                this.enemyShips.add(new ArrayList<>());
+            List<EnemyShip> column = this.enemyShips.get(c);
+            column.clear();
+            int size = frame.getInt();
+            for (int i = 0; i < size; i++)
+                column.add(this.allShips.get(frame.getInt()));
+        }
+        this.enemyShips.subList(columns, this.enemyShips.size()).clear();
+        this.shooters.clear();
+        int shooterCount = frame.getInt();
+        for (int i = 0; i < shooterCount; i++)
+            this.shooters.add(this.allShips.get(frame.getInt()));
+        for (EnemyShip ship : this.allShips)
+            ship.restore(frame);
+
+        if (frame.getBoolean()) {
+            if (this.shootingCooldown == null)
+                this.shootingCooldown = Core.getVariableCooldown(shootingInterval, shootingVariance);
+            this.shootingCooldown.restore(frame);
+        } else {
+            this.shootingCooldown = null;
+        }
+        this.movementSpeed = frame.getInt();
+        int direction = frame.getInt();
+        this.currentDirection = direction < 0 ? null : Direction.values()[direction];
+        direction = frame.getInt();
+        this.previousDirection = direction < 0 ? null : Direction.values()[direction];
+        this.movementInterval = frame.getInt();
+        this.width = frame.getInt();
+        this.height = frame.getInt();
+        this.positionX = frame.getInt();
+        this.positionY = frame.getInt();
+        this.shipCount = frame.getInt();
+        this.patternStartTime = frame.getLong();
+        this.currentPattern = PatternType.values()[frame.getInt()];
+        this.waveIndex = frame.getInt();
+        this.waveFrameCounter = frame.getInt();
+        this.sideWavePairIndex = frame.getInt();
+        this.focusFrameCounter = frame.getInt();
+        this.focusGroupIndex = frame.getInt();
+        this.focusStepInGroup = frame.getInt();
+        this.focusGroupUsed = frame.getInt();
+        this.focusDelayUntil = frame.getLong();
+        this.randomBurstPhase = frame.getInt();
+        this.randomBurstCycle = frame.getInt();
+        this.randomBurstWait = frame.getInt();
+    }
 }
 
 
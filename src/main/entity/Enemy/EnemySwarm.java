@@ -0,0 +1,529 @@
+package main.entity.Enemy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Predicate;
+import java.util.logging.Logger;
+
+import main.engine.Cooldown;
+import main.engine.Core;
+import main.engine.DrawManager;
+import main.engine.DrawManager.SpriteType;
+import main.engine.GameSettings;
+import main.engine.RandomService;
+import main.engine.StateFrame;
+import main.entity.Bullet;
+import main.entity.BulletPool;
+import main.entity.Entity;
+import main.screen.Screen;
+
+/**
+ * Enemies flying free instead of in a formation. Every ship steers like a
+ * boid: away from crowding neighbors, along with their heading, towards
+ * their center and after the player. Neighbors are found on a uniform grid
+ * rebuilt each tick, and large swarms steer in parallel on the fork/join
+ * pool.
+ * <p>
+ * Each step reads the positions and velocities of the last tick and writes
+ * new ones, so the result does not depend on how the ships are split
+ * between threads and games replay the same.
+ */
+public class EnemySwarm implements Iterable<EnemyShip> {
+
+    /** Side of a grid cell, also how far ships see their neighbors. */
+    private static final int NEIGHBOR_RADIUS = 32;
+    /** Distance ships keep from each other. */
+    private static final float SEPARATION_RADIUS = 22;
+    /** Neighbors a ship steers by, bounding the work in dense clumps. */
+    private static final int MAX_NEIGHBORS = 24;
+    private static final float SEPARATION_WEIGHT = 0.6f;
+    private static final float ALIGNMENT_WEIGHT = 0.05f;
+    private static final float COHESION_WEIGHT = 0.005f;
+    private static final float SEEK_WEIGHT = 0.002f;
+    /** Pull back from the edges of the area ships fly in. */
+    private static final float BOUNDS_WEIGHT = 0.1f;
+    /** Fastest speed of a ship, in pixels per tick, at the base speed of 100. */
+    private static final float MAX_SPEED = 2.5f;
+    /** Highest the swarm flies, below the HUD. */
+    private static final int TOP = 80;
+    /** Distance kept from the sides of the screen. */
+    private static final int SIDE_MARGIN = 20;
+    /** Lowest the swarm flies, as a share of the screen height. */
+    private static final float BOTTOM = 0.6f;
+    /** Height the swarm seeks above the player, as a share of the screen height. */
+    private static final float SEEK_HEIGHT = 0.35f;
+    /** Spacing of the ships when the swarm appears. */
+    private static final float SPAWN_SPACING = 9;
+    private static final int BULLET_SPEED = 4;
+    private static final double SHOOTING_VARIANCE = .2;
+    /** Ships steered in one task, and fewest ships worth splitting. */
+    private static final int SPLIT_SIZE = 512;
+
+    private final DrawManager drawManager;
+    private final Logger logger;
+    private Screen screen;
+
+    /** Ships alive or destroyed since the last update, by index. */
+    private final List<EnemyShip> ships;
+    /** Every ship the swarm started with, also once removed. */
+    private final List<EnemyShip> allShips;
+    /** Position and velocity of every ship, current and being computed. */
+    private float[] x;
+    private float[] y;
+    private float[] velocityX;
+    private float[] velocityY;
+    private float[] nextX;
+    private float[] nextY;
+    private float[] nextVelocityX;
+    private float[] nextVelocityY;
+    /** Ships by cell: the indices of cell c are cellShips[cellStart[c]..cellStart[c + 1]). */
+    private int[] cellStart;
+    private int[] cellShips;
+    private int columns;
+    private int rows;
+
+    private final int shootingInterval;
+    private final int shootingVariance;
+    private Cooldown shootingCooldown;
+    private final float maxSpeed;
+    private int shipCount;
+    /** Point the swarm steers after. */
+    private float seekX;
+    private float seekY;
+    /** Area ships fly in. */
+    private float minX;
+    private float maxX;
+    private float minY;
+    private float maxY;
+
+    /**
+     * Constructor, builds the ships of a swarm stage. They take their place
+     * once the swarm is attached to a screen.
+     *
+     * @param gameSettings
+     *            Settings of the stage, with a swarm size.
+     */
+    public EnemySwarm(final GameSettings gameSettings) {
+        this.drawManager = Core.getDrawManager();
+        this.logger = Core.getLogger();
+        int size = gameSettings.getSwarmSize();
+        this.ships = new ArrayList<EnemyShip>(size);
+        for (int i = 0; i < size; i++)
+            this.ships.add(new EnemyShip(0, 0, i % 7 == 0 ? SpriteType.EnemyShipB1 : SpriteType.EnemyShipA1));
+        this.allShips = List.copyOf(this.ships);
+        this.shipCount = size;
+        this.shootingInterval = gameSettings.getShootingFrequency();
+        this.shootingVariance = (int) (gameSettings.getShootingFrequency() * SHOOTING_VARIANCE);
+        this.maxSpeed = MAX_SPEED * 100 / Math.max(1, gameSettings.getBaseSpeed());
+        this.x = new float[size];
+        this.y = new float[size];
+        this.velocityX = new float[size];
+        this.velocityY = new float[size];
+        this.nextX = new float[size];
+        this.nextY = new float[size];
+        this.nextVelocityX = new float[size];
+        this.nextVelocityY = new float[size];
+        this.cellShips = new int[size];
+        this.logger.info("Initializing swarm of " + size + " ships.");
+    }
+
+    /**
+     * Associates the swarm to a screen and spreads its ships in a disc at the
+     * top of it, the first time.
+     *
+     * @param newScreen
+     *            Screen to attach.
+     */
+    public final void attach(final Screen newScreen) {
+        boolean placed = this.screen != null;
+        this.screen = newScreen;
+        int shipWidth = this.ships.isEmpty() ? 0 : this.ships.getFirst().getWidth();
+        int shipHeight = this.ships.isEmpty() ? 0 : this.ships.getFirst().getHeight();
+        this.minX = SIDE_MARGIN;
+        this.maxX = Math.max(this.minX, newScreen.getWidth() - SIDE_MARGIN - shipWidth);
+        this.minY = TOP;
+        this.maxY = Math.max(this.minY, newScreen.getHeight() * BOTTOM - shipHeight);
+        this.columns = newScreen.getWidth() / NEIGHBOR_RADIUS + 1;
+        this.rows = newScreen.getHeight() / NEIGHBOR_RADIUS + 1;
+        this.cellStart = new int[this.columns * this.rows + 1];
+        this.seekX = newScreen.getWidth() / 2f;
+        this.seekY = newScreen.getHeight() * SEEK_HEIGHT;
+        if (placed)
+            return;
+        // Sunflower spiral, evenly spread; StrictMath so every machine agrees.
+        float centerX = (this.minX + this.maxX) / 2;
+        float centerY = (this.minY + this.maxY) / 2;
+        double goldenAngle = Math.PI * (3 - Math.sqrt(5));
+        for (int i = 0; i < this.ships.size(); i++) {
+            double radius = SPAWN_SPACING * Math.sqrt(i);
+            double angle = i * goldenAngle;
+            this.x[i] = clamp((float) (centerX + radius * StrictMath.cos(angle)), this.minX, this.maxX);
+            this.y[i] = clamp((float) (centerY + radius * StrictMath.sin(angle) / 2), this.minY, this.maxY);
+            this.velocityX[i] = (float) -StrictMath.sin(angle);
+            this.velocityY[i] = 0;
+        }
+        place();
+    }
+
+    /**
+     * Draws every ship of the swarm, from images of their sprites.
+     */
+    public final void draw() {
+        drawManager.drawCrowd(this.ships);
+    }
+
+    /**
+     * Steers every ship one tick.
+     *
+     * @param target
+     *            Entity the swarm chases, usually the player, or null.
+     */
+    public final void update(final Entity target) {
+        if (this.shootingCooldown == null) {
+            this.shootingCooldown = Core.getVariableCooldown(shootingInterval, shootingVariance);
+            this.shootingCooldown.reset();
+        }
+        // Removing ships moves the rest to other indices, which the grid must follow.
+        if (cleanUp())
+            place();
+        if (target != null)
+            this.seekX = target.getPositionX() + target.getWidth() / 2f;
+
+        new Steer(0, this.ships.size()).invoke();
+        float[] swap = this.x;
+        this.x = this.nextX;
+        this.nextX = swap;
+        swap = this.y;
+        this.y = this.nextY;
+        this.nextY = swap;
+        swap = this.velocityX;
+        this.velocityX = this.nextVelocityX;
+        this.nextVelocityX = swap;
+        swap = this.velocityY;
+        this.velocityY = this.nextVelocityY;
+        this.nextVelocityY = swap;
+
+        place();
+        for (EnemyShip ship : this.ships)
+            ship.update();
+    }
+
+    /**
+     * Steers a range of ships, splitting it across the pool when large.
+     */
+    @SuppressWarnings("serial")
+    private final class Steer extends RecursiveAction {
+
+        private final int from;
+        private final int to;
+
+        Steer(final int from, final int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_SIZE) {
+                for (int i = from; i < to; i++)
+                    steer(i);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Steer(from, middle), new Steer(middle, to));
+        }
+    }
+
+    /**
+     * Computes the next position and velocity of a ship from the current
+     * ones of its neighbors.
+     */
+    private void steer(final int i) {
+        float px = x[i];
+        float py = y[i];
+        float separationX = 0;
+        float separationY = 0;
+        float sumVelocityX = 0;
+        float sumVelocityY = 0;
+        float sumX = 0;
+        float sumY = 0;
+        int neighbors = 0;
+
+        int column = cellColumn(px);
+        int row = cellRow(py);
+        search:
+        for (int r = Math.max(0, row - 1); r <= Math.min(rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, column - 1); c <= Math.min(columns - 1, column + 1); c++) {
+                int cell = r * columns + c;
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    int j = cellShips[k];
+                    if (j == i)
+                        continue;
+                    float dx = px - x[j];
+                    float dy = py - y[j];
+                    float distanceSquared = dx * dx + dy * dy;
+                    if (distanceSquared >= NEIGHBOR_RADIUS * NEIGHBOR_RADIUS)
+                        continue;
+                    if (distanceSquared < SEPARATION_RADIUS * SEPARATION_RADIUS) {
+                        // Push apart harder the closer they are.
+                        float push = 1f / Math.max(1f, distanceSquared);
+                        separationX += dx * push * SEPARATION_RADIUS;
+                        separationY += dy * push * SEPARATION_RADIUS;
+                    }
+                    sumVelocityX += velocityX[j];
+                    sumVelocityY += velocityY[j];
+                    sumX += x[j];
+                    sumY += y[j];
+                    if (++neighbors == MAX_NEIGHBORS)
+                        break search;
+                }
+            }
+        }
+
+        float vx = velocityX[i];
+        float vy = velocityY[i];
+        vx += separationX * SEPARATION_WEIGHT;
+        vy += separationY * SEPARATION_WEIGHT;
+        if (neighbors > 0) {
+            vx += (sumVelocityX / neighbors - vx) * ALIGNMENT_WEIGHT;
+            vy += (sumVelocityY / neighbors - vy) * ALIGNMENT_WEIGHT;
+            vx += (sumX / neighbors - px) * COHESION_WEIGHT;
+            vy += (sumY / neighbors - py) * COHESION_WEIGHT;
+        }
+        vx += (seekX - px) * SEEK_WEIGHT;
+        vy += (seekY - py) * SEEK_WEIGHT;
+        if (px < minX)
+            vx += (minX - px) * BOUNDS_WEIGHT;
+        else if (px > maxX)
+            vx -= (px - maxX) * BOUNDS_WEIGHT;
+        if (py < minY)
+            vy += (minY - py) * BOUNDS_WEIGHT;
+        else if (py > maxY)
+            vy -= (py - maxY) * BOUNDS_WEIGHT;
+
+        float speedSquared = vx * vx + vy * vy;
+        if (speedSquared > maxSpeed * maxSpeed) {
+            float scale = maxSpeed / (float) Math.sqrt(speedSquared);
+            vx *= scale;
+            vy *= scale;
+        }
+        nextVelocityX[i] = vx;
+        nextVelocityY[i] = vy;
+        // The margins are soft, the screen is not.
+        nextX[i] = clamp(px + vx, 0, maxX + SIDE_MARGIN);
+        nextY[i] = clamp(py + vy, minY / 2, maxY + SIDE_MARGIN);
+    }
+
+    private static float clamp(final float value, final float min, final float max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    private int cellColumn(final float positionX) {
+        return Math.max(0, Math.min(columns - 1, (int) positionX / NEIGHBOR_RADIUS));
+    }
+
+    private int cellRow(final float positionY) {
+        return Math.max(0, Math.min(rows - 1, (int) positionY / NEIGHBOR_RADIUS));
+    }
+
+    /**
+     * Moves the ships to their positions and sorts them into the grid.
+     */
+    private void place() {
+        int size = this.ships.size();
+        Arrays.fill(this.cellStart, 0);
+        for (int i = 0; i < size; i++) {
+            this.ships.get(i).setPositionX((int) this.x[i]);
+            this.ships.get(i).setPositionY((int) this.y[i]);
+            this.cellStart[cellRow(this.y[i]) * columns + cellColumn(this.x[i]) + 1]++;
+        }
+        for (int cell = 0; cell < this.columns * this.rows; cell++)
+            this.cellStart[cell + 1] += this.cellStart[cell];
+        // Fill from the back of every cell, so ships stay in index order.
+        int[] end = Arrays.copyOfRange(this.cellStart, 1, this.cellStart.length);
+        for (int i = size - 1; i >= 0; i--)
+            this.cellShips[--end[cellRow(this.y[i]) * columns + cellColumn(this.x[i])]] = i;
+    }
+
+    /**
+     * Removes the ships destroyed since the last update, keeping the order
+     * of the rest.
+     *
+     * @return If any ship was removed.
+     */
+    private boolean cleanUp() {
+        int kept = 0;
+        for (int i = 0; i < this.ships.size(); i++) {
+            if (this.ships.get(i).isDestroyed())
+                continue;
+            this.ships.set(kept, this.ships.get(i));
+            this.x[kept] = this.x[i];
+            this.y[kept] = this.y[i];
+            this.velocityX[kept] = this.velocityX[i];
+            this.velocityY[kept] = this.velocityY[i];
+            kept++;
+        }
+        if (kept == this.ships.size())
+            return false;
+        this.ships.subList(kept, this.ships.size()).clear();
+        return true;
+    }
+
+    /**
+     * Finds a ship near a box, as sorted into the grid at the last update.
+     * Candidates are the ships in the cells the box touches, and the ones to
+     * their upper left that may reach into it.
+     *
+     * @param positionX
+     *            Position of the left side of the box.
+     * @param positionY
+     *            Position of the upper side of the box.
+     * @param width
+     *            Width of the box.
+     * @param height
+     *            Height of the box.
+     * @param test
+     *            If a candidate counts as found, such as when it overlaps the box.
+     * @return The first ship alive passing the test, or null.
+     */
+    public final EnemyShip find(final int positionX, final int positionY, final int width, final int height,
+                                final Predicate<? super EnemyShip> test) {
+        if (this.cellStart == null || this.shipCount == 0)
+            return null;
+        int firstColumn = cellColumn(positionX - NEIGHBOR_RADIUS);
+        int lastColumn = cellColumn(positionX + width);
+        int firstRow = cellRow(positionY - NEIGHBOR_RADIUS);
+        int lastRow = cellRow(positionY + height);
+        for (int r = firstRow; r <= lastRow; r++) {
+            for (int c = firstColumn; c <= lastColumn; c++) {
+                int cell = r * columns + c;
+                for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                    EnemyShip ship = this.ships.get(cellShips[k]);
+                    if (!ship.isDestroyed() && test.test(ship))
+                        return ship;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Fires from a random ship of the swarm, when the shooting cooldown
+     * allows it.
+     *
+     * @param bullets
+     *            Bullets in play, the new one is added to them.
+     */
+    public final void shoot(final Set<Bullet> bullets) {
+        if (this.shipCount <= 0 || this.shootingCooldown == null || !this.shootingCooldown.checkFinished())
+            return;
+        this.shootingCooldown.reset();
+        EnemyShip shooter = this.ships.get(RandomService.gameplay().nextInt(this.ships.size()));
+        if (shooter.isDestroyed())
+            return;
+        bullets.add(BulletPool.getBullet(
+                shooter.getPositionX() + shooter.getWidth() / 2,
+                shooter.getPositionY() + shooter.getHeight(),
+                0,
+                BULLET_SPEED,
+                3 * 2,
+                5 * 2,
+                Entity.Team.ENEMY));
+    }
+
+    /**
+     * Destroys a ship, which leaves the swarm at the next update.
+     *
+     * @param destroyedShip
+     *            Ship to be destroyed.
+     */
+    public final void destroy(final EnemyShip destroyedShip) {
+        destroyedShip.destroy();
+        this.shipCount--;
+    }
+
+    /**
+     * Writes the swarm to a rewind frame: the ships left, by their index
+     * among the ships the swarm started with, with their positions and
+     * velocities, then every ship.
+     *
+     * @param frame
+     *            Frame of the tick.
+     */
+    public final void save(final StateFrame frame) {
+        frame.putInt(this.ships.size());
+        // Removing ships keeps the order of the rest, so one pass finds them all.
+        int index = 0;
+        for (int i = 0; i < this.ships.size(); i++) {
+            while (this.allShips.get(index) != this.ships.get(i))
+                index++;
+            frame.putInt(index);
+            frame.putFloat(this.x[i]);
+            frame.putFloat(this.y[i]);
+            frame.putFloat(this.velocityX[i]);
+            frame.putFloat(this.velocityY[i]);
+        }
+        for (EnemyShip ship : this.allShips)
+            ship.save(frame);
+        frame.putBoolean(this.shootingCooldown != null);
+        if (this.shootingCooldown != null)
+            this.shootingCooldown.save(frame);
+        frame.putInt(this.shipCount);
+        frame.putFloat(this.seekX);
+        frame.putFloat(this.seekY);
+    }
+
+    /**
+     * Reads the swarm back from a rewind frame and sorts its ships into the
+     * grid again.
+     *
+     * @param frame
+     *            Frame written by {@link #save}.
+     */
+    public final void restore(final StateFrame frame) {
+        int size = frame.getInt();
+        this.ships.clear();
+        for (int i = 0; i < size; i++) {
+            this.ships.add(this.allShips.get(frame.getInt()));
+            this.x[i] = frame.getFloat();
+            this.y[i] = frame.getFloat();
+            this.velocityX[i] = frame.getFloat();
+            this.velocityY[i] = frame.getFloat();
+        }
+        for (EnemyShip ship : this.allShips)
+            ship.restore(frame);
+        if (frame.getBoolean()) {
+            if (this.shootingCooldown == null)
+                this.shootingCooldown = Core.getVariableCooldown(shootingInterval, shootingVariance);
+            this.shootingCooldown.restore(frame);
+        } else {
+            this.shootingCooldown = null;
+        }
+        this.shipCount = frame.getInt();
+        this.seekX = frame.getFloat();
+        this.seekY = frame.getFloat();
+        place();
+    }
+
+    @Override
+    public final Iterator<EnemyShip> iterator() {
+        return Collections.unmodifiableList(this.ships).iterator();
+    }
+
+    public boolean lastShip() {
+        return this.shipCount == 1;
+    }
+
+    public final boolean isEmpty() {
+        return this.shipCount <= 0;
+    }
+
+    public int getShipCount() {
+        return this.shipCount;
+    }
+}
@@ -3,6 +3,8 @@ package main.entity;
 import java.awt.Color;
 
 import main.engine.DrawManager.SpriteType;
+import main.engine.StateFrame;
+import main.entity.Archetype.Component;
 
 /**
  * Implements a generic game main.entity.
@@ -12,6 +14,15 @@ import main.engine.DrawManager.SpriteType;
  */
 public class Entity{
 
+    /** Sprite types, cached since values() copies the array. */
+    private static final SpriteType[] SPRITE_TYPES = SpriteType.values();
+    private static final Team[] TEAMS = Team.values();
+
+    /*
+     * The fields below hold the entity while it is in no archetype. In one,
+     * they are stale and the accessors go to its row instead.
+     */
+
     /** Position in the x-axis of the upper left corner of the main.entity. */
     protected int positionX;
     /** Position in the y-axis of the upper left corner of the main.entity. */
@@ -32,6 +43,11 @@ public class Entity{
     // every main.entity knows their team - possibility for friendly-fire?
     protected Team team = Team.NEUTRAL;
 
+    /** Archetype the entity is a row of, or null. */
+    Archetype<?> archetype;
+    /** Row of the entity in its archetype. */
+    int row;
+
     /**
      * Constructor, establishes the main.entity's generic properties.
      *
@@ -57,35 +73,147 @@ public class Entity{
     public final Color getColor() {
         return color;
     }
-    public final void setColor(Color color) { this.color = color; }
+    public final void setColor(Color color) {
+        this.color = color;
+        if (archetype != null)
+            archetype.column(Component.COLOR)[row] = color.getRGB();
+    }
 
     public final int getPositionX() {
-        return this.positionX;
+        return archetype == null ? this.positionX : archetype.column(Component.X)[row];
     }
     public final void setPositionX(final int positionX) {
-        this.positionX = positionX;
+        if (archetype == null)
+            this.positionX = positionX;
+        else
+            archetype.column(Component.X)[row] = positionX;
     }
 
     public final int getPositionY() {
-        return this.positionY;
+        return archetype == null ? this.positionY : archetype.column(Component.Y)[row];
     }
     public final void setPositionY(final int positionY) {
-        this.positionY = positionY;
+        if (archetype == null)
+            this.positionY = positionY;
+        else
+            archetype.column(Component.Y)[row] = positionY;
     }
 
     public final SpriteType getSpriteType() {
-        return this.spriteType;
+        if (archetype == null)
+            return this.spriteType;
+        int sprite = archetype.column(Component.SPRITE)[row];
+        return sprite < 0 ? null : SPRITE_TYPES[sprite];
+    }
+
+    protected final void setSpriteType(final SpriteType spriteType) {
+        if (archetype == null)
+            this.spriteType = spriteType;
+        else
+            archetype.column(Component.SPRITE)[row] = spriteType == null ? -1 : spriteType.ordinal();
     }
 
     public final int getWidth() {
-        return this.width;
+        return archetype == null ? this.width : archetype.column(Component.WIDTH)[row];
     }
 
     public final int getHeight() {
-        return this.height;
+        return archetype == null ? this.height : archetype.column(Component.HEIGHT)[row];
+    }
+
+    protected final void resize(final int width, final int height) {
+        if (archetype == null) {
+            this.width = width;
+            this.height = height;
+        } else {
+            archetype.column(Component.WIDTH)[row] = width;
+            archetype.column(Component.HEIGHT)[row] = height;
+        }
+    }
+
+    public Team getTeam() {
+        return archetype == null ? team : TEAMS[archetype.column(Component.TEAM)[row]];
+    }
+
+    public void setTeam(Team t) {
+        Team newTeam = t == null ? Team.NEUTRAL : t;
+        if (archetype == null)
+            this.team = newTeam;
+        else
+            archetype.column(Component.TEAM)[row] = newTeam.ordinal();
+    }
+
+    /**
+     * Copies the entity into its new row of an archetype.
+     *
+     * @param to
+     *            Archetype it joins.
+     * @param newRow
+     *            Its row there.
+     */
+    void store(final Archetype<?> to, final int newRow) {
+        to.column(Component.X)[newRow] = positionX;
+        to.column(Component.Y)[newRow] = positionY;
+        to.column(Component.WIDTH)[newRow] = width;
+        to.column(Component.HEIGHT)[newRow] = height;
+        to.column(Component.TEAM)[newRow] = team.ordinal();
+        to.column(Component.SPRITE)[newRow] = spriteType == null ? -1 : spriteType.ordinal();
+        to.column(Component.COLOR)[newRow] = color.getRGB();
     }
 
-    public Team getTeam() { return team; }
+    /**
+     * Copies the row of the entity back into its fields as it leaves an
+     * archetype.
+     *
+     * @param from
+     *            Archetype it leaves.
+     * @param oldRow
+     *            Its row there.
+     */
+    void load(final Archetype<?> from, final int oldRow) {
+        positionX = from.column(Component.X)[oldRow];
+        positionY = from.column(Component.Y)[oldRow];
+        width = from.column(Component.WIDTH)[oldRow];
+        height = from.column(Component.HEIGHT)[oldRow];
+        team = TEAMS[from.column(Component.TEAM)[oldRow]];
+        int sprite = from.column(Component.SPRITE)[oldRow];
+        spriteType = sprite < 0 ? null : SPRITE_TYPES[sprite];
+    }
 
-    public void setTeam(Team t) { this.team = (t == null ? Team.NEUTRAL : t); }
+    /**
+     * Writes the entity to a rewind frame. Entities in an archetype are
+     * written along with it instead, see {@link Archetype#save}.
+     *
+     * @param frame
+     *            Frame of the tick.
+     */
+    public void save(final StateFrame frame) {
+        frame.putInt(getPositionX());
+        frame.putInt(getPositionY());
+        frame.putInt(getWidth());
+        frame.putInt(getHeight());
+        frame.putInt(getTeam().ordinal());
+        SpriteType sprite = getSpriteType();
+        frame.putInt(sprite == null ? -1 : sprite.ordinal());
+        frame.putInt(color.getRGB());
+    }
+
+    /**
+     * Reads the entity back from a rewind frame.
+     *
+     * @param frame
+     *            Frame written by {@link #save}.
+     */
+    public void restore(final StateFrame frame) {
+        setPositionX(frame.getInt());
+        setPositionY(frame.getInt());
+        int newWidth = frame.getInt();
+        resize(newWidth, frame.getInt());
+        setTeam(TEAMS[frame.getInt()]);
+        int sprite = frame.getInt();
+        setSpriteType(sprite < 0 ? null : SPRITE_TYPES[sprite]);
+        int argb = frame.getInt();
+        if (color.getRGB() != argb)
+            setColor(new Color(argb, true));
+    }
 }
\ No newline at end of file
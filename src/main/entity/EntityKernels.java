@@ -0,0 +1,69 @@
+package main.entity;
+
+/**
+ * Loops over the columns of an archetype behind {@link EntitySystems}, in
+ * plain Java or in vector lanes when the incubating Vector API is there.
+ */
+interface EntityKernels {
+
+    /**
+     * Adds the speeds to the positions.
+     *
+     * @param x
+     *            Horizontal positions.
+     * @param y
+     *            Vertical positions.
+     * @param speedX
+     *            Horizontal speeds, or null if there are none.
+     * @param speedY
+     *            Vertical speeds.
+     * @param size
+     *            Rows to move.
+     */
+    void move(int[] x, int[] y, int[] speedX, int[] speedY, int size);
+
+    /**
+     * Marks the rows above top or below bottom, clearing the others.
+     *
+     * @param y
+     *            Vertical positions.
+     * @param size
+     *            Rows to check.
+     * @param top
+     *            Highest position kept.
+     * @param bottom
+     *            Lowest position kept.
+     * @param marks
+     *            Marks by row.
+     */
+    void markOutside(int[] y, int size, int top, int bottom, boolean[] marks);
+
+    /**
+     * Marks the rows whose box overlaps a target box, leaving the marks of
+     * the others as they are. Boxes overlap when their centers are closer
+     * than half their sizes, on both axes.
+     *
+     * @param x
+     *            Left sides.
+     * @param y
+     *            Upper sides.
+     * @param width
+     *            Widths.
+     * @param height
+     *            Heights.
+     * @param size
+     *            Rows to test.
+     * @param centerX
+     *            Horizontal center of the target.
+     * @param centerY
+     *            Vertical center of the target.
+     * @param halfWidth
+     *            Half the width of the target, rounded down.
+     * @param halfHeight
+     *            Half the height of the target, rounded down.
+     * @param marks
+     *            Marks by row.
+     */
+    void markOverlaps(int[] x, int[] y, int[] width, int[] height, int size,
+                      int centerX, int centerY, int halfWidth, int halfHeight, boolean[] marks);
+}
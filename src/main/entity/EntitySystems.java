@@ -0,0 +1,200 @@
+package main.entity;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+
+import main.engine.Core;
+import main.engine.DrawManager;
+import main.engine.DrawManager.SpriteType;
+import main.engine.SpriteMask;
+import main.entity.Archetype.Component;
+
+/**
+ * Systems updating every entity of an archetype in one loop over its
+ * columns. The loops run in vector lanes when the optional src/vector
+ * kernels were compiled in and the JVM is started with
+ * {@code --add-modules jdk.incubator.vector}, and in plain Java otherwise.
+ */
+public final class EntitySystems {
+
+    /** Sprite types by ordinal, as stored in an archetype. */
+    private static final SpriteType[] SPRITE_TYPES = SpriteType.values();
+    /** Kernels the systems run on, chosen once. */
+    private static final EntityKernels KERNELS = Objects.requireNonNullElseGet(vectorKernels(),
+            ScalarKernels::new);
+
+    private EntitySystems() {
+    }
+
+    /**
+     * Loads the kernels of src/vector by name, so the rest of the game
+     * compiles without the incubating Vector API.
+     *
+     * @return New vector kernels, or null if they were not compiled in or
+     *         the Vector API module was not added to the JVM.
+     */
+    static EntityKernels vectorKernels() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+            return null;
+        try {
+            return (EntityKernels) Class.forName("main.entity.VectorKernels").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            Core.getLogger().info("Vector kernels not compiled in, using the scalar ones: " + e);
+            return null;
+        }
+    }
+
+    /**
+     * @return If the systems run in vector lanes.
+     */
+    public static boolean isVectorized() {
+        return !(KERNELS instanceof ScalarKernels);
+    }
+
+    /**
+     * Moves every entity by its speed, as {@link Bullet#update()} and
+     * {@link Item#update()} do one at a time.
+     *
+     * @param archetype
+     *            Entities to move, with a vertical speed.
+     */
+    public static void move(final Archetype<?> archetype) {
+        KERNELS.move(archetype.column(Component.X), archetype.column(Component.Y),
+                archetype.has(Component.SPEED_X) ? archetype.column(Component.SPEED_X) : null,
+                archetype.column(Component.SPEED_Y), archetype.size());
+    }
+
+    /**
+     * Finds the entities whose upper side left a band of the screen.
+     *
+     * @param archetype
+     *            Entities to check.
+     * @param top
+     *            Highest position kept.
+     * @param bottom
+     *            Lowest position kept.
+     * @param out
+     *            Collection the entities outside are added to.
+     * @param <E>
+     *            Kind of entity.
+     */
+    public static <E extends Entity> void collectOutside(final Archetype<E> archetype, final int top,
+                                                         final int bottom, final Collection<? super E> out) {
+        int size = archetype.size();
+        boolean[] marks = archetype.marks();
+        KERNELS.markOutside(archetype.column(Component.Y), size, top, bottom, marks);
+        for (int row = 0; row < size; row++)
+            if (marks[row])
+                out.add(archetype.get(row));
+    }
+
+    /**
+     * Finds the entities whose left side left a band of the screen, for
+     * those flying sideways.
+     *
+     * @param archetype
+     *            Entities to check.
+     * @param left
+     *            Leftmost position kept.
+     * @param right
+     *            Rightmost position kept.
+     * @param out
+     *            Collection the entities outside are added to.
+     * @param <E>
+     *            Kind of entity.
+     */
+    public static <E extends Entity> void collectBeside(final Archetype<E> archetype, final int left,
+                                                        final int right, final Collection<? super E> out) {
+        int size = archetype.size();
+        boolean[] marks = archetype.marks();
+        KERNELS.markOutside(archetype.column(Component.X), size, left, right, marks);
+        for (int row = 0; row < size; row++)
+            if (marks[row])
+                out.add(archetype.get(row));
+    }
+
+    /**
+     * Clears the marks of an archetype before {@link #markOverlaps}.
+     *
+     * @param archetype
+     *            Entities to mark.
+     * @return Marks by row, valid until the archetype changes.
+     */
+    public static boolean[] clearMarks(final Archetype<?> archetype) {
+        boolean[] marks = archetype.marks();
+        Arrays.fill(marks, 0, archetype.size(), false);
+        return marks;
+    }
+
+    /**
+     * Marks every entity of an archetype that overlaps a target, testing
+     * them all in one pass. Used as a broad phase: entities left unmarked
+     * after marking every target hit none of them.
+     *
+     * @param archetype
+     *            Entities to test.
+     * @param target
+     *            Entity they may hit.
+     */
+    public static void markOverlaps(final Archetype<?> archetype, final Entity target) {
+        int halfWidth = target.getWidth() / 2;
+        int halfHeight = target.getHeight() / 2;
+        KERNELS.markOverlaps(archetype.column(Component.X), archetype.column(Component.Y),
+                archetype.column(Component.WIDTH), archetype.column(Component.HEIGHT), archetype.size(),
+                target.getPositionX() + halfWidth, target.getPositionY() + halfHeight, halfWidth, halfHeight,
+                archetype.marks());
+    }
+
+    /**
+     * Checks if an entity of an archetype overlaps another entity, comparing
+     * the distance between their centers as the game screen does.
+     *
+     * @param archetype
+     *            Archetype of the first entity.
+     * @param row
+     *            Row of the first entity.
+     * @param other
+     *            Second entity.
+     * @return If they collide.
+     */
+    public static boolean overlaps(final Archetype<?> archetype, final int row, final Entity other) {
+        int width = archetype.column(Component.WIDTH)[row];
+        int height = archetype.column(Component.HEIGHT)[row];
+        int otherWidth = other.getWidth();
+        int otherHeight = other.getHeight();
+        int distanceX = Math.abs(archetype.column(Component.X)[row] + width / 2
+                - (other.getPositionX() + otherWidth / 2));
+        int distanceY = Math.abs(archetype.column(Component.Y)[row] + height / 2
+                - (other.getPositionY() + otherHeight / 2));
+        return distanceX < width / 2 + otherWidth / 2 && distanceY < height / 2 + otherHeight / 2;
+    }
+
+    /**
+     * Checks if an entity of an archetype hits another entity: their boxes
+     * overlap as in {@link #overlaps} and so do the opaque pixels of their
+     * sprites. Entities without a sprite mask hit with their whole box.
+     *
+     * @param archetype
+     *            Archetype of the first entity.
+     * @param row
+     *            Row of the first entity.
+     * @param other
+     *            Second entity.
+     * @return If they collide.
+     */
+    public static boolean hits(final Archetype<?> archetype, final int row, final Entity other) {
+        if (!overlaps(archetype, row, other))
+            return false;
+        int sprite = archetype.column(Component.SPRITE)[row];
+        SpriteMask mask = sprite < 0 ? null : DrawManager.getSpriteMask(SPRITE_TYPES[sprite]);
+        SpriteMask otherMask = DrawManager.getSpriteMask(other.getSpriteType());
+        if (mask == null || otherMask == null)
+            return true;
+        return SpriteMask.overlaps(
+                mask.scaled(archetype.column(Component.WIDTH)[row], archetype.column(Component.HEIGHT)[row]),
+                archetype.column(Component.X)[row], archetype.column(Component.Y)[row],
+                otherMask.scaled(other.getWidth(), other.getHeight()),
+                other.getPositionX(), other.getPositionY());
+    }
+}
@@ -10,6 +10,8 @@ import main.engine.GameState;
 import main.engine.ItemDB;
 import main.engine.ItemData;
 import main.engine.ItemEffect;
+import main.engine.ItemManager;
+import main.entity.Archetype.Component;
 
 /**
  * Implements Item that moves vertically down.
@@ -49,33 +51,52 @@ public class Item extends Entity {
         this.type = itemType;
         this.itemSpeed = speed;
 
-        setSprite();
+        // Not in an archetype yet, so the field is the sprite.
+        this.spriteType = spriteOf(itemType);
     }
 
     /**
      * Setter for the sprite of the Item using data from ItemDB.
      */
     public final void setSprite() {
-        ItemDB itemDB = new ItemDB();
-        ItemData data = itemDB.getItemData(this.type);
+        setSpriteType(spriteOf(this.type));
+    }
+
+    /**
+     * Looks up the sprite of an item type in ItemDB.
+     *
+     * @param itemType
+     *            Item type.
+     * @return Sprite of the type, ItemScore if it has none.
+     */
+    private static SpriteType spriteOf(final String itemType) {
+        ItemDB itemDB = ItemManager.getInstance().getItemDB();
+        ItemData data = itemDB.getItemData(itemType);
 
         if (data != null) {
             try {
-                this.spriteType = SpriteType.valueOf(data.getSpriteType());
+                return SpriteType.valueOf(data.getSpriteType());
             } catch (IllegalArgumentException e) {
-                this.spriteType = SpriteType.ItemScore; // fallback
-                this.logger.warning("[Item]: Unknown sprite type in ItemDB: " + data.getSpriteType() + ", using default.");
+                Core.getLogger().warning("[Item]: Unknown sprite type in ItemDB: " + data.getSpriteType() + ", using default.");
+                return SpriteType.ItemScore; // fallback
             }
-        } else {
-            this.spriteType = SpriteType.ItemScore;
         }
+        return SpriteType.ItemScore;
+    }
+
+    /**
+     * @return Empty archetype for items in play.
+     */
+    public static Archetype<Item> newArchetype() {
+        return new Archetype<Item>(Component.SPEED_Y);
     }
 
     /**
-     * Updates the Item's position.
+     * Updates the Item's position. Items in play move all at once with
+     * {@link EntitySystems#move}.
      */
     public final void update() {
-        this.positionY += this.itemSpeed;
+        setPositionY(getPositionY() + getItemSpeed());
     }
 
     /**
@@ -84,7 +105,7 @@ public class Item extends Entity {
      * @param gameState current game state instance.
      */
     public void applyEffect(final GameState gameState) {
-        ItemDB itemDB = new ItemDB();
+        ItemDB itemDB = ItemManager.getInstance().getItemDB();
         ItemData data = itemDB.getItemData(this.type);
 
         if (data == null) return;
@@ -135,7 +156,10 @@ public class Item extends Entity {
      *            New speed of the Item.
      */
     public final void setItemSpeed(final int itemSpeed) {
-        this.itemSpeed = itemSpeed;
+        if (archetype == null)
+            this.itemSpeed = itemSpeed;
+        else
+            archetype.column(Component.SPEED_Y)[row] = itemSpeed;
     }
 
     /**
@@ -144,7 +168,7 @@ public class Item extends Entity {
      * @return speed of the Item.
      */
     public final int getItemSpeed() {
-        return this.itemSpeed;
+        return archetype == null ? this.itemSpeed : archetype.column(Component.SPEED_Y)[row];
     }
 
     /**
@@ -156,10 +180,21 @@ public class Item extends Entity {
      */
     public final void reset(String newType) {
         this.type = newType;
-        this.itemSpeed = 0;
+        setItemSpeed(0);
         setSprite(); // change to your enum if different
     }
 
+    /**
+     * Sets the type alone, for items whose row is read back from a rewind
+     * frame with the sprite already in it.
+     *
+     * @param newType
+     *            Type of the Item.
+     */
+    final void setType(final String newType) {
+        this.type = newType;
+    }
+
     /**
      * Getter for the speed of the Item.
      *
@@ -168,4 +203,16 @@ public class Item extends Entity {
     public final String getType() {
         return this.type;
     }
-}
\ No newline at end of file
+
+    @Override
+    void store(final Archetype<?> to, final int newRow) {
+        super.store(to, newRow);
+        to.column(Component.SPEED_Y)[newRow] = itemSpeed;
+    }
+
+    @Override
+    void load(final Archetype<?> from, final int oldRow) {
+        super.load(from, oldRow);
+        itemSpeed = from.column(Component.SPEED_Y)[oldRow];
+    }
+}
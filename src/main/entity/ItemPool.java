@@ -1,24 +1,41 @@
 package main.entity;
 
+import main.engine.GameSession;
 import main.engine.ItemData;
+import main.engine.ItemManager;
+import main.engine.StateFrame;
+
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 /**
- * Implements a pool of recyclable items.
+ * Implements a pool of recyclable items, one per game session.
  */
 public final class ItemPool {
 
     /** Set of items. */
-    private static Set<Item> pool = new HashSet<Item>();
+    private final Set<Item> pool = new HashSet<Item>();
+    /** Number of items created so far. */
+    private int created;
+    /** Item types, written to rewind frames by index, listed when first needed. */
+    private final List<String> types = new ArrayList<String>();
 
     /**
-     * Constructor, not called.
+     * Constructor, one pool per session.
      */
     private ItemPool() {
 
     }
 
+    /**
+     * @return Pool of the current session.
+     */
+    private static ItemPool current() {
+        return GameSession.current().component(ItemPool.class, ItemPool::new);
+    }
+
     /**
      * Returns an item from the pool if one is available, a new one if there
      * isn't.
@@ -37,6 +54,8 @@ public final class ItemPool {
      */
     public static Item getItem(ItemData data, int positionX, int positionY, int speed) {
         String type = data.getType();
+        ItemPool items = current();
+        Set<Item> pool = items.pool;
         // create new item
         Item item;
         if (!pool.isEmpty()) {
@@ -49,6 +68,7 @@ public final class ItemPool {
             item.setItemSpeed(speed);
         } else {
             item = new Item(type, positionX - 3, positionY, speed);
+            items.created++;
         }
 
         return item;
@@ -62,6 +82,82 @@ public final class ItemPool {
      */
     public static void recycle(final Set<Item> items) {
         if (items == null) return;
-        pool.addAll(items);
+        current().pool.addAll(items);
+    }
+
+    /**
+     * Writes the items in play to a rewind frame.
+     *
+     * @param items
+     *            Items in play.
+     * @param frame
+     *            Frame of the tick.
+     */
+    public static void save(final Archetype<Item> items, final StateFrame frame) {
+        List<String> types = current().types();
+        frame.putInt(items.size());
+        items.save(frame);
+        for (int row = 0; row < items.size(); row++)
+            frame.putInt(types.indexOf(items.get(row).getType()));
+    }
+
+    /**
+     * Puts the items in play back as they were in a rewind frame, taking
+     * items from the pool or handing them back to it.
+     *
+     * @param items
+     *            Items in play.
+     * @param frame
+     *            Frame written by {@link #save}.
+     */
+    public static void restore(final Archetype<Item> items, final StateFrame frame) {
+        ItemPool pool = current();
+        List<String> types = pool.types();
+        int count = frame.getInt();
+        while (items.size() > count) {
+            Item last = items.get(items.size() - 1);
+            items.remove(last);
+            pool.pool.add(last);
+        }
+        while (items.size() < count) {
+            Item item;
+            if (pool.pool.isEmpty()) {
+                item = new Item(types.getFirst(), 0, 0, 0);
+                pool.created++;
+            } else {
+                item = pool.pool.iterator().next();
+                pool.pool.remove(item);
+            }
+            items.add(item);
+        }
+        items.restore(frame);
+        for (int row = 0; row < count; row++) {
+            int type = frame.getInt();
+            items.get(row).setType(type < 0 ? null : types.get(type));
+        }
+    }
+
+    /**
+     * @return Item types of the item database.
+     */
+    private List<String> types() {
+        if (types.isEmpty())
+            for (ItemData data : ItemManager.getInstance().getItemDB().getAllItems())
+                types.add(data.getType());
+        return types;
+    }
+
+    /**
+     * @return Number of items created by the pool so far.
+     */
+    public static int getCreated() {
+        return current().created;
+    }
+
+    /**
+     * @return Number of items waiting in the pool.
+     */
+    public static int getAvailable() {
+        return current().pool.size();
     }
-}
\ No newline at end of file
+}
@@ -6,6 +6,7 @@ import java.util.Set;
 import main.engine.Cooldown;
 import main.engine.Core;
 import main.engine.GameState;
+import main.engine.StateFrame;
 import main.engine.DrawManager.SpriteType;
 import main.entity.Bullet;
 import main.entity.BulletPool;
@@ -48,8 +49,28 @@ public class PlayerShip extends Entity {
      *                  Game state reference (can be null)
      */
     public PlayerShip(final int positionX, final int positionY, final SpriteType type, final GameState gameState) {
+        this(positionX, positionY, type, PlayerShipLibrary.getShipList().get(type), gameState);
+    }
+
+    /**
+     * Constructor for a ship with stats of its own, which no other ship of
+     * its type shares.
+     *
+     * @param positionX
+     *                  Initial position of the ship in the X axis.
+     * @param positionY
+     *                  Initial position of the ship in the Y axis.
+     * @param type
+     *                  Ship type (null defaults to NORMAL)
+     * @param stats
+     *                  Stats of the ship (null defaults to those of NORMAL)
+     * @param gameState
+     *                  Game state reference (can be null)
+     */
+    public PlayerShip(final int positionX, final int positionY, final SpriteType type, final PlayerShipStats stats,
+                      final GameState gameState) {
         super(positionX, positionY, 26, 16, Color.GREEN);
-        this.stats = PlayerShipLibrary.getShipList().get(type);
+        this.stats = stats;
         this.spriteType = type;
 
         if(this.stats == null) {
@@ -207,6 +228,27 @@ public class PlayerShip extends Entity {
         this.positionY = height;
     }
 
+    /**
+     * Writes the ship, its stats and cooldowns to a rewind frame.
+     */
+    @Override
+    public void save(final StateFrame frame) {
+        super.save(frame);
+        stats.save(frame);
+        shootingCooldown.save(frame);
+        destructionCooldown.save(frame);
+        frame.putInt(hits);
+    }
+
+    @Override
+    public void restore(final StateFrame frame) {
+        super.restore(frame);
+        stats.restore(frame);
+        shootingCooldown.restore(frame);
+        destructionCooldown.restore(frame);
+        hits = frame.getInt();
+    }
+
     /**
      * TRIPLESHOT effect
      */
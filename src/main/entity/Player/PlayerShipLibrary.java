@@ -2,13 +2,19 @@ package main.entity.Player;
 
 
 import main.engine.DrawManager.SpriteType;
+import main.engine.GameSession;
 
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Stats of every ship type. Each game session has its own, since a game
+ * changes the stats of its ship while it plays.
+ */
 public class PlayerShipLibrary {
-    private final static Map<SpriteType, PlayerShipStats> shipList = new HashMap<>();
-    static {
+    private final Map<SpriteType, PlayerShipStats> shipList = new HashMap<>();
+
+    private PlayerShipLibrary() {
         shipList.put(SpriteType.Normal,
                 new PlayerShipStats(26, 16, 5, 1, 2, -6, 750, 6, 10));
         shipList.put(SpriteType.BigShot,
@@ -20,6 +26,6 @@ public class PlayerShipLibrary {
     }
 
     public static Map<SpriteType, PlayerShipStats> getShipList() {
-        return shipList;
+        return GameSession.current().component(PlayerShipLibrary.class, PlayerShipLibrary::new).shipList;
     }
 }
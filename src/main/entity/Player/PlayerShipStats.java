@@ -1,5 +1,6 @@
 package main.entity.Player;
 
+import main.engine.StateFrame;
 
 public class PlayerShipStats {
     /** Ship Variables **/
@@ -40,6 +41,15 @@ public class PlayerShipStats {
         this.initialShootingInterval = shootingInterval;
     }
 
+    /**
+     * @return New stats of the same ship as it starts, changed apart from
+     *         these ones.
+     */
+    public PlayerShipStats copy() {
+        return new PlayerShipStats(shipWidth, shipHeight, maxHP, initialATK, initialMoveSpeed, initialBulletSpeed,
+                initialShootingInterval, bulletWidth, bulletHeight);
+    }
+
     public int getShipWidth() { return shipWidth; }
     public int getShipHeight() { return shipHeight; }
 
@@ -74,4 +84,34 @@ public class PlayerShipStats {
         this.curHP = this.maxHP;
         this.exp = 0;
     }
+
+    /**
+     * Writes the stats that change in play to a rewind frame.
+     *
+     * @param frame
+     *            Frame of the tick.
+     */
+    public void save(final StateFrame frame) {
+        frame.putInt(curHP);
+        frame.putFloat(ATK);
+        frame.putInt(exp);
+        frame.putFloat(moveSpeed);
+        frame.putFloat(bulletSpeed);
+        frame.putInt(shootingInterval);
+    }
+
+    /**
+     * Reads the stats back from a rewind frame.
+     *
+     * @param frame
+     *            Frame written by {@link #save}.
+     */
+    public void restore(final StateFrame frame) {
+        curHP = frame.getInt();
+        ATK = frame.getFloat();
+        exp = frame.getInt();
+        moveSpeed = frame.getFloat();
+        bulletSpeed = frame.getFloat();
+        shootingInterval = frame.getInt();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package main.entity;
+
+import java.awt.Color;
+
+import main.engine.DrawManager.SpriteType;
+
+/**
+ * Entity simulated on another machine, drawn by a co-op client from the
+ * snapshots of the host.
+ */
+public class RemoteEntity extends Entity {
+
+    /** Sprite types, cached since values() copies the array. */
+    private static final SpriteType[] SPRITE_TYPES = SpriteType.values();
+
+    /**
+     * Constructor, creates an entity to be set before drawing.
+     */
+    public RemoteEntity() {
+        super(0, 0, 0, 0, Color.WHITE);
+    }
+
+    /**
+     * Sets everything needed to draw the entity.
+     *
+     * @param sprite
+     *            Sprite type ordinal plus one, 0 for none.
+     * @param width
+     *            Width of the entity.
+     * @param height
+     *            Height of the entity.
+     * @param argb
+     *            Color in ARGB.
+     */
+    public final void set(final int sprite, final int width, final int height, final int argb) {
+        this.spriteType = sprite > 0 && sprite <= SPRITE_TYPES.length ? SPRITE_TYPES[sprite - 1] : null;
+        this.width = width;
+        this.height = height;
+        // Colors rarely change, so they are only created when they do.
+        if (getColor().getRGB() != argb)
+            setColor(new Color(argb, true));
+    }
+}
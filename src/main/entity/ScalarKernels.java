@@ -0,0 +1,34 @@
+package main.entity;
+
+/**
+ * Kernels in plain loops, used when the Vector API is not enabled.
+ */
+final class ScalarKernels implements EntityKernels {
+
+    @Override
+    public void move(final int[] x, final int[] y, final int[] speedX, final int[] speedY, final int size) {
+        for (int row = 0; row < size; row++)
+            y[row] += speedY[row];
+        if (speedX != null)
+            for (int row = 0; row < size; row++)
+                x[row] += speedX[row];
+    }
+
+    @Override
+    public void markOutside(final int[] y, final int size, final int top, final int bottom, final boolean[] marks) {
+        for (int row = 0; row < size; row++)
+            marks[row] = y[row] < top || y[row] > bottom;
+    }
+
+    @Override
+    public void markOverlaps(final int[] x, final int[] y, final int[] width, final int[] height, final int size,
+                             final int centerX, final int centerY, final int halfWidth, final int halfHeight,
+                             final boolean[] marks) {
+        for (int row = 0; row < size; row++) {
+            int w = width[row] >> 1;
+            int h = height[row] >> 1;
+            if (Math.abs(x[row] + w - centerX) < w + halfWidth && Math.abs(y[row] + h - centerY) < h + halfHeight)
+                marks[row] = true;
+        }
+    }
+}
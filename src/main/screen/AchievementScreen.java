@@ -37,6 +37,19 @@ public class AchievementScreen extends Screen {
         SoundManager.playLoop("sound/menu_sound.wav");
     }
 
+    /**
+     * Prepares the achievement screen to be shown again, reloading the
+     * completers in case new achievements were saved meanwhile.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        this.returnCode = 3;
+        this.completer = fileManager.getAchievementCompleter(achievements.get(currentIdx));
+        updateCompleterData();
+        SoundManager.playLoop("sound/menu_sound.wav");
+    }
+
     public final int run() {
         super.run();
         // Stop menu music when leaving the achievement main.screen
@@ -93,6 +106,16 @@ public class AchievementScreen extends Screen {
         }
     }
 
+    /**
+     * Completers and pages only change on input.
+     *
+     * @return Always false.
+     */
+    @Override
+    protected boolean isAnimating() {
+        return false;
+    }
+
     private void draw() {
         drawManager.initDrawing(this);
 
@@ -0,0 +1,166 @@
+package main.screen;
+
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.List;
+
+import main.engine.Cooldown;
+import main.engine.Core;
+import main.engine.net.CoopClient;
+import main.engine.net.CoopProtocol;
+import main.engine.net.EntityState;
+import main.engine.net.Snapshot;
+import main.entity.RemoteEntity;
+
+/**
+ * Implements the main.screen of a player who joined a co-op game. The game
+ * runs on the host; this main.screen sends the keys and draws the snapshots
+ * it gets back, moving bullets and items between snapshots and predicting
+ * the own ship so it answers the keys at once.
+ */
+public class CoopClientScreen extends Screen {
+
+    /** Milliseconds the game over message stays before leaving. */
+    private static final int GAME_OVER_DELAY = 3000;
+    /** Ticks entities are moved past the newest snapshot at most. */
+    private static final int MAX_EXTRAPOLATION = 6;
+
+    /** Connection to the host. */
+    private final CoopClient client;
+    /** Address shown while connecting. */
+    private final String hostName;
+    /** Entities drawn, reused between frames. */
+    private final List<RemoteEntity> entities = new ArrayList<RemoteEntity>();
+    /** Predicted position of the own ship. */
+    private final int[] ownPosition = new int[2];
+    /** Time from game over to leaving, started when the host ends the game. */
+    private Cooldown gameOverCooldown;
+
+    /**
+     * Constructor, establishes the properties of the main.screen.
+     *
+     * @param width
+     *            Screen width.
+     * @param height
+     *            Screen height.
+     * @param fps
+     *            Frames per second, frame rate at which the game is run.
+     * @param client
+     *            Connection to the host.
+     * @param hostName
+     *            Address of the host, for display.
+     */
+    public CoopClientScreen(final int width, final int height, final int fps, final CoopClient client,
+                            final String hostName) {
+        super(width, height, fps);
+        this.client = client;
+        this.hostName = hostName;
+        this.returnCode = 1;
+    }
+
+    /**
+     * Updates the elements on main.screen and checks for events.
+     */
+    protected final void update() {
+        super.update();
+
+        int input = 0;
+        if (inputManager.isP1LeftPressed())
+            input |= CoopProtocol.LEFT;
+        if (inputManager.isP1RightPressed())
+            input |= CoopProtocol.RIGHT;
+        if (inputManager.isP1UpPressed())
+            input |= CoopProtocol.UP;
+        if (inputManager.isP1DownPressed())
+            input |= CoopProtocol.DOWN;
+        if (inputManager.isKeyDown(KeyEvent.VK_SPACE))
+            input |= CoopProtocol.SHOOT;
+        client.update(input);
+
+        Snapshot snapshot = client.getLatest();
+        if (snapshot != null && snapshot.hasFlag(Snapshot.FLAG_GAME_OVER) && gameOverCooldown == null) {
+            gameOverCooldown = Core.getCooldown(GAME_OVER_DELAY);
+            gameOverCooldown.reset();
+        }
+        if (client.isTimedOut()) {
+            logger.info("The co-op host stopped answering.");
+            this.isRunning = false;
+        } else if (gameOverCooldown != null && gameOverCooldown.checkFinished()
+                || inputManager.isKeyDown(KeyEvent.VK_ESCAPE) && this.inputDelay.checkFinished()) {
+            this.isRunning = false;
+        }
+        draw();
+    }
+
+    /**
+     * Draws the elements associated with the main.screen.
+     */
+    private void draw() {
+        if (drawManager.isHeadless())
+            return;
+        drawManager.initDrawing(this);
+        drawManager.updateGameSpace();
+
+        Snapshot snapshot = client.getLatest();
+        if (snapshot == null) {
+            drawManager.drawCenteredRegularString(this, "Connecting to " + hostName, this.height / 2);
+            drawManager.completeDrawing(this);
+            return;
+        }
+
+        int ticks = Math.min(client.getTicksSinceSnapshot(), MAX_EXTRAPOLATION);
+        for (int i = 0; i < snapshot.size(); i++) {
+            EntityState state = snapshot.getEntity(i);
+            int x = state.get(EntityState.X) + state.get(EntityState.SPEED_X) * ticks;
+            int y = state.get(EntityState.Y) + state.get(EntityState.SPEED_Y) * ticks;
+            if (state.getKind() == EntityState.Kind.ENEMY) {
+                x += snapshot.get(Snapshot.FORMATION_X);
+                y += snapshot.get(Snapshot.FORMATION_Y);
+            } else if (state.getKind() == EntityState.Kind.PARTNER_SHIP
+                    && client.predictOwnShip(ownPosition) != null) {
+                x = ownPosition[0];
+                y = ownPosition[1];
+            }
+            RemoteEntity entity = entity(i);
+            entity.set(state.get(EntityState.SPRITE), state.get(EntityState.WIDTH),
+                    state.get(EntityState.HEIGHT), state.get(EntityState.COLOR));
+            if (entity.getSpriteType() != null)
+                drawManager.drawEntity(entity, x, y);
+        }
+
+        drawManager.drawScore(this, snapshot.get(Snapshot.SCORE));
+        drawManager.drawExp(this, snapshot.get(Snapshot.EXP));
+        drawManager.drawHpBar(40, 25, 100, 10, snapshot.get(Snapshot.HP), snapshot.get(Snapshot.MAX_HP), false);
+        drawManager.drawCoins(this, snapshot.get(Snapshot.COINS));
+        drawManager.drawLevel(this, snapshot.get(Snapshot.LEVEL));
+        drawManager.drawHorizontalLine(this, GameScreen.getSeparationLineHeight() - 1);
+        if (snapshot.get(Snapshot.BOSS_HP) > 0)
+            drawManager.drawCenteredRegularString(this, "Boss HP: " + snapshot.get(Snapshot.BOSS_HP),
+                    GameScreen.getSeparationLineHeight() + 20);
+
+        if (snapshot.hasFlag(Snapshot.FLAG_GAME_OVER))
+            drawManager.drawCenteredBigString(this, "Game Over", this.height / 2);
+        else if (snapshot.hasFlag(Snapshot.FLAG_COUNTDOWN))
+            drawManager.drawCenteredBigString(this, "Level " + snapshot.get(Snapshot.LEVEL), this.height / 2);
+        else if (snapshot.hasFlag(Snapshot.FLAG_PAUSED))
+            drawManager.drawPauseOverlay(this);
+        drawManager.completeDrawing(this);
+    }
+
+    private RemoteEntity entity(final int index) {
+        while (entities.size() <= index)
+            entities.add(new RemoteEntity());
+        return entities.get(index);
+    }
+
+    /**
+     * Starts the action, leaving the game when it ends.
+     *
+     * @return Next main.screen code.
+     */
+    public final int run() {
+        super.run();
+        client.close();
+        return this.returnCode;
+    }
+}
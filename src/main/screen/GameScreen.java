@@ -2,6 +2,7 @@ package main.screen;
 
 import java.awt.event.KeyEvent;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import main.engine.Cooldown;
 import main.engine.Core;
@@ -11,12 +12,29 @@ import main.engine.*;
 import main.engine.SoundManager;
 import main.engine.augment.Augment;
 import main.engine.augment.AugmentLibrary;
+import main.engine.event.AudioEventHandler;
+import main.engine.event.EffectsEventHandler;
+import main.engine.event.GameEvent;
+import main.engine.event.GameEventBus;
+import main.engine.event.GameEventHandler;
+import main.engine.event.LoggingEventHandler;
+import main.engine.jfr.CollisionEvent;
+import main.engine.jfr.FlightRecording;
+import main.engine.jfr.FrameEvent;
+import main.engine.jfr.TickEvent;
+import main.engine.metrics.GameMetrics;
+import main.engine.net.CoopHost;
+import main.engine.net.CoopProtocol;
+import main.engine.net.EntityState;
+import main.engine.net.Snapshot;
 import main.engine.ItemManager;
 import main.entity.*;
 import main.entity.Enemy.EnemyShip;
 import main.entity.Enemy.EnemyShipFormation;
+import main.entity.Enemy.EnemySwarm;
 import main.entity.Enemy.EnemyShipStats;
 import main.entity.Player.PlayerShip;
+import main.entity.Player.PlayerShipLibrary;
 import main.entity.Player.PlayerShipStats;
 
 // NEW Item code
@@ -45,9 +63,27 @@ public class GameScreen extends Screen {
     private static final int SCREEN_CHANGE_INTERVAL = 1500;
     /** Height of the interface separation line. */
     private static final int SEPARATION_LINE_HEIGHT = 68;
+    /** Distance bullets may fly past the left side before they are cleaned. */
+    private static final int BULLET_MARGIN = 16;
     private static final int HIGH_SCORE_NOTICE_DURATION = 2000;
     private static final int MAX_EXP = 100;
     private static final int AUGMENT_OPTION_COUNT = 3;
+    /** Level fought against the boss instead of a formation. */
+    private static final int BOSS_LEVEL = 5;
+    /** Gameplay events held between two dispatches. */
+    private static final int EVENT_CAPACITY = 256;
+    /** Distance from the ship of the host to the ship of a co-op partner at the start. */
+    private static final int PARTNER_OFFSET = 60;
+    /** Seconds of play kept to rewind to. */
+    private static final int REWIND_SECONDS = 10;
+    /**
+     * Bytes the rewind buffer may grow to, the same in every game so replays
+     * rewind alike. A swarm of 3,000 ships fills it in about 2 seconds, so
+     * less than {@link #REWIND_SECONDS} can be rewound then.
+     */
+    private static final int REWIND_CAPACITY = 8 << 20;
+    /** Ticks rewound per tick while the rewind key is held. */
+    private static final int REWIND_SPEED = 2;
     private static boolean sessionHighScoreNotified = false;
 
     /** For Check Achievement
@@ -59,11 +95,19 @@ public class GameScreen extends Screen {
     private int level;
     /** Formation of enemy ships. */
     private EnemyShipFormation enemyShipFormation;
+    /** Swarm flying instead of the formation on swarm stages, or null. */
+    private EnemySwarm enemySwarm;
     private EnemyShip enemyShipSpecial;
     /** Formation of player ships. */
-    private final PlayerShip playerShip;
+    private PlayerShip playerShip;
     /** Stat of player ships. */
-    private final PlayerShipStats playerStats;
+    private PlayerShipStats playerStats;
+    /** Host of a co-op game, or null when playing alone. */
+    private final CoopHost coopHost;
+    /** Ship of the co-op partner, or null while nobody joined. */
+    private PlayerShip partnerShip;
+    /** Input of the co-op partner for this tick. */
+    private int partnerInput;
     /** Minimum time between bonus ship appearances. */
     private Cooldown enemyShipSpecialCooldown;
     /** Time until bonus ship explosion disappears. */
@@ -71,14 +115,14 @@ public class GameScreen extends Screen {
     /** Time from finishing the level to main.screen change. */
     private Cooldown screenFinishedCooldown;
     /** Set of all bullets fired by on main.screen ships. */
-    private Set<Bullet> bullets;
+    private Archetype<Bullet> bullets;
     /** Set of all items spawned. */
-    private Set<Item> items;
+    private Archetype<Item> items;
     private long gameStartTime;
     /** Checks if the level is finished. */
     private boolean levelFinished;
     /** Checks if a bonus life is received. */
-    private final boolean bonusLife;
+    private boolean bonusLife;
     private int topScore;
     private boolean highScoreNotified;
     private long highScoreNoticeStartTime;
@@ -90,13 +134,26 @@ public class GameScreen extends Screen {
      * 2025-10-02 add new variable
      * */
     private boolean tookDamageThisLevel;
+    /** If bullets hit on opaque pixels, or on boxes for older replays. */
+    private boolean pixelCollisions;
+    /** If the boss is hit part by part, or as one box for older replays. */
+    private boolean bossParts;
     private boolean countdownSoundPlayed = false;
 
-    private final GameState state;
+    private GameState state;
     DrawManager.SpriteType shipType;
 
     private Boss boss;
 
+    /** Enemies of the next level, built in the background during the level transition. */
+    private record PreparedLevel(GameSettings settings, EnemyShipFormation formation, EnemySwarm swarm, Boss boss) {
+    }
+
+    /** Level being prepared in the background, or null. */
+    private CompletableFuture<PreparedLevel> preparedLevel;
+    /** Level number the prepared enemies belong to. */
+    private int preparedLevelNumber;
+
     /** control augment main.screen and player level up toast main.screen
      * 2025-11-16 add new variable
      * */
@@ -109,6 +166,18 @@ public class GameScreen extends Screen {
     private boolean isLevelUpToast = false;
     private long levelUpToastStart;
 
+    /** Gameplay events of the tick, dispatched after collisions and at the end of the update. */
+    private final GameEventBus events = new GameEventBus(EVENT_CAPACITY);
+
+    /** Last seconds of the level, or null when the game can't be rewound. */
+    private RewindBuffer rewind;
+    /** State of the tick being captured or rewound to. */
+    private final StateFrame rewindFrame = new StateFrame();
+    /** Ticks back from the newest frame being shown, 0 while playing. */
+    private int rewindTicks;
+    /** If the rewind key is held this tick. */
+    private boolean rewinding;
+
     /**
      * Constructor, establishes the properties of the main.screen.
      *
@@ -132,8 +201,45 @@ public class GameScreen extends Screen {
                       final GameSettings gameSettings, final boolean bonusLife,
                       final int width, final int height, final int fps, final AchievementManager achievementManager) {
         super(width, height, fps);
+        this.coopHost = Core.getCoopHost();
+        // Rewards go first so the handlers after them see the updated state.
+        events.subscribe(this::applyRewards);
+        events.subscribe(new AudioEventHandler());
+        events.subscribe(new EffectsEventHandler(drawManager));
+        events.subscribe(new LoggingEventHandler(logger));
+        events.subscribe(this::checkAchievement);
+        setUp(gameState, gameSettings, bonusLife, achievementManager);
+    }
 
+    /**
+     * Prepares the screen for another level, or for a new game, reusing its
+     * bullet and item sets, cooldowns and any enemies prepared in the
+     * background.
+     *
+     * @param gameState
+     *                     Current game state.
+     * @param gameSettings
+     *                     Settings of the level.
+     * @param bonusLife
+     *                     Checks if a bonus life is awarded this level.
+     * @param achievementManager
+     *                     Achievement manager of the current game.
+     */
+    public final void reset(final GameState gameState, final GameSettings gameSettings,
+                            final boolean bonusLife, final AchievementManager achievementManager) {
+        super.reset();
+        setUp(gameState, gameSettings, bonusLife, achievementManager);
+    }
+
+    /**
+     * Stores the per-level properties of the screen.
+     */
+    private void setUp(final GameState gameState, final GameSettings gameSettings,
+                       final boolean bonusLife, final AchievementManager achievementManager) {
+        if (gameState != this.state)
+            augSelected.clear();
         this.state = gameState;
+        this.events.clear();
         this.gameSettings = gameSettings;
         this.bonusLife = bonusLife;
         this.level = gameState.getLevel();
@@ -143,6 +249,12 @@ public class GameScreen extends Screen {
         // for check Achievement 2025-10-02 add
         this.achievementManager = achievementManager;
         this.tookDamageThisLevel = false;
+        this.levelFinished = false;
+        this.countdownSoundPlayed = false;
+        this.enemyShipSpecial = null;
+        this.isAugSelect = false;
+        this.isLevelUpToast = false;
+        this.augmentIndex = 0;
 
 //        try {
 //            List<Score> highScores = Core.getFileManager().loadHighScores();
@@ -160,6 +272,13 @@ public class GameScreen extends Screen {
 		if (this.achievementManager == null) this.achievementManager = new AchievementManager();
     }
 
+    /**
+     * @return Height of the line between the interface and the game.
+     */
+    public static int getSeparationLineHeight() {
+        return SEPARATION_LINE_HEIGHT;
+    }
+
       /**
      * Resets the session high score notification flag.
      * Should be called when a new game starts from the main menu.
@@ -180,41 +299,122 @@ public class GameScreen extends Screen {
         }
 
         state.clearAllEffects();
+        this.pixelCollisions = GameSession.current().hasPixelCollisions();
+        this.bossParts = GameSession.current().hasBossParts();
         playerShip.resetPosition(this.getWidth() / 2, this.getHeight() /10 * 9);
+        if (this.partnerShip != null)
+            partnerShip.resetPosition(this.getWidth() / 2 - PARTNER_OFFSET, this.getHeight() / 10 * 9);
         // Start background music for gameplay
         SoundManager.startBackgroundMusic("sound/SpaceInvader-GameTheme.wav");
 
-        if (this.level == 5) {
-            this.boss = new Boss(this.width / 2 - 40, SEPARATION_LINE_HEIGHT + 10);
+        PreparedLevel prepared = takePreparedLevel();
+        if (this.level == BOSS_LEVEL) {
+            this.boss = prepared != null && prepared.boss() != null ? prepared.boss()
+                    : new Boss(this.width / 2 - 40, SEPARATION_LINE_HEIGHT + 10);
             this.enemyShipFormation = null; // No formation on boss level
+            this.enemySwarm = null;
+        } else if (this.gameSettings.getSwarmSize() > 0) {
+            enemySwarm = prepared != null && prepared.swarm() != null ? prepared.swarm()
+                    : new EnemySwarm(this.gameSettings);
+            enemySwarm.attach(this);
+            this.enemyShipFormation = null;
+            this.boss = null;
         } else {
-            enemyShipFormation = new EnemyShipFormation(this.gameSettings, this.state.getLevel());
+            this.enemySwarm = null;
+            if (prepared != null && prepared.formation() != null) {
+                enemyShipFormation = prepared.formation();
+                enemyShipFormation.restartPatternClock();
+            } else {
+                enemyShipFormation = new EnemyShipFormation(this.gameSettings, this.state.getLevel());
+            }
             enemyShipFormation.attach(this);
             this.boss = null; // Ensure no boss if not level 5
         }
 
-        this.enemyShipSpecialCooldown = Core.getVariableCooldown(BONUS_SHIP_INTERVAL, BONUS_SHIP_VARIANCE);
+        if (this.bullets == null) {
+            this.enemyShipSpecialCooldown = Core.getVariableCooldown(BONUS_SHIP_INTERVAL, BONUS_SHIP_VARIANCE);
+            this.enemyShipSpecialExplosionCooldown = Core.getCooldown(BONUS_SHIP_EXPLOSION);
+            this.screenFinishedCooldown = Core.getCooldown(SCREEN_CHANGE_INTERVAL);
+            this.bullets = Bullet.newArchetype();
+            // New Item Code
+            this.items = Item.newArchetype();
+            this.inputDelay = Core.getCooldown(INPUT_DELAY);
+            this.pauseCooldown = Core.getCooldown(300);
+            augmentCooldown = Core.getCooldown(300);  // 0.2초 디바운스
+        } else {
+            // Reused from the previous level, hand leftovers back to the pools.
+            BulletPool.recycle(this.bullets);
+            this.bullets.clear();
+            ItemPool.recycle(this.items);
+            this.items.clear();
+        }
         this.enemyShipSpecialCooldown.reset();
-        this.enemyShipSpecialExplosionCooldown = Core.getCooldown(BONUS_SHIP_EXPLOSION);
-        this.screenFinishedCooldown = Core.getCooldown(SCREEN_CHANGE_INTERVAL);
-        this.bullets = new HashSet<Bullet>();
 
-        // New Item Code
-        this.items = new HashSet<Item>();
+        // Co-op partners play on from the host, so only games alone rewind.
+        if (GameSession.current().hasRewind() && this.coopHost == null) {
+            if (this.rewind == null)
+                this.rewind = new RewindBuffer(REWIND_CAPACITY, REWIND_SECONDS * this.fps);
+            this.rewind.clear();
+        } else {
+            this.rewind = null;
+        }
+        this.rewindTicks = 0;
+        this.rewinding = false;
 
         // Special input delay / countdown.
-        this.gameStartTime = System.currentTimeMillis();
-        this.inputDelay = Core.getCooldown(INPUT_DELAY);
+        this.gameStartTime = GameClock.now();
         this.inputDelay.reset();
         drawManager.setDeath(false);
 
         this.isPaused = false;
-        this.pauseCooldown = Core.getCooldown(300);
 
-        augmentCooldown = Core.getCooldown(300);  // 0.2초 디바운스
         augmentCooldown.reset();
     }
 
+    /**
+     * Builds the enemies of the next level in the background while the level
+     * transition plays.
+     *
+     * @param nextLevel
+     *            Number of the next level.
+     */
+    private void prepareLevel(final int nextLevel) {
+        final int screenWidth = this.width;
+        this.preparedLevelNumber = nextLevel;
+        // Enemies read the clock of the session they are built for.
+        this.preparedLevel = CompletableFuture.supplyAsync(GameSession.current().bind(() -> {
+            GameSettings settings = Core.getLevelSettings(nextLevel);
+            if (nextLevel == BOSS_LEVEL)
+                return new PreparedLevel(settings, null, null,
+                        new Boss(screenWidth / 2 - 40, SEPARATION_LINE_HEIGHT + 10));
+            if (settings == null)
+                return null;
+            if (settings.getSwarmSize() > 0)
+                return new PreparedLevel(settings, null, new EnemySwarm(settings), null);
+            return new PreparedLevel(settings, new EnemyShipFormation(settings, nextLevel), null, null);
+        }), Core.getBackgroundExecutor());
+    }
+
+    /**
+     * Takes the enemies prepared for the current level, if they match it.
+     *
+     * @return Prepared enemies, or null if they must be built now.
+     */
+    private PreparedLevel takePreparedLevel() {
+        CompletableFuture<PreparedLevel> future = this.preparedLevel;
+        this.preparedLevel = null;
+        if (future == null || this.preparedLevelNumber != this.level)
+            return null;
+        try {
+            PreparedLevel prepared = future.join();
+            if (prepared != null && (this.level == BOSS_LEVEL || prepared.settings() == this.gameSettings))
+                return prepared;
+        } catch (RuntimeException e) {
+            logger.warning("Failed preparing level " + this.level + ": " + e.getMessage());
+        }
+        return null;
+    }
+
     /**
      * Starts the action.
      *
@@ -238,15 +438,29 @@ public class GameScreen extends Screen {
     protected final void update() {
         super.update();
 
+        // The debug tools are global, so only the window toggles them.
+        if (!drawManager.isHeadless()) {
+            if (inputManager.getSnapshot().wasPressed(KeyEvent.VK_F3))
+                FrameProfiler.toggle();
+            if (inputManager.getSnapshot().wasPressed(KeyEvent.VK_F4))
+                FlightRecording.toggle();
+            if (inputManager.getSnapshot().wasPressed(KeyEvent.VK_F5))
+                LatencyProbe.toggle();
+        }
+        if (this.coopHost != null)
+            updatePartnerConnection();
+
         // Countdown beep once during pre-start
         if (!this.inputDelay.checkFinished()) {
-            long elapsed = System.currentTimeMillis() - this.gameStartTime;
+            long elapsed = GameClock.now() - this.gameStartTime;
 
             if (!countdownSoundPlayed && elapsed > 1750) {
                 SoundManager.playOnce("sound/CountDownSound.wav");
                 countdownSoundPlayed = true;
             }
 
+            if (this.coopHost != null)
+                publishSnapshot();
             draw();
             return;
         }
@@ -270,9 +484,14 @@ public class GameScreen extends Screen {
             return;
         }
 
+        if (this.rewind != null && updateRewind()) {
+            draw();
+            return;
+        }
+
         checkLevelUp();
         if (isLevelUpToast) {
-            if (System.currentTimeMillis() - levelUpToastStart >= 1000) {
+            if (GameClock.now() - levelUpToastStart >= 1000) {
                 cleanBullets();
                 isLevelUpToast = false;
             }
@@ -308,10 +527,8 @@ public class GameScreen extends Screen {
 
                 fire = inputManager.isKeyDown(KeyEvent.VK_SPACE);
 
-                if (fire && playerShip.shoot(this.bullets)) {
-                    SoundManager.playOnce("sound/shoot.wav");
-                    state.incBulletsShot(); // 2P mode: increments per-player bullet shots
-                }
+                if (fire && playerShip.shoot(this.bullets))
+                    events.publish(GameEvent.Type.PLAYER_SHOT);
                 // Special ship lifecycle
                 if (this.enemyShipSpecial != null) {
                     if (!this.enemyShipSpecial.isDestroyed())
@@ -332,6 +549,8 @@ public class GameScreen extends Screen {
                 }
                 // Update ships & enemies
                 playerShip.update();
+                if (this.partnerShip != null)
+                    movePartner();
             }
             if (this.enemyShipSpecial == null && this.enemyShipSpecialCooldown.checkFinished()) {
                 this.enemyShipSpecial = new EnemyShip();
@@ -347,17 +566,26 @@ public class GameScreen extends Screen {
             // Update ships & enemies
             playerShip.update();
 
+            FrameProfiler.begin(FrameProfiler.Section.FORMATION);
             if (this.boss != null && !this.boss.isDestroyed()) {
 
                 int bulletsBefore = this.bullets.size();
 
                 // Boss.update() 안에서 movement + shooting + 패턴 모두 처리됨
-                this.boss.update(this.bullets);
+                this.boss.update(this.bullets, this.playerShip);
 
                 if (this.bullets.size() > bulletsBefore) {
                     SoundManager.playOnce("sound/shoot_enemies.wav");
                 }
             }
+            else if (this.enemySwarm != null) {
+                int bulletsBefore = this.bullets.size();
+                this.enemySwarm.update(playerShip);
+                this.enemySwarm.shoot(this.bullets);
+                if (this.bullets.size() > bulletsBefore) {
+                    SoundManager.playOnce("sound/shoot_enemies.wav");
+                }
+            }
             else if (this.enemyShipFormation != null) {
 
                 this.enemyShipFormation.update();
@@ -368,9 +596,22 @@ public class GameScreen extends Screen {
                     SoundManager.playOnce("sound/shoot_enemies.wav");
                 }
             }
+            FrameProfiler.end(FrameProfiler.Section.FORMATION);
         }
 
+        FrameProfiler.begin(FrameProfiler.Section.COLLISIONS);
+        CollisionEvent collisions = new CollisionEvent();
+        int bulletsTested = this.bullets.size();
+        collisions.begin();
         manageCollisions();
+        if (collisions.shouldCommit()) {
+            collisions.bullets = bulletsTested;
+            collisions.hits = bulletsTested - this.bullets.size();
+            collisions.commit();
+        }
+        FrameProfiler.end(FrameProfiler.Section.COLLISIONS);
+        // Score boosts picked up below only apply from the next kill on.
+        events.dispatch();
         cleanBullets();
 
         // Item Entity Code
@@ -385,14 +626,15 @@ public class GameScreen extends Screen {
         if (!sessionHighScoreNotified && this.state.getScore() > this.topScore) {
             sessionHighScoreNotified = true;
             this.highScoreNotified = true;
-            this.highScoreNoticeStartTime = System.currentTimeMillis();
+            this.highScoreNoticeStartTime = GameClock.now();
         }
         // End condition logic (modified for boss level)
         boolean allEnemiesDestroyed;
-        if (this.level == 5) {
+        if (this.level == BOSS_LEVEL) {
             allEnemiesDestroyed = (this.boss != null && this.boss.isDestroyed());
         } else {
-            allEnemiesDestroyed = (this.enemyShipFormation != null && this.enemyShipFormation.isEmpty());
+            allEnemiesDestroyed = (this.enemyShipFormation != null && this.enemyShipFormation.isEmpty())
+                    || (this.enemySwarm != null && this.enemySwarm.isEmpty());
         }
 
         // End condition: formation cleared (or boss destroyed) or TEAM lives exhausted.
@@ -404,6 +646,16 @@ public class GameScreen extends Screen {
             this.items.removeAll(this.items);
             this.levelFinished = true;
             this.screenFinishedCooldown.reset();
+            if (allEnemiesDestroyed)
+                events.publish(GameEvent.Type.LEVEL_CLEARED);
+            // Prepare whatever comes next while the transition plays.
+            if (playerShip.getStats().getCurHP() > 0) {
+                Core.prefetchLevel(this.level + 1);
+                prepareLevel(this.level + 1);
+            } else if (!drawManager.isHeadless()) {
+                // Only a window goes on to show the high scores.
+                Core.getFileManager().prefetchHighScores();
+            }
         }
 
         if (this.levelFinished && this.screenFinishedCooldown.checkFinished()) {
@@ -412,14 +664,214 @@ public class GameScreen extends Screen {
             }
         }
         if (this.achievementManager != null) this.achievementManager.update();
-        checkAchievement();
+        events.dispatch();
+        if (this.rewind != null && !this.isPaused && !this.isAugSelect && !this.levelFinished)
+            captureState();
+        if (this.coopHost != null)
+            publishSnapshot();
         draw();
     }
 
+    /**
+     * Steps back through the rewind buffer while the rewind key is held.
+     * Once it is released, the frames stepped over are dropped and the game
+     * plays on from the one shown.
+     *
+     * @return If the game rewinds this tick instead of playing.
+     */
+    private boolean updateRewind() {
+        this.rewinding = inputManager.isKeyDown(KeyEvent.VK_BACK_SPACE) && !this.isPaused && !this.isAugSelect
+                && !this.levelFinished && this.rewind.size() > 0;
+        if (this.rewinding) {
+            this.rewindTicks = Math.min(this.rewindTicks + REWIND_SPEED, this.rewind.size() - 1);
+            this.rewind.read(this.rewindTicks, this.rewindFrame);
+            restoreState(this.rewindFrame);
+            return true;
+        }
+        if (this.rewindTicks > 0) {
+            this.rewind.truncate(this.rewindTicks);
+            this.rewindTicks = 0;
+        }
+        return false;
+    }
+
+    /**
+     * Captures everything the next ticks play out from into the rewind
+     * buffer: the clock, which the cooldowns count on, the randomness, the
+     * game state, ships, enemies, bullets and items.
+     */
+    private void captureState() {
+        long start = System.nanoTime();
+        StateFrame frame = this.rewindFrame;
+        frame.clear();
+        GameClock.save(frame);
+        RandomService.save(frame);
+        ItemManager.getInstance().save(frame);
+        this.state.save(frame);
+        this.playerShip.save(frame);
+        this.enemyShipSpecialCooldown.save(frame);
+        this.enemyShipSpecialExplosionCooldown.save(frame);
+        this.pauseCooldown.save(frame);
+        this.augmentCooldown.save(frame);
+        frame.putBoolean(this.tookDamageThisLevel);
+        frame.putInt(this.augSelected.size());
+        frame.putBoolean(this.enemyShipSpecial != null);
+        if (this.enemyShipSpecial != null)
+            this.enemyShipSpecial.save(frame);
+        if (this.boss != null)
+            this.boss.save(frame);
+        if (this.enemySwarm != null)
+            this.enemySwarm.save(frame);
+        if (this.enemyShipFormation != null)
+            this.enemyShipFormation.save(frame);
+        BulletPool.save(this.bullets, frame);
+        ItemPool.save(this.items, frame);
+        this.rewind.capture(frame);
+        GameMetrics.REWIND_CAPTURE_TIME.recordSince(start);
+    }
+
+    /**
+     * Puts the game back as it was in a frame written by
+     * {@link #captureState}. Augments picked since are forgotten, their
+     * effect on the stats being rewound with the ship.
+     *
+     * @param frame
+     *            Frame to read.
+     */
+    private void restoreState(final StateFrame frame) {
+        GameClock.restore(frame);
+        RandomService.restore(frame);
+        ItemManager.getInstance().restore(frame);
+        this.state.restore(frame);
+        this.playerShip.restore(frame);
+        this.enemyShipSpecialCooldown.restore(frame);
+        this.enemyShipSpecialExplosionCooldown.restore(frame);
+        this.pauseCooldown.restore(frame);
+        this.augmentCooldown.restore(frame);
+        this.tookDamageThisLevel = frame.getBoolean();
+        int augments = frame.getInt();
+        if (augments < this.augSelected.size())
+            this.augSelected.subList(augments, this.augSelected.size()).clear();
+        boolean special = frame.getBoolean();
+        if (special) {
+            if (this.enemyShipSpecial == null) {
+                this.enemyShipSpecial = new EnemyShip();
+                SoundManager.playLoop("sound/special_ship_sound.wav");
+            }
+            this.enemyShipSpecial.restore(frame);
+        } else if (this.enemyShipSpecial != null) {
+            this.enemyShipSpecial = null;
+            SoundManager.stop();
+        }
+        if (this.boss != null)
+            this.boss.restore(frame);
+        if (this.enemySwarm != null)
+            this.enemySwarm.restore(frame);
+        if (this.enemyShipFormation != null)
+            this.enemyShipFormation.restore(frame);
+        BulletPool.restore(this.bullets, frame);
+        ItemPool.restore(this.items, frame);
+        if (frame.remaining() != 0)
+            throw new IllegalStateException(frame.remaining() + " values of the rewind frame were not read.");
+        drawManager.setLastLife(playerStats.getCurHP() == 1);
+    }
+
+    /**
+     * Reads the packets of the co-op partner, adding or removing its ship
+     * as it joins or leaves, and takes its input for this tick.
+     */
+    private void updatePartnerConnection() {
+        coopHost.poll();
+        if (coopHost.hasPartner() && this.partnerShip == null) {
+            // Stats of its own, or augments and items of a host playing Normal would apply to both ships.
+            this.partnerShip = new PlayerShip(this.width / 2 - PARTNER_OFFSET, this.height / 10 * 9,
+                    DrawManager.SpriteType.Normal,
+                    PlayerShipLibrary.getShipList().get(DrawManager.SpriteType.Normal).copy(), this.state);
+            this.logger.info("Co-op partner ship joined the game.");
+        } else if (!coopHost.hasPartner() && this.partnerShip != null) {
+            this.partnerShip = null;
+            this.logger.info("Co-op partner ship left the game.");
+        }
+        this.partnerInput = coopHost.nextInput();
+    }
+
+    /**
+     * Moves the ship of the co-op partner and fires for it, with the same
+     * rules the partner uses to predict it.
+     */
+    private void movePartner() {
+        int speed = Math.round(partnerShip.getStats().getMoveSpeed());
+        partnerShip.setPositionX(CoopProtocol.moveX(partnerShip.getPositionX(), partnerShip.getWidth(),
+                speed, this.partnerInput, this.width));
+        partnerShip.setPositionY(CoopProtocol.moveY(partnerShip.getPositionY(), partnerShip.getHeight(),
+                speed, this.partnerInput, SEPARATION_LINE_HEIGHT, this.height));
+        if ((this.partnerInput & CoopProtocol.SHOOT) != 0 && partnerShip.shoot(this.bullets))
+            events.publish(GameEvent.Type.PLAYER_SHOT);
+        partnerShip.update();
+    }
+
+    /**
+     * Sends the co-op partner what is on screen, when a snapshot is due.
+     */
+    private void publishSnapshot() {
+        if (!coopHost.beginSnapshot())
+            return;
+        int flags = 0;
+        if (!this.inputDelay.checkFinished())
+            flags |= Snapshot.FLAG_COUNTDOWN;
+        else if (!this.isPaused && !this.isAugSelect && !this.levelFinished)
+            flags |= Snapshot.FLAG_PLAYING;
+        if (this.isPaused)
+            flags |= Snapshot.FLAG_PAUSED;
+        if (this.levelFinished)
+            flags |= Snapshot.FLAG_LEVEL_FINISHED;
+        if (playerStats.getCurHP() <= 0)
+            flags |= Snapshot.FLAG_GAME_OVER;
+        coopHost.set(Snapshot.FLAGS, flags);
+        coopHost.set(Snapshot.SCORE, state.getScore());
+        coopHost.set(Snapshot.LEVEL, this.level);
+        coopHost.set(Snapshot.COINS, state.getCoins());
+        coopHost.set(Snapshot.HP, playerStats.getCurHP());
+        coopHost.set(Snapshot.MAX_HP, playerStats.getMaxHP());
+        coopHost.set(Snapshot.EXP, playerStats.getExp());
+        if (this.partnerShip != null)
+            coopHost.set(Snapshot.MOVE_SPEED, Math.round(partnerShip.getStats().getMoveSpeed()));
+
+        coopHost.add(EntityState.Kind.HOST_SHIP, playerShip);
+        if (this.partnerShip != null)
+            coopHost.add(EntityState.Kind.PARTNER_SHIP, partnerShip);
+        if (this.enemyShipSpecial != null)
+            coopHost.add(EntityState.Kind.SPECIAL, this.enemyShipSpecial);
+        if (this.boss != null) {
+            coopHost.set(Snapshot.BOSS_HP, Math.round(this.boss.getStats().getHp()));
+            coopHost.add(EntityState.Kind.BOSS, this.boss);
+        }
+        if (this.enemyShipFormation != null) {
+            int formationX = enemyShipFormation.getPositionX();
+            int formationY = enemyShipFormation.getPositionY();
+            coopHost.set(Snapshot.FORMATION_X, formationX);
+            coopHost.set(Snapshot.FORMATION_Y, formationY);
+            for (EnemyShip enemyShip : this.enemyShipFormation)
+                coopHost.add(EntityState.Kind.ENEMY, enemyShip, formationX, formationY);
+        }
+        if (this.enemySwarm != null)
+            coopHost.addCrowd(EntityState.Kind.ENEMY, this.enemySwarm);
+        for (Bullet bullet : this.bullets)
+            coopHost.add(EntityState.Kind.BULLET, bullet);
+        for (Item item : this.items)
+            coopHost.add(EntityState.Kind.ITEM, item);
+        coopHost.sendSnapshot();
+    }
+
     /**
      * Draws the elements associated with the main.screen.
      */
     private void draw() {
+        if (drawManager.isHeadless())
+            return;
+        FrameEvent frame = new FrameEvent();
+        frame.begin();
+        FrameProfiler.begin(FrameProfiler.Section.DRAW);
         drawManager.initDrawing(this);
 
         drawManager.drawExplosions();
@@ -427,6 +879,8 @@ public class GameScreen extends Screen {
 
         drawManager.drawEntity(playerShip, playerShip.getPositionX(), playerShip.getPositionY());
         drawManager.drawHpBar(playerShip.getPositionX(),  playerShip.getPositionY() + playerShip.getHeight() + 2, playerShip.getWidth(), 4, playerStats.getCurHP(),playerStats.getMaxHP(), false);
+        if (this.partnerShip != null)
+            drawManager.drawEntity(partnerShip, partnerShip.getPositionX(), partnerShip.getPositionY());
 
         if (this.enemyShipSpecial != null)
             drawManager.drawEntity(this.enemyShipSpecial, this.enemyShipSpecial.getPositionX(), this.enemyShipSpecial.getPositionY());
@@ -442,26 +896,37 @@ public class GameScreen extends Screen {
             }
         }
 
-        if (this.boss != null)
+        if (this.enemySwarm != null)
+            enemySwarm.draw();
+
+        if (this.boss != null) {
             drawManager.drawEntity(this.boss, this.boss.getPositionX(), this.boss.getPositionY());
+            if (!this.boss.isDestroyed())
+                for (BossPart part : this.boss.getParts())
+                    if (part.isBroken())
+                        drawManager.drawEntity(part, part.getPositionX(), part.getPositionY());
+        }
 
-        for (Bullet bullet : this.bullets)
-            drawManager.drawEntity(bullet, bullet.getPositionX(),bullet.getPositionY());
+        drawManager.drawEntities(this.bullets);
 
         // draw items
-        for (Item item : this.items)
-            drawManager.drawEntity(item, item.getPositionX(),item.getPositionY());
+        drawManager.drawEntities(this.items);
 
 		// Aggregate UI (team score & team lives)
-		drawManager.drawScore(this, state.getScore());
-        drawManager.drawExp(this, playerStats.getExp());
-        drawManager.drawHpBar(40,25,100,10,playerStats.getCurHP(),playerStats.getMaxHP(),false);
-        drawManager.drawCoins(this,  state.getCoins());
-        drawManager.drawLevel(this, this.state.getLevel());
-        drawManager.drawHorizontalLine(this, SEPARATION_LINE_HEIGHT - 1);
-        if (this.enemyShipFormation != null) {
-            drawManager.drawShipCount(this, enemyShipFormation.getShipCount());
+        if (drawManager.beginHud(this)) {
+            drawManager.drawScore(this, state.getScore());
+            drawManager.drawExp(this, playerStats.getExp());
+            drawManager.drawHpBar(40,25,100,10,playerStats.getCurHP(),playerStats.getMaxHP(),false);
+            drawManager.drawCoins(this,  state.getCoins());
+            drawManager.drawLevel(this, this.state.getLevel());
+            drawManager.drawHorizontalLine(this, SEPARATION_LINE_HEIGHT - 1);
+            if (this.enemySwarm != null) {
+                drawManager.drawShipCount(this, enemySwarm.getShipCount());
+            } else if (this.enemyShipFormation != null) {
+                drawManager.drawShipCount(this, enemyShipFormation.getShipCount());
+            }
         }
+        drawManager.endHud();
 
         if (this.boss != null) {
             float maxHP = 100; // Boss 클래스에서 설정된 초기 HP 값
@@ -470,13 +935,13 @@ public class GameScreen extends Screen {
         }
 
         if (!this.inputDelay.checkFinished()) {
-            int countdown = (int) ((INPUT_DELAY - (System.currentTimeMillis() - this.gameStartTime)) / 1000);
+            int countdown = (int) ((INPUT_DELAY - (GameClock.now() - this.gameStartTime)) / 1000);
             drawManager.drawCountDown(this, this.state.getLevel(), countdown, this.bonusLife);
             drawManager.drawHorizontalLine(this, this.height / 2 - this.height / 12);
             drawManager.drawHorizontalLine(this, this.height / 2 + this.height / 12);
         }
         if (this.highScoreNotified &&
-                System.currentTimeMillis() - this.highScoreNoticeStartTime < HIGH_SCORE_NOTICE_DURATION) {
+                GameClock.now() - this.highScoreNoticeStartTime < HIGH_SCORE_NOTICE_DURATION) {
             drawManager.drawNewHighScoreNotice(this);
         }
 
@@ -487,6 +952,8 @@ public class GameScreen extends Screen {
                         ? this.achievementManager.getActiveToasts()
                         : java.util.Collections.emptyList()
         );
+        if (this.rewinding)
+            drawManager.drawCenteredRegularString(this, "<< REWIND", this.height / 2);
         if(this.isPaused){
             drawManager.drawPauseOverlay(this);
             // pause 화면에서 표시
@@ -503,7 +970,19 @@ public class GameScreen extends Screen {
         if(this.isAugSelect && !isLevelUpToast){
             drawManager.drawAugmentOverlay(this, augOption, augmentIndex);
         }
+        FrameProfiler.end(FrameProfiler.Section.DRAW);
+        if (FrameProfiler.isEnabled()) {
+            int enemies = enemyCount();
+            FrameProfiler.setCounts(this.bullets.size(), this.items.size(), enemies,
+                    drawManager.getParticleCount());
+            drawManager.drawPerformanceOverlay(this);
+        }
         drawManager.completeDrawing(this);
+        if (frame.shouldCommit()) {
+            frame.level = this.level;
+            frame.particles = drawManager.getParticleCount();
+            frame.commit();
+        }
     }
 
     /**
@@ -514,13 +993,13 @@ public class GameScreen extends Screen {
         if(playerStats.getExp() >= MAX_EXP){
             playerStats.resetExp();
             List<Augment> list = new ArrayList<>(AugmentLibrary.pool);
-            Collections.shuffle(list);
+            Collections.shuffle(list, RandomService.gameplay());
             augOption = list.subList(0, Math.min(AUGMENT_OPTION_COUNT, list.size()));
             isAugSelect = true;
             isLevelUpToast = true;
             cleanBullets();
             SoundManager.playOnce("sound/win.wav");
-            levelUpToastStart = System.currentTimeMillis();
+            levelUpToastStart = GameClock.now();
         }
     }
 
@@ -560,12 +1039,9 @@ public class GameScreen extends Screen {
      */
     private void cleanBullets() {
         Set<Bullet> recyclable = new HashSet<Bullet>();
-        for (Bullet bullet : this.bullets) {
-            bullet.update();
-            if (bullet.getPositionY() < SEPARATION_LINE_HEIGHT
-                    || bullet.getPositionY() > this.height)
-                recyclable.add(bullet);
-        }
+        EntitySystems.move(this.bullets);
+        EntitySystems.collectOutside(this.bullets, SEPARATION_LINE_HEIGHT, this.height, recyclable);
+        EntitySystems.collectBeside(this.bullets, -BULLET_MARGIN, this.width, recyclable);
         this.bullets.removeAll(recyclable);
         BulletPool.recycle(recyclable);
     }
@@ -575,11 +1051,8 @@ public class GameScreen extends Screen {
      */
     private void cleanItems() {
         Set<Item> recyclableItems = new HashSet<Item>();
-        for (Item item : this.items) {
-            item.update();
-            if (item.getPositionY() > this.height)
-                recyclableItems.add(item);
-        }
+        EntitySystems.move(this.items);
+        EntitySystems.collectOutside(this.items, Integer.MIN_VALUE, this.height, recyclableItems);
         this.items.removeAll(recyclableItems);
         ItemPool.recycle(recyclableItems);
     }
@@ -589,37 +1062,113 @@ public class GameScreen extends Screen {
      */
     private void manageItemPickups() {
         Set<Item> collected = new HashSet<Item>();
-        for (Item item : this.items) {
-            if (checkCollision(item, playerShip) && !collected.contains(item)) {
+        for (int row = 0; row < this.items.size(); row++) {
+            Item item = this.items.get(row);
+            boolean touched = EntitySystems.overlaps(this.items, row, playerShip)
+                    || this.partnerShip != null && EntitySystems.overlaps(this.items, row, this.partnerShip);
+            if (touched && !collected.contains(item)) {
                 collected.add(item);
-                this.logger.info("Player " + " picked up item: " + item.getType());
-                SoundManager.playOnce("sound/hover.wav");
+                events.publish(GameEvent.Type.ITEM_PICKED).from(item);
                 item.applyEffect(getGameState());
-                this.state.incrementItemsCollected();
             }
         }
         this.items.removeAll(collected);
         ItemPool.recycle(collected);
     }
 
+    /**
+     * Narrow phase of the collisions, after the broad phase marked a bullet.
+     *
+     * @param row
+     *            Row of the bullet.
+     * @param target
+     *            Ship it may hit.
+     * @return If the bullet hits the ship.
+     */
+    private boolean hits(final int row, final Entity target) {
+        return this.pixelCollisions ? EntitySystems.hits(this.bullets, row, target)
+                : EntitySystems.overlaps(this.bullets, row, target);
+    }
+
+    /**
+     * Finds a ship of the swarm a bullet hits, testing only the ships in the
+     * grid cells around the bullet.
+     *
+     * @param row
+     *            Row of the bullet.
+     * @param narrow
+     *            If the narrow phase decides, or the boxes alone.
+     * @return Ship hit, or null.
+     */
+    private EnemyShip swarmShipHit(final int row, final boolean narrow) {
+        return this.enemySwarm.find(this.bullets.column(Archetype.Component.X)[row],
+                this.bullets.column(Archetype.Component.Y)[row],
+                this.bullets.column(Archetype.Component.WIDTH)[row],
+                this.bullets.column(Archetype.Component.HEIGHT)[row],
+                ship -> narrow ? hits(row, ship) : EntitySystems.overlaps(this.bullets, row, ship));
+    }
+
+    /**
+     * Finds the part of the boss a bullet hits. The hierarchy of the parts
+     * rules out most bullets with one box test, before the pixels are
+     * tested against the whole boss.
+     *
+     * @param row
+     *            Row of the bullet.
+     * @return Part hit, or null.
+     */
+    private BossPart bossPartHit(final int row) {
+        if (this.boss == null || this.boss.isDestroyed())
+            return null;
+        if (!this.bossParts)
+            return hits(row, this.boss) ? this.boss.getHull() : null;
+        BossPart part = this.boss.partAt(this.bullets.column(Archetype.Component.X)[row],
+                this.bullets.column(Archetype.Component.Y)[row],
+                this.bullets.column(Archetype.Component.WIDTH)[row],
+                this.bullets.column(Archetype.Component.HEIGHT)[row]);
+        return part != null && hits(row, this.boss) ? part : null;
+    }
+
     /**
      * Enemy bullets hit players → decrement TEAM lives; player bullets hit enemies
      * → add score.
      */
     private void manageCollisions() {
         Set<Bullet> recyclable = new HashSet<Bullet>();
-        for (Bullet bullet : this.bullets) {
-            if (bullet.getSpeedY() > 0) {
-                // Enemy bullet vs both players
-                if (playerShip != null && !playerShip.isDestroyed() && checkCollision(bullet, playerShip) &&
+        // Broad phase: bullets touching no ship are skipped below.
+        boolean[] near = EntitySystems.clearMarks(this.bullets);
+        if (playerShip != null)
+            EntitySystems.markOverlaps(this.bullets, playerShip);
+        if (partnerShip != null)
+            EntitySystems.markOverlaps(this.bullets, partnerShip);
+        if (this.boss != null)
+            EntitySystems.markOverlaps(this.bullets, this.boss);
+        if (this.enemyShipFormation != null)
+            for (EnemyShip enemyShip : this.enemyShipFormation)
+                if (!enemyShip.isDestroyed())
+                    EntitySystems.markOverlaps(this.bullets, enemyShip);
+        if (this.enemyShipSpecial != null)
+            EntitySystems.markOverlaps(this.bullets, this.enemyShipSpecial);
+        if (this.enemySwarm != null)
+            for (int row = 0; row < this.bullets.size(); row++)
+                if (!near[row] && swarmShipHit(row, false) != null)
+                    near[row] = true;
+
+        int[] team = this.bullets.column(Archetype.Component.TEAM);
+        for (int row = 0; row < this.bullets.size(); row++) {
+            if (!near[row])
+                continue;
+            Bullet bullet = this.bullets.get(row);
+            if (team[row] == Entity.Team.ENEMY.ordinal()) {
+                // Enemy bullet vs both players, whichever way it flies
+                if (playerShip != null && !playerShip.isDestroyed() && hits(row, playerShip) &&
                         !this.levelFinished) {
                     recyclable.add(bullet);
-                    drawManager.triggerExplosion(playerShip.getPositionX(), playerShip.getPositionY(), false,
-                            playerShip.getStats().getCurHP() == 1);
+                    events.publish(GameEvent.Type.PLAYER_HIT).from(playerShip)
+                            .last(playerShip.getStats().getCurHP() == 1);
                     playerShip.addHit();
 
                     playerShip.destroy(); // explosion/respawn handled by Ship.update()
-                    SoundManager.playOnce("sound/explosion.wav");
                     playerShip.getStats().setCurHP(playerShip.getStats().getCurHP() - 1); // decrement shared/team lives by 1
 
                     // Record damage for Survivor achievement check
@@ -627,35 +1176,34 @@ public class GameScreen extends Screen {
 
                     drawManager.setLastLife(playerShip.getStats().getCurHP() == 1);
                     drawManager.setDeath(playerShip.getStats().getCurHP() == 0);
-
-                    this.logger.info("Hit on player " + ", team lives now: " + playerShip.getStats().getCurHP());
                     break;
 
                 }
+                if (partnerShip != null && !partnerShip.isDestroyed() && hits(row, partnerShip) &&
+                        !this.levelFinished) {
+                    recyclable.add(bullet);
+                    events.publish(GameEvent.Type.PLAYER_HIT).from(partnerShip)
+                            .last(playerShip.getStats().getCurHP() == 1);
+                    partnerShip.destroy();
+                    // The partner shares the lives of the team.
+                    playerShip.getStats().setCurHP(playerShip.getStats().getCurHP() - 1);
+                    this.tookDamageThisLevel = true;
+                    drawManager.setLastLife(playerShip.getStats().getCurHP() == 1);
+                    drawManager.setDeath(playerShip.getStats().getCurHP() == 0);
+                    break;
+                }
             } else {
                 // Player bullet vs enemies
-                if (this.boss != null && !this.boss.isDestroyed() && checkCollision(bullet, this.boss)) {
+                BossPart bossPart = bossPartHit(row);
+                if (bossPart != null) {
                     recyclable.add(bullet);
-                    this.boss.hit(playerStats.getATK());
+                    this.boss.hit(bossPart, playerStats.getATK());
 
-                    if (this.boss.isDestroyed()) {
-                        int points = this.boss.getStats().getPointValue();
-                        state.addScore(points);
-                        state.addCoins(this.boss.getStats().getCoinValue());
-
-                        drawManager.triggerExplosion(
-                                this.boss.getPositionX(),
-                                this.boss.getPositionY(),
-                                true,
-                                true
-                        );
-
-                        SoundManager.playOnce("sound/explosion.wav");
-                        this.logger.info("Boss destroyed!");
-
-                    } else {
-                        SoundManager.playOnce("sound/invaderkilled.wav"); // Hit sound for boss
-                    }
+                    if (this.boss.isDestroyed())
+                        events.publish(GameEvent.Type.BOSS_KILLED).from(this.boss)
+                                .reward(this.boss.getStats().getPointValue(), this.boss.getStats().getCoinValue(), 0);
+                    else
+                        events.publish(GameEvent.Type.BOSS_HIT).from(this.boss);
                 }
 
                 // 2. Check collision with formation enemies (only on non-boss levels)
@@ -664,51 +1212,60 @@ public class GameScreen extends Screen {
 
                 // Check collision with formation enemies
                 for (EnemyShip enemyShip : this.enemyShipFormation) {
-                    if (!enemyShip.isDestroyed() && checkCollision(bullet, enemyShip)) {
+                    if (!enemyShip.isDestroyed() && hits(row, enemyShip)) {
                         recyclable.add(bullet);
                         enemyShip.hit(playerStats.getATK());
 
                         if (enemyShip.isDestroyed()) {
-                            int points = enemyShip.getStats().getPointValue();
-                            state.addCoins(enemyShip.getStats().getCoinValue()); // 2P mode: modified to per-player coins
-                            int exp = enemyShip.getStats().getExpValue();
-
-                            drawManager.triggerExplosion(enemyShip.getPositionX(), enemyShip.getPositionY(),
-                                    true, finalShip);
-                            state.addScore(points); // 2P mode: modified to add to P1 score for now
-                            playerStats.addExp(exp);
-                            state.incShipsDestroyed();
+                            EnemyShipStats stats = enemyShip.getStats();
+                            events.publish(GameEvent.Type.ENEMY_KILLED).from(enemyShip)
+                                    .reward(stats.getPointValue(), stats.getCoinValue(), stats.getExpValue())
+                                    .last(finalShip);
 
                                 // obtain drop from ItemManager (may return null)
                                 Item drop = ItemManager.getInstance().obtainDrop(enemyShip);
                                 if (drop != null) {
                                     this.items.add(drop);
-                                    this.logger.info("Spawned " + drop.getType() + " at " + drop.getPositionX() + "," + drop.getPositionY());
+                                    events.publish(GameEvent.Type.ITEM_DROPPED).from(drop);
                                 }
 
                                 this.enemyShipFormation.destroy(enemyShip);
-                                SoundManager.playOnce("sound/invaderkilled.wav");
-                                this.logger.info("Hit on enemy ship.");
                             }
                             break;
                         }
                     }
                 }
 
-                if (this.enemyShipSpecial != null && !this.enemyShipSpecial.isDestroyed() && checkCollision(bullet, this.enemyShipSpecial)) {
-                    int points = this.enemyShipSpecial.getStats().getPointValue();
-                    int exp = this.enemyShipSpecial.getStats().getExpValue();
+                // Or with the swarm, only the ships the grid puts near the bullet.
+                else if (this.enemySwarm != null) {
+                    EnemyShip enemyShip = swarmShipHit(row, true);
+                    if (enemyShip != null) {
+                        recyclable.add(bullet);
+                        enemyShip.hit(playerStats.getATK());
+
+                        if (enemyShip.isDestroyed()) {
+                            EnemyShipStats stats = enemyShip.getStats();
+                            events.publish(GameEvent.Type.ENEMY_KILLED).from(enemyShip)
+                                    .reward(stats.getPointValue(), stats.getCoinValue(), stats.getExpValue())
+                                    .last(this.enemySwarm.lastShip());
+
+                            Item drop = ItemManager.getInstance().obtainDrop(enemyShip);
+                            if (drop != null) {
+                                this.items.add(drop);
+                                events.publish(GameEvent.Type.ITEM_DROPPED).from(drop);
+                            }
 
-                    state.addCoins(this.enemyShipSpecial.getStats().getCoinValue()); // 2P mode: modified to per-player coins
+                            this.enemySwarm.destroy(enemyShip);
+                        }
+                    }
+                }
 
-                    state.addScore(points);
-                    playerStats.addExp(exp);
-                    state.incShipsDestroyed(); // 2P mode: modified incrementing ships destroyed
+                if (this.enemyShipSpecial != null && !this.enemyShipSpecial.isDestroyed() && hits(row, this.enemyShipSpecial)) {
+                    EnemyShipStats stats = this.enemyShipSpecial.getStats();
+                    events.publish(GameEvent.Type.SPECIAL_KILLED).from(this.enemyShipSpecial)
+                            .reward(stats.getPointValue(), stats.getCoinValue(), stats.getExpValue());
 
 					this.enemyShipSpecial.destroy();
-                    SoundManager.stop();
-                    SoundManager.playOnce("sound/explosion.wav");
-                    drawManager.triggerExplosion(this.enemyShipSpecial.getPositionX(), this.enemyShipSpecial.getPositionY(), true, true);
                     this.enemyShipSpecialExplosionCooldown.reset();
                     recyclable.add(bullet);
                 }
@@ -719,24 +1276,28 @@ public class GameScreen extends Screen {
     }
 
     /**
-     * Checks if two entities are colliding.
+     * Adds the entity counts of the level to a recorded tick.
      *
-     * @param a
-     *            First main.entity, the bullet.
-     * @param b
-     *            Second main.entity, the ship.
-     * @return Result of the collision test.
+     * @param tick
+     *            Tick event about to be committed.
+     */
+    @Override
+    protected void describeTick(final TickEvent tick) {
+        tick.bullets = this.bullets.size();
+        tick.items = this.items.size();
+        tick.enemies = enemyCount();
+        tick.particles = drawManager.getParticleCount();
+    }
+
+    /**
+     * @return Enemies left in the level.
      */
-    private boolean checkCollision(final Entity a, final Entity b) {
-        int centerAX = a.getPositionX() + a.getWidth() / 2;
-        int centerAY = a.getPositionY() + a.getHeight() / 2;
-        int centerBX = b.getPositionX() + b.getWidth() / 2;
-        int centerBY = b.getPositionY() + b.getHeight() / 2;
-        int maxDistanceX = a.getWidth() / 2 + b.getWidth() / 2;
-        int maxDistanceY = a.getHeight() / 2 + b.getHeight() / 2;
-        int distanceX = Math.abs(centerAX - centerBX);
-        int distanceY = Math.abs(centerAY - centerBY);
-        return distanceX < maxDistanceX && distanceY < maxDistanceY;
+    private int enemyCount() {
+        if (this.enemySwarm != null)
+            return this.enemySwarm.getShipCount();
+        if (this.enemyShipFormation != null)
+            return this.enemyShipFormation.getShipCount();
+        return this.boss != null && !this.boss.isDestroyed() ? 1 : 0;
     }
 
     /**
@@ -749,43 +1310,104 @@ public class GameScreen extends Screen {
     }
 
     /**
-     * check Achievement released;
+     * @return Ship of the player.
      */
-    public void checkAchievement(){
-        // First Blood
-        if(state.getShipsDestroyed() == 1) {
-            achievementManager.unlock("First Blood");
-        }
-        // Clear
-        boolean levelCleared;
-        if (state.getLevel() == 5) {
-            levelCleared = this.levelFinished && (this.boss != null && this.boss.isDestroyed());
-        } else {
-            levelCleared = this.levelFinished && this.enemyShipFormation.isEmpty();
-        }
+    public final PlayerShip getPlayerShip() {
+        return this.playerShip;
+    }
+
+    /**
+     * @return Bullets on screen, of every team. Not to be modified.
+     */
+    public final Set<Bullet> getBullets() {
+        return this.bullets;
+    }
+
+    /**
+     * @return Formation of the level, or null on the boss and swarm levels.
+     */
+    public final EnemyShipFormation getEnemyShipFormation() {
+        return this.enemyShipFormation;
+    }
 
-        // Clear
-        if (levelCleared && state.getLevel()==5) {
-            achievementManager.unlock("Clear");
-            float Acc = state.getBulletsShot() > 0 ? (float) state.getShipsDestroyed() / state.getBulletsShot()*100 : 0f;
-            // Survivor
-            if(!this.tookDamageThisLevel){
-                achievementManager.unlock("Survivor");
+    /**
+     * @return Swarm of the level, or null on levels with a formation or the boss.
+     */
+    public final EnemySwarm getEnemySwarm() {
+        return this.enemySwarm;
+    }
+
+    /**
+     * @return Boss of the level, or null on other levels.
+     */
+    public final Boss getBoss() {
+        return this.boss;
+    }
+
+    /**
+     * Adds a handler to the gameplay events of this screen, after the ones
+     * of the screen itself.
+     *
+     * @param handler
+     *            Handler to add.
+     */
+    public final void subscribe(final GameEventHandler handler) {
+        events.subscribe(handler);
+    }
+
+    /**
+     * Applies the score, coins, experience and counters earned by an event.
+     *
+     * @param event
+     *            Event to apply.
+     * @param endOfBatch
+     *            If it is the last event of the batch.
+     */
+    private void applyRewards(final GameEvent event, final boolean endOfBatch) {
+        switch (event.getType()) {
+            case PLAYER_SHOT -> state.incBulletsShot();
+            case ENEMY_KILLED, SPECIAL_KILLED -> {
+                state.addCoins(event.getCoins());
+                state.addScore(event.getPoints());
+                playerStats.addExp(event.getExp());
+                state.incShipsDestroyed();
+            }
+            case BOSS_KILLED -> {
+                state.addScore(event.getPoints());
+                state.addCoins(event.getCoins());
             }
-            //Sharpshooter
-            if(Acc>=80)
-                achievementManager.unlock("Sharpshooter");
+            case ITEM_PICKED -> state.incrementItemsCollected();
+            default -> { }
         }
+    }
 
-        //50 Bullets
-        if(state.getBulletsShot() >= 50){
-            achievementManager.unlock("50 Bullets");
-        }
-        //Get 3000 Score
-        if(state.getScore()>=3000){
-            achievementManager.unlock("Get 3000 Score");
+    /**
+     * Passes the counters an event changed on to the achievement rules.
+     *
+     * @param event
+     *            Event that happened.
+     * @param endOfBatch
+     *            If it is the last event of the batch.
+     */
+    private void checkAchievement(final GameEvent event, final boolean endOfBatch) {
+        switch (event.getType()) {
+            case ENEMY_KILLED, SPECIAL_KILLED ->
+                    achievementManager.setCounter(AchievementCounter.SHIPS_DESTROYED, state.getShipsDestroyed());
+            case PLAYER_SHOT -> achievementManager.setCounter(AchievementCounter.BULLETS_SHOT, state.getBulletsShot());
+            case ITEM_PICKED ->
+                    achievementManager.setCounter(AchievementCounter.ITEMS_COLLECTED, state.getItemsCollected());
+            case LEVEL_CLEARED -> {
+                achievementManager.setCounter(AchievementCounter.LEVEL_CLEARED, state.getLevel());
+                if (!this.tookDamageThisLevel)
+                    achievementManager.setCounter(AchievementCounter.FLAWLESS_LEVEL_CLEARED, state.getLevel());
+            }
+            default -> { }
         }
+        // Bonuses change the score too, so it is passed on once per batch.
+        if (endOfBatch)
+            achievementManager.setCounter(AchievementCounter.SCORE, state.getScore());
     }
+
     private void earlyExitToScore() {
         SoundManager.stopBackgroundMusic();
         // 목숨 0으로
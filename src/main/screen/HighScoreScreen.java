@@ -33,7 +33,24 @@ public class HighScoreScreen extends Screen {
         SoundManager.playLoop("sound/menu_sound.wav");
 
         this.returnCode = 1;
+        loadHighScores();
+    }
+
+    /**
+     * Prepares the screen to be shown again, with the current high scores.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        SoundManager.playLoop("sound/menu_sound.wav");
+        this.returnCode = 1;
+        loadHighScores();
+    }
 
+    /**
+     * Loads the top high scores to show.
+     */
+    private void loadHighScores() {
         try {
             this.highScores = Core.getFileManager().loadHighScores();
             //상위 7명만 남기기
@@ -80,6 +97,17 @@ public class HighScoreScreen extends Screen {
             }
         }
     }
+
+    /**
+     * The leaderboard does not change while it is shown.
+     *
+     * @return Always false.
+     */
+    @Override
+    protected boolean isAnimating() {
+        return false;
+    }
+
     /**
      * Draws the elements associated with the main.screen.
      */
@@ -7,7 +7,13 @@ import java.util.logging.Logger;
 import main.engine.Cooldown;
 import main.engine.Core;
 import main.engine.DrawManager;
+import main.engine.FrameProfiler;
+import main.engine.GameClock;
 import main.engine.InputManager;
+import main.engine.LatencyProbe;
+import main.engine.QualityController;
+import main.engine.jfr.TickEvent;
+import main.engine.metrics.GameMetrics;
 
 /**
  * Implements a generic main.screen.
@@ -19,6 +25,8 @@ public class Screen {
 
 	/** Milliseconds until the main.screen accepts user input. */
 	private static final int INPUT_DELAY = 1000;
+	/** Milliseconds between redraws of a screen that is not animating. */
+	private static final int IDLE_FRAME_INTERVAL = 500;
 
 	/** Draw Manager instance. */
 	protected DrawManager drawManager;
@@ -73,6 +81,16 @@ public class Screen {
 
 	}
 
+	/**
+	 * Prepares the main.screen to be shown again, so it can be reused instead
+	 * of constructed anew. Subclasses restore their own state and call super.
+	 */
+	public void reset() {
+		this.isRunning = false;
+		this.returnCode = 0;
+		this.inputDelay.reset();
+	}
+
 	/**
 	 * Activates the main.screen.
 	 *
@@ -83,16 +101,39 @@ public class Screen {
 
 		while (this.isRunning) {
 			long time = System.currentTimeMillis();
-
+			long inputEvents = inputManager.getInputEventCount();
+
+			LatencyProbe.inputDrained(inputManager.beginTick());
+			GameClock.tick();
+			long tickStart = System.nanoTime();
+			TickEvent tick = new TickEvent();
+			tick.begin();
+			FrameProfiler.begin(FrameProfiler.Section.UPDATE);
 			update();
+			FrameProfiler.end(FrameProfiler.Section.UPDATE);
+			FrameProfiler.endFrame();
+			long tickTime = System.nanoTime() - tickStart;
+			GameMetrics.TICK_TIME.record(tickTime);
+			if (!drawManager.isHeadless())
+				QualityController.frameFinished(tickTime, GameClock.getFrameDuration(this.fps));
+			if (tick.shouldCommit()) {
+				tick.screen = getClass().getSimpleName();
+				tick.tick = inputManager.getSnapshot().getTick();
+				describeTick(tick);
+				tick.commit();
+			}
 
-			time = (1000 / this.fps) - (System.currentTimeMillis() - time);
-			if (time > 0) {
-				try {
-					TimeUnit.MILLISECONDS.sleep(time);
-				} catch (InterruptedException e) {
-					return 0;
+			try {
+				if (this.isRunning && !isAnimating() && !inputManager.isInputHeld()) {
+					// Nothing moves on its own, so sleep until input arrives.
+					inputManager.awaitInput(inputEvents, IDLE_FRAME_INTERVAL);
+				} else {
+					time = GameClock.getFrameDuration(this.fps) - (System.currentTimeMillis() - time);
+					if (time > 0)
+						TimeUnit.MILLISECONDS.sleep(time);
 				}
+			} catch (InterruptedException e) {
+				return 0;
 			}
 		}
 
@@ -105,6 +146,26 @@ public class Screen {
 	protected void update() {
 	}
 
+	/**
+	 * Fills in the screen specific fields of a recorded tick.
+	 *
+	 * @param tick
+	 *            Tick event about to be committed.
+	 */
+	protected void describeTick(final TickEvent tick) {
+	}
+
+	/**
+	 * Returns true if the main.screen changes without input and must be
+	 * redrawn every frame. Static screens only redraw on input events, or
+	 * every {@link #IDLE_FRAME_INTERVAL} milliseconds.
+	 *
+	 * @return If the main.screen is animating.
+	 */
+	protected boolean isAnimating() {
+		return true;
+	}
+
 	/**
 	 * Getter for main.screen width.
 	 *
@@ -2,6 +2,7 @@ package main.screen;
 
 import main.engine.Cooldown;
 import main.engine.Core;
+import main.engine.QualityController;
 import main.engine.SoundManager;
 import java.awt.event.KeyEvent;
 
@@ -9,8 +10,9 @@ public class SettingScreen extends Screen {
     private static final int volumeMenu = 0;
     private static final int firstplayerMenu = 1;
     private static final int secondplayerMenu= 2;
+    private static final int graphicsMenu = 3;
     private static final int back = -1;
-    private final String[] menuItem = {"Volume", "1P Keyset", "2P Keyset"};
+    private final String[] menuItem = {"Volume", "1P Keyset", "2P Keyset", "Graphics"};
     private int selectMenuItem;
     private Cooldown inputCooldown;
     private int volumelevel;
@@ -42,6 +44,20 @@ public class SettingScreen extends Screen {
         SoundManager.playLoop("sound/menu_sound.wav");
     }
 
+    /**
+     * Prepares the settings screen to be shown again, with the current keys.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        this.returnCode = 1;
+        this.player1Keys = Core.getInputManager().getPlayer1Keys();
+        this.player2Keys = Core.getInputManager().getPlayer2Keys();
+        this.draggingVolume = false;
+        this.waitingForNewKey = false;
+        SoundManager.playLoop("sound/menu_sound.wav");
+    }
+
     private void setVolumeFromX(java.awt.Rectangle barBox, int mouseX) {
         double ratio = (double)(mouseX - barBox.x) / (double)barBox.width;
         ratio = Math.max(0.0, Math.min(1.0, ratio));
@@ -115,6 +131,17 @@ public class SettingScreen extends Screen {
                  }
              }
         }
+        else if (this.selectMenuItem == graphicsMenu) {
+            if (this.inputCooldown.checkFinished()) {
+                int step = inputManager.isKeyDown(KeyEvent.VK_LEFT) ? -1
+                        : inputManager.isKeyDown(KeyEvent.VK_RIGHT) ? 1 : 0;
+                if (step != 0) {
+                    QualityController.cyclePreset(step);
+                    Core.getInputManager().saveKeyConfig();
+                    this.inputCooldown.reset();
+                }
+            }
+        }
         /**
          * Change key settings
          */
@@ -254,6 +281,16 @@ public class SettingScreen extends Screen {
         draw();
     }
 
+    /**
+     * Keys and volume only change on input.
+     *
+     * @return Always false.
+     */
+    @Override
+    protected boolean isAnimating() {
+        return false;
+    }
+
     /**
      * Draws the elements associated with the main.screen.
      */
@@ -272,6 +309,9 @@ public class SettingScreen extends Screen {
             case secondplayerMenu:
                 drawManager.drawKeysettings(this, 2,  this.selectedSection, this.keySelected, this.player2Keys);
                 break;
+            case graphicsMenu:
+                drawManager.drawGraphicsSetting(this, QualityController.getPresetLabel());
+                break;
         }
 
         // hover highlight
@@ -26,6 +26,17 @@ public class ShipSelectionScreen extends Screen {
         playerShipExamples[3] = new PlayerShip(width / 2 + 100, height / 2, DrawManager.SpriteType.MoveFast, null);
     }
 
+    /**
+     * Prepares the ship selection screen to be shown again, keeping the last
+     * selected ship.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        this.selectionCooldown.reset();
+        this.backSelected = false;
+    }
+
     /**
      * Returns the selected ship type to Core.
      *
@@ -89,6 +100,16 @@ public class ShipSelectionScreen extends Screen {
         }
     }
 
+    /**
+     * Ship previews are static, only the selection changes.
+     *
+     * @return Always false.
+     */
+    @Override
+    protected boolean isAnimating() {
+        return false;
+    }
+
     private void draw() {
         drawManager.initDrawing(this);
 
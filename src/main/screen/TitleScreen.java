@@ -49,6 +49,18 @@ public class TitleScreen extends Screen {
         SoundManager.playLoop("sound/menu_sound.wav");
     }
 
+    /**
+     * Prepares the title screen to be shown again, keeping the last selection.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        this.returnCode = 1;
+        this.hoverOption = null;
+        this.selectionCooldown.reset();
+        SoundManager.playLoop("sound/menu_sound.wav");
+    }
+
     /**
      * Starts the action.
      *
@@ -145,6 +157,16 @@ public class TitleScreen extends Screen {
         drawManager.menuHover(this.menuIndex);
     }
 
+    /**
+     * The starfield moves every frame.
+     *
+     * @return Always true.
+     */
+    @Override
+    protected boolean isAnimating() {
+        return true;
+    }
+
     /**
      * Shifts the focus to the previous menu item.
      */
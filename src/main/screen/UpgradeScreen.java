@@ -33,6 +33,16 @@ public class UpgradeScreen extends Screen {
         this.shipIndex = 0;
     }
 
+    /**
+     * Prepares the upgrade screen to be shown again.
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        this.selectionCooldown.reset();
+        this.selectionIndex = 0;
+    }
+
     private SpriteType getCurrentShip() {
         return shipTypes.get(shipIndex);
     }
@@ -119,6 +129,16 @@ public class UpgradeScreen extends Screen {
         }
     }
 
+    /**
+     * Upgrades only change on input.
+     *
+     * @return Always false.
+     */
+    @Override
+    protected boolean isAnimating() {
+        return false;
+    }
+
     private void draw() {
         drawManager.initDrawing(this);
         drawManager.drawUpgradeScreen(this, shipTypes, shipIndex, selectionIndex, upgradeManager);
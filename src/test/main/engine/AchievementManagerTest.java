@@ -0,0 +1,58 @@
+package test.main.engine;
+
+import main.engine.Achievement;
+import main.engine.AchievementCounter;
+import main.engine.AchievementManager;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AchievementManagerTest {
+
+    private AchievementManager manager;
+
+    @BeforeEach
+    void setUp() {
+        manager = new AchievementManager();
+    }
+
+    private boolean isUnlocked(String id) {
+        for (Achievement achievement : manager.getAchievements())
+            if (achievement.getId().equals(id))
+                return achievement.isUnlocked();
+        throw new AssertionError("No achievement " + id);
+    }
+
+    @Test
+    void unlocksWhenThresholdReached() {
+        manager.setCounter(AchievementCounter.BULLETS_SHOT, 49);
+        assertFalse(isUnlocked("bullets_50"));
+
+        manager.setCounter(AchievementCounter.BULLETS_SHOT, 50);
+        assertTrue(isUnlocked("bullets_50"));
+    }
+
+    @Test
+    void onlyTriggeringCountersEvaluateRules() {
+        // Accuracy is good, but sharpshooter is only judged on a campaign clear.
+        manager.setCounter(AchievementCounter.BULLETS_SHOT, 10);
+        manager.setCounter(AchievementCounter.SHIPS_DESTROYED, 9);
+        assertFalse(isUnlocked("sharpshooter"));
+
+        manager.setCounter(AchievementCounter.LEVEL_CLEARED, 5);
+        assertTrue(isUnlocked("sharpshooter"));
+        assertTrue(isUnlocked("clear"));
+        assertFalse(isUnlocked("survivor"));
+    }
+
+    @Test
+    void unlocksOnlyOnce() {
+        manager.setCounter(AchievementCounter.SCORE, 3000);
+        manager.setCounter(AchievementCounter.SCORE, 4000);
+        manager.unlock("score_3000");
+
+        long unlocked = manager.getAchievements().stream().filter(Achievement::isUnlocked).count();
+        assertEquals(1, unlocked);
+        assertEquals(4000, manager.getCounter(AchievementCounter.SCORE));
+    }
+}
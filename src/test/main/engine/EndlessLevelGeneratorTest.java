@@ -0,0 +1,54 @@
+package test.main.engine;
+
+import main.engine.EndlessLevelGenerator;
+import main.engine.GameSettings;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndlessLevelGeneratorTest {
+
+    @Test
+    void sameSeedGivesSameStage() {
+        GameSettings a = EndlessLevelGenerator.generate(42L, 7);
+        GameSettings b = EndlessLevelGenerator.generate(42L, 7);
+
+        assertEquals(a.getFormationWidth(), b.getFormationWidth());
+        assertEquals(a.getFormationHeight(), b.getFormationHeight());
+        assertEquals(a.getShootingFrequency(), b.getShootingFrequency());
+        assertEquals(a.getChangeDataList().size(), b.getChangeDataList().size());
+    }
+
+    @Test
+    void stagesStayInsideFormation() {
+        for (int depth = 1; depth <= 200; depth++) {
+            GameSettings settings = EndlessLevelGenerator.generate(1234L, depth);
+            for (GameSettings.ChangeData change : settings.getChangeDataList()) {
+                assertTrue(change.x >= 0 && change.x < settings.getFormationWidth());
+                assertTrue(change.y >= 0 && change.y < settings.getFormationHeight() - (change.hp == 0 ? 1 : 0),
+                        "Bottom row must never be removed");
+            }
+        }
+    }
+
+    @Test
+    void laterStagesAreHarder() {
+        GameSettings early = EndlessLevelGenerator.generate(99L, 1);
+        GameSettings late = EndlessLevelGenerator.generate(99L, 60);
+
+        assertTrue(late.getBaseSpeed() < early.getBaseSpeed());
+        assertTrue(late.getShootingFrequency() < early.getShootingFrequency());
+    }
+
+    @Test
+    void prefetchedStagesMatchGeneratedOnes() {
+        // Stages are generated fast enough to finish before their prefetch has finished starting.
+        EndlessLevelGenerator generator = new EndlessLevelGenerator(5L, 6);
+        for (int level = 6; level < 500; level++) {
+            GameSettings settings = generator.getSettings(level);
+            GameSettings expected = EndlessLevelGenerator.generate(5L, level - 5);
+            assertEquals(expected.getFormationWidth(), settings.getFormationWidth());
+            assertEquals(expected.getChangeDataList().size(), settings.getChangeDataList().size());
+        }
+    }
+}
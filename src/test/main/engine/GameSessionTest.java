@@ -0,0 +1,94 @@
+package test.main.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import main.engine.DrawManager.SpriteType;
+import main.engine.GameClock;
+import main.engine.GameSession;
+import main.engine.RandomService;
+import main.entity.BulletPool;
+import main.entity.Entity;
+import main.entity.Player.PlayerShipLibrary;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GameSessionTest {
+
+    @Test
+    void sessionsDrawTheirOwnRandomness() throws Exception {
+        GameSession session = GameSession.create();
+        RandomService.seed(42);
+        long first = RandomService.gameplay().nextLong();
+
+        RandomService.seed(42);
+        session.call(() -> {
+            RandomService.seed(7);
+            return RandomService.gameplay().nextLong();
+        });
+        assertEquals(first, RandomService.gameplay().nextLong(), "The default stream moved.");
+    }
+
+    @Test
+    void sessionsKeepTheirOwnClock() throws Exception {
+        GameSession session = GameSession.create();
+        long ticks = session.call(() -> {
+            GameClock.startFixedStep(60);
+            for (int i = 0; i < 120; i++)
+                GameClock.tick();
+            return GameClock.getTicks();
+        });
+        assertEquals(120, ticks);
+        assertEquals(ticks, (long) session.call(GameClock::getTicks));
+        assertTrue(GameClock.now() > System.currentTimeMillis() - 1000, "The default clock left the wall clock.");
+    }
+
+    @Test
+    void sessionsHaveTheirOwnPoolsAndShips() throws Exception {
+        GameSession session = GameSession.create();
+        int created = BulletPool.getCreated();
+        int createdThere = session.call(() -> {
+            BulletPool.getBullet(10, 10, 0, -6, 3, 5, Entity.Team.PLAYER);
+            return BulletPool.getCreated();
+        });
+        assertEquals(1, createdThere);
+        assertEquals(created, BulletPool.getCreated());
+        assertNotSame(PlayerShipLibrary.getShipList().get(SpriteType.Normal),
+                session.call(() -> PlayerShipLibrary.getShipList().get(SpriteType.Normal)));
+    }
+
+    @Test
+    void boundTasksRunInTheirSession() throws Exception {
+        GameSession session = GameSession.create();
+        GameSession seen = session.call(() ->
+                CompletableFuture.supplyAsync(GameSession.current().bind(GameSession::current)).join());
+        assertSame(session, seen);
+        assertTrue(GameSession.current().isDefault());
+    }
+
+    @Test
+    void concurrentSessionsPlayTheSameSequence() throws Exception {
+        List<Future<Long>> sums = new ArrayList<Future<Long>>();
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 16; i++) {
+                sums.add(threads.submit(() -> GameSession.create().call(() -> {
+                    RandomService.seed(1234);
+                    long sum = 0;
+                    for (int n = 0; n < 100_000; n++) {
+                        sum = sum * 31 + RandomService.gameplay().nextInt(1000);
+                        if (n % 1000 == 0)
+                            Thread.yield();
+                    }
+                    return sum;
+                })));
+            }
+        }
+        for (Future<Long> sum : sums)
+            assertEquals(sums.get(0).get(), sum.get());
+    }
+}
@@ -0,0 +1,80 @@
+package test.main.engine;
+
+import main.engine.GameSettings;
+import main.engine.LevelLoader;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LevelLoaderTest {
+
+    @TempDir
+    Path dir;
+
+    private LevelLoader load(String content) throws Exception {
+        Path file = dir.resolve("level.csv");
+        Files.writeString(file, content);
+        return new LevelLoader(file);
+    }
+
+    @Test
+    void indexesStagesAndSkipsComments() throws Exception {
+        LevelLoader loader = load("﻿// & : stage seperator\n&\n6,4,100,2000\n0,0,0,0\n&\n  // note & more\n5,5,90,1500\n");
+
+        assertEquals(2, loader.getStageCount(), "Separators inside comments should be ignored");
+
+        GameSettings first = loader.getSettings(1);
+        assertEquals(6, first.getFormationWidth());
+        assertEquals(1, first.getChangeDataList().size());
+        assertEquals(5, loader.getSettings(2).getFormationHeight());
+    }
+
+    @Test
+    void matchesFullParse() throws Exception {
+        Path file = Path.of("res", "level.csv");
+        LevelLoader loader = new LevelLoader(file);
+        var stages = GameSettings.parseStages(file);
+
+        assertEquals(stages.size(), loader.getStageCount());
+        for (int i = 0; i < stages.size(); i++) {
+            assertEquals(stages.get(i).changeList.size(),
+                    loader.getStage(i + 1).changeList.size(),
+                    "Stage " + (i + 1) + " should parse the same as parseStages");
+        }
+    }
+
+    @Test
+    void readsOptionalSwarmSize() throws Exception {
+        LevelLoader loader = load("6,4,100,2000\n&\n6,4,100,700,160\n&\n6,4,100,700,-1\n");
+
+        assertEquals(0, loader.getSettings(1).getSwarmSize());
+        assertEquals(160, loader.getSettings(2).getSwarmSize());
+        assertNull(loader.getSettings(3), "Negative swarm should be invalid");
+    }
+
+    @Test
+    void badStageIsReportedNotFatal() throws Exception {
+        LevelLoader loader = load("1,1,1,1\n&\nnot,a,stage\n&\n2,2,2,2\n");
+
+        assertEquals(3, loader.getStageCount());
+        assertNull(loader.getSettings(2), "Malformed stage should yield null");
+        assertEquals(2, loader.getSettings(3).getFormationWidth());
+        assertNull(loader.getSettings(4), "Out of range stage should yield null");
+    }
+
+    @Test
+    void prefetchedBadStageIsReportedNotFatal() throws Exception {
+        // Parsing a bad stage fails fast, often before the prefetch has finished starting.
+        for (int i = 0; i < 200; i++) {
+            LevelLoader loader = load("not,a,stage\n&\n2,2,2,2\n");
+            loader.prefetch(1);
+            loader.prefetch(2);
+            assertNull(loader.getSettings(1), "Malformed stage should yield null");
+            assertEquals(2, loader.getSettings(2).getFormationWidth());
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package test.main.engine;
+
+import main.engine.RewindBuffer;
+import main.engine.StateFrame;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RewindBufferTest {
+
+    /** State of a made up tick: a few counters, one of them changing every tick. */
+    private static void write(final StateFrame frame, final int tick) {
+        frame.clear();
+        frame.putLong(tick * 16L);
+        frame.putInt(tick / 7);
+        frame.putFloat(tick * 0.5f);
+        for (int i = 0; i < tick % 5; i++)
+            frame.putInt(-i * tick);
+        frame.putBoolean(tick % 2 == 0);
+    }
+
+    private static void assertTick(final StateFrame frame, final int tick) {
+        StateFrame expected = new StateFrame();
+        write(expected, tick);
+        assertEquals(expected.size(), frame.size(), "size of tick " + tick);
+        while (expected.remaining() > 0)
+            assertEquals(expected.getInt(), frame.getInt(), "tick " + tick);
+    }
+
+    @Test
+    void readsBackEveryTickFromKeyframesAndDeltas() {
+        RewindBuffer rewind = new RewindBuffer(1 << 16, 200);
+        StateFrame frame = new StateFrame();
+        for (int tick = 0; tick < 150; tick++) {
+            write(frame, tick);
+            rewind.capture(frame);
+        }
+        assertEquals(150, rewind.size());
+        StateFrame out = new StateFrame();
+        for (int back = 0; back < 150; back++) {
+            rewind.read(back, out);
+            assertTick(out, 149 - back);
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> rewind.read(150, out));
+    }
+
+    @Test
+    void dropsTheOldestTicksWhenFull() {
+        // Room for a few keyframe intervals only, so the ring wraps many times.
+        RewindBuffer rewind = new RewindBuffer(2048, 100);
+        StateFrame frame = new StateFrame();
+        StateFrame out = new StateFrame();
+        for (int tick = 0; tick < 2000; tick++) {
+            write(frame, tick);
+            rewind.capture(frame);
+            assertTrue(rewind.size() > 0);
+            assertTrue(rewind.size() <= 100 + RewindBuffer.KEYFRAME_INTERVAL);
+            for (int back = 0; back < rewind.size(); back += 13) {
+                rewind.read(back, out);
+                assertTick(out, tick - back);
+            }
+        }
+    }
+
+    @Test
+    void growsWithoutDroppingTicksItHasRoomFor() {
+        // States growing every tick, past the first size of the buffer and after the ring wrapped.
+        RewindBuffer rewind = new RewindBuffer(1 << 20, 40);
+        StateFrame frame = new StateFrame();
+        StateFrame out = new StateFrame();
+        for (int tick = 0; tick < 300; tick++) {
+            frame.clear();
+            for (int i = 0; i < 50 + tick * 10; i++)
+                frame.putInt(i * tick);
+            rewind.capture(frame);
+            assertTrue(rewind.size() >= Math.min(tick + 1, 40));
+            for (int back = 0; back < rewind.size(); back += 7) {
+                rewind.read(back, out);
+                assertEquals(50 + (tick - back) * 10, out.size());
+                for (int i = 0; i < 7; i++)
+                    out.getInt();
+                assertEquals(7 * (tick - back), out.getInt());
+            }
+        }
+    }
+
+    @Test
+    void playsOnFromATruncatedTick() {
+        RewindBuffer rewind = new RewindBuffer(1 << 16, 600);
+        StateFrame frame = new StateFrame();
+        for (int tick = 0; tick < 100; tick++) {
+            write(frame, tick);
+            rewind.capture(frame);
+        }
+        rewind.truncate(30);
+        assertEquals(70, rewind.size());
+        // Tick 69 is played again differently from there on.
+        for (int tick = 1000; tick < 1100; tick++) {
+            write(frame, tick);
+            rewind.capture(frame);
+        }
+        StateFrame out = new StateFrame();
+        rewind.read(100, out);
+        assertTick(out, 69);
+        for (int back = 0; back < 100; back++) {
+            rewind.read(back, out);
+            assertTick(out, 1099 - back);
+        }
+        rewind.truncate(rewind.size());
+        assertEquals(0, rewind.size());
+    }
+
+    @Test
+    void rejectsStatesLargerThanTheBuffer() {
+        RewindBuffer rewind = new RewindBuffer(64, 10);
+        StateFrame frame = new StateFrame();
+        for (int i = 0; i < 100; i++)
+            frame.putInt(i);
+        assertThrows(IllegalArgumentException.class, () -> rewind.capture(frame));
+    }
+}
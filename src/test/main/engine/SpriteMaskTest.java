@@ -0,0 +1,83 @@
+package test.main.engine;
+
+import java.util.SplittableRandom;
+
+import main.engine.SpriteMask;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpriteMaskTest {
+
+    private static boolean[][] randomImage(final SplittableRandom random, final int width, final int height) {
+        boolean[][] image = new boolean[width][height];
+        for (int x = 0; x < width; x++)
+            for (int y = 0; y < height; y++)
+                image[x][y] = random.nextInt(5) == 0;
+        return image;
+    }
+
+    /** Pixel by pixel reference of {@link SpriteMask#overlaps}. */
+    private static boolean overlapsSlowly(final SpriteMask a, final int ax, final int ay,
+                                          final SpriteMask b, final int bx, final int by) {
+        for (int x = 0; x < a.getWidth(); x++)
+            for (int y = 0; y < a.getHeight(); y++) {
+                int otherX = ax + x - bx;
+                int otherY = ay + y - by;
+                if (a.get(x, y) && otherX >= 0 && otherX < b.getWidth() && otherY >= 0
+                        && otherY < b.getHeight() && b.get(otherX, otherY))
+                    return true;
+            }
+        return false;
+    }
+
+    @Test
+    void shiftedRowsMatchPixelByPixel() {
+        SplittableRandom random = new SplittableRandom(5);
+        // The wide one spans two words per row, like the boss.
+        SpriteMask wide = SpriteMask.of(randomImage(random, 72, 48));
+        SpriteMask ship = SpriteMask.of(randomImage(random, 26, 16));
+        SpriteMask bullet = SpriteMask.of(randomImage(random, 3, 5));
+        SpriteMask[] masks = { wide, ship, bullet };
+        int hits = 0;
+        for (int i = 0; i < 5000; i++) {
+            SpriteMask a = masks[random.nextInt(masks.length)];
+            SpriteMask b = masks[random.nextInt(masks.length)];
+            int bx = random.nextInt(-80, 80);
+            int by = random.nextInt(-50, 50);
+            boolean expected = overlapsSlowly(a, 0, 0, b, bx, by);
+            assertEquals(expected, SpriteMask.overlaps(a, 0, 0, b, bx, by), "Offset " + bx + ", " + by);
+            assertEquals(expected, SpriteMask.overlaps(b, bx, by, a, 0, 0));
+            if (expected)
+                hits++;
+        }
+        assertTrue(hits > 0);
+    }
+
+    @Test
+    void scaledMaskIsTheSpriteAsDrawn() {
+        boolean[][] image = { { true, false }, { false, true } };
+        SpriteMask mask = SpriteMask.of(image);
+
+        // Sprites are drawn at twice their size by default.
+        SpriteMask drawn = mask.scaled(4, 4);
+        for (int x = 0; x < 4; x++)
+            for (int y = 0; y < 4; y++)
+                assertEquals(x / 2 == y / 2, drawn.get(x, y), x + ", " + y);
+        assertSame(drawn, mask.scaled(4, 4));
+
+        SpriteMask stretched = mask.scaled(8, 2);
+        assertTrue(stretched.get(3, 0));
+        assertFalse(stretched.get(4, 0));
+        assertTrue(stretched.get(4, 1));
+    }
+
+    @Test
+    void cornersOfBoxesDoNotHit() {
+        boolean[][] dot = new boolean[3][3];
+        dot[1][1] = true;
+        SpriteMask mask = SpriteMask.of(dot);
+        assertFalse(SpriteMask.overlaps(mask, 0, 0, mask, 1, 1));
+        assertTrue(SpriteMask.overlaps(mask, 0, 0, mask, 0, 0));
+    }
+}
@@ -0,0 +1,57 @@
+package test.main.engine.metrics;
+
+import main.engine.metrics.Counter;
+import main.engine.metrics.Histogram;
+import main.engine.metrics.MetricsRegistry;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    private final MetricsRegistry registry = MetricsRegistry.getInstance();
+
+    @Test
+    void sameNameAndLabelsReturnSameMetric() {
+        Counter first = registry.counter("test_lookups_total", "Lookups.", "result", "hit");
+        Counter again = registry.counter("test_lookups_total", "Lookups.", "result", "hit");
+        Counter other = registry.counter("test_lookups_total", "Lookups.", "result", "miss");
+        assertSame(first, again);
+        assertNotSame(first, other);
+    }
+
+    @Test
+    void rejectsTypeClash() {
+        registry.counter("test_clash_total", "Clash.");
+        assertThrows(IllegalArgumentException.class, () -> registry.histogram("test_clash_total", "Clash."));
+    }
+
+    @Test
+    void histogramQuantilesWithinBucketPrecision() {
+        Histogram histogram = registry.histogram("test_quantile_seconds", "Quantiles.");
+        for (long value = 1; value <= 1000; value++)
+            histogram.record(value * 1000);
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500_500_000L, histogram.getSum());
+        long p50 = histogram.getValueAtQuantile(0.5);
+        long p99 = histogram.getValueAtQuantile(0.99);
+        assertTrue(p50 >= 500_000 && p50 <= 500_000 * 1.125, "p50 " + p50);
+        assertTrue(p99 >= 990_000 && p99 <= 990_000 * 1.125, "p99 " + p99);
+    }
+
+    @Test
+    void writesPrometheusText() {
+        Counter counter = registry.counter("test_written_total", "Written.", "kind", "a\"b");
+        counter.add(3);
+        Histogram histogram = registry.histogram("test_written_seconds", "Written.");
+        histogram.record(3_000_000_000L);
+        String text = registry.scrape();
+        assertTrue(text.contains("# TYPE test_written_total counter\n"));
+        assertTrue(text.contains("test_written_total{kind=\"a\\\"b\"} 3\n"));
+        assertTrue(text.contains("test_written_seconds_bucket{le=\"2.147483648\"} 0\n"));
+        assertTrue(text.contains("test_written_seconds_bucket{le=\"4.294967296\"} 1\n"));
+        assertTrue(text.contains("test_written_seconds_bucket{le=\"+Inf\"} 1\n"));
+        assertTrue(text.contains("test_written_seconds_sum 3.0\n"));
+        assertTrue(text.contains("test_written_seconds_count 1\n"));
+    }
+}
@@ -0,0 +1,261 @@
+package test.main.engine.net;
+
+import java.awt.Color;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import main.engine.GameSettings;
+import main.engine.metrics.GameMetrics;
+import main.engine.net.CoopClient;
+import main.engine.net.CoopHost;
+import main.engine.net.CoopProtocol;
+import main.engine.net.EntityState;
+import main.engine.net.Snapshot;
+import main.entity.Bullet;
+import main.entity.Enemy.EnemySwarm;
+import main.entity.Entity;
+import main.screen.Screen;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoopLoopbackTest {
+
+    private static final int WIDTH = 448;
+    private static final int HEIGHT = 520;
+    private static final int TOP = 68;
+
+    /** Inputs the client sent, one per update. */
+    private int inputsSent;
+
+    @Test
+    void clientReceivesWhatHostDescribes() throws Exception {
+        try (CoopHost host = CoopHost.open(0); CoopClient client = join(host)) {
+            Entity ship = new Entity(200, 400, 26, 16, Color.GREEN);
+            Bullet bullet = new Bullet(100, 300, 3, 10, 0, 4);
+
+            int tick = sendSnapshot(host, 1234, ship, bullet);
+            Snapshot snapshot = awaitSnapshot(client, tick, 0);
+            assertEquals(1234, snapshot.get(Snapshot.SCORE));
+            assertEquals(2, snapshot.size());
+            EntityState received = find(snapshot, EntityState.Kind.BULLET);
+            assertEquals(100, received.get(EntityState.X));
+            assertEquals(300, received.get(EntityState.Y));
+            assertEquals(4, received.get(EntityState.SPEED_Y));
+            assertEquals(3, received.get(EntityState.WIDTH));
+        }
+    }
+
+    @Test
+    void bulletsFlyingStraightCostNothing() throws Exception {
+        try (CoopHost host = CoopHost.open(0); CoopClient client = join(host)) {
+            List<Entity> bullets = new ArrayList<>();
+            for (int i = 0; i < 50; i++) {
+                bullets.add(new Bullet(8 * i, 100 + i, 3, 10, 0, 2 + i % 3));
+            }
+            Entity[] entities = bullets.toArray(new Entity[0]);
+            int first = sendSnapshot(host, 0, entities);
+            awaitSnapshot(client, first, 0);
+
+            // Move every bullet the way the snapshot predicts.
+            for (Entity entity : entities)
+                entity.setPositionY(entity.getPositionY() + ((Bullet) entity).getSpeedY() * 3);
+            long before = GameMetrics.COOP_BYTES_SENT.get();
+            int second = sendSnapshot(host, 0, entities);
+            long size = GameMetrics.COOP_BYTES_SENT.get() - before;
+            Snapshot snapshot = awaitSnapshot(client, second, 0);
+
+            assertTrue(size < 16, "Delta snapshot took " + size + " bytes.");
+            assertEquals(50, snapshot.size());
+            assertEquals(bullets.get(7).getPositionY(), find(snapshot, 7 + 1).get(EntityState.Y));
+        }
+    }
+
+    @Test
+    void crowdedScreenStaysUnderFewKilobytesPerSecond() throws Exception {
+        try (CoopHost host = CoopHost.open(0); CoopClient client = join(host)) {
+            List<Bullet> bullets = new ArrayList<>();
+            long sent = 0;
+            int seconds = 5;
+            for (int tick = 0; tick < 60 * seconds; tick++) {
+                // A boss firing a fan of three every 10 ticks, bullets leaving at the bottom.
+                if (tick % 10 == 0) {
+                    for (int i = -1; i <= 1; i++) {
+                        bullets.add(new Bullet(224, 120, 6, 10, i, 3));
+                    }
+                }
+                for (Bullet bullet : bullets) {
+                    bullet.update();
+                }
+                bullets.removeIf(bullet -> bullet.getPositionY() > HEIGHT);
+                if (host.beginSnapshot()) {
+                    for (Bullet bullet : bullets)
+                        host.add(EntityState.Kind.BULLET, bullet);
+                    long before = GameMetrics.COOP_BYTES_SENT.get();
+                    host.sendSnapshot();
+                    sent += GameMetrics.COOP_BYTES_SENT.get() - before;
+                }
+                update(client, 0);
+                Thread.sleep(1);
+                host.poll();
+            }
+            double perSecond = sent / (double) seconds;
+            assertTrue(perSecond < 3000, "Snapshots took " + perSecond + " B/s.");
+            assertTrue(client.getLatest().size() > 30);
+        }
+    }
+
+    @Test
+    void swarmStageStaysUnderFewKilobytesPerSecond() throws Exception {
+        for (int size : new int[] { 160, 3000 }) {
+            try (CoopHost host = CoopHost.open(0); CoopClient client = join(host)) {
+                EnemySwarm swarm = new EnemySwarm(new GameSettings(1, 1, 100, 1000, size));
+                swarm.attach(new Screen(WIDTH, HEIGHT, 60));
+                Entity player = new Entity(200, 460, 26, 16, Color.GREEN);
+                long sent = 0;
+                long largest = 0;
+                int seconds = 5;
+                for (int tick = 0; tick < 60 * seconds; tick++) {
+                    swarm.update(player);
+                    if (host.beginSnapshot()) {
+                        host.add(EntityState.Kind.HOST_SHIP, player);
+                        host.addCrowd(EntityState.Kind.ENEMY, swarm);
+                        long before = GameMetrics.COOP_BYTES_SENT.get();
+                        host.sendSnapshot();
+                        largest = Math.max(largest, GameMetrics.COOP_BYTES_SENT.get() - before);
+                        sent += GameMetrics.COOP_BYTES_SENT.get() - before;
+                    }
+                    update(client, 0);
+                    Thread.sleep(1);
+                    host.poll();
+                }
+                double perSecond = sent / (double) seconds;
+                assertTrue(perSecond < 4000, size + " ships took " + perSecond + " B/s.");
+                // Small enough for a single unfragmented datagram.
+                assertTrue(largest < 1200, size + " ships took " + largest + " bytes in a snapshot.");
+                if (size == 160)
+                    assertEquals(size + 1, client.getLatest().size());
+            }
+        }
+    }
+
+    @Test
+    void thousandsOfBulletsFitInOnePacket() throws Exception {
+        try (CoopHost host = CoopHost.open(0); CoopClient client = join(host)) {
+            Entity[] entities = new Entity[10_001];
+            entities[0] = new Entity(200, 400, 26, 16, Color.GREEN);
+            for (int i = 1; i < entities.length; i++)
+                entities[i] = new Bullet(i * 7 % WIDTH, TOP + i * 13 % (HEIGHT - TOP), 6, 10, i % 5 - 2, 3);
+
+            long before = GameMetrics.COOP_BYTES_SENT.get();
+            int first = sendSnapshot(host, 0, entities);
+            long size = GameMetrics.COOP_BYTES_SENT.get() - before;
+            Snapshot snapshot = awaitSnapshot(client, first, 0);
+            assertTrue(size <= CoopProtocol.MAX_PACKET, "Snapshot took " + size + " bytes.");
+            assertEquals(200, find(snapshot, EntityState.Kind.HOST_SHIP).get(EntityState.X));
+            assertTrue(snapshot.size() > 1000, "Only " + snapshot.size() + " entities sent.");
+            assertTrue(snapshot.size() < entities.length);
+
+            // The bullets left out come next, as long as the packet has room.
+            int sentBefore = snapshot.size();
+            int second = sendSnapshot(host, 0, entities);
+            snapshot = awaitSnapshot(client, second, 0);
+            assertTrue(snapshot.size() > sentBefore);
+            assertEquals(400, find(snapshot, EntityState.Kind.HOST_SHIP).get(EntityState.Y));
+        }
+    }
+
+    @Test
+    void clientPredictsOwnShipFromUnappliedInput() throws Exception {
+        try (CoopHost host = CoopHost.open(0); CoopClient client = join(host)) {
+            Entity partner = new Entity(100, 400, 26, 16, Color.GREEN);
+            int tick = beginSnapshot(host);
+            host.set(Snapshot.FLAGS, Snapshot.FLAG_PLAYING);
+            host.set(Snapshot.MOVE_SPEED, 2);
+            host.add(EntityState.Kind.PARTNER_SHIP, partner);
+            host.sendSnapshot();
+            int firstRight = inputsSent + 1;
+            Snapshot snapshot = awaitSnapshot(client, tick, CoopProtocol.RIGHT);
+
+            // The host applied none of the right presses, the client moves by all of them.
+            int[] position = client.predictOwnShip(new int[2]);
+            int unapplied = inputsSent - Math.max(snapshot.getInputAck(), firstRight - 1);
+            assertEquals(100 + 2 * unapplied, position[0]);
+            assertEquals(400, position[1]);
+        }
+    }
+
+    @Test
+    void movementStopsAtBorders() {
+        assertEquals(WIDTH - 1 - 26, CoopProtocol.moveX(WIDTH - 1 - 26, 26, 2, CoopProtocol.RIGHT, WIDTH));
+        assertEquals(1, CoopProtocol.moveX(1, 26, 2, CoopProtocol.LEFT, WIDTH));
+        assertEquals(TOP, CoopProtocol.moveY(TOP, 16, 2, CoopProtocol.UP, TOP, HEIGHT));
+        assertEquals(TOP + 2, CoopProtocol.moveY(TOP, 16, 2, CoopProtocol.DOWN, TOP, HEIGHT));
+    }
+
+    /** Joins a host and waits until it sees the partner. */
+    private CoopClient join(final CoopHost host) throws Exception {
+        CoopClient client = CoopClient.connect(
+                new InetSocketAddress(InetAddress.getLoopbackAddress(), host.getPort()), WIDTH, HEIGHT, TOP);
+        for (int i = 0; i < 1000 && !host.hasPartner(); i++) {
+            update(client, 0);
+            Thread.sleep(1);
+            host.poll();
+        }
+        assertTrue(host.hasPartner());
+        return client;
+    }
+
+    /** Describes the entities in the next snapshot of the host and sends it. */
+    private int sendSnapshot(final CoopHost host, final int score, final Entity... entities) {
+        int tick = beginSnapshot(host);
+        host.set(Snapshot.SCORE, score);
+        for (Entity entity : entities)
+            host.add(entity instanceof Bullet ? EntityState.Kind.BULLET : EntityState.Kind.HOST_SHIP, entity);
+        host.sendSnapshot();
+        return tick;
+    }
+
+    /** Advances the host to its next snapshot. */
+    private static int beginSnapshot(final CoopHost host) {
+        host.poll();
+        while (!host.beginSnapshot())
+            host.poll();
+        return host.getTick();
+    }
+
+    private Snapshot awaitSnapshot(final CoopClient client, final int tick, final int input) throws Exception {
+        for (int i = 0; i < 1000; i++) {
+            update(client, input);
+            Snapshot latest = client.getLatest();
+            if (latest != null && latest.getTick() >= tick) {
+                // Acknowledge it, so the next snapshot is a delta.
+                update(client, input);
+                Thread.sleep(5);
+                return latest;
+            }
+            Thread.sleep(1);
+        }
+        throw new AssertionError("No snapshot received.");
+    }
+
+    private void update(final CoopClient client, final int input) {
+        client.update(input);
+        inputsSent++;
+    }
+
+    private static EntityState find(final Snapshot snapshot, final EntityState.Kind kind) {
+        for (int i = 0; i < snapshot.size(); i++)
+            if (snapshot.getEntity(i).getKind() == kind)
+                return snapshot.getEntity(i);
+        throw new AssertionError("No " + kind + " in the snapshot.");
+    }
+
+    private static EntityState find(final Snapshot snapshot, final int id) {
+        EntityState state = snapshot.find(id);
+        assertNotNull(state);
+        return state;
+    }
+}
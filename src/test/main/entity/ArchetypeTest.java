@@ -0,0 +1,114 @@
+package test.main.entity;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import main.entity.Archetype;
+import main.entity.Bullet;
+import main.entity.Entity;
+import main.entity.EntitySystems;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArchetypeTest {
+
+    private Archetype<Bullet> bullets;
+
+    @BeforeEach
+    void setUp() {
+        bullets = Bullet.newArchetype();
+    }
+
+    @Test
+    void bulletsAreViewsOverTheirRow() {
+        Bullet bullet = new Bullet(10, 20, 3, 5, 1, -4);
+        bullet.setTeam(Entity.Team.PLAYER);
+        bullets.add(bullet);
+
+        bullet.setPositionX(15);
+        assertEquals(15, bullets.column(Archetype.Component.X)[0]);
+        bullets.column(Archetype.Component.Y)[0] = 30;
+        assertEquals(30, bullet.getPositionY());
+        assertEquals(Entity.Team.PLAYER, bullet.getTeam());
+
+        // Leaving keeps what was written while in the archetype.
+        bullets.remove(bullet);
+        assertEquals(15, bullet.getPositionX());
+        assertEquals(30, bullet.getPositionY());
+        assertEquals(-4, bullet.getSpeedY());
+        assertFalse(bullets.contains(bullet));
+    }
+
+    @Test
+    void removalKeepsTheOrderOfTheRest() {
+        List<Bullet> added = new ArrayList<Bullet>();
+        for (int i = 0; i < 100; i++) {
+            Bullet bullet = new Bullet(i, 0, 3, 5, 0, 1);
+            added.add(bullet);
+            bullets.add(bullet);
+        }
+        Set<Bullet> removed = Set.of(added.get(0), added.get(1), added.get(50), added.get(99));
+        bullets.removeAll(removed);
+        added.removeAll(removed);
+
+        assertEquals(added.size(), bullets.size());
+        int row = 0;
+        for (Bullet bullet : bullets) {
+            assertSame(added.get(row), bullet);
+            assertEquals(bullet.getPositionX(), bullets.column(Archetype.Component.X)[row]);
+            row++;
+        }
+    }
+
+    @Test
+    void moveMatchesUpdatingEachBullet() {
+        Bullet inside = new Bullet(50, 100, 3, 5, 2, -3);
+        Bullet outside = new Bullet(50, 100, 3, 5, 2, -3);
+        bullets.add(inside);
+        for (int i = 0; i < 10; i++) {
+            EntitySystems.move(bullets);
+            outside.update();
+        }
+        assertEquals(outside.getPositionX(), inside.getPositionX());
+        assertEquals(outside.getPositionY(), inside.getPositionY());
+
+        List<Bullet> gone = new ArrayList<Bullet>();
+        EntitySystems.collectOutside(bullets, 80, 200, gone);
+        assertEquals(List.of(inside), gone);
+    }
+
+    @Test
+    void broadPhaseMarksExactlyTheOverlaps() {
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 1000; i++)
+            bullets.add(new Bullet(random.nextInt(448), random.nextInt(520), random.nextInt(1, 8),
+                    random.nextInt(1, 12), 0, 1));
+        Entity ship = new Entity(200, 400, 26, 16, Color.GREEN);
+        Entity other = new Entity(10, 100, 21, 9, Color.GREEN);
+
+        boolean[] marks = EntitySystems.clearMarks(bullets);
+        EntitySystems.markOverlaps(bullets, ship);
+        EntitySystems.markOverlaps(bullets, other);
+        int marked = 0;
+        for (int row = 0; row < bullets.size(); row++) {
+            boolean expected = EntitySystems.overlaps(bullets, row, ship)
+                    || EntitySystems.overlaps(bullets, row, other);
+            assertEquals(expected, marks[row], "Row " + row + (EntitySystems.isVectorized() ? " in vector lanes" : ""));
+            if (marks[row])
+                marked++;
+        }
+        assertTrue(marked > 0);
+    }
+
+    @Test
+    void entityIsInOneArchetypeAtATime() {
+        Bullet bullet = new Bullet(0, 0, 3, 5, 0, 1);
+        bullets.add(bullet);
+        assertFalse(bullets.add(bullet));
+        assertThrows(IllegalStateException.class, () -> Bullet.newArchetype().add(bullet));
+    }
+}
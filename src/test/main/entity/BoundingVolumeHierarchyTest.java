@@ -0,0 +1,84 @@
+package test.main.entity;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import main.entity.Boss;
+import main.entity.BossPart;
+import main.entity.BoundingVolumeHierarchy;
+import main.entity.Entity;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundingVolumeHierarchyTest {
+
+    private static boolean overlaps(final Entity part, final int x, final int y, final int width, final int height) {
+        return x < part.getPositionX() + part.getWidth() && x + width > part.getPositionX()
+                && y < part.getPositionY() + part.getHeight() && y + height > part.getPositionY();
+    }
+
+    @Test
+    void queryFindsExactlyTheSolidPartsHit() {
+        SplittableRandom random = new SplittableRandom(11);
+        List<Entity> parts = new ArrayList<Entity>();
+        for (int i = 0; i < 9; i++)
+            parts.add(new Entity(random.nextInt(100), random.nextInt(60), random.nextInt(4, 30),
+                    random.nextInt(4, 20), Color.RED));
+        Set<Entity> broken = new HashSet<Entity>();
+        BoundingVolumeHierarchy<Entity> hierarchy =
+                new BoundingVolumeHierarchy<Entity>(parts, part -> !broken.contains(part));
+
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < 2000; i++) {
+                int x = random.nextInt(-20, 160);
+                int y = random.nextInt(-20, 120);
+                Entity found = hierarchy.query(x, y, 4, 10);
+                boolean anyHit = false;
+                for (Entity part : parts)
+                    anyHit |= !broken.contains(part) && overlaps(part, x, y, 4, 10);
+                assertEquals(anyHit, found != null, "Box at " + x + ", " + y);
+                if (found != null) {
+                    assertFalse(broken.contains(found));
+                    assertTrue(overlaps(found, x, y, 4, 10));
+                }
+            }
+            // Parts move and break between ticks.
+            for (Entity part : parts)
+                part.setPositionX(part.getPositionX() + 7);
+            broken.add(parts.get(round * 3));
+            hierarchy.refit();
+        }
+    }
+
+    @Test
+    void armorSoaksHitsUntilItBreaks() {
+        Boss boss = new Boss(100, 50);
+        BossPart engine = null;
+        for (BossPart part : boss.getParts())
+            if (part.isArmored())
+                engine = part;
+        assertNotNull(engine);
+        int x = engine.getPositionX() + engine.getWidth() / 2;
+        int y = engine.getPositionY() + engine.getHeight() / 2;
+        assertSame(engine, boss.partAt(x, y, 1, 1));
+
+        float hp = boss.getStats().getHp();
+        boss.hit(engine, engine.getMaxArmor());
+        assertEquals(hp, boss.getStats().getHp());
+        assertTrue(engine.isBroken());
+        assertNotSame(engine, boss.partAt(x, y, 1, 1));
+
+        BossPart weakPoint = null;
+        for (BossPart part : boss.getParts())
+            if (part.isWeakPoint())
+                weakPoint = part;
+        boss.hit(weakPoint, 5);
+        assertEquals(hp - 5 * weakPoint.getDamageMultiplier(), boss.getStats().getHp());
+        assertNull(boss.partAt(0, 0, 4, 10));
+    }
+}
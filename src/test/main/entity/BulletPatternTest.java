@@ -0,0 +1,87 @@
+package test.main.entity;
+
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Set;
+
+import main.engine.GameClock;
+import main.engine.GameSession;
+import main.entity.Bullet;
+import main.entity.BulletEmitter;
+import main.entity.BulletPattern;
+import main.entity.BulletPatternLibrary;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulletPatternTest {
+
+    private static BulletPattern compile(final String source) {
+        return BulletPattern.parse(source).values().iterator().next();
+    }
+
+    @Test
+    void compilesTheShippedPatterns() {
+        BulletPatternLibrary library = new BulletPatternLibrary(Paths.get("res", "bullet_patterns.txt"));
+        for (String name : new String[] { "boss_straight", "boss_spread", "boss_barrage" })
+            assertNotSame(BulletPattern.NONE, library.get(name), name);
+        assertSame(BulletPattern.NONE, library.get("missing"));
+    }
+
+    @Test
+    void errorsNameTheirLine() {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> BulletPattern.parse("pattern a\n  loop\n    shot 0 5\n  end\nend\n"));
+        assertTrue(error.getMessage().startsWith("line 4:"), error.getMessage());
+        error = assertThrows(IllegalArgumentException.class,
+                () -> BulletPattern.parse("// comment\npattern a\n  shoot 0 5\nend\n"));
+        assertTrue(error.getMessage().startsWith("line 3:"), error.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> BulletPattern.parse("pattern a\n  ring 0 5\nend\n"));
+        assertThrows(IllegalArgumentException.class, () -> BulletPattern.parse("pattern a\n  wait 10\n"));
+    }
+
+    @Test
+    void ringsFireEvenlyAndWaitBetweenVolleys() throws Exception {
+        BulletPattern ring = compile("pattern ring\n  loop\n    ring 4 5\n    wait 100\n  end\nend\n");
+        GameSession.create().call(() -> {
+            GameClock.startFixedStep(60);
+            BulletEmitter emitter = new BulletEmitter(ring);
+            Set<Bullet> bullets = new HashSet<Bullet>();
+            emitter.update(100, 100, null, bullets);
+            Set<String> speeds = new HashSet<String>();
+            for (Bullet bullet : bullets)
+                speeds.add(bullet.getSpeedX() + "," + bullet.getSpeedY());
+            assertEquals(Set.of("5,0", "0,5", "-5,0", "0,-5"), speeds);
+
+            // 100 ms are 6 ticks, the volley after comes on the next one.
+            for (int tick = 0; tick < 6; tick++) {
+                GameClock.tick();
+                emitter.update(100, 100, null, bullets);
+            }
+            assertEquals(4, bullets.size());
+            GameClock.tick();
+            emitter.update(100, 100, null, bullets);
+            assertEquals(8, bullets.size());
+            return null;
+        });
+    }
+
+    @Test
+    void repeatsRunTheirBodyAndPatternsEnd() throws Exception {
+        BulletPattern column = compile("pattern column\n  size 4 10\n  repeat 3\n    shot 0 6\n    step 0 15\n"
+                + "  end\nend\n");
+        GameSession.create().call(() -> {
+            BulletEmitter emitter = new BulletEmitter(column);
+            Set<Bullet> bullets = new HashSet<Bullet>();
+            emitter.update(100, 100, null, bullets);
+            emitter.update(100, 100, null, bullets);
+            Set<Integer> rows = new HashSet<Integer>();
+            for (Bullet bullet : bullets) {
+                assertEquals(10, bullet.getHeight());
+                rows.add(bullet.getPositionY());
+            }
+            assertEquals(Set.of(100, 115, 130), rows);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,111 @@
+package test.main.entity.Enemy;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+import main.engine.GameSettings;
+import main.entity.Enemy.EnemyShip;
+import main.entity.Enemy.EnemySwarm;
+import main.entity.Entity;
+import main.screen.Screen;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnemySwarmTest {
+
+    private static final int WIDTH = 448;
+    private static final int HEIGHT = 520;
+
+    private static EnemySwarm swarm(final int size) {
+        EnemySwarm swarm = new EnemySwarm(new GameSettings(1, 1, 100, 1000, size));
+        swarm.attach(new Screen(WIDTH, HEIGHT, 60));
+        return swarm;
+    }
+
+    private static List<Integer> positions(final EnemySwarm swarm) {
+        List<Integer> positions = new ArrayList<Integer>();
+        for (EnemyShip ship : swarm) {
+            positions.add(ship.getPositionX());
+            positions.add(ship.getPositionY());
+        }
+        return positions;
+    }
+
+    @Test
+    void largeSwarmsStepTheSameOnEveryRun() {
+        // Large enough to be steered in parallel.
+        EnemySwarm first = swarm(3000);
+        EnemySwarm second = swarm(3000);
+        Entity player = new Entity(200, 460, 26, 16, Color.GREEN);
+        for (int tick = 0; tick < 30; tick++) {
+            first.update(player);
+            second.update(player);
+        }
+        assertEquals(positions(first), positions(second));
+        for (EnemyShip ship : first) {
+            assertTrue(ship.getPositionX() >= 0 && ship.getPositionX() < WIDTH);
+            assertTrue(ship.getPositionY() > 0 && ship.getPositionY() < HEIGHT * 2 / 3);
+        }
+    }
+
+    @Test
+    void findsExactlyTheShipsOverABox() {
+        EnemySwarm swarm = swarm(400);
+        Entity player = new Entity(100, 460, 26, 16, Color.GREEN);
+        for (int tick = 0; tick < 10; tick++)
+            swarm.update(player);
+
+        for (int x = 0; x < WIDTH; x += 7) {
+            for (int y = 60; y < 320; y += 9) {
+                final int boxX = x;
+                final int boxY = y;
+                boolean expected = false;
+                for (EnemyShip ship : swarm)
+                    expected |= boxX < ship.getPositionX() + ship.getWidth() && boxX + 6 > ship.getPositionX()
+                            && boxY < ship.getPositionY() + ship.getHeight() && boxY + 10 > ship.getPositionY();
+                EnemyShip found = swarm.find(x, y, 6, 10, ship -> boxX < ship.getPositionX() + ship.getWidth()
+                        && boxX + 6 > ship.getPositionX() && boxY < ship.getPositionY() + ship.getHeight()
+                        && boxY + 10 > ship.getPositionY());
+                assertEquals(expected, found != null, "Box at " + x + ", " + y);
+            }
+        }
+    }
+
+    @Test
+    void destroyedShipsLeaveAtTheNextUpdate() {
+        EnemySwarm swarm = swarm(10);
+        EnemyShip ship = swarm.iterator().next();
+        swarm.destroy(ship);
+        assertEquals(9, swarm.getShipCount());
+        assertNull(swarm.find(ship.getPositionX(), ship.getPositionY(), 1, 1, other -> other == ship));
+
+        swarm.update(null);
+        int left = 0;
+        for (EnemyShip other : swarm) {
+            assertNotSame(ship, other);
+            left++;
+        }
+        assertEquals(9, left);
+    }
+
+    @Test
+    void survivorsSteerOnlyAgainstEachOther() {
+        // The first ship of every swarm starts at the center, at rest.
+        EnemySwarm alone = swarm(1);
+        EnemySwarm crowd = swarm(50);
+        List<EnemyShip> others = new ArrayList<EnemyShip>();
+        for (EnemyShip ship : crowd)
+            others.add(ship);
+        for (EnemyShip ship : others.subList(1, others.size()))
+            crowd.destroy(ship);
+
+        Entity player = new Entity(200, 460, 26, 16, Color.GREEN);
+        for (int tick = 0; tick < 5; tick++) {
+            alone.update(player);
+            crowd.update(player);
+            assertEquals(positions(alone), positions(crowd), "Tick " + tick);
+        }
+    }
+}
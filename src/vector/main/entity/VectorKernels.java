@@ -0,0 +1,69 @@
+package main.entity;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Kernels working on as many rows at once as the CPU has int lanes. Kept
+ * out of src/main since they need {@code --add-modules
+ * jdk.incubator.vector} to compile, and only loaded by
+ * {@link EntitySystems} when the JVM runs with it. Rows past the last full
+ * vector are done one at a time.
+ */
+final class VectorKernels implements EntityKernels {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public void move(final int[] x, final int[] y, final int[] speedX, final int[] speedY, final int size) {
+        int bound = SPECIES.loopBound(size);
+        for (int row = 0; row < bound; row += SPECIES.length()) {
+            IntVector.fromArray(SPECIES, y, row).add(IntVector.fromArray(SPECIES, speedY, row)).intoArray(y, row);
+            if (speedX != null)
+                IntVector.fromArray(SPECIES, x, row).add(IntVector.fromArray(SPECIES, speedX, row))
+                        .intoArray(x, row);
+        }
+        for (int row = bound; row < size; row++) {
+            y[row] += speedY[row];
+            if (speedX != null)
+                x[row] += speedX[row];
+        }
+    }
+
+    @Override
+    public void markOutside(final int[] y, final int size, final int top, final int bottom, final boolean[] marks) {
+        int bound = SPECIES.loopBound(size);
+        for (int row = 0; row < bound; row += SPECIES.length()) {
+            IntVector rows = IntVector.fromArray(SPECIES, y, row);
+            rows.lt(top).or(rows.compare(VectorOperators.GT, bottom)).intoArray(marks, row);
+        }
+        for (int row = bound; row < size; row++)
+            marks[row] = y[row] < top || y[row] > bottom;
+    }
+
+    @Override
+    public void markOverlaps(final int[] x, final int[] y, final int[] width, final int[] height, final int size,
+                             final int centerX, final int centerY, final int halfWidth, final int halfHeight,
+                             final boolean[] marks) {
+        int bound = SPECIES.loopBound(size);
+        for (int row = 0; row < bound; row += SPECIES.length()) {
+            IntVector w = IntVector.fromArray(SPECIES, width, row).lanewise(VectorOperators.ASHR, 1);
+            IntVector h = IntVector.fromArray(SPECIES, height, row).lanewise(VectorOperators.ASHR, 1);
+            VectorMask<Integer> overlapX = IntVector.fromArray(SPECIES, x, row).add(w).sub(centerX).abs()
+                    .lt(w.add(halfWidth));
+            VectorMask<Integer> overlapY = IntVector.fromArray(SPECIES, y, row).add(h).sub(centerY).abs()
+                    .lt(h.add(halfHeight));
+            VectorMask<Integer> hits = overlapX.and(overlapY);
+            if (hits.anyTrue())
+                hits.or(VectorMask.fromArray(SPECIES, marks, row)).intoArray(marks, row);
+        }
+        for (int row = bound; row < size; row++) {
+            int w = width[row] >> 1;
+            int h = height[row] >> 1;
+            if (Math.abs(x[row] + w - centerX) < w + halfWidth && Math.abs(y[row] + h - centerY) < h + halfHeight)
+                marks[row] = true;
+        }
+    }
+}